@@ -0,0 +1,38 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Time to the first result in a JVM that hasn't used dsl4xml yet - building
+ * a reader and reading one document with it, as the first request to a newly
+ * started service would. Each measurement is a fork of its own; see
+ * ColdStartHarness for the same measured from the start of a fresh JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ColdStartBenchmark {
+
+    @Param({
+        "gson:member-1", "tableDriven:member-1", "gson:objectArrays", "tableDriven:objectArrays",
+        "sax:example1", "pull:example1", "sax:example4", "pull:example4"
+    })
+    public String reader;
+
+    private String document;
+
+    @Setup
+    public void setUp() {
+        document = Startup.loadDocument(reader);
+    }
+
+    @Benchmark
+    public Object firstResult() {
+        return Startup.read(Startup.newReader(reader), document);
+    }
+}
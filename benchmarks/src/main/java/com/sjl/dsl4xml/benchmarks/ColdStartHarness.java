@@ -0,0 +1,101 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures time to the first result from the start of a fresh JVM, for each
+ * reader (see {@link Startup}) - which JMH's forks can't, having loaded and
+ * warmed up JMH first. Each run starts a new JVM that loads the document,
+ * builds the reader and reads the document once, and reports how long after
+ * the JVM started it had its result, and how long building the reader and
+ * reading took. The harness prints the median and range of each over the
+ * runs:
+ *
+ *     java -cp benchmarks.jar com.sjl.dsl4xml.benchmarks.ColdStartHarness [-runs n] [reader ...]
+ */
+public class ColdStartHarness {
+
+    private static final String PROBE = "-probe";
+
+    public static void main(String... anArgs) throws Exception {
+        if ((anArgs.length == 2) && PROBE.equals(anArgs[0])) {
+            probe(anArgs[1]);
+            return;
+        }
+
+        int _runs = 10;
+        List<String> _readers = new ArrayList<String>();
+        for (int i=0; i<anArgs.length; i++) {
+            if ("-runs".equals(anArgs[i])) {
+                _runs = Integer.parseInt(anArgs[++i]);
+            } else {
+                _readers.add(anArgs[i]);
+            }
+        }
+        if (_readers.isEmpty())
+            _readers.addAll(Arrays.asList(Startup.READERS));
+
+        System.out.println(String.format("%-26s %22s %22s %22s", "reader (ms, median [min-max])", "jvm start to result", "build", "first read"));
+        for (String _reader : _readers) {
+            double[][] _times = new double[3][_runs];
+            for (int i=0; i<_runs; i++) {
+                double[] _run = run(_reader);
+                for (int j=0; j<3; j++) {
+                    _times[j][i] = _run[j];
+                }
+            }
+            System.out.println(String.format("%-26s %22s %22s %22s", _reader, describe(_times[0]), describe(_times[1]), describe(_times[2])));
+        }
+    }
+
+    private static double[] run(String aReader) throws Exception {
+        String _java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process _process = new ProcessBuilder(
+            _java, "-cp", System.getProperty("java.class.path"), ColdStartHarness.class.getName(), PROBE, aReader
+        ).redirectErrorStream(true).start();
+
+        BufferedReader _out = new BufferedReader(new InputStreamReader(_process.getInputStream()));
+        String _last = null;
+        for (String _line = _out.readLine(); _line != null; _line = _out.readLine()) {
+            _last = _line;
+        }
+        if ((_process.waitFor() != 0) || (_last == null))
+            throw new IllegalStateException("Run of " + aReader + " failed: " + _last);
+
+        String[] _parts = _last.trim().split(" ");
+        return new double[] {
+            Double.parseDouble(_parts[0]), Double.parseDouble(_parts[1]), Double.parseDouble(_parts[2])
+        };
+    }
+
+    private static String describe(double[] aTimes) {
+        double[] _sorted = aTimes.clone();
+        Arrays.sort(_sorted);
+        return String.format("%.1f [%.1f-%.1f]", _sorted[_sorted.length / 2], _sorted[0], _sorted[_sorted.length - 1]);
+    }
+
+    /**
+     * Runs in the fresh JVM, printing the milliseconds from the JVM's start to
+     * the result, to build the reader, and to read the document.
+     */
+    private static void probe(String aReader) {
+        String _document = Startup.loadDocument(aReader);
+
+        long _start = System.nanoTime();
+        Object _reader = Startup.newReader(aReader);
+        long _built = System.nanoTime();
+        Startup.read(_reader, _document);
+        long _read = System.nanoTime();
+        long _now = System.currentTimeMillis();
+
+        // only now, so that loading the management classes isn't counted
+        long _sinceStart = _now - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println(_sinceStart + " " + ((_built - _start) / 1e6) + " " + ((_read - _built) / 1e6));
+    }
+}
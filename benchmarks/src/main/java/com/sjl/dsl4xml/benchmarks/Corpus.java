@@ -0,0 +1,202 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.io.Reader;
+import java.util.Random;
+
+/**
+ * A synthetic document of (about) any size, in one of the shapes the json
+ * definitions and xml examples read - a header, as many records as it takes
+ * to reach the size, and a footer. Documents are generated as they are read,
+ * from a fixed set of records cycled over, so a gigabyte document costs no
+ * more memory than a kilobyte one, and the same shape and size always reads
+ * the same.
+ *
+ * Json shapes are those of JsonDocumentDefinitions - objectArrays,
+ * simplePropertyArrays and arraysOfArrays (whose inner arrays are the given
+ * width) - and nested, chains of objects of the given depth. Xml shapes are
+ * tweets, entries as in the twitter feed, and books, as in the README.
+ */
+final class Corpus {
+
+    private static final int VARIANTS = 64;
+    private static final String[] WORDS = {
+        "apples", "oranges", "bananas", "one", "two", "three", "hobbit",
+        "ring", "adventure", "little", "guy", "goes", "comes", "back", "UML",
+        "use", "cases", "lecture", "note", "de", "sports", "info", "#bookReview"
+    };
+
+    /**
+     * @param aSize a number of bytes, optionally suffixed KB, MB or GB
+     */
+    static long parseSize(String aSize) {
+        String _size = aSize.trim().toUpperCase();
+        long _multiplier = 1;
+        if (_size.endsWith("KB")) {
+            _multiplier = 1024L;
+        } else if (_size.endsWith("MB")) {
+            _multiplier = 1024L * 1024;
+        } else if (_size.endsWith("GB")) {
+            _multiplier = 1024L * 1024 * 1024;
+        }
+        if (_multiplier > 1)
+            _size = _size.substring(0, _size.length() - 2);
+        return Long.parseLong(_size.trim()) * _multiplier;
+    }
+
+    static Corpus generate(String aShape, long aSize, int aDepth, int aWidth) {
+        Random _random = new Random(42);
+        String[] _records = new String[VARIANTS];
+        if ("objectArrays".equals(aShape)) {
+            for (int i=0; i<VARIANTS; i++) {
+                _records[i] = "{\"myProperty\":\"" + words(_random, 4) + "\"}";
+            }
+            return new Corpus("{\"someProperty\":\"hello\",\"simples\":[", _records, ",", "]}", aSize);
+        } else if ("simplePropertyArrays".equals(aShape)) {
+            for (int i=0; i<VARIANTS; i++) {
+                _records[i] = "\"" + words(_random, 4) + "\"";
+            }
+            return new Corpus("{\"someProperty\":\"hello\",\"strings\":[", _records, ",", "]}", aSize);
+        } else if ("arraysOfArrays".equals(aShape)) {
+            for (int i=0; i<VARIANTS; i++) {
+                StringBuilder _sb = new StringBuilder("[");
+                for (int j=0; j<aWidth; j++) {
+                    _sb.append((j > 0) ? "," : "").append('"').append(words(_random, 2)).append('"');
+                }
+                _records[i] = _sb.append(']').toString();
+            }
+            return new Corpus("{\"arrays\":[", _records, ",", "]}", aSize);
+        } else if ("nested".equals(aShape)) {
+            for (int i=0; i<VARIANTS; i++) {
+                StringBuilder _sb = new StringBuilder();
+                for (int j=0; j<aDepth; j++) {
+                    _sb.append((j > 0) ? ",\"child\":" : "").append("{\"name\":\"").append(words(_random, 2)).append('"');
+                }
+                for (int j=0; j<aDepth; j++) {
+                    _sb.append('}');
+                }
+                _records[i] = _sb.toString();
+            }
+            return new Corpus("{\"nodes\":[", _records, ",", "]}", aSize);
+        } else if ("tweets".equals(aShape)) {
+            for (int i=0; i<VARIANTS; i++) {
+                String _user = words(_random, 1);
+                _records[i] =
+                    "<entry><id>tag:search.twitter.com,2005:" + (189294182681165824L + i) + "</id>" +
+                    "<published>2012-04-09T10:" + (10 + (i % 50)) + ":24Z</published>" +
+                    "<title>" + words(_random, 12) + "</title>" +
+                    "<content type=\"html\">" + words(_random, 12) + " &lt;em&gt;" + words(_random, 2) + "&lt;/em&gt;</content>" +
+                    "<twitter:lang>en</twitter:lang>" +
+                    "<author><name>" + _user + "</name><uri>http://twitter.com/" + _user + "</uri></author></entry>";
+            }
+            return new Corpus(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?><feed xmlns=\"http://www.w3.org/2005/Atom\" xmlns:twitter=\"http://api.twitter.com/\">",
+                _records, "\n", "</feed>", aSize);
+        } else if ("books".equals(aShape)) {
+            for (int i=0; i<VARIANTS; i++) {
+                _records[i] = "<book><title>" + words(_random, 3) + "</title><synopsis>" + words(_random, 10) + "</synopsis></book>";
+            }
+            return new Corpus("<books>", _records, "\n", "</books>", aSize);
+        }
+        throw new IllegalArgumentException("No such shape: " + aShape);
+    }
+
+    private static String words(Random aRandom, int aCount) {
+        StringBuilder _sb = new StringBuilder();
+        for (int i=0; i<aCount; i++) {
+            _sb.append((i > 0) ? " " : "").append(WORDS[aRandom.nextInt(WORDS.length)]);
+        }
+        return _sb.toString();
+    }
+
+    private String header;
+    private String[] records;
+    private String separator;
+    private String footer;
+    private long count;
+    private long length;
+
+    private Corpus(String aHeader, String[] aRecords, String aSeparator, String aFooter, long aSize) {
+        header = aHeader;
+        records = aRecords;
+        separator = aSeparator;
+        footer = aFooter;
+
+        long _perCycle = 0;
+        for (String _record : aRecords) {
+            _perCycle += _record.length() + aSeparator.length();
+        }
+        long _body = aSize - aHeader.length() - aFooter.length();
+        count = Math.max(1, (_body * aRecords.length) / _perCycle);
+
+        length = aHeader.length() + aFooter.length() + ((count - 1) * aSeparator.length());
+        for (long i=0; i<count; i++) {
+            length += aRecords[(int) (i % aRecords.length)].length();
+        }
+    }
+
+    /**
+     * @return the number of records in the document
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the length of the document, in chars (and bytes - the
+     * documents are all ascii)
+     */
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * @return a reader of the whole document, from the start
+     */
+    Reader newReader() {
+        return new CorpusReader();
+    }
+
+    private class CorpusReader extends Reader {
+        private String segment = header;
+        private int position;
+        // the index of the next record, doubled - odd indexes are separators
+        private long next;
+
+        @Override
+        public int read(char[] aBuffer, int anOffset, int aLength) {
+            int _read = 0;
+            while ((_read < aLength) && (segment != null)) {
+                if (position == segment.length()) {
+                    if (!nextSegment())
+                        break;
+                    continue;
+                }
+                int _n = Math.min(aLength - _read, segment.length() - position);
+                segment.getChars(position, position + _n, aBuffer, anOffset + _read);
+                position += _n;
+                _read += _n;
+            }
+            return ((_read == 0) && (aLength > 0)) ? -1 : _read;
+        }
+
+        private boolean nextSegment() {
+            long _last = (count * 2) - 1;
+            if (next < _last) {
+                segment = ((next % 2) == 0) ? records[(int) ((next / 2) % records.length)] : separator;
+            } else if (next == _last) {
+                segment = footer;
+            } else {
+                segment = null;
+                return false;
+            }
+            next++;
+            position = 0;
+            return true;
+        }
+
+        @Override
+        public void close() {
+            segment = null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sjl.dsl4xml.support.StringConverter;
+import com.sjl.dsl4xml.support.convert.CompiledDateStringConverter;
+import com.sjl.dsl4xml.support.convert.ThreadSafeDateStringConverter;
+
+/**
+ * Cost of converting a feed's worth of timestamps (a few minutes apart, so
+ * mostly on the same day) with a compiled pattern, compared with the
+ * ThreadLocal SimpleDateFormat the thread-safe converter used to rely on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateConverterBenchmark {
+
+    private static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+
+    @Param({"1000"})
+    public int size;
+
+    private String[] timestamps;
+    private StringConverter<Date> compiled;
+    private StringConverter<Date> threadSafe;
+    private ThreadLocal<SimpleDateFormat> simpleDateFormat;
+
+    @Setup
+    public void setUp() throws Exception {
+        SimpleDateFormat _f = new SimpleDateFormat(PATTERN);
+        long _start = _f.parse("2013-05-01T09:00:00").getTime();
+        timestamps = new String[size];
+        for (int i=0; i<size; i++) {
+            timestamps[i] = _f.format(new Date(_start + (i * 73000L)));
+        }
+
+        compiled = new CompiledDateStringConverter(PATTERN);
+        threadSafe = new ThreadSafeDateStringConverter(PATTERN);
+        simpleDateFormat = new ThreadLocal<SimpleDateFormat>() {
+            @Override
+            protected SimpleDateFormat initialValue() {
+                return new SimpleDateFormat(PATTERN);
+            }
+        };
+    }
+
+    @Benchmark
+    public void compiled(Blackhole aBlackhole) {
+        for (String _s : timestamps) {
+            aBlackhole.consume(compiled.convert(_s));
+        }
+    }
+
+    @Benchmark
+    public void threadSafe(Blackhole aBlackhole) {
+        for (String _s : timestamps) {
+            aBlackhole.consume(threadSafe.convert(_s));
+        }
+    }
+
+    @Benchmark
+    public void simpleDateFormat(Blackhole aBlackhole) throws Exception {
+        for (String _s : timestamps) {
+            aBlackhole.consume(simpleDateFormat.get().parse(_s));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of building each definition in JsonDocumentDefinitions (compiled, as a
+ * reader would) and of each xml example's reader - once warmed up, and cold,
+ * as the first thing a fresh JVM does with dsl4xml, when it includes loading
+ * classes, the reflective scans of the mapped types, creating proxy classes
+ * and running it all in the interpreter.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DefinitionBuildBenchmark {
+
+    @Param({
+        "emptyDocument", "simpleProperty", "jsonTypedProperties", "nestedObjects1",
+        "mixedTypeHandling", "simplePropertyArrays", "objectArrays", "arraysOfArrays",
+        "immutableNonRootTypes", "member", "saxDescription", "pullDescription",
+        "saxTweets", "pullTweets", "saxBooks", "pullBooks"
+    })
+    public String definition;
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public Object warm() {
+        return Startup.buildDefinition(definition);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public Object cold() {
+        return Startup.buildDefinition(definition);
+    }
+}
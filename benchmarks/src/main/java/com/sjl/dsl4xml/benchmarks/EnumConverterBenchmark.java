@@ -0,0 +1,53 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sjl.dsl4xml.support.convert.EnumStringConverter;
+
+/**
+ * Cost of converting a document's worth of enum values, written in lower
+ * case, with the converter's lookup table, compared with the upper-cased copy
+ * and Enum.valueOf it used to rely on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumConverterBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    private String[] values;
+    private EnumStringConverter<TimeUnit> lookupTable;
+
+    @Setup
+    public void setUp() {
+        TimeUnit[] _units = TimeUnit.values();
+        values = new String[size];
+        for (int i=0; i<size; i++) {
+            // a new String each time, as each would be read from a document
+            values[i] = new String(_units[i % _units.length].name().toLowerCase());
+        }
+        lookupTable = new EnumStringConverter<TimeUnit>(TimeUnit.class, true);
+    }
+
+    @Benchmark
+    public void lookupTable(Blackhole aBlackhole) {
+        for (String _s : values) {
+            aBlackhole.consume(lookupTable.convert(_s));
+        }
+    }
+
+    @Benchmark
+    public void valueOf(Blackhole aBlackhole) {
+        for (String _s : values) {
+            aBlackhole.consume(Enum.valueOf(TimeUnit.class, _s.toUpperCase()));
+        }
+    }
+}
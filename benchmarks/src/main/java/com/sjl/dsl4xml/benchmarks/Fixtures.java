@@ -0,0 +1,38 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+/**
+ * The test documents the benchmarks read - copies of those the xml and json
+ * tests use - loaded into memory once, so that benchmarks measure parsing
+ * rather than I/O.
+ */
+final class Fixtures {
+
+    private Fixtures() {}
+
+    static String load(String aName) {
+        InputStream _in = Fixtures.class.getResourceAsStream(aName);
+        if (_in == null)
+            throw new IllegalArgumentException("No fixture named " + aName);
+        try {
+            try {
+                Reader _reader = new InputStreamReader(_in, "utf-8");
+                StringBuilder _sb = new StringBuilder();
+                char[] _buffer = new char[4096];
+                int _read;
+                while ((_read = _reader.read(_buffer)) != -1) {
+                    _sb.append(_buffer, 0, _read);
+                }
+                return _sb.toString();
+            } finally {
+                _in.close();
+            }
+        } catch (IOException anExc) {
+            throw new IllegalStateException(anExc);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * Reports, for each iteration, the peak size of the heap - the sum of the
+ * peaks of its pools, which needn't all have peaked at once, so an upper
+ * bound. Use it with {@code -prof com.sjl.dsl4xml.benchmarks.HeapProfiler}
+ * (and {@code -prof gc} for the time spent collecting garbage).
+ */
+public class HeapProfiler implements InternalProfiler {
+
+    private static final double MEGABYTE = 1024 * 1024;
+
+    @Override
+    public String getDescription() {
+        return "Peak heap size";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams aBenchmark, IterationParams anIteration) {
+        for (MemoryPoolMXBean _pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            _pool.resetPeakUsage();
+        }
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams aBenchmark, IterationParams anIteration, IterationResult aResult) {
+        long _peak = 0;
+        for (MemoryPoolMXBean _pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (_pool.getType() == MemoryType.HEAP)
+                _peak += _pool.getPeakUsage().getUsed();
+        }
+        return Collections.singletonList(
+            new ScalarResult("·heap.peak", _peak / MEGABYTE, "MB", AggregationPolicy.MAX)
+        );
+    }
+}
@@ -0,0 +1,375 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.sjl.dsl4xml.DocumentReader;
+import com.sjl.dsl4xml.gson.GsonDocumentReader;
+import com.sjl.dsl4xml.gson.KeyMatchingDocumentReader;
+import com.sjl.dsl4xml.gson.TableDrivenDocumentReader;
+import com.sjl.dsl4xml.json.DocumentDefinition;
+import com.sjl.dsl4xml.json.JsonDocumentDefinition;
+import com.sjl.dsl4xml.support.CompiledDefinition;
+import com.sjl.dsl4xml.support.StringConverter;
+import com.sjl.dsl4xml.support.convert.ThreadSafeDateStringConverter;
+
+/**
+ * Cost of reading the gson tests' member-1.json and root-3.json with the
+ * json readers, against a hand-written reader filling the same objects
+ * straight from Gson's JsonReader, so that what the DSL costs over the parser
+ * it drives is a measured number rather than a claim - and with the
+ * table-driven reader's own scanner, matching names without Gson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonReadersBenchmark {
+
+    private static final String DATE_PATTERN = "yyyy-MM-dd";
+
+    @Param({"member-1", "root-3"})
+    public String fixture;
+
+    private String document;
+    private DocumentReader<?> walking;
+    private DocumentReader<?> tableDriven;
+    private DocumentReader<?> keyMatching;
+    private StringConverter<Date> dates = new ThreadSafeDateStringConverter(DATE_PATTERN);
+
+    @Setup
+    public void setUp() {
+        document = Fixtures.load(fixture + ".json");
+        CompiledDefinition<?> _compiled = "member-1".equals(fixture) ?
+            newMemberDefinition().compile() : newRootDefinition().compile();
+        walking = newGsonReader(_compiled);
+        tableDriven = newTableDrivenReader(_compiled);
+        keyMatching = newKeyMatchingReader(_compiled);
+    }
+
+    private <T> DocumentReader<T> newGsonReader(CompiledDefinition<T> aDefinition) {
+        return new GsonDocumentReader<T>(aDefinition);
+    }
+
+    private <T> DocumentReader<T> newTableDrivenReader(CompiledDefinition<T> aDefinition) {
+        return new TableDrivenDocumentReader<T>(aDefinition);
+    }
+
+    private <T> DocumentReader<T> newKeyMatchingReader(CompiledDefinition<T> aDefinition) {
+        return new KeyMatchingDocumentReader<T>(aDefinition);
+    }
+
+    static DocumentDefinition<Member> newMemberDefinition() {
+        return new JsonDocumentDefinition<Member>(){{
+            registerConverters(new ThreadSafeDateStringConverter(DATE_PATTERN));
+
+            mapping(Member.class).with(
+                property("id"),
+                property("registrationDate"),
+                object("person", Person.class).with(
+                    property("id"),
+                    property("firstname"),
+                    property("lastname"),
+                    property("email"),
+                    property("title")
+                ),
+                object("social", Social.class).with(
+                    property("providerId"),
+                    property("providerUserId"),
+                    property("imageUrl")
+                ),
+                number("pointsAccrued", Integer.class)
+            );
+        }};
+    }
+
+    static DocumentDefinition<Root> newRootDefinition() {
+        return new JsonDocumentDefinition<Root>(){{
+            mapping(Root.class).with(
+                property("elem1"),
+                property("elem2")
+            );
+        }};
+    }
+
+    @Benchmark
+    public Object readWalking() {
+        return walking.read(new StringReader(document));
+    }
+
+    @Benchmark
+    public Object readTableDriven() {
+        return tableDriven.read(new StringReader(document));
+    }
+
+    @Benchmark
+    public Object readKeyMatching() {
+        return keyMatching.read(new StringReader(document));
+    }
+
+    @Benchmark
+    public Object rawJsonReader() throws IOException {
+        JsonReader _reader = new JsonReader(new StringReader(document));
+        try {
+            return "member-1".equals(fixture) ? readMember(_reader) : readRoot(_reader);
+        } finally {
+            _reader.close();
+        }
+    }
+
+// the hand-written baseline
+
+    private Member readMember(JsonReader aReader) throws IOException {
+        Member _member = new Member();
+        aReader.beginObject();
+        while (aReader.hasNext()) {
+            String _name = aReader.nextName();
+            if (skippedNull(aReader)) {
+                continue;
+            } else if ("id".equals(_name)) {
+                _member.setId(aReader.nextString());
+            } else if ("registrationDate".equals(_name)) {
+                _member.setRegistrationDate(dates.convert(aReader.nextString()));
+            } else if ("person".equals(_name)) {
+                _member.setPerson(readPerson(aReader));
+            } else if ("social".equals(_name)) {
+                _member.setSocial(readSocial(aReader));
+            } else if ("pointsAccrued".equals(_name)) {
+                _member.setPointsAccrued(aReader.nextInt());
+            } else {
+                aReader.skipValue();
+            }
+        }
+        aReader.endObject();
+        return _member;
+    }
+
+    private Person readPerson(JsonReader aReader) throws IOException {
+        Person _person = new Person();
+        aReader.beginObject();
+        while (aReader.hasNext()) {
+            String _name = aReader.nextName();
+            if (skippedNull(aReader)) {
+                continue;
+            } else if ("id".equals(_name)) {
+                _person.setId(aReader.nextString());
+            } else if ("firstname".equals(_name)) {
+                _person.setFirstname(aReader.nextString());
+            } else if ("lastname".equals(_name)) {
+                _person.setLastname(aReader.nextString());
+            } else if ("email".equals(_name)) {
+                _person.setEmail(aReader.nextString());
+            } else if ("title".equals(_name)) {
+                _person.setTitle(aReader.nextString());
+            } else {
+                aReader.skipValue();
+            }
+        }
+        aReader.endObject();
+        return _person;
+    }
+
+    private Social readSocial(JsonReader aReader) throws IOException {
+        Social _social = new Social();
+        aReader.beginObject();
+        while (aReader.hasNext()) {
+            String _name = aReader.nextName();
+            if (skippedNull(aReader)) {
+                continue;
+            } else if ("providerId".equals(_name)) {
+                _social.setProviderId(aReader.nextString());
+            } else if ("providerUserId".equals(_name)) {
+                _social.setProviderUserId(aReader.nextString());
+            } else if ("imageUrl".equals(_name)) {
+                _social.setImageUrl(aReader.nextString());
+            } else {
+                aReader.skipValue();
+            }
+        }
+        aReader.endObject();
+        return _social;
+    }
+
+    private Root readRoot(JsonReader aReader) throws IOException {
+        Root _root = new Root();
+        aReader.beginObject();
+        while (aReader.hasNext()) {
+            String _name = aReader.nextName();
+            if (skippedNull(aReader)) {
+                continue;
+            } else if ("elem1".equals(_name)) {
+                _root.setElem1(aReader.nextString());
+            } else if ("elem2".equals(_name)) {
+                _root.setElem2(aReader.nextString());
+            } else {
+                aReader.skipValue();
+            }
+        }
+        aReader.endObject();
+        return _root;
+    }
+
+    private boolean skippedNull(JsonReader aReader) throws IOException {
+        if (aReader.peek() != JsonToken.NULL)
+            return false;
+        aReader.nextNull();
+        return true;
+    }
+
+// model classes, as in the gson tests but concrete, so that the baseline can create them
+
+    public static class Member {
+        private String id;
+        private Date registrationDate;
+        private Person person;
+        private Social social;
+        private int pointsAccrued;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String anId) {
+            id = anId;
+        }
+
+        public Date getRegistrationDate() {
+            return registrationDate;
+        }
+
+        public void setRegistrationDate(Date aDate) {
+            registrationDate = aDate;
+        }
+
+        public Person getPerson() {
+            return person;
+        }
+
+        public void setPerson(Person aPerson) {
+            person = aPerson;
+        }
+
+        public Social getSocial() {
+            return social;
+        }
+
+        public void setSocial(Social aSocial) {
+            social = aSocial;
+        }
+
+        public int getPointsAccrued() {
+            return pointsAccrued;
+        }
+
+        public void setPointsAccrued(int aPoints) {
+            pointsAccrued = aPoints;
+        }
+    }
+
+    public static class Person {
+        private String id;
+        private String title;
+        private String firstname;
+        private String lastname;
+        private String email;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String anId) {
+            id = anId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String aTitle) {
+            title = aTitle;
+        }
+
+        public String getFirstname() {
+            return firstname;
+        }
+
+        public void setFirstname(String aFirstname) {
+            firstname = aFirstname;
+        }
+
+        public String getLastname() {
+            return lastname;
+        }
+
+        public void setLastname(String aLastname) {
+            lastname = aLastname;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String anEmail) {
+            email = anEmail;
+        }
+    }
+
+    public static class Social {
+        private String providerId;
+        private String providerUserId;
+        private String imageUrl;
+
+        public String getProviderId() {
+            return providerId;
+        }
+
+        public void setProviderId(String aProviderId) {
+            providerId = aProviderId;
+        }
+
+        public String getProviderUserId() {
+            return providerUserId;
+        }
+
+        public void setProviderUserId(String aProviderUserId) {
+            providerUserId = aProviderUserId;
+        }
+
+        public String getImageUrl() {
+            return imageUrl;
+        }
+
+        public void setImageUrl(String anImageUrl) {
+            imageUrl = anImageUrl;
+        }
+    }
+
+    public static class Root {
+        private String elem1;
+        private String elem2;
+
+        public String getElem1() {
+            return elem1;
+        }
+
+        public void setElem1(String anElem) {
+            elem1 = anElem;
+        }
+
+        public String getElem2() {
+            return elem2;
+        }
+
+        public void setElem2(String anElem) {
+            elem2 = anElem;
+        }
+    }
+}
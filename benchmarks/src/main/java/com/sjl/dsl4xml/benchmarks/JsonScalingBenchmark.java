@@ -0,0 +1,144 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.sjl.dsl4xml.DocumentReader;
+import com.sjl.dsl4xml.gson.GsonDocumentReader;
+import com.sjl.dsl4xml.gson.KeyMatchingDocumentReader;
+import com.sjl.dsl4xml.gson.TableDrivenDocumentReader;
+import com.sjl.dsl4xml.json.DocumentDefinition;
+import com.sjl.dsl4xml.json.JsonDocumentDefinition;
+import com.sjl.dsl4xml.json.JsonDocumentDefinitions;
+import com.sjl.dsl4xml.json.NamedObject;
+import com.sjl.dsl4xml.json.UnNamedObject;
+import com.sjl.dsl4xml.support.CompiledDefinition;
+
+/**
+ * Throughput of the json readers on synthetic documents (see {@link Corpus})
+ * from a kilobyte to a hundred megabytes, to show how they scale. Run it with
+ * {@link ScalingHarness} to see the peak heap and garbage collection time too.
+ *
+ * The whole result of each read is built before it can be consumed, and a
+ * gigabyte's worth doesn't fit in the fork's 4GB heap, so 1GB is left out
+ * unless asked for along with a heap to match:
+ * {@code -p size=1GB -jvmArgsAppend -Xmx16g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JsonScalingBenchmark {
+
+    @Param({"objectArrays", "simplePropertyArrays", "arraysOfArrays", "nested"})
+    public String shape;
+
+    @Param({"1KB", "1MB", "100MB"})
+    public String size;
+
+    @Param({"8"})
+    public int depth;
+
+    @Param({"3"})
+    public int width;
+
+    private Corpus corpus;
+    private DocumentReader<?> walking;
+    private DocumentReader<?> tableDriven;
+    private DocumentReader<?> keyMatching;
+
+    @Setup
+    public void setUp() {
+        corpus = Corpus.generate(shape, Corpus.parseSize(size), depth, width);
+        CompiledDefinition<?> _compiled = getDefinition().compile();
+        walking = newGsonReader(_compiled);
+        tableDriven = newTableDrivenReader(_compiled);
+        keyMatching = newKeyMatchingReader(_compiled);
+    }
+
+    private DocumentDefinition<?> getDefinition() {
+        JsonDocumentDefinitions _defs = new JsonDocumentDefinitions();
+        if ("objectArrays".equals(shape))
+            return _defs.objectArrays();
+        if ("simplePropertyArrays".equals(shape))
+            return _defs.simplePropertyArrays();
+        if ("arraysOfArrays".equals(shape))
+            return _defs.arraysOfArrays();
+        return newNestedDefinition(depth);
+    }
+
+    private <T> DocumentReader<T> newGsonReader(CompiledDefinition<T> aDefinition) {
+        return new GsonDocumentReader<T>(aDefinition);
+    }
+
+    private <T> DocumentReader<T> newTableDrivenReader(CompiledDefinition<T> aDefinition) {
+        return new TableDrivenDocumentReader<T>(aDefinition);
+    }
+
+    private <T> DocumentReader<T> newKeyMatchingReader(CompiledDefinition<T> aDefinition) {
+        return new KeyMatchingDocumentReader<T>(aDefinition);
+    }
+
+    @Benchmark
+    public Object readWalking(Processed aProcessed) {
+        aProcessed.add(corpus.getLength());
+        return walking.read(corpus.newReader());
+    }
+
+    @Benchmark
+    public Object readTableDriven(Processed aProcessed) {
+        aProcessed.add(corpus.getLength());
+        return tableDriven.read(corpus.newReader());
+    }
+
+    @Benchmark
+    public Object readKeyMatching(Processed aProcessed) {
+        aProcessed.add(corpus.getLength());
+        return keyMatching.read(corpus.newReader());
+    }
+
+    /**
+     * {
+     *   "nodes":[
+     *     { "name":"a", "child":{ "name":"b", "child":{ ... } } },
+     *     ...
+     *   ]
+     * }
+     */
+    public interface Nodes {
+        public List<Node> getNodes();
+    }
+
+    public interface Node {
+        public String getName();
+        public Node getChild();
+    }
+
+    static DocumentDefinition<Nodes> newNestedDefinition(final int aDepth) {
+        return new JsonDocumentDefinition<Nodes>(){
+            {
+                mapping(Nodes.class).with(
+                    array("nodes").of(
+                        node(aDepth)
+                    )
+                );
+            }
+
+            private UnNamedObject<Node> node(int aDepth) {
+                return (aDepth > 1) ?
+                    object(Node.class).with(property("name"), child(aDepth - 1)) :
+                    object(Node.class).with(property("name"));
+            }
+
+            private NamedObject<Node> child(int aDepth) {
+                return (aDepth > 1) ?
+                    object("child", Node.class).with(property("name"), child(aDepth - 1)) :
+                    object("child", Node.class).with(property("name"));
+            }
+        };
+    }
+}
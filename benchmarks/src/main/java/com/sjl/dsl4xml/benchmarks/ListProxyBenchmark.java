@@ -0,0 +1,99 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sjl.dsl4xml.support.Implementations;
+
+/**
+ * Cost of reading a list-based interface mapping (e.g. a timeline of tweets)
+ * through a dynamic proxy or a generated implementation, compared with a
+ * plain ArrayList.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListProxyBenchmark {
+
+    public interface Tweet {
+        public String getText();
+    }
+
+    public interface Timeline extends List<Tweet> {
+        public String getOwner();
+    }
+
+    @Param({"100000"})
+    public int size;
+
+    private List<Tweet> arrayList;
+    private Timeline proxy;
+    private Timeline generated;
+
+    @Setup
+    public void setUp() {
+        arrayList = new ArrayList<Tweet>();
+        proxy = Implementations.newProxy(Timeline.class);
+
+        Implementations.setGenerating(true);
+        generated = Implementations.newInstance(Timeline.class);
+        Implementations.setGenerating(false);
+
+        for (int i=0; i<size; i++) {
+            Tweet _t = Implementations.newProxy(Tweet.class);
+            arrayList.add(_t);
+            proxy.add(_t);
+            generated.add(_t);
+        }
+    }
+
+    @Benchmark
+    public void iterateArrayList(Blackhole aBlackhole) {
+        iterate(arrayList, aBlackhole);
+    }
+
+    @Benchmark
+    public void iterateProxy(Blackhole aBlackhole) {
+        iterate(proxy, aBlackhole);
+    }
+
+    @Benchmark
+    public void iterateGenerated(Blackhole aBlackhole) {
+        iterate(generated, aBlackhole);
+    }
+
+    @Benchmark
+    public void indexArrayList(Blackhole aBlackhole) {
+        index(arrayList, aBlackhole);
+    }
+
+    @Benchmark
+    public void indexProxy(Blackhole aBlackhole) {
+        index(proxy, aBlackhole);
+    }
+
+    @Benchmark
+    public void indexGenerated(Blackhole aBlackhole) {
+        index(generated, aBlackhole);
+    }
+
+    private void iterate(List<Tweet> aList, Blackhole aBlackhole) {
+        for (Tweet _t : aList) {
+            aBlackhole.consume(_t);
+        }
+    }
+
+    private void index(List<Tweet> aList, Blackhole aBlackhole) {
+        // every size() and get() is a separate call through the proxy
+        for (int i=0; i<aList.size(); i++) {
+            aBlackhole.consume(aList.get(i));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sjl.dsl4xml.TypeSafeConverter;
+import com.sjl.dsl4xml.support.convert.ClassStringConverter;
+import com.sjl.dsl4xml.support.convert.MemoizingConverter;
+
+/**
+ * Cost of converting a document's worth of class names - a handful of them,
+ * repeated - through a memoizing converter with each eviction policy,
+ * compared with looking each up with Class.forName.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoizingConverterBenchmark {
+
+    private static final String[] CLASSES = {
+        "java.lang.String", "java.lang.Integer", "java.lang.Long", "java.util.Date",
+        "java.util.ArrayList", "java.util.HashMap", "java.math.BigDecimal", "java.net.URI"
+    };
+
+    @Param({"1000"})
+    public int size;
+
+    private String[] values;
+    private TypeSafeConverter<String,Class<?>> plain;
+    private TypeSafeConverter<String,Class<?>> clock;
+    private TypeSafeConverter<String,Class<?>> lru;
+
+    @Setup
+    public void setUp() {
+        values = new String[size];
+        for (int i=0; i<size; i++) {
+            // a new String each time, as each would be read from a document
+            values[i] = new String(CLASSES[i % CLASSES.length]);
+        }
+        plain = new ClassStringConverter();
+        clock = new MemoizingConverter<String,Class<?>>(new ClassStringConverter(), 64, MemoizingConverter.Eviction.CLOCK);
+        lru = new MemoizingConverter<String,Class<?>>(new ClassStringConverter(), 64, MemoizingConverter.Eviction.LRU);
+    }
+
+    @Benchmark
+    public void plain(Blackhole aBlackhole) {
+        convert(plain, aBlackhole);
+    }
+
+    @Benchmark
+    public void clock(Blackhole aBlackhole) {
+        convert(clock, aBlackhole);
+    }
+
+    @Benchmark
+    public void lru(Blackhole aBlackhole) {
+        convert(lru, aBlackhole);
+    }
+
+    private void convert(TypeSafeConverter<String,Class<?>> aConverter, Blackhole aBlackhole) {
+        for (String _s : values) {
+            aBlackhole.consume(aConverter.convert(_s));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.sjl.dsl4xml.DocumentReader;
+import com.sjl.dsl4xml.gson.GsonDocumentReader;
+import com.sjl.dsl4xml.json.DocumentDefinition;
+import com.sjl.dsl4xml.json.JsonDocumentDefinition;
+import com.sjl.dsl4xml.support.Implementations;
+
+/**
+ * Cost of reading a numeric-heavy document into objects with primitive
+ * setters, through reflective mutators (which box every value) or generated
+ * mutators (which pass int, long, double and boolean values straight through).
+ * Run with -prof gc to compare the allocation per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveSetterBenchmark {
+
+    public interface Readings {
+        public List<Sample> getSamples();
+    }
+
+    public static class Sample {
+        private int count;
+        private long total;
+        private double ratio;
+        private boolean active;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int aCount) {
+            count = aCount;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long aTotal) {
+            total = aTotal;
+        }
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(double aRatio) {
+            ratio = aRatio;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean anActive) {
+            active = anActive;
+        }
+    }
+
+    @Param({"1000"})
+    public int size;
+
+    private String document;
+    private DocumentReader<Readings> reflective;
+    private DocumentReader<Readings> generated;
+
+    @Setup
+    public void setUp() {
+        StringBuilder _sb = new StringBuilder("{\"samples\":[");
+        for (int i=0; i<size; i++) {
+            if (i > 0)
+                _sb.append(',');
+            _sb.append("{\"count\":").append(i)
+               .append(",\"total\":").append(i * 1000003L)
+               .append(",\"ratio\":").append(i / 7d)
+               .append(",\"active\":").append(i % 2 == 0)
+               .append('}');
+        }
+        document = _sb.append("]}").toString();
+
+        // mutators are chosen on the first read, so read each once under the setting it measures
+        reflective = new GsonDocumentReader<Readings>(newDefinition());
+        reflective.read(new StringReader(document));
+
+        Implementations.setGenerating(true);
+        Implementations.setGeneratingBindings(true);
+        generated = new GsonDocumentReader<Readings>(newDefinition());
+        generated.read(new StringReader(document));
+        Implementations.setGenerating(false);
+        Implementations.setGeneratingBindings(false);
+    }
+
+    private DocumentDefinition<Readings> newDefinition() {
+        return new JsonDocumentDefinition<Readings>(){{
+            mapping(Readings.class).with(
+                array("samples").of(
+                    object(Sample.class).with(
+                        number("count", Integer.class),
+                        number("total", Long.class),
+                        number("ratio", Double.class),
+                        bool("active")
+                    )
+                )
+            );
+        }};
+    }
+
+    @Benchmark
+    public Readings readReflective() {
+        return reflective.read(new StringReader(document));
+    }
+
+    @Benchmark
+    public Readings readGenerated() {
+        return generated.read(new StringReader(document));
+    }
+}
@@ -0,0 +1,30 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the megabytes of document a benchmark reads, which JMH reports
+ * alongside its throughput as a rate - megabytes per second, whatever the
+ * unit it prints.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Processed {
+
+    private static final double MEGABYTE = 1024 * 1024;
+
+    public double megabytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        megabytes = 0;
+    }
+
+    public void add(long aBytes) {
+        megabytes += aBytes / MEGABYTE;
+    }
+}
@@ -0,0 +1,55 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import static com.sjl.dsl4xml.PullLegacyDocumentReader.*;
+
+import com.sjl.dsl4xml.LegacyDocumentReader;
+import com.sjl.dsl4xml.benchmarks.XmlReadersBenchmark.*;
+import com.sjl.dsl4xml.support.convert.ThreadSafeDateStringConverter;
+
+/**
+ * Pull-parser readers of the xml examples - the SAX definitions, less the
+ * name of the root tag.
+ */
+final class PullReaders {
+
+    private PullReaders() {}
+
+    static LegacyDocumentReader<Description> newDescriptionReader() {
+        return mappingOf(Description.class).to(
+            tag("description").with(
+                tag("title"),
+                tag("summary").with(
+                    tag("p").withPCDataMappedTo("paragraph")
+                )
+            )
+        );
+    }
+
+    static LegacyDocumentReader<Books> newBooksReader() {
+        return mappingOf(Books.class).to(
+            tag("book", Book.class).with(
+                tag("title"),
+                tag("synopsis")
+            )
+        );
+    }
+
+    static LegacyDocumentReader<Tweets> newTweetsReader() {
+        LegacyDocumentReader<Tweets> _reader = mappingOf(Tweets.class).to(
+            tag("entry", Tweet.class).with(
+                tag("published"),
+                tag("title"),
+                tag("content", Content.class).with(
+                    attributes("type")
+                ).withPCDataMappedTo("value"),
+                tag("twitter", "lang").withPCDataMappedTo("language"),
+                tag("author", Author.class).with(
+                    tag("name"),
+                    tag("uri")
+                )
+            )
+        );
+        _reader.registerConverters(new ThreadSafeDateStringConverter(XmlBaselines.DATE_PATTERN));
+        return _reader;
+    }
+}
@@ -0,0 +1,54 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import static com.sjl.dsl4xml.SAXLegacyDocumentReader.*;
+
+import com.sjl.dsl4xml.LegacyDocumentReader;
+import com.sjl.dsl4xml.benchmarks.XmlReadersBenchmark.*;
+import com.sjl.dsl4xml.support.convert.ThreadSafeDateStringConverter;
+
+/**
+ * SAX readers of the xml examples, defined as in the example tests.
+ */
+final class SAXReaders {
+
+    private SAXReaders() {}
+
+    static LegacyDocumentReader<Description> newDescriptionReader() {
+        return mappingOf("example", Description.class).to(
+            tag("description").with(
+                tag("title"),
+                tag("summary").with(
+                    tag("p").withPCDataMappedTo("paragraph")
+                )
+            )
+        );
+    }
+
+    static LegacyDocumentReader<Books> newBooksReader() {
+        return mappingOf("books", Books.class).to(
+            tag("book", Book.class).with(
+                tag("title"),
+                tag("synopsis")
+            )
+        );
+    }
+
+    static LegacyDocumentReader<Tweets> newTweetsReader() {
+        LegacyDocumentReader<Tweets> _reader = mappingOf("feed", Tweets.class).to(
+            tag("entry", Tweet.class).with(
+                tag("published"),
+                tag("title"),
+                tag("content", Content.class).with(
+                    attributes("type")
+                ).withPCDataMappedTo("value"),
+                tag("twitter:lang").withPCDataMappedTo("language"),
+                tag("author", Author.class).with(
+                    tag("name"),
+                    tag("uri")
+                )
+            )
+        );
+        _reader.registerConverters(new ThreadSafeDateStringConverter(XmlBaselines.DATE_PATTERN));
+        return _reader;
+    }
+}
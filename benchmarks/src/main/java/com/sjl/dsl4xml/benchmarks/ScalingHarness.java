@@ -0,0 +1,30 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the scaling benchmarks with the profilers that show how each reader
+ * scales - megabytes read per second, peak heap (HeapProfiler), and garbage
+ * collection time and allocation per document (GCProfiler):
+ *
+ *     java -cp benchmarks.jar com.sjl.dsl4xml.benchmarks.ScalingHarness
+ *
+ * Any JMH options given override the defaults, e.g. {@code -p size=1KB,1MB}
+ * to leave out the larger documents, or {@code -p size=1GB -jvmArgsAppend -Xmx16g}
+ * to read gigabyte documents, whose results need that much room.
+ */
+public class ScalingHarness {
+
+    public static void main(String... anArgs) throws Exception {
+        new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(anArgs))
+            .include("\\.(Json|Xml)ScalingBenchmark\\.")
+            .addProfiler(HeapProfiler.class)
+            .addProfiler(GCProfiler.class)
+            .build()
+        ).run();
+    }
+}
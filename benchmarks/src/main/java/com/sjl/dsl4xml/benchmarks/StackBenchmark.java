@@ -0,0 +1,102 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.sjl.dsl4xml.support.ArrayStack;
+import com.sjl.dsl4xml.support.IntStack;
+
+/**
+ * Cost of the stack traffic of a reading context - for each nested value,
+ * push a name and an object, peek at both, and pop them again - with
+ * java.util.Stack (a synchronized Vector) against the plain array stacks the
+ * contexts now use, and the int stack kept for name ids against a Stack of
+ * boxed Integers. Each thread has its own stacks, reused from one invocation
+ * to the next, as each reading context does; run it with -t to see what the
+ * monitors cost once more than one thread is reading.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackBenchmark {
+
+    @Param({"4", "32"})
+    public int depth;
+
+    private String[] names;
+    private Object value = new Object();
+
+    private Stack<String> stackNames = new Stack<String>();
+    private Stack<Object> stackBuild = new Stack<Object>();
+    private ArrayStack<String> arrayNames = new ArrayStack<String>();
+    private ArrayStack<Object> arrayBuild = new ArrayStack<Object>();
+    private Stack<Integer> boxedIds = new Stack<Integer>();
+    private IntStack intIds = new IntStack();
+
+    @Setup
+    public void setUp() {
+        names = new String[depth];
+        for (int i=0; i<depth; i++) {
+            names[i] = "name" + i;
+        }
+    }
+
+    @Benchmark
+    public int javaUtilStack() {
+        int _hash = 0;
+        for (int i=0; i<depth; i++) {
+            stackNames.push(names[i]);
+            stackBuild.push(value);
+            _hash += stackNames.peek().length() + stackBuild.peek().hashCode();
+        }
+        while (!stackNames.isEmpty()) {
+            _hash += stackNames.pop().length() + stackBuild.pop().hashCode();
+        }
+        return _hash;
+    }
+
+    @Benchmark
+    public int arrayStack() {
+        int _hash = 0;
+        for (int i=0; i<depth; i++) {
+            arrayNames.push(names[i]);
+            arrayBuild.push(value);
+            _hash += arrayNames.peek().length() + arrayBuild.peek().hashCode();
+        }
+        while (!arrayNames.isEmpty()) {
+            _hash += arrayNames.pop().length() + arrayBuild.pop().hashCode();
+        }
+        return _hash;
+    }
+
+    @Benchmark
+    public int boxedIdStack() {
+        int _sum = 0;
+        for (int i=0; i<depth; i++) {
+            boxedIds.push(i * 31);
+            _sum += boxedIds.peek();
+        }
+        while (!boxedIds.isEmpty()) {
+            _sum += boxedIds.pop();
+        }
+        return _sum;
+    }
+
+    @Benchmark
+    public int intStack() {
+        int _sum = 0;
+        for (int i=0; i<depth; i++) {
+            intIds.push(i * 31);
+            _sum += intIds.peek();
+        }
+        while (!intIds.isEmpty()) {
+            _sum += intIds.pop();
+        }
+        return _sum;
+    }
+}
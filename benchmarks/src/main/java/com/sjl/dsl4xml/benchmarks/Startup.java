@@ -0,0 +1,135 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import com.sjl.dsl4xml.DocumentReader;
+import com.sjl.dsl4xml.LegacyDocumentReader;
+import com.sjl.dsl4xml.gson.GsonDocumentReader;
+import com.sjl.dsl4xml.gson.KeyMatchingDocumentReader;
+import com.sjl.dsl4xml.gson.TableDrivenDocumentReader;
+import com.sjl.dsl4xml.json.JsonDocumentDefinitions;
+import com.sjl.dsl4xml.support.CompiledDefinition;
+
+/**
+ * The definitions and readers whose start-up the cold-start benchmarks
+ * measure, by name, so that JMH's forks and ColdStartHarness's fresh JVMs
+ * build exactly the same things.
+ *
+ * Readers are named engine:fixture - gson, tableDriven, keyMatching, sax or
+ * pull, reading
+ * member-1.json, example1.xml or example4.xml, or a kilobyte of objectArrays
+ * (whose definition, unlike member-1's, maps to interfaces).
+ */
+final class Startup {
+
+    static final String[] READERS = {
+        "gson:member-1", "tableDriven:member-1", "gson:objectArrays", "tableDriven:objectArrays",
+        "sax:example1", "pull:example1", "sax:example4", "pull:example4"
+    };
+
+    private Startup() {}
+
+    /**
+     * @return the named definition, compiled, or for xml the reader, which
+     * is all the definition there is
+     */
+    static Object buildDefinition(String aName) {
+        JsonDocumentDefinitions _defs = new JsonDocumentDefinitions();
+        if ("emptyDocument".equals(aName))
+            return _defs.emptyDocument().compile();
+        if ("simpleProperty".equals(aName))
+            return _defs.simpleProperty().compile();
+        if ("jsonTypedProperties".equals(aName))
+            return _defs.jsonTypedProperties().compile();
+        if ("nestedObjects1".equals(aName))
+            return _defs.nestedObjects1().compile();
+        if ("mixedTypeHandling".equals(aName))
+            return _defs.mixedTypeHandling().compile();
+        if ("simplePropertyArrays".equals(aName))
+            return _defs.simplePropertyArrays().compile();
+        if ("objectArrays".equals(aName))
+            return _defs.objectArrays().compile();
+        if ("arraysOfArrays".equals(aName))
+            return _defs.arraysOfArrays().compile();
+        if ("immutableNonRootTypes".equals(aName))
+            return _defs.immutableNonRootTypes().compile();
+        if ("member".equals(aName))
+            return JsonReadersBenchmark.newMemberDefinition().compile();
+        if ("saxDescription".equals(aName))
+            return SAXReaders.newDescriptionReader();
+        if ("pullDescription".equals(aName))
+            return PullReaders.newDescriptionReader();
+        if ("saxTweets".equals(aName))
+            return SAXReaders.newTweetsReader();
+        if ("pullTweets".equals(aName))
+            return PullReaders.newTweetsReader();
+        if ("saxBooks".equals(aName))
+            return SAXReaders.newBooksReader();
+        if ("pullBooks".equals(aName))
+            return PullReaders.newBooksReader();
+        throw new IllegalArgumentException("No such definition: " + aName);
+    }
+
+    /**
+     * @return the document the named reader reads - loaded or generated
+     * here, so that it can be done before timing starts
+     */
+    static String loadDocument(String aReader) {
+        String _fixture = aReader.substring(aReader.indexOf(':') + 1);
+        if ("objectArrays".equals(_fixture)) {
+            Corpus _corpus = Corpus.generate(_fixture, 1024, 0, 0);
+            StringBuilder _sb = new StringBuilder();
+            try {
+                char[] _buffer = new char[1024];
+                Reader _in = _corpus.newReader();
+                int _read;
+                while ((_read = _in.read(_buffer)) != -1) {
+                    _sb.append(_buffer, 0, _read);
+                }
+            } catch (IOException anExc) {
+                throw new IllegalStateException(anExc); // can't happen - it's all in memory
+            }
+            return _sb.toString();
+        }
+        return Fixtures.load(_fixture + (_fixture.startsWith("example") ? ".xml" : ".json"));
+    }
+
+    static Object newReader(String aReader) {
+        String _engine = aReader.substring(0, aReader.indexOf(':'));
+        String _fixture = aReader.substring(aReader.indexOf(':') + 1);
+        if ("sax".equals(_engine))
+            return "example1".equals(_fixture) ? SAXReaders.newDescriptionReader() : SAXReaders.newTweetsReader();
+        if ("pull".equals(_engine))
+            return "example1".equals(_fixture) ? PullReaders.newDescriptionReader() : PullReaders.newTweetsReader();
+
+        CompiledDefinition<?> _definition = (CompiledDefinition<?>) buildDefinition(
+            "member-1".equals(_fixture) ? "member" : _fixture);
+        if ("gson".equals(_engine))
+            return newGsonReader(_definition);
+        if ("tableDriven".equals(_engine))
+            return newTableDrivenReader(_definition);
+        if ("keyMatching".equals(_engine))
+            return newKeyMatchingReader(_definition);
+        throw new IllegalArgumentException("No such reader: " + aReader);
+    }
+
+    private static <T> DocumentReader<T> newGsonReader(CompiledDefinition<T> aDefinition) {
+        return new GsonDocumentReader<T>(aDefinition);
+    }
+
+    private static <T> DocumentReader<T> newTableDrivenReader(CompiledDefinition<T> aDefinition) {
+        return new TableDrivenDocumentReader<T>(aDefinition);
+    }
+
+    private static <T> DocumentReader<T> newKeyMatchingReader(CompiledDefinition<T> aDefinition) {
+        return new KeyMatchingDocumentReader<T>(aDefinition);
+    }
+
+    static Object read(Object aReader, String aDocument) {
+        if (aReader instanceof DocumentReader)
+            return ((DocumentReader<?>) aReader).read(new StringReader(aDocument));
+        return ((LegacyDocumentReader<?>) aReader).read(new StringReader(aDocument));
+    }
+}
@@ -0,0 +1,120 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.sjl.dsl4xml.DocumentReader;
+import com.sjl.dsl4xml.gson.GeneratedDocumentReader;
+import com.sjl.dsl4xml.gson.GsonDocumentReader;
+import com.sjl.dsl4xml.gson.TableDrivenDocumentReader;
+import com.sjl.dsl4xml.json.DocumentDefinition;
+import com.sjl.dsl4xml.json.JsonDocumentDefinitions;
+import com.sjl.dsl4xml.support.CompiledDefinition;
+import com.sjl.dsl4xml.support.Implementations;
+
+/**
+ * Cost of reading the json-test fixtures (scaled up to the given size) with
+ * the same compiled definition, by walking its builders token by token
+ * (GsonDocumentReader) or by running it as a table-driven state machine
+ * (TableDrivenDocumentReader) - and the latter again with a definition
+ * compiled while generating, so that names are matched by generated code and
+ * set to generated implementations. Last, the same definition read by a
+ * reader generated for it (GeneratedDocumentReader), which leaves little to
+ * the state machine at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableDrivenBenchmark {
+
+    @Param({"objectArrays", "simplePropertyArrays", "arraysOfArrays", "jsonTypedProperties"})
+    public String fixture;
+
+    @Param({"100"})
+    public int size;
+
+    private String document;
+    private DocumentReader<Object> walking;
+    private DocumentReader<Object> tableDriven;
+    private DocumentReader<Object> generated;
+    private DocumentReader<Object> generatedReader;
+
+    @Setup
+    public void setUp() {
+        StringBuilder _sb = new StringBuilder();
+        if ("objectArrays".equals(fixture)) {
+            _sb.append("{\"someProperty\":\"hello\",\"simples\":[");
+            for (int i=0; i<size; i++) {
+                _sb.append((i > 0) ? "," : "").append("{\"myProperty\":\"value ").append(i).append("\"}");
+            }
+            _sb.append("]}");
+        } else if ("simplePropertyArrays".equals(fixture)) {
+            _sb.append("{\"someProperty\":\"hello\",\"strings\":[");
+            for (int i=0; i<size; i++) {
+                _sb.append((i > 0) ? "," : "").append("\"value ").append(i).append("\"");
+            }
+            _sb.append("]}");
+        } else if ("arraysOfArrays".equals(fixture)) {
+            _sb.append("{\"arrays\":[");
+            for (int i=0; i<size; i++) {
+                _sb.append((i > 0) ? "," : "").append("[\"one\",\"two\",\"three\"]");
+            }
+            _sb.append("]}");
+        } else {
+            // too small to scale, so just the one document
+            _sb.append("{\"integer\":1,\"float\":2.0,\"boolean\":true}");
+        }
+        document = _sb.toString();
+
+        CompiledDefinition<Object> _compiled = compile();
+        walking = new GsonDocumentReader<Object>(_compiled);
+        tableDriven = new TableDrivenDocumentReader<Object>(_compiled);
+
+        Implementations.setGenerating(true);
+        Implementations.setGeneratingBindings(true);
+        generated = new TableDrivenDocumentReader<Object>(compile());
+        generatedReader = new GeneratedDocumentReader<Object>(compile());
+        Implementations.setGenerating(false);
+        Implementations.setGeneratingBindings(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompiledDefinition<Object> compile() {
+        JsonDocumentDefinitions _defs = new JsonDocumentDefinitions();
+        DocumentDefinition<?> _definition;
+        if ("objectArrays".equals(fixture))
+            _definition = _defs.objectArrays();
+        else if ("simplePropertyArrays".equals(fixture))
+            _definition = _defs.simplePropertyArrays();
+        else if ("arraysOfArrays".equals(fixture))
+            _definition = _defs.arraysOfArrays();
+        else
+            _definition = _defs.jsonTypedProperties();
+        return (CompiledDefinition<Object>) _definition.compile();
+    }
+
+    @Benchmark
+    public Object readWalking() {
+        return walking.read(new StringReader(document));
+    }
+
+    @Benchmark
+    public Object readTableDriven() {
+        return tableDriven.read(new StringReader(document));
+    }
+
+    @Benchmark
+    public Object readGenerated() {
+        return generated.read(new StringReader(document));
+    }
+
+    @Benchmark
+    public Object readGeneratedReader() {
+        return generatedReader.read(new StringReader(document));
+    }
+}
@@ -0,0 +1,73 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.sjl.dsl4xml.DocumentReader;
+import com.sjl.dsl4xml.LegacyDocumentReader;
+
+/**
+ * Throughput of one reader per engine shared by all the benchmark's threads,
+ * as the readers are meant to be used - built once and reused by every
+ * thread - reading member-1.json (gson, table-driven and key-matching) or the
+ * twitter feed
+ * (SAX and pull). Run it with {@link ThreadScalingHarness} to compare the
+ * throughput at 1 to 32 threads, and so see contention as it shows up.
+ * ThreadScalingBenchmarkTest checks that every thread reads the same as a
+ * single thread would, so that a race fails the build rather than being
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadScalingBenchmark {
+
+    private String json;
+    private String xml;
+    private DocumentReader<?> gson;
+    private DocumentReader<?> tableDriven;
+    private DocumentReader<?> keyMatching;
+    private LegacyDocumentReader<?> sax;
+    private LegacyDocumentReader<?> pull;
+
+    @Setup
+    public void setUp() {
+        json = Startup.loadDocument("gson:member-1");
+        xml = Startup.loadDocument("sax:example4");
+        gson = (DocumentReader<?>) Startup.newReader("gson:member-1");
+        tableDriven = (DocumentReader<?>) Startup.newReader("tableDriven:member-1");
+        keyMatching = (DocumentReader<?>) Startup.newReader("keyMatching:member-1");
+        sax = (LegacyDocumentReader<?>) Startup.newReader("sax:example4");
+        pull = (LegacyDocumentReader<?>) Startup.newReader("pull:example4");
+    }
+
+    @Benchmark
+    public Object readGson() {
+        return gson.read(new StringReader(json));
+    }
+
+    @Benchmark
+    public Object readTableDriven() {
+        return tableDriven.read(new StringReader(json));
+    }
+
+    @Benchmark
+    public Object readKeyMatching() {
+        return keyMatching.read(new StringReader(json));
+    }
+
+    @Benchmark
+    public Object readSAX() {
+        return sax.read(new StringReader(xml));
+    }
+
+    @Benchmark
+    public Object readPull() {
+        return pull.read(new StringReader(xml));
+    }
+}
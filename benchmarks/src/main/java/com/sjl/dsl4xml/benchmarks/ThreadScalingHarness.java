@@ -0,0 +1,60 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs ThreadScalingBenchmark at each number of threads, and prints, for each
+ * engine, its throughput at each and its scaling efficiency - throughput at n
+ * threads over n times that at one. An engine that scales perfectly stays at
+ * 100% until the threads outnumber the cores; lock contention and false
+ * sharing show up as efficiency falling away before then.
+ *
+ *     java -Dthreads=1,2,4,8,16,32 -cp benchmarks.jar com.sjl.dsl4xml.benchmarks.ThreadScalingHarness
+ *
+ * Any JMH options given are passed on, e.g. {@code -f 3} for more forks.
+ */
+public class ThreadScalingHarness {
+
+    public static void main(String... anArgs) throws Exception {
+        List<Integer> _threads = new ArrayList<Integer>();
+        for (String _t : System.getProperty("threads", "1,2,4,8,16,32").split(",")) {
+            _threads.add(Integer.parseInt(_t.trim()));
+        }
+
+        // throughput by engine, then by number of threads
+        Map<String, Map<Integer, Double>> _throughput = new LinkedHashMap<String, Map<Integer, Double>>();
+        for (Integer _t : _threads) {
+            for (RunResult _result : new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(anArgs))
+                .include("\\.ThreadScalingBenchmark\\.")
+                .threads(_t)
+                .build()
+            ).run()) {
+                String _name = _result.getParams().getBenchmark();
+                String _engine = _name.substring(_name.lastIndexOf('.') + 1);
+                if (!_throughput.containsKey(_engine))
+                    _throughput.put(_engine, new LinkedHashMap<Integer, Double>());
+                _throughput.get(_engine).put(_t, _result.getPrimaryResult().getScore());
+            }
+        }
+
+        System.out.println();
+        System.out.println(String.format("%-18s %8s %14s %11s", "engine", "threads", "ops/s", "efficiency"));
+        for (Map.Entry<String, Map<Integer, Double>> _e : _throughput.entrySet()) {
+            Double _one = _e.getValue().get(_threads.get(0));
+            for (Map.Entry<Integer, Double> _t : _e.getValue().entrySet()) {
+                double _efficiency = (_t.getValue() * _threads.get(0)) / (_t.getKey() * _one);
+                System.out.println(String.format("%-18s %8d %14.1f %10.0f%%", _e.getKey(), _t.getKey(), _t.getValue(), _efficiency * 100));
+            }
+        }
+        System.out.println(String.format("(%d available processors)", Runtime.getRuntime().availableProcessors()));
+    }
+}
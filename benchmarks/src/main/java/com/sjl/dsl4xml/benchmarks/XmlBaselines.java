@@ -0,0 +1,243 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.io.StringReader;
+import java.util.Date;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+import com.sjl.dsl4xml.benchmarks.XmlReadersBenchmark.*;
+import com.sjl.dsl4xml.support.StringConverter;
+import com.sjl.dsl4xml.support.convert.ThreadSafeDateStringConverter;
+
+/**
+ * Hand-written readers of the xml examples, straight against SAX and the
+ * pull-parser, filling the same objects as the DSL readers do. Like those,
+ * they create their parser once and reuse it, and convert dates with the
+ * same converter, so the difference between the two is only the DSL.
+ */
+final class XmlBaselines {
+
+    static final String DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+
+    private XmlBaselines() {}
+
+    interface Baseline {
+        public Object read(String aDocument) throws Exception;
+    }
+
+    abstract static class SAXBaseline extends DefaultHandler implements Baseline {
+        private XMLReader reader;
+        protected StringBuilder text = new StringBuilder();
+
+        SAXBaseline() throws Exception {
+            reader = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
+            reader.setContentHandler(this);
+        }
+
+        public Object read(String aDocument) throws Exception {
+            reader.parse(new InputSource(new StringReader(aDocument)));
+            return getResult();
+        }
+
+        protected abstract Object getResult();
+
+        @Override
+        public void characters(char[] aChars, int aStart, int aLength) {
+            text.append(aChars, aStart, aLength);
+        }
+
+        protected String takeText() {
+            String _text = text.toString();
+            text.setLength(0);
+            return _text;
+        }
+    }
+
+    static class DescriptionSAX extends SAXBaseline {
+        private Description result;
+
+        DescriptionSAX() throws Exception {}
+
+        @Override
+        public void startDocument() {
+            result = new Description();
+        }
+
+        @Override
+        public void startElement(String aUri, String aLocalName, String aQName, Attributes anAttributes) {
+            text.setLength(0);
+        }
+
+        @Override
+        public void endElement(String aUri, String aLocalName, String aQName) {
+            if ("title".equals(aQName)) {
+                result.setTitle(takeText());
+            } else if ("p".equals(aQName)) {
+                result.addParagraph(takeText());
+            }
+        }
+
+        @Override
+        protected Object getResult() {
+            return result;
+        }
+    }
+
+    static class TweetsSAX extends SAXBaseline {
+        private StringConverter<Date> dates = new ThreadSafeDateStringConverter(DATE_PATTERN);
+        private Tweets result;
+        private Tweet tweet;
+        private Content content;
+        private Author author;
+
+        TweetsSAX() throws Exception {}
+
+        @Override
+        public void startDocument() {
+            result = new Tweets();
+        }
+
+        @Override
+        public void startElement(String aUri, String aLocalName, String aQName, Attributes anAttributes) {
+            text.setLength(0);
+            if ("entry".equals(aQName)) {
+                tweet = new Tweet();
+            } else if (tweet == null) {
+                return;
+            } else if ("content".equals(aQName)) {
+                content = new Content();
+                content.setType(anAttributes.getValue("type"));
+            } else if ("author".equals(aQName)) {
+                author = new Author();
+            }
+        }
+
+        @Override
+        public void endElement(String aUri, String aLocalName, String aQName) {
+            if (tweet == null) {
+                return;
+            } else if ("entry".equals(aQName)) {
+                result.addTweet(tweet);
+                tweet = null;
+            } else if ("published".equals(aQName)) {
+                tweet.setPublished(dates.convert(takeText()));
+            } else if ("title".equals(aQName)) {
+                tweet.setTitle(takeText());
+            } else if ("content".equals(aQName)) {
+                content.setValue(takeText());
+                tweet.setContent(content);
+            } else if ("twitter:lang".equals(aQName)) {
+                tweet.setLanguage(takeText());
+            } else if (author == null) {
+                return;
+            } else if ("name".equals(aQName)) {
+                author.setName(takeText());
+            } else if ("uri".equals(aQName)) {
+                author.setUri(takeText());
+            } else if ("author".equals(aQName)) {
+                tweet.setAuthor(author);
+                author = null;
+            }
+        }
+
+        @Override
+        protected Object getResult() {
+            return result;
+        }
+    }
+
+    abstract static class PullBaseline implements Baseline {
+        private XmlPullParser parser;
+
+        PullBaseline() throws Exception {
+            XmlPullParserFactory _factory = XmlPullParserFactory.newInstance();
+            _factory.setNamespaceAware(true);
+            parser = _factory.newPullParser();
+        }
+
+        public Object read(String aDocument) throws Exception {
+            parser.setInput(new StringReader(aDocument));
+            return read(parser);
+        }
+
+        protected abstract Object read(XmlPullParser aParser) throws Exception;
+    }
+
+    static class DescriptionPull extends PullBaseline {
+        DescriptionPull() throws Exception {}
+
+        @Override
+        protected Object read(XmlPullParser aParser) throws Exception {
+            Description _result = new Description();
+            for (int _event = aParser.next(); _event != XmlPullParser.END_DOCUMENT; _event = aParser.next()) {
+                if (_event != XmlPullParser.START_TAG)
+                    continue;
+                String _name = aParser.getName();
+                if ("title".equals(_name)) {
+                    _result.setTitle(aParser.nextText());
+                } else if ("p".equals(_name)) {
+                    _result.addParagraph(aParser.nextText());
+                }
+            }
+            return _result;
+        }
+    }
+
+    static class TweetsPull extends PullBaseline {
+        private StringConverter<Date> dates = new ThreadSafeDateStringConverter(DATE_PATTERN);
+
+        TweetsPull() throws Exception {}
+
+        @Override
+        protected Object read(XmlPullParser aParser) throws Exception {
+            Tweets _result = new Tweets();
+            Tweet _tweet = null;
+            Author _author = null;
+            for (int _event = aParser.next(); _event != XmlPullParser.END_DOCUMENT; _event = aParser.next()) {
+                String _name = aParser.getName();
+                if (_event == XmlPullParser.END_TAG) {
+                    if ("entry".equals(_name)) {
+                        _result.addTweet(_tweet);
+                        _tweet = null;
+                    } else if ("author".equals(_name) && (_tweet != null)) {
+                        _tweet.setAuthor(_author);
+                        _author = null;
+                    }
+                } else if (_event != XmlPullParser.START_TAG) {
+                    continue;
+                } else if ("entry".equals(_name)) {
+                    _tweet = new Tweet();
+                } else if (_tweet == null) {
+                    continue;
+                } else if ("published".equals(_name)) {
+                    _tweet.setPublished(dates.convert(aParser.nextText()));
+                } else if ("title".equals(_name)) {
+                    _tweet.setTitle(aParser.nextText());
+                } else if ("content".equals(_name)) {
+                    Content _content = new Content();
+                    _content.setType(aParser.getAttributeValue(null, "type"));
+                    _content.setValue(aParser.nextText());
+                    _tweet.setContent(_content);
+                } else if ("lang".equals(_name) && "twitter".equals(aParser.getPrefix())) {
+                    _tweet.setLanguage(aParser.nextText());
+                } else if ("author".equals(_name)) {
+                    _author = new Author();
+                } else if (_author == null) {
+                    continue;
+                } else if ("name".equals(_name)) {
+                    _author.setName(aParser.nextText());
+                } else if ("uri".equals(_name)) {
+                    _author.setUri(aParser.nextText());
+                }
+            }
+            return _result;
+        }
+    }
+}
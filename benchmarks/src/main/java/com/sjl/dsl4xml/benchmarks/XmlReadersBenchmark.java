@@ -0,0 +1,241 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.sjl.dsl4xml.LegacyDocumentReader;
+
+/**
+ * Cost of reading the xml examples - example1.xml, a couple of nested tags,
+ * and example4.xml, the twitter search feed - with the SAX and pull-parser
+ * readers, each paired with a hand-written reader for the same parser filling
+ * the same objects, so that what the DSL costs over the parser it drives is a
+ * measured number rather than a claim.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlReadersBenchmark {
+
+    @Param({"example1", "example4"})
+    public String fixture;
+
+    private String document;
+    private LegacyDocumentReader<?> sax;
+    private LegacyDocumentReader<?> pull;
+    private XmlBaselines.Baseline rawSax;
+    private XmlBaselines.Baseline rawPull;
+
+    @Setup
+    public void setUp() throws Exception {
+        document = Fixtures.load(fixture + ".xml");
+        if ("example1".equals(fixture)) {
+            sax = SAXReaders.newDescriptionReader();
+            pull = PullReaders.newDescriptionReader();
+            rawSax = new XmlBaselines.DescriptionSAX();
+            rawPull = new XmlBaselines.DescriptionPull();
+        } else {
+            sax = SAXReaders.newTweetsReader();
+            pull = PullReaders.newTweetsReader();
+            rawSax = new XmlBaselines.TweetsSAX();
+            rawPull = new XmlBaselines.TweetsPull();
+        }
+    }
+
+    @Benchmark
+    public Object readSAX() {
+        return sax.read(new StringReader(document));
+    }
+
+    @Benchmark
+    public Object readPull() {
+        return pull.read(new StringReader(document));
+    }
+
+    @Benchmark
+    public Object rawSAX() throws Exception {
+        return rawSax.read(document);
+    }
+
+    @Benchmark
+    public Object rawPull() throws Exception {
+        return rawPull.read(document);
+    }
+
+// model classes, as in the example tests and the README
+
+    public static class Description {
+        private String title;
+        private List<String> paragraphs;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String aTitle) {
+            title = aTitle;
+        }
+
+        public List<String> getParagraphs() {
+            return paragraphs;
+        }
+
+        public void addParagraph(String aParagraph) {
+            if (paragraphs == null) {
+                paragraphs = new ArrayList<String>();
+            }
+            paragraphs.add(aParagraph);
+        }
+    }
+
+    public static class Books {
+        private List<Book> books = new ArrayList<Book>();
+
+        public void addBook(Book aBook) {
+            books.add(aBook);
+        }
+
+        public int size() {
+            return books.size();
+        }
+
+        public Book get(int anIndex) {
+            return books.get(anIndex);
+        }
+    }
+
+    public static class Book {
+        private String title;
+        private String synopsis;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String aTitle) {
+            title = aTitle;
+        }
+
+        public String getSynopsis() {
+            return synopsis;
+        }
+
+        public void setSynopsis(String aSynopsis) {
+            synopsis = aSynopsis;
+        }
+    }
+
+    public static class Tweets {
+        private List<Tweet> tweets = new ArrayList<Tweet>();
+
+        public void addTweet(Tweet aTweet) {
+            tweets.add(aTweet);
+        }
+
+        public int size() {
+            return tweets.size();
+        }
+
+        public Tweet get(int anIndex) {
+            return tweets.get(anIndex);
+        }
+    }
+
+    public static class Tweet {
+        private String title;
+        private Date published;
+        private Content content;
+        private String language;
+        private Author author;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String aTitle) {
+            title = aTitle;
+        }
+
+        public Date getPublished() {
+            return published;
+        }
+
+        public void setPublished(Date aDate) {
+            published = aDate;
+        }
+
+        public Content getContent() {
+            return content;
+        }
+
+        public void setContent(Content aContent) {
+            content = aContent;
+        }
+
+        public String getLanguage() {
+            return language;
+        }
+
+        public void setLanguage(String aLanguage) {
+            language = aLanguage;
+        }
+
+        public Author getAuthor() {
+            return author;
+        }
+
+        public void setAuthor(Author anAuthor) {
+            author = anAuthor;
+        }
+    }
+
+    public static class Content {
+        private String type;
+        private String value;
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String aType) {
+            type = aType;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String aValue) {
+            value = aValue;
+        }
+    }
+
+    public static class Author {
+        private String name;
+        private String uri;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String aName) {
+            name = aName;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public void setUri(String aUri) {
+            uri = aUri;
+        }
+    }
+}
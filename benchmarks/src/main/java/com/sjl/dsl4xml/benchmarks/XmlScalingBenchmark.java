@@ -0,0 +1,57 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.sjl.dsl4xml.LegacyDocumentReader;
+
+/**
+ * Throughput of the SAX and pull-parser readers on synthetic documents (see
+ * {@link Corpus}) from a kilobyte to a hundred megabytes, to show how they
+ * scale. Run it with {@link ScalingHarness} to see the peak heap and garbage
+ * collection time too. As for {@link JsonScalingBenchmark}, 1GB needs asking
+ * for, with a bigger heap: {@code -p size=1GB -jvmArgsAppend -Xmx16g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class XmlScalingBenchmark {
+
+    @Param({"tweets", "books"})
+    public String shape;
+
+    @Param({"1KB", "1MB", "100MB"})
+    public String size;
+
+    private Corpus corpus;
+    private LegacyDocumentReader<?> sax;
+    private LegacyDocumentReader<?> pull;
+
+    @Setup
+    public void setUp() {
+        corpus = Corpus.generate(shape, Corpus.parseSize(size), 0, 0);
+        if ("tweets".equals(shape)) {
+            sax = SAXReaders.newTweetsReader();
+            pull = PullReaders.newTweetsReader();
+        } else {
+            sax = SAXReaders.newBooksReader();
+            pull = PullReaders.newBooksReader();
+        }
+    }
+
+    @Benchmark
+    public Object readSAX(Processed aProcessed) {
+        aProcessed.add(corpus.getLength());
+        return sax.read(corpus.newReader());
+    }
+
+    @Benchmark
+    public Object readPull(Processed aProcessed) {
+        aProcessed.add(corpus.getLength());
+        return pull.read(corpus.newReader());
+    }
+}
@@ -0,0 +1,154 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.BenchmarkList;
+import org.openjdk.jmh.runner.BenchmarkListEntry;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs each benchmark named in allocation-budgets.properties with JMH's GC
+ * profiler, and fails if any allocates more bytes per operation
+ * (gc.alloc.rate.norm) than its budget - or has no budget at all - so that a
+ * change that makes a reader or converter produce more garbage per document
+ * fails the benchmarks build rather than being found in production.
+ *
+ * Budgets are keyed by benchmark class and method and the values of its
+ * parameters, e.g. XmlReadersBenchmark.readSAX.example1, and sit some way
+ * above what is measured so that they don't fail on noise. When a change
+ * allocates less, lower the budget to suit; the measurements are printed.
+ *
+ * Every family of benchmarks - every benchmark class - must budget at least
+ * one of its methods, unless it is one of the few that measure something
+ * other than what reading allocates (see UNBUDGETED), so that a new engine or
+ * converter can't be benchmarked without its allocation being held to
+ * account.
+ */
+public class AllocationBudgetTest {
+
+    private static final String NORM = "gc.alloc.rate.norm";
+
+    // benchmarks of start-up, scaling and contention, whose allocation is
+    // either not per document or measured by the families that are budgeted
+    private static final List<String> UNBUDGETED = Arrays.asList(
+        "ColdStartBenchmark", "DefinitionBuildBenchmark", "JsonScalingBenchmark",
+        "XmlScalingBenchmark", "ThreadScalingBenchmark", "StackBenchmark", "ListProxyBenchmark");
+
+    @Test
+    public void budgetsEveryFamily() throws Exception {
+        Set<String> _budgeted = new TreeSet<String>();
+        for (String _benchmark : getBenchmarks(loadBudgets())) {
+            _budgeted.add(_benchmark.substring(0, _benchmark.indexOf('.')));
+        }
+
+        Set<String> _unbudgeted = new TreeSet<String>();
+        for (BenchmarkListEntry _entry : readBenchmarkList()) {
+            String _class = _entry.getUserClassQName();
+            _class = _class.substring(_class.lastIndexOf('.') + 1);
+            if (!_budgeted.contains(_class) && !UNBUDGETED.contains(_class))
+                _unbudgeted.add(_class);
+        }
+        Assert.assertTrue("No allocation budget for " + _unbudgeted, _unbudgeted.isEmpty());
+    }
+
+    @Test
+    public void allocatesNoMoreThanBudgeted() throws Exception {
+        Properties _budgets = loadBudgets();
+
+        ChainedOptionsBuilder _options = new OptionsBuilder()
+            .addProfiler(GCProfiler.class)
+            .warmupIterations(2)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(2)
+            .measurementTime(TimeValue.seconds(1))
+            .forks(1);
+        for (String _benchmark : getBenchmarks(_budgets)) {
+            _options.include("\\." + _benchmark.replace(".", "\\.") + "$");
+        }
+        Collection<RunResult> _results = new Runner(_options.build()).run();
+
+        List<String> _failures = new ArrayList<String>();
+        for (RunResult _result : _results) {
+            String _key = getKey(_result.getParams());
+            double _allocated = getAllocated(_result);
+            String _budget = _budgets.getProperty(_key);
+            System.out.println(String.format("%s allocated %.0f bytes/op, budget %s", _key, _allocated, _budget));
+            if (_budget == null) {
+                _failures.add(_key + " has no budget (allocated " + Math.round(_allocated) + " bytes/op)");
+            } else if (_allocated > Double.parseDouble(_budget)) {
+                _failures.add(_key + " allocated " + Math.round(_allocated) + " bytes/op, over its budget of " + _budget);
+            }
+        }
+        Assert.assertTrue("Over budget: " + _failures, _failures.isEmpty());
+        Assert.assertEquals("Benchmarks run", _budgets.size(), _results.size());
+    }
+
+    private Collection<BenchmarkListEntry> readBenchmarkList() throws IOException {
+        InputStream _in = getClass().getResourceAsStream(BenchmarkList.BENCHMARK_LIST);
+        Assert.assertNotNull("No " + BenchmarkList.BENCHMARK_LIST + " - are the benchmarks compiled?", _in);
+        try {
+            return BenchmarkList.readBenchmarkList(_in);
+        } finally {
+            _in.close();
+        }
+    }
+
+    private Properties loadBudgets() throws IOException {
+        InputStream _in = getClass().getResourceAsStream("allocation-budgets.properties");
+        try {
+            Properties _budgets = new Properties();
+            _budgets.load(_in);
+            return _budgets;
+        } finally {
+            _in.close();
+        }
+    }
+
+    /**
+     * @return the class and method of each budgeted benchmark - the budget's
+     * key less its parameter values
+     */
+    private Set<String> getBenchmarks(Properties aBudgets) {
+        Set<String> _benchmarks = new TreeSet<String>();
+        for (String _key : aBudgets.stringPropertyNames()) {
+            String[] _parts = _key.split("\\.");
+            _benchmarks.add(_parts[0] + "." + _parts[1]);
+        }
+        return _benchmarks;
+    }
+
+    private String getKey(BenchmarkParams aParams) {
+        String _name = aParams.getBenchmark();
+        StringBuilder _sb = new StringBuilder(_name.substring(_name.lastIndexOf('.', _name.lastIndexOf('.') - 1) + 1));
+        for (String _param : aParams.getParamsKeys()) {
+            _sb.append('.').append(aParams.getParam(_param));
+        }
+        return _sb.toString();
+    }
+
+    private double getAllocated(RunResult aResult) {
+        for (Map.Entry<String, Result> _e : aResult.getSecondaryResults().entrySet()) {
+            if (_e.getKey().endsWith(NORM))
+                return _e.getValue().getScore();
+        }
+        throw new IllegalStateException("No " + NORM + " for " + aResult.getParams().getBenchmark());
+    }
+}
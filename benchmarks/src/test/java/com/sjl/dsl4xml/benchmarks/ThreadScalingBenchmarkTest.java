@@ -0,0 +1,135 @@
+package com.sjl.dsl4xml.benchmarks;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Runs each of ThreadScalingBenchmark's reads from several threads at once,
+ * sharing its readers as the benchmark does, and fails if any result differs
+ * from a single-threaded read - so a reader that isn't safe to share fails
+ * here, rather than the benchmark quietly measuring wrong results.
+ */
+public class ThreadScalingBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int READS = 200;
+
+    @Test
+    public void readsTheSameFromEveryThreadAsFromOne() throws Exception {
+        for (Method _read : ThreadScalingBenchmark.class.getMethods()) {
+            if (_read.isAnnotationPresent(Benchmark.class))
+                assertReadsTheSameConcurrently(_read);
+        }
+    }
+
+    private void assertReadsTheSameConcurrently(final Method aRead) throws Exception {
+        // one benchmark for the expected result, so the shared one's first reads race
+        ThreadScalingBenchmark _single = new ThreadScalingBenchmark();
+        _single.setUp();
+        final String _expected = describe(aRead.invoke(_single));
+
+        final ThreadScalingBenchmark _shared = new ThreadScalingBenchmark();
+        _shared.setUp();
+        final CountDownLatch _start = new CountDownLatch(1);
+        ExecutorService _threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<String>> _results = new ArrayList<Future<String>>();
+            for (int i = 0; i < THREADS; i++) {
+                _results.add(_threads.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        _start.await();
+                        for (int j = 0; j < READS; j++) {
+                            String _actual = describe(aRead.invoke(_shared));
+                            if (!_expected.equals(_actual))
+                                return _actual;
+                        }
+                        return _expected;
+                    }
+                }));
+            }
+            _start.countDown();
+            for (Future<String> _result : _results)
+                Assert.assertEquals(aRead.getName(), _expected, _result.get());
+        } finally {
+            _threads.shutdown();
+        }
+    }
+
+    /**
+     * @return the values of the object's properties, and theirs in turn, as
+     * the benchmarks' models have none of equals or toString of their own
+     */
+    private String describe(Object anObject) throws Exception {
+        if (anObject == null || anObject instanceof CharSequence || anObject instanceof Number
+            || anObject instanceof Boolean || anObject instanceof Character || anObject instanceof Date
+            || anObject instanceof Enum)
+            return String.valueOf(anObject);
+
+        StringBuilder _sb = new StringBuilder();
+        if (anObject instanceof Iterable) {
+            _sb.append('[');
+            for (Object _o : (Iterable<?>) anObject)
+                _sb.append(describe(_o)).append(',');
+            return _sb.append(']').toString();
+        }
+        if (anObject.getClass().isArray()) {
+            _sb.append('[');
+            for (int i = 0; i < Array.getLength(anObject); i++)
+                _sb.append(describe(Array.get(anObject, i))).append(',');
+            return _sb.append(']').toString();
+        }
+        if (anObject instanceof Map) {
+            _sb.append('{');
+            for (Map.Entry<?,?> _e : ((Map<?,?>) anObject).entrySet())
+                _sb.append(_e.getKey()).append('=').append(describe(_e.getValue())).append(',');
+            return _sb.append('}').toString();
+        }
+
+        // containers such as Tweets, which only offer size() and get(int)
+        Method _size = getMethod(anObject, "size");
+        Method _get = getMethod(anObject, "get", int.class);
+        if (_size != null && _get != null) {
+            _sb.append('[');
+            int _count = ((Integer) _size.invoke(anObject)).intValue();
+            for (int i = 0; i < _count; i++)
+                _sb.append(describe(_get.invoke(anObject, Integer.valueOf(i)))).append(',');
+            return _sb.append(']').toString();
+        }
+
+        // getters in name order, as getMethods' order isn't fixed
+        Map<String,Method> _getters = new TreeMap<String,Method>();
+        for (Method _m : anObject.getClass().getMethods()) {
+            if (_m.getParameterTypes().length == 0 && !Modifier.isStatic(_m.getModifiers())
+                && _m.getDeclaringClass() != Object.class
+                && (_m.getName().startsWith("get") || _m.getName().startsWith("is")))
+                _getters.put(_m.getName(), _m);
+        }
+        _sb.append('{');
+        for (Method _m : _getters.values())
+            _sb.append(_m.getName()).append('=').append(describe(_m.invoke(anObject))).append(',');
+        return _sb.append('}').toString();
+    }
+
+    private Method getMethod(Object anObject, String aName, Class<?>... aParameterTypes) {
+        try {
+            return anObject.getClass().getMethod(aName, aParameterTypes);
+        } catch (NoSuchMethodException anExc) {
+            return null;
+        }
+    }
+}
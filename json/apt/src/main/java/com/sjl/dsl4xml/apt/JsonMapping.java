@@ -0,0 +1,33 @@
+package com.sjl.dsl4xml.apt;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the root type of a JSON document, for which a
+ * {@link com.sjl.dsl4xml.DocumentReader} is generated at build time (see
+ * {@link JsonMappingProcessor}). The type is its own definition: each of its
+ * properties, and those of the types they refer to, is mapped to the name of
+ * the property (or its {@link JsonName}) - just as
+ * <code>mapping(T.class).with(property("a"), object("b", B.class).with(...), array("c").of(...))</code>
+ * would map them.
+ *
+ * There is no such annotation for XML documents, which are read with a
+ * definition.
+ *
+ * @author steve
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface JsonMapping {
+
+    /**
+     * @return the simple name of the generated reader, which goes in the same
+     * package as the type; by default the type's simple name followed by
+     * "Reader".
+     */
+    String reader() default "";
+
+}
@@ -0,0 +1,89 @@
+package com.sjl.dsl4xml.apt;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates, at build time, a {@link com.sjl.dsl4xml.DocumentReader} for each
+ * type marked with {@link JsonMapping}. The reader calls the constructors and
+ * mutators of the mapped classes directly, and implements mapped interfaces
+ * with plain classes of its own, so reading needs no reflection, proxies or
+ * runtime class generation at all - it is what we'd write by hand against
+ * Gson's JsonReader.
+ *
+ * Documents are read into the same values as GsonDocumentReader reads them
+ * with the equivalent definition. Strings, ints, longs, floats, doubles and
+ * booleans (and their wrappers), other mapped types, and Lists of any of
+ * those are read directly. Any other type - dates, enums, big decimals and
+ * the like - is converted from the value's text by the converter registered
+ * for it, just as a property of that type would be: the generated reader is
+ * a ConverterRegistry, starting out with the same converters as a JSON
+ * definition. Names the mapping doesn't know are given, as the runtime gives
+ * them, to the magic set of the interfaces it implements (and of classes
+ * which are Mutable), so that they show up in toString; elsewhere, and for
+ * objects and arrays, they are skipped.
+ *
+ * Only JSON readers are generated. XML documents, whose mappings say which
+ * names are attributes and which elements, are read with a definition.
+ *
+ * The processor is found through META-INF/services, so putting this module on
+ * the compiler's classpath is all it takes.
+ *
+ * @author steve
+ */
+@SupportedAnnotationTypes("com.sjl.dsl4xml.apt.JsonMapping")
+public class JsonMappingProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> anAnnotations, RoundEnvironment aRound) {
+        for (Element _e : aRound.getElementsAnnotatedWith(JsonMapping.class)) {
+            if ((_e.getKind() != ElementKind.CLASS) && (_e.getKind() != ElementKind.INTERFACE)) {
+                error("Only classes and interfaces can be mapped", _e);
+                continue;
+            }
+
+            TypeElement _type = (TypeElement) _e;
+            try {
+                ReaderSource _source = new ReaderSource(processingEnv, _type, getReaderName(_type));
+                String _text = _source.write();
+                JavaFileObject _file = processingEnv.getFiler().createSourceFile(_source.getQualifiedName(), _type);
+                Writer _out = _file.openWriter();
+                try {
+                    _out.write(_text);
+                } finally {
+                    _out.close();
+                }
+            } catch (MappingException anExc) {
+                error(anExc.getMessage(), anExc.getElement());
+            } catch (IOException anExc) {
+                error("Couldn't write the reader of " + _type.getQualifiedName() + ": " + anExc.getMessage(), _type);
+            }
+        }
+        return true;
+    }
+
+    private String getReaderName(TypeElement aType) {
+        String _name = aType.getAnnotation(JsonMapping.class).reader();
+        return "".equals(_name) ? aType.getSimpleName() + "Reader" : _name;
+    }
+
+    private void error(String aMessage, Element anElement) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, aMessage, anElement);
+    }
+}
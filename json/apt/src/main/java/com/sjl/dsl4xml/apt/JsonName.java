@@ -0,0 +1,21 @@
+package com.sjl.dsl4xml.apt;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The name in the document of the property whose accessor (of an interface)
+ * or mutator (of a class) carries it, where it isn't the name of the property
+ * - the equivalent of an alias in a definition.
+ *
+ * @author steve
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface JsonName {
+
+    String value();
+
+}
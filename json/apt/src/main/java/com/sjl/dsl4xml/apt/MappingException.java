@@ -0,0 +1,23 @@
+package com.sjl.dsl4xml.apt;
+
+import javax.lang.model.element.Element;
+
+/**
+ * Something in a mapped type that the generated reader can't deal with,
+ * reported against the element concerned.
+ *
+ * @author steve
+ */
+class MappingException extends Exception {
+
+    private final Element element;
+
+    MappingException(Element anElement, String aMessage) {
+        super(aMessage);
+        element = anElement;
+    }
+
+    Element getElement() {
+        return element;
+    }
+}
@@ -0,0 +1,617 @@
+package com.sjl.dsl4xml.apt;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.sjl.dsl4xml.support.Mutable;
+import com.sjl.dsl4xml.support.ReflectorFactory;
+
+/**
+ * The source of the reader of one mapped type: a read method for it and for
+ * each type it refers to, a read method for each kind of List, an
+ * implementation of each mapped interface, and the converters of any
+ * properties which aren't read directly.
+ *
+ * @author steve
+ */
+class ReaderSource {
+
+    private final Elements elements;
+    private final Types types;
+    private final TypeElement root;
+    private final String packageName;
+    private final String readerName;
+    private final TypeMirror mutable;
+
+    // each mapped type by qualified name, with the name of its read method
+    private final Map<String, Mapped> mapped = new LinkedHashMap<String, Mapped>();
+    private final List<Mapped> unwritten = new ArrayList<Mapped>();
+    // the read method of each type of List, by its source
+    private final Map<String, String> lists = new LinkedHashMap<String, String>();
+    // the field of each converter, by the source of the type it converts to
+    private final Map<String, String> converters = new LinkedHashMap<String, String>();
+    private final StringBuilder converterFields = new StringBuilder();
+    private final StringBuilder converterLookups = new StringBuilder();
+    private boolean readsUnknown;
+    private final StringBuilder methods = new StringBuilder();
+    private final StringBuilder implementations = new StringBuilder();
+    private int implementationCount;
+
+    ReaderSource(ProcessingEnvironment anEnvironment, TypeElement aRoot, String aReaderName) {
+        elements = anEnvironment.getElementUtils();
+        types = anEnvironment.getTypeUtils();
+        root = aRoot;
+        packageName = elements.getPackageOf(aRoot).getQualifiedName().toString();
+        readerName = aReaderName;
+        TypeElement _mutable = elements.getTypeElement(Mutable.class.getName());
+        mutable = (_mutable == null) ? null : _mutable.asType();
+    }
+
+    String getQualifiedName() {
+        return "".equals(packageName) ? readerName : packageName + "." + readerName;
+    }
+
+    /**
+     * @return the source of the reader
+     * @throws MappingException if anything in the mapped types can't be read
+     */
+    String write() throws MappingException {
+        String _root = getMapped(root).method;
+        while (!unwritten.isEmpty()) {
+            writeMapped(unwritten.remove(0));
+        }
+
+        String _type = root.getQualifiedName().toString();
+        StringBuilder _sb = new StringBuilder();
+        if (!"".equals(packageName))
+            _sb.append("package ").append(packageName).append(";\n\n");
+        _sb.append("import java.io.IOException;\n");
+        _sb.append("import java.io.InputStream;\n");
+        _sb.append("import java.io.InputStreamReader;\n");
+        _sb.append("import java.io.Reader;\n");
+        _sb.append("import java.io.UnsupportedEncodingException;\n");
+        _sb.append("import java.util.ArrayList;\n");
+        _sb.append("import java.util.HashMap;\n");
+        _sb.append("import java.util.List;\n");
+        _sb.append("import java.util.Map;\n\n");
+        _sb.append("import com.google.gson.stream.JsonReader;\n");
+        _sb.append("import com.google.gson.stream.JsonToken;\n");
+        _sb.append("import com.sjl.dsl4xml.ConverterRegistry;\n");
+        _sb.append("import com.sjl.dsl4xml.DocumentReader;\n");
+        _sb.append("import com.sjl.dsl4xml.ParsingException;\n");
+        _sb.append("import com.sjl.dsl4xml.TypeSafeConverter;\n");
+        _sb.append("import com.sjl.dsl4xml.support.Mutable;\n");
+        _sb.append("import com.sjl.dsl4xml.support.StringConverter;\n");
+        _sb.append("import com.sjl.dsl4xml.support.convert.CachingConverterRegistry;\n");
+        _sb.append("import com.sjl.dsl4xml.support.convert.DefaultConverters;\n\n");
+        _sb.append("/**\n");
+        _sb.append(" * Reads ").append(_type).append(" from JSON. Generated by dsl4xml-apt - do not edit.\n");
+        _sb.append(" */\n");
+        _sb.append("public final class ").append(readerName).append(" implements DocumentReader<").append(_type).append(">, ConverterRegistry {\n\n");
+        _sb.append("    private final CachingConverterRegistry registry = DefaultConverters.newJsonRegistry();\n");
+        _sb.append("    private volatile Converters converters;\n\n");
+        _sb.append("    public void registerConverters(TypeSafeConverter<?,?>... aConverters) {\n");
+        _sb.append("        registry.registerConverters(aConverters);\n");
+        _sb.append("        converters = null;\n");
+        _sb.append("    }\n\n");
+        _sb.append("    public <F,T> TypeSafeConverter<F,T> getConverter(Class<F> aFromType, Class<T> aToType) {\n");
+        _sb.append("        return registry.getConverter(aFromType, aToType);\n");
+        _sb.append("    }\n\n");
+        _sb.append("    public <T> StringConverter<T> getConverter(Class<T> aType) {\n");
+        _sb.append("        return registry.getConverter(aType);\n");
+        _sb.append("    }\n\n");
+        _sb.append("    public ").append(_type).append(" read(InputStream anInputStream, String aCharSet) {\n");
+        _sb.append("        try {\n");
+        _sb.append("            return read(new InputStreamReader(anInputStream, aCharSet));\n");
+        _sb.append("        } catch (UnsupportedEncodingException anExc) {\n");
+        _sb.append("            throw new ParsingException(anExc);\n");
+        _sb.append("        }\n");
+        _sb.append("    }\n\n");
+        _sb.append("    public ").append(_type).append(" read(Reader aReader) {\n");
+        _sb.append("        Converters _converters = converters;\n");
+        _sb.append("        if (_converters == null)\n");
+        _sb.append("            converters = _converters = new Converters(registry);\n");
+        _sb.append("        JsonReader _reader = new JsonReader(aReader);\n");
+        _sb.append("        try {\n");
+        _sb.append("            return ").append(_root).append("(_reader, _converters);\n");
+        _sb.append("        } catch (ParsingException anExc) {\n");
+        _sb.append("            throw anExc;\n");
+        _sb.append("        } catch (Exception anExc) {\n");
+        _sb.append("            throw new ParsingException(anExc);\n");
+        _sb.append("        } finally {\n");
+        _sb.append("            try {\n");
+        _sb.append("                _reader.close();\n");
+        _sb.append("            } catch (IOException anExc) {\n");
+        _sb.append("                throw new ParsingException(\"Exception while closing the reader\", anExc);\n");
+        _sb.append("            }\n");
+        _sb.append("        }\n");
+        _sb.append("    }\n");
+        _sb.append(methods);
+        if (readsUnknown)
+            writeReadUnknown(_sb);
+        _sb.append(implementations);
+        _sb.append("\n    // the converters of the properties which aren't read directly, looked up\n");
+        _sb.append("    // from the registry when first reading after converters are registered\n");
+        _sb.append("    private static final class Converters {\n");
+        _sb.append(converterFields);
+        _sb.append("\n        Converters(ConverterRegistry aRegistry) {\n");
+        _sb.append(converterLookups);
+        _sb.append("        }\n");
+        _sb.append("    }\n");
+        _sb.append("}\n");
+        return _sb.toString();
+    }
+
+    /**
+     * Writes the method which reads the value of a name the mapping doesn't
+     * know, as the runtime would give it to a magic set: Strings as they are,
+     * numbers as Doubles and booleans as Booleans. Objects and arrays are
+     * skipped, having no type to be read into.
+     */
+    private void writeReadUnknown(StringBuilder anSb) {
+        anSb.append("\n    private static Object readUnknown(JsonReader aReader) throws IOException {\n");
+        anSb.append("        switch (aReader.peek()) {\n");
+        anSb.append("            case STRING:\n");
+        anSb.append("                return aReader.nextString();\n");
+        anSb.append("            case NUMBER:\n");
+        anSb.append("                return Double.valueOf(aReader.nextDouble());\n");
+        anSb.append("            case BOOLEAN:\n");
+        anSb.append("                return Boolean.valueOf(aReader.nextBoolean());\n");
+        anSb.append("            default:\n");
+        anSb.append("                aReader.skipValue();\n");
+        anSb.append("                return null;\n");
+        anSb.append("        }\n");
+        anSb.append("    }\n");
+    }
+
+    private Mapped getMapped(TypeElement aType) throws MappingException {
+        String _name = aType.getQualifiedName().toString();
+        Mapped _m = mapped.get(_name);
+        if (_m == null) {
+            checkAccessible(aType);
+            _m = new Mapped(aType, "read" + aType.getSimpleName() + ((mapped.size() == 0) ? "" : String.valueOf(mapped.size())));
+            mapped.put(_name, _m);
+            unwritten.add(_m);
+        }
+        return _m;
+    }
+
+    private void writeMapped(Mapped aMapped) throws MappingException {
+        TypeElement _type = aMapped.type;
+        boolean _interface = _type.getKind() == ElementKind.INTERFACE;
+        Map<String, Property> _properties = _interface ? getInterfaceProperties(_type) : getClassProperties(_type);
+
+        String _instance;
+        if (_interface) {
+            _instance = "Impl" + implementationCount++;
+            writeImplementation(_type, _instance, _properties);
+        } else {
+            checkConstructor(_type);
+            _instance = _type.getQualifiedName().toString();
+        }
+        // as at runtime, names which aren't properties go to the magic set of
+        // the interfaces we implement, and of classes which have one
+        boolean _keepsUnknown = _interface || ((mutable != null) && types.isAssignable(_type.asType(), mutable));
+
+        // the properties of each hash of a document name, as a switch on strings would have them
+        Map<Integer, List<Property>> _byHash = new TreeMap<Integer, List<Property>>();
+        for (Property _p : _properties.values()) {
+            List<Property> _same = _byHash.get(_p.documentName.hashCode());
+            if (_same == null) {
+                _same = new ArrayList<Property>();
+                _byHash.put(_p.documentName.hashCode(), _same);
+            }
+            _same.add(_p);
+        }
+
+        // reading the properties may write other methods, so write this one aside
+        StringBuilder _sb = new StringBuilder();
+        _sb.append("\n    private static ").append(_type.getQualifiedName()).append(" ").append(aMapped.method).append("(JsonReader aReader, Converters aConverters) throws IOException {\n");
+        _sb.append("        ").append(_instance).append(" _o = new ").append(_instance).append("();\n");
+        _sb.append("        aReader.beginObject();\n");
+        _sb.append("        while (aReader.hasNext()) {\n");
+        _sb.append("            String _name = aReader.nextName();\n");
+        _sb.append("            if (aReader.peek() == JsonToken.NULL) {\n");
+        _sb.append("                aReader.nextNull();\n");
+        _sb.append("                continue;\n");
+        _sb.append("            }\n");
+        if (!_byHash.isEmpty()) {
+            _sb.append("            switch (_name.hashCode()) {\n");
+            for (Map.Entry<Integer, List<Property>> _e : _byHash.entrySet()) {
+                _sb.append("                case ").append(_e.getKey()).append(":\n");
+                for (Property _p : _e.getValue()) {
+                    String _value = read(_p.type, _p.element);
+                    _sb.append("                    if (_name.equals(").append(literal(_p.documentName)).append(")) {\n");
+                    if (_interface)
+                        _sb.append("                        _o.").append(_p.field).append(" = ").append(_value).append(";\n");
+                    else
+                        _sb.append("                        _o.").append(_p.mutator).append("(").append(_value).append(");\n");
+                    _sb.append("                        continue;\n");
+                    _sb.append("                    }\n");
+                }
+                _sb.append("                    break;\n");
+            }
+            _sb.append("            }\n");
+        }
+        if (_keepsUnknown) {
+            readsUnknown = true;
+            _sb.append("            Object _value = readUnknown(aReader);\n");
+            _sb.append("            if (_value != null)\n");
+            _sb.append("                _o.__magic_set(_name, _value);\n");
+        } else {
+            _sb.append("            aReader.skipValue();\n");
+        }
+        _sb.append("        }\n");
+        _sb.append("        aReader.endObject();\n");
+        _sb.append("        return _o;\n");
+        _sb.append("    }\n");
+        methods.append(_sb);
+    }
+
+    /**
+     * @return an expression which reads a value of the given type from aReader
+     */
+    private String read(TypeMirror aType, Element anElement) throws MappingException {
+        switch (aType.getKind()) {
+            case INT:
+                return "(int) aReader.nextDouble()";
+            case LONG:
+                return "(long) aReader.nextDouble()";
+            case FLOAT:
+                return "(float) aReader.nextDouble()";
+            case DOUBLE:
+                return "aReader.nextDouble()";
+            case BOOLEAN:
+                return "aReader.nextBoolean()";
+            case BYTE:
+            case SHORT:
+            case CHAR:
+                return convert(aType);
+            case DECLARED:
+                break;
+            default:
+                throw unsupported(aType, anElement);
+        }
+
+        TypeElement _element = (TypeElement) types.asElement(aType);
+        String _name = _element.getQualifiedName().toString();
+        if ("java.lang.String".equals(_name))
+            return "aReader.nextString()";
+        if ("java.lang.Integer".equals(_name))
+            return "Integer.valueOf((int) aReader.nextDouble())";
+        if ("java.lang.Long".equals(_name))
+            return "Long.valueOf((long) aReader.nextDouble())";
+        if ("java.lang.Float".equals(_name))
+            return "Float.valueOf((float) aReader.nextDouble())";
+        if ("java.lang.Double".equals(_name))
+            return "Double.valueOf(aReader.nextDouble())";
+        if ("java.lang.Boolean".equals(_name))
+            return "Boolean.valueOf(aReader.nextBoolean())";
+        if ("java.util.List".equals(_name) || "java.util.Collection".equals(_name))
+            return readList((DeclaredType) aType, anElement) + "(aReader, aConverters)";
+        if ((_element.getKind() == ElementKind.ENUM) || _name.startsWith("java.") || _name.startsWith("javax."))
+            return convert(aType);
+        if ((_element.getKind() != ElementKind.CLASS) && (_element.getKind() != ElementKind.INTERFACE))
+            throw unsupported(aType, anElement);
+        return getMapped(_element).method + "(aReader, aConverters)";
+    }
+
+    /**
+     * @return an expression which converts the next value of aReader to the
+     * given type with the converter registered for it, as a property of that
+     * type would be converted at runtime
+     */
+    private String convert(TypeMirror aType) {
+        TypeMirror _erased = types.erasure(aType);
+        String _boxed = _erased.getKind().isPrimitive() ? types.boxedClass((PrimitiveType) _erased).getQualifiedName().toString() : _erased.toString();
+        String _field = converters.get(_boxed);
+        if (_field == null) {
+            _field = "c" + converters.size();
+            converters.put(_boxed, _field);
+            converterFields.append("        final StringConverter<").append(_boxed).append("> ").append(_field).append(";\n");
+            converterLookups.append("            ").append(_field).append(" = aRegistry.getConverter(").append(_erased).append(".class);\n");
+        }
+
+        String _value = "aConverters." + _field + ".convert(aReader.nextString())";
+        // Lists are the only generic types we read ourselves; converters only know the raw types
+        return types.isSameType(aType, _erased) ? _value : "(" + aType + ") " + _value;
+    }
+
+    /**
+     * @return the name of the method which reads a List of the given type,
+     * writing it if this is the first time of asking
+     */
+    private String readList(DeclaredType aType, Element anElement) throws MappingException {
+        if (aType.getTypeArguments().size() != 1)
+            throw new MappingException(anElement, "Lists must say what they contain, e.g. List<String>");
+
+        TypeMirror _of = aType.getTypeArguments().get(0);
+        if (_of.getKind() == TypeKind.WILDCARD)
+            throw new MappingException(anElement, "Lists must say exactly what they contain, not " + aType);
+        String _key = _of.toString();
+        String _method = lists.get(_key);
+        if (_method != null)
+            return _method;
+
+        _method = "readList" + lists.size();
+        lists.put(_key, _method);
+        String _value = read(_of, anElement);
+
+        StringBuilder _sb = methods;
+        _sb.append("\n    private static List<").append(_key).append("> ").append(_method).append("(JsonReader aReader, Converters aConverters) throws IOException {\n");
+        _sb.append("        List<").append(_key).append("> _l = new ArrayList<").append(_key).append(">();\n");
+        _sb.append("        aReader.beginArray();\n");
+        _sb.append("        while (aReader.hasNext()) {\n");
+        _sb.append("            if (aReader.peek() == JsonToken.NULL) {\n");
+        _sb.append("                aReader.nextNull();\n");
+        _sb.append("                continue;\n");
+        _sb.append("            }\n");
+        _sb.append("            _l.add(").append(_value).append(");\n");
+        _sb.append("        }\n");
+        _sb.append("        aReader.endArray();\n");
+        _sb.append("        return _l;\n");
+        _sb.append("    }\n");
+        return _method;
+    }
+
+    /**
+     * The properties of an interface are those of its accessors (and any
+     * mutators it declares), implemented with a field apiece.
+     */
+    private Map<String, Property> getInterfaceProperties(TypeElement aType) throws MappingException {
+        Map<String, Property> _properties = new TreeMap<String, Property>();
+        List<ExecutableElement> _mutators = new ArrayList<ExecutableElement>();
+        for (ExecutableElement _m : ElementFilter.methodsIn(elements.getAllMembers(aType))) {
+            if (!_m.getModifiers().contains(Modifier.ABSTRACT) || isMagicSet(_m))
+                continue;
+
+            if (_m.getParameters().isEmpty() && (_m.getReturnType().getKind() != TypeKind.VOID)) {
+                Property _p = getProperty(_properties, _m, _m.getReturnType());
+                _p.accessors.add(_m);
+            } else if ((_m.getParameters().size() == 1) && (_m.getReturnType().getKind() == TypeKind.VOID)) {
+                _mutators.add(_m);
+            } else {
+                throw new MappingException(_m, "Can't implement " + _m + " of " + aType.getQualifiedName() + " - only accessors and void mutators");
+            }
+        }
+        for (ExecutableElement _m : _mutators) {
+            Property _p = getProperty(_properties, _m, _m.getParameters().get(0).asType());
+            if (!types.isSameType(_p.type, _m.getParameters().get(0).asType()))
+                throw new MappingException(_m, _m + " takes a different type to the accessor of " + _p.name);
+            _p.mutators.add(_m);
+        }
+        return _properties;
+    }
+
+    /**
+     * The properties of a class are those of its public mutators - methods
+     * named with any of the prefixes the runtime looks for, which where a
+     * property has more than one prefers them in the same order (addX before
+     * setX, and so on).
+     */
+    private Map<String, Property> getClassProperties(TypeElement aType) throws MappingException {
+        Map<String, Property> _properties = new TreeMap<String, Property>();
+        List<ExecutableElement> _methods = ElementFilter.methodsIn(elements.getAllMembers(aType));
+        for (String _prefix : ReflectorFactory.MUTATOR_PREFIXES) {
+            for (ExecutableElement _m : _methods) {
+                if (!_m.getModifiers().contains(Modifier.PUBLIC) || _m.getModifiers().contains(Modifier.STATIC) || isMagicSet(_m))
+                    continue;
+                if (!isMutator(_m.getSimpleName().toString(), _prefix) || (_m.getParameters().size() != 1))
+                    continue;
+
+                Property _p = getProperty(_properties, _m, _m.getParameters().get(0).asType());
+                if (_p.mutator == null)
+                    _p.mutator = _m.getSimpleName().toString();
+            }
+        }
+        return _properties;
+    }
+
+    private static boolean isMutator(String aMethodName, String aPrefix) {
+        return aMethodName.startsWith(aPrefix) &&
+            (aMethodName.length() > aPrefix.length()) &&
+            Character.isUpperCase(aMethodName.charAt(aPrefix.length()));
+    }
+
+    private Property getProperty(Map<String, Property> aProperties, ExecutableElement aMethod, TypeMirror aType) {
+        String _name = getPropertyName(aMethod.getSimpleName().toString());
+        Property _p = aProperties.get(_name);
+        if (_p == null) {
+            _p = new Property(_name, aType, aMethod, "value" + aProperties.size());
+            aProperties.put(_name, _p);
+        }
+        JsonName _documentName = aMethod.getAnnotation(JsonName.class);
+        if (_documentName != null)
+            _p.documentName = _documentName.value();
+        return _p;
+    }
+
+    private void writeImplementation(TypeElement anInterface, String aName, Map<String, Property> aProperties) {
+        StringBuilder _sb = implementations;
+        String _type = anInterface.getQualifiedName().toString();
+        _sb.append("\n    private static final class ").append(aName).append(" implements ").append(_type).append(", Mutable {\n");
+        for (Property _p : aProperties.values()) {
+            _sb.append("        ").append(_p.type).append(" ").append(_p.field).append(";\n");
+        }
+        _sb.append("        Map<String,Object> extras;\n");
+        for (Property _p : aProperties.values()) {
+            for (ExecutableElement _m : _p.accessors) {
+                _sb.append("\n        public ").append(_p.type).append(" ").append(_m.getSimpleName()).append("() {\n");
+                _sb.append("            return ").append(_p.field).append(";\n");
+                _sb.append("        }\n");
+            }
+            for (ExecutableElement _m : _p.mutators) {
+                _sb.append("\n        public void ").append(_m.getSimpleName()).append("(").append(_p.type).append(" aValue) {\n");
+                _sb.append("            ").append(_p.field).append(" = aValue;\n");
+                _sb.append("        }\n");
+            }
+        }
+
+        // as the implementations generated at runtime, setting properties by
+        // name and keeping anything else as an extra
+        _sb.append("\n        @SuppressWarnings(\"unchecked\")\n");
+        _sb.append("        public void __magic_set(String aName, Object aValue) {\n");
+        for (Property _p : aProperties.values()) {
+            _sb.append("            if (").append(literal(_p.name)).append(".equals(aName) || ").append(literal(describe(_p))).append(".equals(aName)) {\n");
+            _sb.append("                ").append(_p.field).append(" = ").append(unbox(_p.type, "aValue")).append(";\n");
+            _sb.append("                return;\n");
+            _sb.append("            }\n");
+        }
+        _sb.append("            if (extras == null)\n");
+        _sb.append("                extras = new HashMap<String,Object>();\n");
+        _sb.append("            extras.put(aName, aValue);\n");
+        _sb.append("        }\n");
+
+        // as the implementations generated at runtime describe themselves,
+        // leaving out properties that are null, followed by the extras
+        _sb.append("\n        public String toString() {\n");
+        _sb.append("            StringBuilder _sb = new StringBuilder();\n");
+        for (Property _p : aProperties.values()) {
+            String _append = "_sb.append(\", " + describe(_p) + "=\").append(" + _p.field + ");\n";
+            if (_p.type.getKind().isPrimitive())
+                _sb.append("            ").append(_append);
+            else
+                _sb.append("            if (").append(_p.field).append(" != null)\n                ").append(_append);
+        }
+        _sb.append("            if (extras != null) {\n");
+        _sb.append("                for (Map.Entry<String,Object> _e : extras.entrySet()) {\n");
+        _sb.append("                    _sb.append(\", \").append(_e.getKey()).append(\"=\").append(_e.getValue());\n");
+        _sb.append("                }\n");
+        _sb.append("            }\n");
+        _sb.append("            return \"proxy(").append(elements.getBinaryName(anInterface)).append("){\" + ((_sb.length() > 0) ? _sb.substring(2) : \"\") + \"}\";\n");
+        _sb.append("        }\n");
+        _sb.append("    }\n");
+    }
+
+    /**
+     * @return an expression casting the given Object to the given type,
+     * unboxing it for primitives - which take any Number, as the runtime's
+     * primitive mutators do
+     */
+    private String unbox(TypeMirror aType, String anObject) {
+        switch (aType.getKind()) {
+            case BOOLEAN:
+                return "((Boolean) " + anObject + ").booleanValue()";
+            case CHAR:
+                return "((Character) " + anObject + ").charValue()";
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return "((Number) " + anObject + ")." + aType + "Value()";
+            default:
+                return "(" + aType + ") " + anObject;
+        }
+    }
+
+    private boolean isMagicSet(ExecutableElement aMethod) {
+        return "__magic_set".contentEquals(aMethod.getSimpleName()) &&
+            ((TypeElement) aMethod.getEnclosingElement()).getQualifiedName().contentEquals(Mutable.class.getName());
+    }
+
+    private void checkAccessible(TypeElement aType) throws MappingException {
+        for (Element _e = aType; !(_e instanceof PackageElement); _e = _e.getEnclosingElement()) {
+            if (_e.getModifiers().contains(Modifier.PRIVATE))
+                throw new MappingException(aType, aType.getQualifiedName() + " is private");
+            if (!_e.getModifiers().contains(Modifier.PUBLIC) && !elements.getPackageOf(_e).getQualifiedName().contentEquals(packageName))
+                throw new MappingException(aType, aType.getQualifiedName() + " isn't accessible from package " + packageName);
+        }
+        if ((aType.getEnclosingElement() instanceof TypeElement) && !aType.getModifiers().contains(Modifier.STATIC) && (aType.getKind() == ElementKind.CLASS))
+            throw new MappingException(aType, aType.getQualifiedName() + " is an inner class, so can't be created on its own - make it static");
+    }
+
+    private void checkConstructor(TypeElement aClass) throws MappingException {
+        if (aClass.getModifiers().contains(Modifier.ABSTRACT))
+            throw new MappingException(aClass, aClass.getQualifiedName() + " is abstract, so can't be created");
+        for (ExecutableElement _c : ElementFilter.constructorsIn(aClass.getEnclosedElements())) {
+            if (_c.getParameters().isEmpty() && !_c.getModifiers().contains(Modifier.PRIVATE))
+                return;
+        }
+        throw new MappingException(aClass, aClass.getQualifiedName() + " has no constructor without parameters");
+    }
+
+    private MappingException unsupported(TypeMirror aType, Element anElement) {
+        return new MappingException(anElement,
+            "dsl4xml-apt can't read a " + aType + " - only Strings, numbers, booleans, mapped types, " +
+            "types with a registered converter and Lists of those.");
+    }
+
+    private static String describe(Property aProperty) {
+        return Character.toLowerCase(aProperty.name.charAt(0)) + aProperty.name.substring(1);
+    }
+
+    /**
+     * @return the name of the property a method refers to, from its first
+     * upper-case letter onwards - as for the interfaces dsl4xml implements at
+     * runtime
+     */
+    private static String getPropertyName(String aMethodName) {
+        for (int i=0; i<aMethodName.length(); i++) {
+            if (Character.isUpperCase(aMethodName.charAt(i)))
+                return aMethodName.substring(i);
+        }
+        return Character.toUpperCase(aMethodName.charAt(0)) + aMethodName.substring(1);
+    }
+
+    private static String literal(String aValue) {
+        StringBuilder _sb = new StringBuilder("\"");
+        for (char _c : aValue.toCharArray()) {
+            if ((_c == '"') || (_c == '\\'))
+                _sb.append('\\').append(_c);
+            else if ((_c < 0x20) || (_c > 0x7e))
+                _sb.append(String.format("\\u%04x", (int) _c));
+            else
+                _sb.append(_c);
+        }
+        return _sb.append('"').toString();
+    }
+
+    private static class Mapped {
+        final TypeElement type;
+        final String method;
+
+        Mapped(TypeElement aType, String aMethod) {
+            type = aType;
+            method = aMethod;
+        }
+    }
+
+    private static class Property {
+        final String name;
+        final TypeMirror type;
+        final Element element;
+        final String field;
+        final List<ExecutableElement> accessors = new ArrayList<ExecutableElement>();
+        final List<ExecutableElement> mutators = new ArrayList<ExecutableElement>();
+        String documentName;
+        String mutator;
+
+        Property(String aName, TypeMirror aType, Element anElement, String aField) {
+            name = aName;
+            type = aType;
+            element = anElement;
+            field = aField;
+            documentName = Character.toLowerCase(aName.charAt(0)) + aName.substring(1);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.sjl.dsl4xml.apt;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sjl.dsl4xml.support.Mutable;
+
+@JsonMapping
+public interface Event {
+
+    public enum Level { INFO, WARN, ERROR }
+
+    public static class Host implements Mutable {
+        private String name;
+        private Map<String, Object> extras = new HashMap<String, Object>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String aName) {
+            name = aName;
+        }
+
+        public Map<String, Object> getExtras() {
+            return extras;
+        }
+
+        public void __magic_set(String aPropertyName, Object aValue) {
+            extras.put(aPropertyName, aValue);
+        }
+
+        public String toString() {
+            return "host(" + name + ")" + extras;
+        }
+    }
+
+    public String getName();
+    public Date getWhen();
+    public Level getLevel();
+    public List<Level> getLevels();
+    public Host getHost();
+}
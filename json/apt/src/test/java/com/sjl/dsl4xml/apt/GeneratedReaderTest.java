@@ -0,0 +1,246 @@
+package com.sjl.dsl4xml.apt;
+
+import com.sjl.dsl4xml.DocumentReader;
+import com.sjl.dsl4xml.gson.GsonDocumentReader;
+import com.sjl.dsl4xml.json.JsonDocumentDefinition;
+import com.sjl.dsl4xml.support.Implementations;
+import com.sjl.dsl4xml.support.convert.EnumStringConverter;
+import com.sjl.dsl4xml.support.convert.ThreadSafeDateStringConverter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+public class GeneratedReaderTest {
+
+	private static final String MEMBER =
+		"{\"id\":\"5e39\",\"person\":{\"id\":\"5e40\",\"firstname\":\"Steve\",\"lastname\":\"Liles\",\"email\":null,\"title\":\"mr\"}," +
+		"\"social\":{\"providerId\":\"twitter\",\"user\":\"xxxxxxxx\",\"imageUrl\":\"http://a0.twimg.com/x.png\"}," +
+		"\"pointsAccrued\":50,\"rating\":4.5,\"active\":true,\"tags\":[\"one\",\"two\"],\"groups\":[[\"a\",\"b\"],[],[\"c\"]]}";
+
+	private static final String READINGS =
+		"{\"source\":\"probe\",\"samples\":[" +
+		"{\"count\":1,\"total\":10000000000,\"ratio\":0.25,\"active\":true,\"display-label\":\"first\"}," +
+		"{\"count\":2,\"total\":3,\"ratio\":1.5,\"active\":false,\"display-label\":null}]}";
+
+	// score and flagged aren't properties of Event, nor port of its Host
+	private static final String EVENT =
+		"{\"name\":\"deploy\",\"when\":\"2013-04-01\",\"level\":\"WARN\",\"levels\":[\"INFO\",\"ERROR\"]," +
+		"\"score\":2.5,\"flagged\":true,\"host\":{\"name\":\"web1\",\"port\":8080}}";
+
+	@Test
+	public void readsInterfacesAsTheDefinitionWould() {
+		Member _generated = new MemberReader().read(new StringReader(MEMBER));
+		Member _defined = newMemberReader().read(new StringReader(MEMBER));
+
+		Assert.assertEquals("5e39", _generated.getId());
+		Assert.assertEquals("Steve", _generated.getPerson().getFirstname());
+		Assert.assertEquals("xxxxxxxx", _generated.getSocial().getProviderUserId());
+		Assert.assertEquals(Arrays.asList("one", "two"), _generated.getTags());
+
+		Assert.assertEquals(_defined.getId(), _generated.getId());
+		Assert.assertEquals(_defined.getPointsAccrued(), _generated.getPointsAccrued());
+		Assert.assertEquals(_defined.getRating(), _generated.getRating());
+		Assert.assertEquals(_defined.isActive(), _generated.isActive());
+		Assert.assertEquals(_defined.getTags(), _generated.getTags());
+		Assert.assertEquals(_defined.getGroups(), _generated.getGroups());
+		Assert.assertEquals(_defined.getPerson().getId(), _generated.getPerson().getId());
+		Assert.assertEquals(_defined.getPerson().getTitle(), _generated.getPerson().getTitle());
+		Assert.assertEquals(_defined.getPerson().getLastname(), _generated.getPerson().getLastname());
+		Assert.assertNull(_generated.getPerson().getEmail());
+		Assert.assertEquals(_defined.getSocial().getProviderId(), _generated.getSocial().getProviderId());
+		Assert.assertEquals(_defined.getSocial().getProviderUserId(), _generated.getSocial().getProviderUserId());
+		Assert.assertEquals(_defined.getSocial().getImageUrl(), _generated.getSocial().getImageUrl());
+	}
+
+	@Test
+	public void describesObjectsAsGeneratedImplementationsDo() {
+		Implementations.setGenerating(true);
+		try {
+			Member _defined = newMemberReader().read(new StringReader(MEMBER));
+			Member _generated = new MemberReader().read(new StringReader(MEMBER));
+			Assert.assertEquals(_defined.getPerson().toString(), _generated.getPerson().toString());
+			Assert.assertEquals(_defined.getSocial().toString(), _generated.getSocial().toString());
+		} finally {
+			Implementations.setGenerating(false);
+		}
+	}
+
+	@Test
+	public void readsClassesAsTheDefinitionWould() {
+		Readings _generated = new GeneratedReadingsReader().read(new StringReader(READINGS));
+		Readings _defined = newReadingsReader().read(new StringReader(READINGS));
+
+		Assert.assertEquals("probe", _generated.getSource());
+		Assert.assertEquals(_defined.getSource(), _generated.getSource());
+		Assert.assertEquals(2, _generated.getSamples().size());
+		for (int i=0; i<2; i++) {
+			Readings.Sample _g = _generated.getSamples().get(i);
+			Readings.Sample _d = _defined.getSamples().get(i);
+			Assert.assertEquals(_d.getCount(), _g.getCount());
+			Assert.assertEquals(_d.getTotal(), _g.getTotal());
+			Assert.assertEquals(_d.getRatio(), _g.getRatio(), 0f);
+			Assert.assertEquals(_d.isActive(), _g.isActive());
+			Assert.assertEquals(_d.getLabel(), _g.getLabel());
+		}
+		Assert.assertEquals(10000000000L, _generated.getSamples().get(0).getTotal());
+		Assert.assertEquals("first", _generated.getSamples().get(0).getLabel());
+	}
+
+	@Test
+	public void skipsNamesItDoesNotKnow() {
+		Readings _r = new GeneratedReadingsReader().read(new StringReader(
+			"{\"unknown\":{\"deep\":[1,2,{\"x\":3}]},\"source\":\"probe\",\"other\":[]}"));
+		Assert.assertEquals("probe", _r.getSource());
+		Assert.assertNull(_r.getSamples());
+	}
+
+	@Test
+	public void convertsPropertiesAsTheDefinitionWould() {
+		Event _generated = newGeneratedEventReader().read(new StringReader(EVENT));
+		Event _defined = newEventReader().read(new StringReader(EVENT));
+
+		Assert.assertEquals(Event.Level.WARN, _generated.getLevel());
+		Assert.assertEquals(Arrays.asList(Event.Level.INFO, Event.Level.ERROR), _generated.getLevels());
+		Assert.assertEquals(_defined.getWhen(), _generated.getWhen());
+		Assert.assertEquals(_defined.getLevel(), _generated.getLevel());
+		Assert.assertEquals(_defined.getLevels(), _generated.getLevels());
+	}
+
+	@Test
+	public void keepsUnknownNamesAsTheDefinitionWould() {
+		Implementations.setGenerating(true);
+		try {
+			Event _defined = newEventReader().read(new StringReader(EVENT));
+			Event _generated = newGeneratedEventReader().read(new StringReader(EVENT));
+			Assert.assertEquals(_defined.toString(), _generated.toString());
+			Assert.assertTrue(_generated.toString().contains("score=2.5"));
+			Assert.assertEquals(_defined.getHost().getExtras(), _generated.getHost().getExtras());
+			Assert.assertEquals(8080d, _generated.getHost().getExtras().get("port"));
+		} finally {
+			Implementations.setGenerating(false);
+		}
+	}
+
+	@Test
+	public void keepsUnknownValuesButNotUnknownObjects() {
+		Event _e = newGeneratedEventReader().read(new StringReader(
+			"{\"note\":\"hello\",\"nested\":{\"name\":\"x\"},\"name\":\"deploy\",\"list\":[1,{}]}"));
+		Assert.assertEquals("deploy", _e.getName());
+		Assert.assertEquals("proxy(com.sjl.dsl4xml.apt.Event){name=deploy, note=hello}", _e.toString());
+	}
+
+	@Test
+	public void needsConvertersRegisteredAsDefinitionsDo() {
+		try {
+			new EventReader().read(new StringReader(EVENT));
+			Assert.fail("expected the missing converters to be reported");
+		} catch (RuntimeException anExc) {
+			Assert.assertTrue(anExc.getMessage(), anExc.getMessage().contains("No converter registered"));
+		}
+	}
+
+	@Test
+	public void findsMutatorsAsTheDefinitionWould() {
+		String _doc = "{\"title\":\"mix\",\"owner\":\"steve\",\"tracks\":[\"one\",\"two\"]}";
+		Playlist _generated = new PlaylistReader().read(new StringReader(_doc));
+		Playlist _defined = new GsonDocumentReader<Playlist>(new JsonDocumentDefinition<Playlist>(){{
+			mapping(Playlist.class).with(
+				property("title"),
+				property("owner"),
+				array("tracks", List.class).of(property(String.class))
+			);
+		}}).read(new StringReader(_doc));
+
+		Assert.assertEquals("mix", _generated.getTitle());
+		Assert.assertEquals(Arrays.asList("one", "two"), _generated.getTracks());
+		Assert.assertFalse(_generated.isSetTracksCalled());
+		Assert.assertEquals(_defined.getTitle(), _generated.getTitle());
+		Assert.assertEquals(_defined.getOwner(), _generated.getOwner());
+		Assert.assertEquals(_defined.getTracks(), _generated.getTracks());
+		Assert.assertEquals(_defined.isSetTracksCalled(), _generated.isSetTracksCalled());
+	}
+
+	@Test
+	public void readsEmptyDocuments() {
+		Member _m = new MemberReader().read(new StringReader("{}"));
+		Assert.assertNull(_m.getId());
+		Assert.assertEquals(0, _m.getPointsAccrued());
+		Assert.assertFalse(_m.isActive());
+	}
+
+	private DocumentReader<Member> newMemberReader() {
+		return new GsonDocumentReader<Member>(new JsonDocumentDefinition<Member>(){{
+			mapping(Member.class).with(
+				property("id"),
+				object("person", Member.Person.class).with(
+					property("id"),
+					property("firstname"),
+					property("lastname"),
+					property("email"),
+					property("title")
+				),
+				object("social", Member.Social.class).with(
+					property("providerId"),
+					property(alias("user", "providerUserId")),
+					property("imageUrl")
+				),
+				number("pointsAccrued", Integer.class),
+				number("rating", Double.class),
+				bool("active"),
+				array("tags", List.class).of(property(String.class)),
+				array("groups", List.class).of(
+					array().of(String.class)
+				)
+			);
+		}});
+	}
+
+	private EventReader newGeneratedEventReader() {
+		EventReader _reader = new EventReader();
+		_reader.registerConverters(
+			new ThreadSafeDateStringConverter("yyyy-MM-dd"),
+			new EnumStringConverter<Event.Level>(Event.Level.class));
+		return _reader;
+	}
+
+	private DocumentReader<Event> newEventReader() {
+		return new GsonDocumentReader<Event>(new JsonDocumentDefinition<Event>(){{
+			registerConverters(
+				new ThreadSafeDateStringConverter("yyyy-MM-dd"),
+				new EnumStringConverter<Event.Level>(Event.Level.class));
+
+			mapping(Event.class).with(
+				property("name"),
+				property("when"),
+				property("level"),
+				array("levels", List.class).of(property(Event.Level.class)),
+				number("score", Double.class),
+				bool("flagged", Boolean.class),
+				object("host", Event.Host.class).with(
+					property("name"),
+					number("port", Double.class)
+				)
+			);
+		}});
+	}
+
+	private DocumentReader<Readings> newReadingsReader() {
+		return new GsonDocumentReader<Readings>(new JsonDocumentDefinition<Readings>(){{
+			mapping(Readings.class).with(
+				property("source"),
+				array("samples").of(
+					object(Readings.Sample.class).with(
+						number("count", Integer.class),
+						number("total", Long.class),
+						number("ratio", Float.class),
+						bool("active"),
+						property(alias("display-label", "label"))
+					)
+				)
+			);
+		}});
+	}
+}
@@ -0,0 +1,31 @@
+package com.sjl.dsl4xml.apt;
+
+import java.util.List;
+
+@JsonMapping
+public interface Member {
+
+    public interface Person {
+        public String getId();
+        public String getTitle();
+        public String getFirstname();
+        public String getLastname();
+        public String getEmail();
+    }
+
+    public interface Social {
+        public String getProviderId();
+        @JsonName("user")
+        public String getProviderUserId();
+        public String getImageUrl();
+    }
+
+    public String getId();
+    public Person getPerson();
+    public Social getSocial();
+    public int getPointsAccrued();
+    public Double getRating();
+    public boolean isActive();
+    public List<String> getTags();
+    public List<List<String>> getGroups();
+}
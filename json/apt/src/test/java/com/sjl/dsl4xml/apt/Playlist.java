@@ -0,0 +1,47 @@
+package com.sjl.dsl4xml.apt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonMapping
+public class Playlist {
+
+    private String title;
+    private String owner;
+    private List<String> tracks = new ArrayList<String>();
+    private boolean setTracksCalled;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void putTitle(String aTitle) {
+        title = aTitle;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void insertOwner(String anOwner) {
+        owner = anOwner;
+    }
+
+    public List<String> getTracks() {
+        return tracks;
+    }
+
+    // the runtime prefers add to set, so the generated reader must too
+    public void addTracks(List<String> aTracks) {
+        tracks.addAll(aTracks);
+    }
+
+    public void setTracks(List<String> aTracks) {
+        setTracksCalled = true;
+        tracks = aTracks;
+    }
+
+    public boolean isSetTracksCalled() {
+        return setTracksCalled;
+    }
+}
@@ -0,0 +1,75 @@
+package com.sjl.dsl4xml.apt;
+
+import java.util.List;
+
+@JsonMapping(reader = "GeneratedReadingsReader")
+public class Readings {
+
+    private String source;
+    private List<Sample> samples;
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String aSource) {
+        source = aSource;
+    }
+
+    public List<Sample> getSamples() {
+        return samples;
+    }
+
+    public void setSamples(List<Sample> aSamples) {
+        samples = aSamples;
+    }
+
+    public static class Sample {
+        private int count;
+        private long total;
+        private float ratio;
+        private boolean active;
+        private String label;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int aCount) {
+            count = aCount;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long aTotal) {
+            total = aTotal;
+        }
+
+        public float getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(float aRatio) {
+            ratio = aRatio;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean anActive) {
+            active = anActive;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        @JsonName("display-label")
+        public void setLabel(String aLabel) {
+            label = aLabel;
+        }
+    }
+}
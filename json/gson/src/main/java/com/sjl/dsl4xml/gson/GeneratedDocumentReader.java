@@ -0,0 +1,132 @@
+package com.sjl.dsl4xml.gson;
+
+import com.sjl.dsl4xml.json.DocumentDefinition;
+import com.sjl.dsl4xml.support.Builder;
+import com.sjl.dsl4xml.support.CompiledDefinition;
+
+import java.io.IOException;
+
+/**
+ * Reads documents exactly as {@link KeyMatchingDocumentReader} does, but with
+ * a reader generated for the definition when it is created (see
+ * {@link ReaderGenerator}): straight-line code for each object and array,
+ * matching names with a switch rather than looking them up in tables, and
+ * reading Strings, primitives and nested objects into their setters without
+ * going through the interpreter. Anything the generated code doesn't handle
+ * itself is read by the interpreter, value by value - and if the reader
+ * can't be generated at all (say, on a platform that can't define classes
+ * from bytecode) every document is read by the interpreter alone.
+ *
+ * @author steve
+ */
+public class GeneratedDocumentReader<T> extends KeyMatchingDocumentReader<T> {
+
+    private final Class<? extends GeneratedReading> reader;
+
+    public GeneratedDocumentReader(DocumentDefinition<T> aDefinition) {
+        this(aDefinition.compile());
+    }
+
+    /**
+     * @param aDefinition a compiled definition, which may be shared with any
+     * number of other readers
+     */
+    public GeneratedDocumentReader(CompiledDefinition<T> aDefinition) {
+        super(aDefinition);
+        reader = generate();
+    }
+
+    /**
+     * @return true if documents are read by a generated reader, or false if
+     * it couldn't be generated, so they are read by the interpreter alone
+     */
+    public boolean isGenerated() {
+        return reader != null;
+    }
+
+    @Override
+    Reading newReading() {
+        if (reader == null)
+            return super.newReading();
+        try {
+            return new GeneratedReadingOf(getTable(), reader.newInstance());
+        } catch (InstantiationException anExc) {
+            throw new IllegalStateException(anExc); // can't happen - it was created once already
+        } catch (IllegalAccessException anExc) {
+            throw new IllegalStateException(anExc);
+        }
+    }
+
+    private Class<? extends GeneratedReading> generate() {
+        StateTable _table = getTable();
+        int _root = _table.stateOf(getBuilder());
+        if (_table.getReflective(_root) == null)
+            return null; // the root isn't an object, so there's nothing to gain
+        ClassLoader _parent = _table.getReflective(_root).getInstanceType().getClassLoader();
+        ReaderLoader _loader = new ReaderLoader((_parent == null) ? GeneratedReading.class.getClassLoader() : _parent);
+        try {
+            String _name = GeneratedReading.class.getName() + "$$Dsl4XmlReader";
+            byte[] _bytes = ReaderGenerator.generate(_table, _root, _name, _loader);
+            if (_bytes == null)
+                return null;
+            Class<? extends GeneratedReading> _reader = _loader.define(_name, _bytes).asSubclass(GeneratedReading.class);
+            _reader.newInstance(); // verified now, rather than failing a read
+            return _reader;
+        } catch (LinkageError anErr) {
+            // leave it to the interpreter
+        } catch (UnsupportedOperationException anExc) {
+            // android can't define classes from bytecode
+        } catch (SecurityException anExc) {
+            // e.g. a signed package
+        } catch (IllegalArgumentException anExc) {
+            // a definition too big for the methods of one class
+        } catch (ClassCastException anExc) {
+            // the definition's loader has another copy of GeneratedReading
+        } catch (InstantiationException anExc) {
+            // leave it to the interpreter
+        } catch (IllegalAccessException anExc) {
+            // leave it to the interpreter
+        }
+        return null;
+    }
+
+    /**
+     * A scanner and context for one thread's reads, with a generated reader
+     * of its own that reads with them.
+     */
+    private static class GeneratedReadingOf extends Reading {
+        private GeneratedReading reading;
+
+        GeneratedReadingOf(StateTable aTable, GeneratedReading aReading) {
+            super(aTable);
+            reading = aReading;
+            reading.init(scanner, context, aTable);
+        }
+
+        @Override
+        <R> R read(Builder<R> aBuilder) throws IOException {
+            return reading.read(aBuilder);
+        }
+    }
+
+    /**
+     * Defines a generated reader, which refers to the classes of the
+     * definition - found through the loader of the root's class - and to
+     * GeneratedReading, which that loader might not be able to see.
+     */
+    private static class ReaderLoader extends ClassLoader {
+
+        ReaderLoader(ClassLoader aParent) {
+            super(aParent);
+        }
+
+        Class<?> define(String aName, byte[] aBytes) {
+            return defineClass(aName, aBytes, 0, aBytes.length);
+        }
+
+        @Override
+        protected Class<?> findClass(String aName) throws ClassNotFoundException {
+            return GeneratedReading.class.getClassLoader().loadClass(aName);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.sjl.dsl4xml.gson;
+
+import com.google.gson.stream.JsonToken;
+import com.sjl.dsl4xml.ParsingException;
+import com.sjl.dsl4xml.support.Builder;
+import com.sjl.dsl4xml.support.Mutators;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * The superclass of the readers {@link GeneratedDocumentReader} generates
+ * for a definition (see {@link ReaderGenerator}), which read each object and
+ * array of the definition in straight-line code of its own - names matched by
+ * a switch on their hash, Strings, primitives and nested objects set by
+ * calling the setter itself - and hand anything else to the table-driven
+ * interpreter, one value at a time.
+ *
+ * The protected methods are what the generated code calls, so must be
+ * visible to it; they are not for anything else. Not thread-safe: each
+ * thread reads with one of its own.
+ *
+ * @author steve
+ */
+public abstract class GeneratedReading {
+
+    private JsonScanner scanner;
+    private TableDrivenContext context;
+    private StateTable table;
+
+    protected GeneratedReading() {
+    }
+
+    void init(JsonScanner aScanner, TableDrivenContext aContext, StateTable aTable) {
+        scanner = aScanner;
+        context = aContext;
+        table = aTable;
+    }
+
+    /**
+     * reads the document the scanner has been reset to, as the interpreter
+     * would if the root isn't an object
+     */
+    <R> R read(Builder<R> aRoot) throws IOException {
+        if (scanner.peek() != JsonToken.BEGIN_OBJECT)
+            return context.build(aRoot);
+
+        scanner.beginObject();
+        Object _root = readRoot();
+        scanner.peek(); // fails, as the interpreter would, if anything follows
+        context.push(_root);
+        return aRoot.build(context);
+    }
+
+    /**
+     * reads the root object, whose start has been read
+     * @return the object its values were set to, before any conversion
+     */
+    protected abstract Object readRoot() throws IOException;
+
+    /**
+     * @return the ordinal of the next token's JsonToken
+     */
+    protected final int peek() throws IOException {
+        return scanner.peek().ordinal();
+    }
+
+    /**
+     * @return true if a name is next, or false (having read the end of the
+     * object) if not
+     */
+    protected final boolean hasName() throws IOException {
+        if (scanner.peek() == JsonToken.NAME)
+            return true;
+        scanner.endObject();
+        return false;
+    }
+
+    /**
+     * @return true if an element is next, or false (having read the end of
+     * the array) if not
+     */
+    protected final boolean hasElement() throws IOException {
+        if (scanner.peek() != JsonToken.END_ARRAY)
+            return true;
+        scanner.endArray();
+        return false;
+    }
+
+    /**
+     * reads a name, to be matched by {@link #nameIs(String)}
+     * @return its hash, as String.hashCode would have it
+     */
+    protected final int nameHash() throws IOException {
+        return scanner.nextNameHash();
+    }
+
+    protected final boolean nameIs(String aName) {
+        return scanner.nameEquals(aName);
+    }
+
+    protected final String nextString() throws IOException {
+        return scanner.nextString();
+    }
+
+    protected final double nextDouble() throws IOException {
+        return scanner.nextDouble();
+    }
+
+    protected final boolean nextBoolean() throws IOException {
+        return scanner.nextBoolean();
+    }
+
+    protected final void nextNull() throws IOException {
+        scanner.nextNull();
+    }
+
+    protected final void beginObject() throws IOException {
+        scanner.beginObject();
+    }
+
+    protected final void beginArray() throws IOException {
+        scanner.beginArray();
+    }
+
+    /**
+     * @return a new object for the given state's values to be set to, from
+     * its builder
+     */
+    protected final Object newInstance(int aState) {
+        table.getBuilder(aState).prepare(context);
+        return context.pop();
+    }
+
+    /**
+     * @return what the given state's builder builds from the object its
+     * values were set to
+     */
+    protected final Object build(int aState, Object anObject) {
+        context.push(anObject);
+        return table.getBuilder(aState).build(context);
+    }
+
+    /**
+     * sets a value to the nested definition at the given index of the given
+     * state through its builder, for setters that can't be called directly
+     */
+    protected final void set(int aState, int aNested, Object aTarget, Object aValue) {
+        context.push(aTarget);
+        table.getReflective(aState).setValue(context, aNested, aValue);
+        context.pop();
+    }
+
+    protected final void setInt(int aState, int aNested, Object aTarget, int aValue) {
+        context.push(aTarget);
+        table.getReflective(aState).setInt(context, aNested, aValue);
+        context.pop();
+    }
+
+    protected final void setLong(int aState, int aNested, Object aTarget, long aValue) {
+        context.push(aTarget);
+        table.getReflective(aState).setLong(context, aNested, aValue);
+        context.pop();
+    }
+
+    protected final void setDouble(int aState, int aNested, Object aTarget, double aValue) {
+        context.push(aTarget);
+        table.getReflective(aState).setDouble(context, aNested, aValue);
+        context.pop();
+    }
+
+    protected final void setBoolean(int aState, int aNested, Object aTarget, boolean aValue) {
+        context.push(aTarget);
+        table.getReflective(aState).setBoolean(context, aNested, aValue);
+        context.pop();
+    }
+
+    /**
+     * has the interpreter read the value of the name just read, which is
+     * at the given index of the given state, and set it to the given target
+     */
+    protected final void readValue(int aState, int aNested, Object aTarget) throws IOException {
+        scanner.keepName(table.keysOf(aState).getName(aNested));
+        context.readValue(aState, aNested, aTarget);
+    }
+
+    /**
+     * has the interpreter read the value of the name just read, which the
+     * given state doesn't have
+     */
+    protected final void readUnknown(int aState, Object aTarget) throws IOException {
+        scanner.keepName(null);
+        context.readValue(aState, StateTable.NONE, aTarget);
+    }
+
+    /**
+     * has the interpreter read the next element of the given array state
+     */
+    protected final void readElement(int aState, Object anArray) throws IOException {
+        context.readValue(aState, StateTable.NONE, anArray);
+    }
+
+    /**
+     * @return what the mutator of the nested definition at the given index
+     * of the given state throws when its method throws the given exception -
+     * for a setter called directly, to fail as the mutator would have
+     */
+    protected final RuntimeException failed(int aState, int aNested, Object aTarget, Throwable aCause) {
+        return Mutators.failed(table.getReflective(aState).getMutator(aNested), aTarget, aCause);
+    }
+
+    /**
+     * @return what the builder's instantiator throws when a constructor
+     * throws the given exception - for a constructor called directly
+     */
+    protected final RuntimeException failedToCreate(Throwable aCause) {
+        return new ParsingException(new InvocationTargetException(aCause));
+    }
+}
@@ -4,23 +4,70 @@ import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.sjl.dsl4xml.Context;
 import com.sjl.dsl4xml.ParsingException;
+import com.sjl.dsl4xml.support.ArrayStack;
 import com.sjl.dsl4xml.support.Builder;
+import com.sjl.dsl4xml.support.Builders;
+import com.sjl.dsl4xml.support.IndexedBuilder;
+import com.sjl.dsl4xml.support.IntStack;
+import com.sjl.dsl4xml.support.SharedStringPool;
+import com.sjl.dsl4xml.support.StringPool;
 
-import java.util.Stack;
+import java.io.IOException;
 
-public class GsonContext implements Context {
+/**
+ * Reads a document by walking the builders, token by token. Each name is
+ * looked up once, when it is read, in the table of names its builder built
+ * when the definition was compiled; only the index found is kept, and used
+ * both to move down to the nested builder and to set its value. Array
+ * elements use the index each builder found for its unnamed definition when
+ * it was compiled. Only names the definition doesn't know are kept as
+ * Strings, for the builders to set by name.
+ */
+public class GsonContext implements ReusableContext {
 
     private JsonReader reader;
-    private Stack<String> names;
-    private Stack<Object> build;
-    private Stack<Builder<?>> builders;
+    // the index of each name read in the builder it was read for, and that
+    // builder - and of those with no index, the name
+    private IntStack ids;
+    private ArrayStack<Builder<?>> owners;
+    private ArrayStack<String> unknownNames;
+    private ArrayStack<Object> build;
+    private ArrayStack<Builder<?>> builders;
+    private StringPool strings;
 
     public GsonContext(JsonReader aReader) {
+        this(aReader, null);
+    }
+
+    /**
+     * @param aSharedStrings the pool interned values fall back to, or null
+     */
+    public GsonContext(JsonReader aReader, SharedStringPool aSharedStrings) {
         reader = aReader;
+        strings = new StringPool(aSharedStrings, StringPool.DEFAULT_MAX_SIZE);
 
-        names = new Stack<String>();
-        build = new Stack<Object>();
-        builders = new Stack<Builder<?>>();
+        ids = new IntStack();
+        owners = new ArrayStack<Builder<?>>();
+        unknownNames = new ArrayStack<String>();
+        build = new ArrayStack<Object>();
+        builders = new ArrayStack<Builder<?>>();
+    }
+
+    @Override
+    public void reset(JsonReader aReader, SharedStringPool aSharedStrings) {
+        reader = aReader;
+        strings.reset(aSharedStrings);
+    }
+
+    @Override
+    public void release() {
+        reader = null;
+        ids.clear();
+        owners.clear();
+        unknownNames.clear();
+        build.clear();
+        builders.clear();
+        strings.reset(null);
     }
 
     public <T> T build(Builder<T> aBuilder) {
@@ -33,10 +80,10 @@ public class GsonContext implements Context {
             while ((_token = reader.peek()) != null) {
                 switch(_token) {
                     case NAME:
-                        names.push(reader.nextName());
+                        pushName(_b, reader.nextName());
                         break;
                     case STRING:
-                        Builder<?> _p = _b.moveDown(getName());
+                        Builder<?> _p = moveDown(_b);
                         if (_p == null)
                             _p = builders.peek();
                         _p.prepare(this);
@@ -44,15 +91,24 @@ public class GsonContext implements Context {
                         buildAndSet(_b, _p, "");
                         break;
                     case NUMBER:
-                        _p = _b.moveDown(getName());
+                        _p = moveDown(_b);
+                        Class<?> _primitive = Builders.getPrimitiveType(_p);
+                        if ((_primitive != null) && (_primitive != Boolean.TYPE)) {
+                            setNumber(_b, _primitive);
+                            break;
+                        }
                         if (_p == null)
                             _p = builders.peek();
                         _p.prepare(this);
-                        _p.setValue(this, names.peek(), reader.nextDouble());
+                        _p.setValue(this, currentName(), reader.nextDouble());
                         buildAndSet(_b, _p, "number");
                         break;
                     case BOOLEAN:
-                        _p = _b.moveDown(getName());
+                        _p = moveDown(_b);
+                        if (Builders.getPrimitiveType(_p) == Boolean.TYPE) {
+                            setBoolean(_b);
+                            break;
+                        }
                         if (_p == null)
                             _p = builders.peek();
                         _p.prepare(this);
@@ -62,11 +118,11 @@ public class GsonContext implements Context {
                         break;
                     case NULL:
                         reader.nextNull();
-                        names.pop();
+                        popName();
                         break;
                     case BEGIN_ARRAY:
                         reader.beginArray();
-                        _b = _b.moveDown(getName());
+                        _b = moveDown(_b);
                         if (_b == null) {
                             _b = builders.peek();
                             if (reader.peek() == JsonToken.END_ARRAY)
@@ -86,7 +142,7 @@ public class GsonContext implements Context {
                         break;
                     case BEGIN_OBJECT:
                         reader.beginObject();
-                        _b = _b.moveDown(getName());
+                        _b = moveDown(_b);
                         if (_b == null) {
                             _b = builders.peek();
                         } else {
@@ -115,25 +171,138 @@ public class GsonContext implements Context {
         }
     }
 
-    private String getName()
-    {
-        return names.isEmpty() ? "" : names.peek();
+    /**
+     * Sets a number straight to the parent as the primitive its property
+     * builder would have cast it to, rather than boxing it, building it
+     * through the converter and boxing it again.
+     */
+    private void setNumber(Builder<?> aParentBuilder, Class<?> aType) throws IOException {
+        int _id = peekId(aParentBuilder);
+        String _name = (_id >= 0) ? null : nameIn(aParentBuilder);
+        popName(aParentBuilder);
+        double _value = reader.nextDouble();
+        if (_id >= 0) {
+            IndexedBuilder<?> _parent = (IndexedBuilder<?>) aParentBuilder;
+            if (aType == Integer.TYPE)
+                _parent.setInt(this, _id, (int) _value);
+            else if (aType == Long.TYPE)
+                _parent.setLong(this, _id, (long) _value);
+            else
+                _parent.setDouble(this, _id, _value);
+        } else if (aType == Integer.TYPE)
+            Builders.setInt(aParentBuilder, this, _name, (int) _value);
+        else if (aType == Long.TYPE)
+            Builders.setLong(aParentBuilder, this, _name, (long) _value);
+        else
+            Builders.setDouble(aParentBuilder, this, _name, _value);
+    }
+
+    private void setBoolean(Builder<?> aParentBuilder) throws IOException {
+        int _id = peekId(aParentBuilder);
+        String _name = (_id >= 0) ? null : nameIn(aParentBuilder);
+        popName(aParentBuilder);
+        if (_id >= 0)
+            ((IndexedBuilder<?>) aParentBuilder).setBoolean(this, _id, reader.nextBoolean());
+        else
+            Builders.setBoolean(aParentBuilder, this, _name, reader.nextBoolean());
+    }
+
+    private void pushName(Builder<?> aBuilder, String aName) {
+        int _id = Builders.indexOf(aBuilder, aName);
+        ids.push(_id);
+        owners.push(aBuilder);
+        if (_id < 0)
+            unknownNames.push(aName);
+    }
+
+    private void popName() {
+        owners.pop();
+        if (ids.pop() < 0)
+            unknownNames.pop();
+    }
+
+    /**
+     * pops the current name, unless the given parent is an array, whose
+     * values have none of their own
+     */
+    private void popName(Builder<?> aParentBuilder) {
+        if (!aParentBuilder.isArray())
+            popName();
+    }
+
+    /**
+     * @return the current name as read: for those with an index, the name
+     * of the definition at that index - so only for setting by name (where
+     * there is no index) and for messages
+     */
+    private String currentName() {
+        if (ids.isEmpty())
+            return "";
+        int _id = ids.peek();
+        return (_id < 0) ? unknownNames.peek() : nameAt(owners.peek(), _id);
+    }
+
+    private String nameIn(Builder<?> aParentBuilder) {
+        return aParentBuilder.isArray() ? "" : currentName();
+    }
+
+    private String nameAt(Builder<?> aBuilder, int anId) {
+        return ((IndexedBuilder<?>) aBuilder).moveDown(anId).getName().getName();
+    }
+
+    /**
+     * @return the index of the current name in the given builder: found
+     * when the name was read if it was read for that builder, or for an
+     * array's elements (which have no name of their own) or the root, the
+     * index of the builder's unnamed definition
+     */
+    private int idIn(Builder<?> aBuilder) {
+        if (ids.isEmpty() || aBuilder.isArray())
+            return Builders.unnamedIndexOf(aBuilder);
+        if (owners.peek() == aBuilder)
+            return ids.peek();
+        return Builders.indexOf(aBuilder, currentName());
+    }
+
+    /**
+     * @return the index in the given parent of the value just read, without
+     * popping its name - or -1 if it has none there (or its name wasn't read
+     * for that parent) and must be set by name
+     */
+    private int peekId(Builder<?> aParentBuilder) {
+        if (aParentBuilder.isArray())
+            return Builders.unnamedIndexOf(aParentBuilder);
+        return (owners.peek() == aParentBuilder) ? ids.peek() : -1;
+    }
+
+    private Builder<?> moveDown(Builder<?> aBuilder) {
+        if (aBuilder instanceof IndexedBuilder)
+            return ((IndexedBuilder<?>) aBuilder).moveDown(idIn(aBuilder));
+        return aBuilder.moveDown(currentName());
     }
 
     private void buildAndSet(Builder aParentBuilder, Builder<?> aCurrentBuilder, String aTypeName) {
         String _name = "";
+        int _id = -1;
         try
         {
             Object _o = aCurrentBuilder.build(this);
 
-            if (!aParentBuilder.isArray())
-                _name = names.pop();
+            _id = peekId(aParentBuilder);
+            _name = (_id >= 0) ? null : nameIn(aParentBuilder);
+            popName(aParentBuilder);
 
-            if (_o != null)
-                aParentBuilder.setValue(this, _name, _o);
+            if (_o != null) {
+                if (_id >= 0)
+                    ((IndexedBuilder<?>) aParentBuilder).setValue(this, _id, _o);
+                else
+                    aParentBuilder.setValue(this, _name, _o);
+            }
         }
         catch (ClassCastException anExc)
         {
+            if (_name == null)
+                _name = nameAt(aParentBuilder, _id);
             throw new ParsingException(
                 "Problem converting " + aTypeName + " '" + _name + "' in '" +
                 aParentBuilder.getName().getName() + "' ... does your document definition use 'property' where it should use '" +
@@ -155,4 +324,9 @@ public class GsonContext implements Context {
     public <T> T peek() {
         return (T)build.peek();
     }
+
+    @Override
+    public StringPool getStringPool() {
+        return strings;
+    }
 }
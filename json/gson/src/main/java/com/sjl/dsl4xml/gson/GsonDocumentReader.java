@@ -1,21 +1,72 @@
 package com.sjl.dsl4xml.gson;
 
 import com.google.gson.stream.JsonReader;
+import com.sjl.dsl4xml.Context;
+import com.sjl.dsl4xml.InterningContext;
 import com.sjl.dsl4xml.ParsingException;
 import com.sjl.dsl4xml.json.DocumentDefinition;
 import com.sjl.dsl4xml.support.Builder;
+import com.sjl.dsl4xml.support.CompiledDefinition;
 import com.sjl.dsl4xml.DocumentReader;
+import com.sjl.dsl4xml.support.SharedStringPool;
+import com.sjl.dsl4xml.support.StringPool;
 
 import java.io.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class GsonDocumentReader<T> implements DocumentReader<T> {
 
     private Builder<T> builder;
+    private volatile SharedStringPool sharedStrings;
+    private AtomicLong bytesSaved = new AtomicLong();
+    // one context per thread, reused from one read to the next
+    private ThreadLocal<ReusableContext> contexts = new ThreadLocal<ReusableContext>();
 
     public GsonDocumentReader(DocumentDefinition<T> aDefinition) {
+        this(aDefinition.compile());
+    }
+
+    /**
+     * @param aDefinition a compiled definition, which may be shared with any
+     * number of other readers
+     */
+    public GsonDocumentReader(CompiledDefinition<T> aDefinition) {
         builder = aDefinition.newBuilder();
     }
 
+    /**
+     * Lets values of interned properties be shared between documents, as well
+     * as within each one.
+     */
+    public void setSharedStringPool(SharedStringPool aPool) {
+        sharedStrings = aPool;
+    }
+
+    protected SharedStringPool getSharedStringPool() {
+        return sharedStrings;
+    }
+
+    /**
+     * @return an estimate of the heap saved by deduplicating the values of
+     * interned properties, across every document read so far.
+     */
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    protected void addBytesSaved(StringPool aPool) {
+        long _saved = aPool.getBytesSaved();
+        if (_saved > 0)
+            bytesSaved.addAndGet(_saved);
+    }
+
+    /**
+     * @return the builder of the root of the definition
+     */
+    protected Builder<T> getBuilder() {
+        return builder;
+    }
+
     public T read(InputStream anInputStream, String aCharset) {
         return read(newReader(anInputStream, aCharset));
     }
@@ -23,15 +74,32 @@ public class GsonDocumentReader<T> implements DocumentReader<T> {
     public T read(Reader aReader)
     throws ParsingException {
         JsonReader _reader = null;
+        Context _ctx = null;
         try {
             _reader = new JsonReader(aReader);
-            return new GsonContext(_reader).build(builder);
+            _ctx = contexts.get();
+            if (_ctx == null) {
+                _ctx = newContext(_reader, sharedStrings);
+            } else {
+                // a converter could read another document with this reader on the same thread
+                contexts.set(null);
+                ((ReusableContext) _ctx).reset(_reader, sharedStrings);
+            }
+            return _ctx.build(builder);
         } catch (ParsingException anExc) {
             throw anExc;
         } catch (Exception anExc) {
             throw new ParsingException(anExc);
         }
         finally {
+            if (_ctx != null) {
+                if (_ctx instanceof InterningContext)
+                    addBytesSaved(((InterningContext) _ctx).getStringPool());
+                if (_ctx instanceof ReusableContext) {
+                    ((ReusableContext) _ctx).release();
+                    contexts.set((ReusableContext) _ctx);
+                }
+            }
             if (_reader != null) {
                 try {
                     _reader.close();
@@ -42,6 +110,13 @@ public class GsonDocumentReader<T> implements DocumentReader<T> {
         }
     }
 
+    /**
+     * @return the context which reads one document from the given reader
+     */
+    protected Context newContext(JsonReader aReader, SharedStringPool aSharedStrings) {
+        return new GsonContext(aReader, aSharedStrings);
+    }
+
     private Reader newReader(InputStream anInputStream, String aCharSet) {
         try {
             return new InputStreamReader(anInputStream, aCharSet);
@@ -0,0 +1,82 @@
+package com.sjl.dsl4xml.gson;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * The tokens of a document read by Gson's JsonReader.
+ *
+ * @author steve
+ */
+final class GsonTokens extends JsonTokens {
+
+    private final JsonReader reader;
+    private String name;
+
+    GsonTokens(JsonReader aReader) {
+        reader = aReader;
+    }
+
+    @Override
+    JsonToken peek() throws IOException {
+        return reader.peek();
+    }
+
+    @Override
+    int nextName(StateTable aTable, int aState) throws IOException {
+        name = reader.nextName();
+        return aTable.indexOf(aState, name);
+    }
+
+    @Override
+    String getName() {
+        return name;
+    }
+
+    @Override
+    String nextString() throws IOException {
+        return reader.nextString();
+    }
+
+    @Override
+    double nextDouble() throws IOException {
+        return reader.nextDouble();
+    }
+
+    @Override
+    boolean nextBoolean() throws IOException {
+        return reader.nextBoolean();
+    }
+
+    @Override
+    void nextNull() throws IOException {
+        reader.nextNull();
+    }
+
+    @Override
+    void beginArray() throws IOException {
+        reader.beginArray();
+    }
+
+    @Override
+    void endArray() throws IOException {
+        reader.endArray();
+    }
+
+    @Override
+    void beginObject() throws IOException {
+        reader.beginObject();
+    }
+
+    @Override
+    void endObject() throws IOException {
+        reader.endObject();
+    }
+
+    @Override
+    void skipValue() throws IOException {
+        reader.skipValue();
+    }
+}
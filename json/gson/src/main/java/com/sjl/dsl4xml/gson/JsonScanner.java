@@ -0,0 +1,588 @@
+package com.sjl.dsl4xml.gson;
+
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.sjl.dsl4xml.support.KeyTable;
+import com.sjl.dsl4xml.support.convert.PrimitiveParsers;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Reads the tokens of a document straight from its characters, into a buffer
+ * it keeps from one document to the next. A name is looked up where it lies
+ * in the buffer, in the {@link KeyTable} of the state it was read in: those
+ * the definition knows are given as the definition's own Strings, and those
+ * it doesn't are kept as characters, only made into a String if asked for.
+ *
+ * Strict, like Gson's JsonReader when not lenient, and throwing the same
+ * exceptions. Not thread-safe: each context has its own.
+ *
+ * @author steve
+ */
+final class JsonScanner extends JsonTokens {
+
+    // what the scanner is in the middle of
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private Reader in;
+    private char[] buffer = new char[1024];
+    private int pos;
+    private int limit;
+
+    private int[] scopes = new int[32];
+    private int depth;
+    private JsonToken peeked;
+    private String name;
+    // the characters of the last name read, if the definition didn't know it
+    private char[] nameChars = new char[64];
+    private int nameLength;
+
+    // the text of the last string or number read: in the buffer, or (for
+    // strings with escapes) in the scratch array
+    private char[] text;
+    private int textStart;
+    private int textLength;
+    private char[] scratch = new char[64];
+
+    /**
+     * Prepares to read a document from the given reader.
+     */
+    void reset(Reader aReader) {
+        in = aReader;
+        pos = 0;
+        limit = 0;
+        depth = 0;
+        push(EMPTY_DOCUMENT);
+        peeked = null;
+        name = null;
+        nameLength = 0;
+    }
+
+    /**
+     * Lets go of the reader, and the last name read.
+     */
+    void release() {
+        in = null;
+        name = null;
+        text = null;
+    }
+
+    @Override
+    JsonToken peek() throws IOException {
+        if (peeked != null)
+            return peeked;
+
+        int c;
+        switch (scopes[depth - 1]) {
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                if (nextNonWhitespace() == ']') {
+                    pos++;
+                    return peeked = JsonToken.END_ARRAY;
+                }
+                break;
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    pos++;
+                    return peeked = JsonToken.END_ARRAY;
+                }
+                if (c != ',')
+                    throw syntaxError("Unterminated array");
+                pos++;
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    pos++;
+                    return peeked = JsonToken.END_OBJECT;
+                }
+                if (scopes[depth - 1] == NONEMPTY_OBJECT) {
+                    if (c != ',')
+                        throw syntaxError("Unterminated object");
+                    pos++;
+                    c = nextNonWhitespace();
+                }
+                if (c != '"')
+                    throw syntaxError("Expected name");
+                scopes[depth - 1] = DANGLING_NAME;
+                return peeked = JsonToken.NAME;
+            case DANGLING_NAME:
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                if (nextNonWhitespace() != ':')
+                    throw syntaxError("Expected ':'");
+                pos++;
+                break;
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            default:
+                if (skipWhitespace())
+                    throw syntaxError("Expected end of document");
+                return peeked = JsonToken.END_DOCUMENT;
+        }
+
+        c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                pos++;
+                return peeked = JsonToken.BEGIN_OBJECT;
+            case '[':
+                pos++;
+                return peeked = JsonToken.BEGIN_ARRAY;
+            case '"':
+                return peeked = JsonToken.STRING;
+            case 't':
+            case 'f':
+                return peeked = JsonToken.BOOLEAN;
+            case 'n':
+                return peeked = JsonToken.NULL;
+            default:
+                if ((c == '-') || ((c >= '0') && (c <= '9')))
+                    return peeked = JsonToken.NUMBER;
+                throw syntaxError("Expected value");
+        }
+    }
+
+    @Override
+    int nextName(StateTable aTable, int aState) throws IOException {
+        expect(JsonToken.NAME);
+        readString();
+        KeyTable _keys = aTable.keysOf(aState);
+        int _index = (_keys == null) ? StateTable.NONE : _keys.indexOf(text, textStart, textLength);
+        keepName((_index >= 0) ? _keys.getName(_index) : null);
+        return _index;
+    }
+
+    /**
+     * reads a name without looking it up, for code generated to match names
+     * itself (see {@link GeneratedReading}): its characters are left where
+     * they lie, to be compared by {@link #nameEquals(String)} before anything
+     * else is read - and kept by {@link #keepName(String)} if they are needed
+     * after that.
+     * @return the name's hash, as String.hashCode would have it
+     */
+    int nextNameHash() throws IOException {
+        expect(JsonToken.NAME);
+        readString();
+        int _hash = 0;
+        for (int i=textStart, _end=textStart + textLength; i<_end; i++) {
+            _hash = (31 * _hash) + text[i];
+        }
+        return _hash;
+    }
+
+    /**
+     * @return whether the name just read by {@link #nextNameHash()} is the
+     * given one
+     */
+    boolean nameEquals(String aName) {
+        if (aName.length() != textLength)
+            return false;
+        for (int i=0; i<textLength; i++) {
+            if (aName.charAt(i) != text[textStart + i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * keeps the name just read for {@link #getName()}: as the given String,
+     * if the definition knows it, or else as characters
+     */
+    void keepName(String aKnownName) {
+        if (aKnownName != null) {
+            name = aKnownName;
+            return;
+        }
+        // copied, as the buffer moves on when the value is peeked
+        if (textLength > nameChars.length)
+            nameChars = new char[Math.max(textLength, nameChars.length * 2)];
+        System.arraycopy(text, textStart, nameChars, 0, textLength);
+        nameLength = textLength;
+        name = null;
+    }
+
+    @Override
+    String getName() {
+        if (name == null)
+            name = new String(nameChars, 0, nameLength);
+        return name;
+    }
+
+    @Override
+    String nextString() throws IOException {
+        JsonToken _token = peek();
+        if (_token == JsonToken.STRING)
+            readString();
+        else if (_token == JsonToken.NUMBER)
+            readNumber();
+        else
+            throw new IllegalStateException("Expected a string but was " + _token);
+        peeked = null;
+        return new String(text, textStart, textLength);
+    }
+
+    @Override
+    double nextDouble() throws IOException {
+        JsonToken _token = peek();
+        if (_token == JsonToken.STRING) {
+            readString();
+            peeked = null;
+            return PrimitiveParsers.parseDouble(text, textStart, textLength);
+        }
+        if (_token != JsonToken.NUMBER)
+            throw new IllegalStateException("Expected a double but was " + _token);
+        readNumber();
+        peeked = null;
+        return parseNumber();
+    }
+
+    @Override
+    boolean nextBoolean() throws IOException {
+        expect(JsonToken.BOOLEAN);
+        boolean _value = (buffer[pos] == 't');
+        readLiteral(_value ? "true" : "false");
+        return _value;
+    }
+
+    @Override
+    void nextNull() throws IOException {
+        expect(JsonToken.NULL);
+        readLiteral("null");
+    }
+
+    @Override
+    void beginArray() throws IOException {
+        expect(JsonToken.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    @Override
+    void endArray() throws IOException {
+        expect(JsonToken.END_ARRAY);
+        depth--;
+    }
+
+    @Override
+    void beginObject() throws IOException {
+        expect(JsonToken.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    @Override
+    void endObject() throws IOException {
+        expect(JsonToken.END_OBJECT);
+        depth--;
+    }
+
+    @Override
+    void skipValue() throws IOException {
+        int _depth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_ARRAY:
+                    beginArray();
+                    _depth++;
+                    break;
+                case BEGIN_OBJECT:
+                    beginObject();
+                    _depth++;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    _depth--;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    _depth--;
+                    break;
+                case NAME:
+                case STRING:
+                    readString();
+                    peeked = null;
+                    break;
+                case NUMBER:
+                    readNumber();
+                    peeked = null;
+                    break;
+                case BOOLEAN:
+                    nextBoolean();
+                    break;
+                case NULL:
+                    nextNull();
+                    break;
+                default:
+                    throw new IllegalStateException("Expected a value but was " + peeked);
+            }
+        } while (_depth != 0);
+    }
+
+    private void expect(JsonToken aToken) throws IOException {
+        JsonToken _token = peek();
+        if (_token != aToken)
+            throw new IllegalStateException("Expected " + aToken + " but was " + _token);
+        peeked = null;
+    }
+
+    private void push(int aScope) {
+        if (depth == scopes.length)
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        scopes[depth++] = aScope;
+    }
+
+    /**
+     * reads the string starting at the current (quote) character, leaving
+     * its text in the buffer if it can, so that it needn't be copied
+     */
+    private void readString() throws IOException {
+        pos++;
+        int p = pos;
+        while (true) {
+            while (p < limit) {
+                char c = buffer[p];
+                if (c == '"') {
+                    text = buffer;
+                    textStart = pos;
+                    textLength = p - pos;
+                    pos = p + 1;
+                    return;
+                }
+                if (c == '\\') {
+                    readEscapedString(p);
+                    return;
+                }
+                p++;
+            }
+            int _read = p - pos;
+            if (!fill())
+                throw syntaxError("Unterminated string");
+            p = pos + _read;
+        }
+    }
+
+    /**
+     * reads the rest of a string with escapes into the scratch array, given
+     * the position of the first escape
+     */
+    private void readEscapedString(int anEscape) throws IOException {
+        int _length = anEscape - pos;
+        ensureScratch(_length);
+        System.arraycopy(buffer, pos, scratch, 0, _length);
+        pos = anEscape;
+        while (true) {
+            if ((pos == limit) && !fill())
+                throw syntaxError("Unterminated string");
+            char c = buffer[pos++];
+            if (c == '"')
+                break;
+            if (c == '\\')
+                c = readEscape();
+            ensureScratch(_length + 1);
+            scratch[_length++] = c;
+        }
+        text = scratch;
+        textStart = 0;
+        textLength = _length;
+    }
+
+    private char readEscape() throws IOException {
+        if ((pos == limit) && !fill())
+            throw syntaxError("Unterminated escape sequence");
+        char c = buffer[pos++];
+        switch (c) {
+            case 'u':
+                while (limit - pos < 4) {
+                    if (!fill())
+                        throw syntaxError("Unterminated escape sequence");
+                }
+                int _value = 0;
+                for (int i=0; i<4; i++) {
+                    int _digit = Character.digit(buffer[pos++], 16);
+                    if (_digit < 0)
+                        throw syntaxError("Invalid escape sequence");
+                    _value = (_value << 4) + _digit;
+                }
+                return (char) _value;
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    private void ensureScratch(int aLength) {
+        if (aLength > scratch.length)
+            scratch = Arrays.copyOf(scratch, Math.max(aLength, scratch.length * 2));
+    }
+
+    /**
+     * reads the characters of the number starting at the current character,
+     * leaving them in the buffer
+     * @throws MalformedJsonException if they aren't a number as JSON has them
+     */
+    private void readNumber() throws IOException {
+        int p = pos;
+        while (true) {
+            while (p < limit) {
+                char c = buffer[p];
+                if (((c < '0') || (c > '9')) && (c != '-') && (c != '+') && (c != '.') && (c != 'e') && (c != 'E')) {
+                    text = buffer;
+                    textStart = pos;
+                    textLength = p - pos;
+                    pos = p;
+                    checkNumber();
+                    return;
+                }
+                p++;
+            }
+            int _read = p - pos;
+            if (!fill()) {
+                text = buffer;
+                textStart = pos;
+                textLength = _read;
+                pos += _read;
+                checkNumber();
+                return;
+            }
+            p = pos + _read;
+        }
+    }
+
+    /**
+     * checks the number just read against JSON's grammar: an optional minus,
+     * an integer part with no leading zeros, then optionally a fraction and
+     * an exponent, each with at least one digit
+     */
+    private void checkNumber() throws IOException {
+        int i = textStart;
+        int _end = textStart + textLength;
+        if ((i < _end) && (text[i] == '-'))
+            i++;
+        if ((i < _end) && (text[i] == '0'))
+            i++;
+        else if ((i = skipDigits(i, _end)) < 0)
+            throw syntaxError("Malformed number " + new String(text, textStart, textLength));
+
+        if ((i < _end) && (text[i] == '.'))
+            i = skipDigits(i + 1, _end);
+        if ((i >= 0) && (i < _end) && ((text[i] == 'e') || (text[i] == 'E'))) {
+            i++;
+            if ((i < _end) && ((text[i] == '+') || (text[i] == '-')))
+                i++;
+            i = skipDigits(i, _end);
+        }
+        if (i != _end)
+            throw syntaxError("Malformed number " + new String(text, textStart, textLength));
+    }
+
+    /**
+     * @return the index after the digits starting at the given index, or -1
+     * if there are none
+     */
+    private int skipDigits(int aStart, int anEnd) {
+        int i = aStart;
+        while ((i < anEnd) && (text[i] >= '0') && (text[i] <= '9'))
+            i++;
+        return (i == aStart) ? -1 : i;
+    }
+
+    /**
+     * @return the number just read, parsed where it lies rather than from a
+     * String, and exactly as Double.parseDouble would - so -0 is negative
+     */
+    private double parseNumber() {
+        return PrimitiveParsers.parseDouble(text, textStart, textLength);
+    }
+
+    private void readLiteral(String aLiteral) throws IOException {
+        int _length = aLiteral.length();
+        while (limit - pos < _length) {
+            if (!fill())
+                throw syntaxError("Unexpected end of literal");
+        }
+        for (int i=0; i<_length; i++) {
+            if (buffer[pos + i] != aLiteral.charAt(i))
+                throw syntaxError("Expected " + aLiteral);
+        }
+        pos += _length;
+        if (((pos < limit) || fill()) && Character.isLetterOrDigit(buffer[pos]))
+            throw syntaxError("Expected " + aLiteral);
+    }
+
+    /**
+     * @return the next character that isn't whitespace, left unread
+     * @throws EOFException if there is none
+     */
+    private int nextNonWhitespace() throws IOException {
+        if (!skipWhitespace())
+            throw new EOFException("End of input");
+        return buffer[pos];
+    }
+
+    /**
+     * @return whether there is anything left but whitespace
+     */
+    private boolean skipWhitespace() throws IOException {
+        while (true) {
+            while (pos < limit) {
+                char c = buffer[pos];
+                if ((c != ' ') && (c != '\n') && (c != '\r') && (c != '\t'))
+                    return true;
+                pos++;
+            }
+            if (!fill())
+                return false;
+        }
+    }
+
+    /**
+     * moves what's left unread to the start of the buffer (growing it if
+     * that's all of it), and reads more after it
+     * @return false at the end of the document
+     */
+    private boolean fill() throws IOException {
+        int _kept = limit - pos;
+        if (pos > 0)
+            System.arraycopy(buffer, pos, buffer, 0, _kept);
+        if (_kept == buffer.length)
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        pos = 0;
+        limit = _kept;
+
+        int _read;
+        while ((_read = in.read(buffer, limit, buffer.length - limit)) == 0) {
+            // a reader may read nothing without having reached the end
+        }
+        if (_read < 0)
+            return false;
+        limit += _read;
+        return true;
+    }
+
+    private IOException syntaxError(String aMessage) {
+        return new MalformedJsonException(aMessage);
+    }
+}
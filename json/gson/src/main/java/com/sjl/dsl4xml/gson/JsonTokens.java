@@ -0,0 +1,49 @@
+package com.sjl.dsl4xml.gson;
+
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * The tokens of a document, as {@link TableDrivenContext} reads them: from
+ * Gson's JsonReader ({@link GsonTokens}), or straight from the characters
+ * ({@link JsonScanner}), which finds names without making Strings of them.
+ * The methods behave as JsonReader's do.
+ *
+ * @author steve
+ */
+abstract class JsonTokens {
+
+    abstract JsonToken peek() throws IOException;
+
+    /**
+     * reads a name, looking it up in the given state of the table
+     * @return its index there, or StateTable.NONE
+     */
+    abstract int nextName(StateTable aTable, int aState) throws IOException;
+
+    /**
+     * @return the name last read by {@link #nextName(StateTable, int)} -
+     * which, if the table doesn't know it, may not be a String until asked
+     * for, so ask only if it will be used
+     */
+    abstract String getName();
+
+    abstract String nextString() throws IOException;
+
+    abstract double nextDouble() throws IOException;
+
+    abstract boolean nextBoolean() throws IOException;
+
+    abstract void nextNull() throws IOException;
+
+    abstract void beginArray() throws IOException;
+
+    abstract void endArray() throws IOException;
+
+    abstract void beginObject() throws IOException;
+
+    abstract void endObject() throws IOException;
+
+    abstract void skipValue() throws IOException;
+}
@@ -0,0 +1,92 @@
+package com.sjl.dsl4xml.gson;
+
+import com.sjl.dsl4xml.ParsingException;
+import com.sjl.dsl4xml.json.DocumentDefinition;
+import com.sjl.dsl4xml.support.Builder;
+import com.sjl.dsl4xml.support.CompiledDefinition;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads documents exactly as {@link TableDrivenDocumentReader} does, but
+ * without Gson: the document's characters are read by a {@link JsonScanner},
+ * which looks each name up where it lies in its buffer, in a minimal perfect
+ * hash of the names nested in the object being read (see
+ * {@link com.sjl.dsl4xml.support.KeyTable}). No String is made of a name the
+ * definition knows - only of those it doesn't, which the builders can only
+ * set by name.
+ */
+public class KeyMatchingDocumentReader<T> extends TableDrivenDocumentReader<T> {
+
+    // one scanner and context per thread, reused from one read to the next
+    private ThreadLocal<Reading> readings = new ThreadLocal<Reading>();
+
+    public KeyMatchingDocumentReader(DocumentDefinition<T> aDefinition) {
+        this(aDefinition.compile());
+    }
+
+    /**
+     * @param aDefinition a compiled definition, which may be shared with any
+     * number of other readers
+     */
+    public KeyMatchingDocumentReader(CompiledDefinition<T> aDefinition) {
+        super(aDefinition, true);
+    }
+
+    @Override
+    public T read(Reader aReader)
+    throws ParsingException {
+        Reading _reading = readings.get();
+        try {
+            if (_reading == null) {
+                _reading = newReading();
+            } else {
+                // a converter could read another document with this reader on the same thread
+                readings.set(null);
+            }
+            _reading.scanner.reset(aReader);
+            _reading.context.reset(_reading.scanner, getSharedStringPool());
+            return _reading.read(getBuilder());
+        } catch (ParsingException anExc) {
+            throw anExc;
+        } catch (Exception anExc) {
+            throw new ParsingException(anExc);
+        } finally {
+            if (_reading != null) {
+                addBytesSaved(_reading.context.getStringPool());
+                _reading.context.release();
+                _reading.scanner.release();
+                readings.set(_reading);
+            }
+            try {
+                aReader.close();
+            } catch (IOException anExc) {
+                throw new ParsingException("Exception while closing the reader", anExc);
+            }
+        }
+    }
+
+    /**
+     * @return a scanner and context for one thread's reads
+     */
+    Reading newReading() {
+        return new Reading(getTable());
+    }
+
+    static class Reading {
+        final JsonScanner scanner = new JsonScanner();
+        final TableDrivenContext context;
+
+        Reading(StateTable aTable) {
+            context = new TableDrivenContext(scanner, aTable, null);
+        }
+
+        /**
+         * reads the document the scanner has been reset to
+         */
+        <R> R read(Builder<R> aBuilder) throws IOException {
+            return context.build(aBuilder);
+        }
+    }
+}
@@ -0,0 +1,528 @@
+package com.sjl.dsl4xml.gson;
+
+import com.google.gson.stream.JsonToken;
+import com.sjl.dsl4xml.support.Builder;
+import com.sjl.dsl4xml.support.Builders;
+import com.sjl.dsl4xml.support.ClassFile;
+import com.sjl.dsl4xml.support.Mutators;
+import com.sjl.dsl4xml.support.PropertyBuilder;
+import com.sjl.dsl4xml.support.ReflectiveBuilder;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.sjl.dsl4xml.support.ClassFile.*;
+
+/**
+ * Writes the class-file of a {@link GeneratedReading} for the states of a
+ * {@link StateTable}, with a method for each object and array the table reads
+ * by name - and readRoot, calling the root's. Each object's method creates
+ * the object, then for each name does a lookupswitch on its hash and compares
+ * it with the names that have that hash; for each of those names, a
+ * comparison with the next token picks the code for the one kind of value
+ * the definition expects there:
+ *
+ * <ul>
+ * <li>a String that is set as it is: read, and passed to the setter</li>
+ * <li>an int, long, double or boolean: read as such, and passed to a setter
+ * that takes one, unboxed</li>
+ * <li>an object or array of its own: read by its own method, and set</li>
+ * </ul>
+ *
+ * Setters are called directly where the mutator is a method that generated
+ * code could call (see {@link Mutators#getDirectMethod}), and fail as the
+ * mutator would; otherwise through the builder. A null is skipped, as the
+ * interpreter skips it. Anything else - a name the definition doesn't have, a
+ * value of another type, a property that is converted or interned - is read
+ * by the interpreter (see {@link GeneratedReading#readValue}), which gives it
+ * the same meaning as ever.
+ *
+ * @author steve
+ */
+final class ReaderGenerator {
+
+    private static final String SUPER = internalName(GeneratedReading.class.getName());
+    private static final String OBJECT = "Ljava/lang/Object;";
+
+    // branch offsets are signed shorts
+    private static final int MAX_CODE = Short.MAX_VALUE;
+
+    // the locals of each read method
+    private static final int TARGET = 1;
+    private static final int TOKEN = 2;
+    private static final int THROWN = 3;
+
+    /**
+     * @return the class-file of a reader of the given table, named as given,
+     * which will be defined by the given loader - or null if the root isn't
+     * an object the table reads by name
+     */
+    static byte[] generate(StateTable aTable, int aRoot, String aClassName, ClassLoader aLoader) {
+        ReaderGenerator _generator = new ReaderGenerator(aTable, aClassName, aLoader);
+        if (!_generator.isObject(aRoot))
+            return null;
+        return _generator.toByteArray(aRoot);
+    }
+
+    private StateTable table;
+    private ClassLoader loader;
+    private ClassFile file;
+    private ConstantPool pool;
+
+    private ReaderGenerator(StateTable aTable, String aClassName, ClassLoader aLoader) {
+        table = aTable;
+        loader = aLoader;
+        file = new ClassFile(internalName(aClassName), SUPER);
+        pool = file.getPool();
+    }
+
+    private byte[] toByteArray(int aRoot) {
+        try {
+            addConstructor();
+            addRootReader(aRoot);
+            for (int s=0; s<table.size(); s++) {
+                if (isObject(s))
+                    addObjectReader(s);
+                else if (isArray(s))
+                    addArrayReader(s);
+            }
+            return file.toByteArray();
+        } catch (IOException anExc) {
+            throw new IllegalStateException(anExc); // can't happen - we're writing to memory
+        }
+    }
+
+    /**
+     * @return true if the given state is an object whose names the table
+     * knows, so can be read by a method of its own
+     */
+    private boolean isObject(int aState) {
+        return (table.getReflective(aState) != null) && !table.isArray(aState) && (table.keysOf(aState) != null);
+    }
+
+    /**
+     * @return true if the given state is an array of one unnamed definition,
+     * so can be read by a method of its own
+     */
+    private boolean isArray(int aState) {
+        return (table.getReflective(aState) != null) && table.isArray(aState) && (elementOf(aState) != StateTable.NONE);
+    }
+
+    private int elementOf(int anArray) {
+        return table.next(anArray, StateTable.NONE, null);
+    }
+
+    private void addConstructor() throws IOException {
+        Code _c = new Code();
+        _c.op(ALOAD_0);
+        _c.op(INVOKESPECIAL).u2(pool.methodRef(SUPER, "<init>", "()V"));
+        _c.op(RETURN);
+        file.addMethod("<init>", "()V", _c, 1, 1);
+    }
+
+    private void addRootReader(int aRoot) throws IOException {
+        Code _c = new Code();
+        _c.op(ALOAD_0);
+        _c.op(INVOKEVIRTUAL).u2(pool.methodRef(file.getClassName(), readerOf(aRoot), "()" + OBJECT));
+        _c.op(ARETURN);
+        file.addMethod("readRoot", "()" + OBJECT, _c, 1, 1);
+    }
+
+    private void addObjectReader(int aState) throws IOException {
+        ReflectiveBuilder<?> _builder = table.getReflective(aState);
+        List<Builder<?>> _nested = _builder.getNested();
+
+        // the nested names by hash - where a name is repeated, the first
+        // wins, as it does in the tables
+        Map<Integer,List<Integer>> _hashes = new TreeMap<Integer,List<Integer>>();
+        List<String> _seen = new ArrayList<String>();
+        for (int i=0; i<_nested.size(); i++) {
+            String _name = _nested.get(i).getName().getName();
+            if (_seen.contains(_name))
+                continue;
+            _seen.add(_name);
+            List<Integer> _indexes = _hashes.get(_name.hashCode());
+            if (_indexes == null) {
+                _indexes = new ArrayList<Integer>();
+                _hashes.put(_name.hashCode(), _indexes);
+            }
+            _indexes.add(i);
+        }
+
+        Code _c = new Code();
+        newInstance(_c, aState);
+        int _loop = _c.position();
+        _c.op(ALOAD_0);
+        _c.op(INVOKEVIRTUAL).u2(helper("hasName", "()Z"));
+        int _end = _c.jump(IFEQ);
+        _c.op(ALOAD_0);
+        _c.op(INVOKEVIRTUAL).u2(helper("nameHash", "()I"));
+
+        int[] _keys = new int[_hashes.size()];
+        int k = 0;
+        for (Integer _hash : _hashes.keySet()) {
+            _keys[k++] = _hash;
+        }
+        Switch _switch = _c.lookupswitch(_keys);
+        List<Integer> _unknown = new ArrayList<Integer>();
+        List<List<Integer>> _matched = new ArrayList<List<Integer>>();
+        for (int i=0; i<_nested.size(); i++) {
+            _matched.add(new ArrayList<Integer>());
+        }
+        k = 0;
+        for (List<Integer> _indexes : _hashes.values()) {
+            _switch.caseAt(k++);
+            for (int i : _indexes) {
+                _c.op(ALOAD_0);
+                _c.op(LDC_W).u2(pool.string(_nested.get(i).getName().getName()));
+                _c.op(INVOKEVIRTUAL).u2(helper("nameIs", "(Ljava/lang/String;)Z"));
+                _matched.get(i).add(_c.jump(IFNE));
+            }
+            _unknown.add(_c.jump(GOTO));
+        }
+
+        _switch.defaultAt();
+        for (int _jump : _unknown) {
+            _c.landHere(_jump);
+        }
+        _c.op(ALOAD_0);
+        sipush(_c, aState);
+        _c.op(ALOAD).u1(TARGET);
+        _c.op(INVOKEVIRTUAL).u2(helper("readUnknown", "(I" + OBJECT + ")V"));
+        _c.jumpBack(GOTO, _loop);
+
+        for (int i=0; i<_nested.size(); i++) {
+            if (_matched.get(i).isEmpty())
+                continue;
+            for (int _jump : _matched.get(i)) {
+                _c.landHere(_jump);
+            }
+            addValueReader(_c, aState, i, table.next(aState, i, null), _loop);
+        }
+
+        _c.landHere(_end);
+        _c.op(ALOAD).u1(TARGET);
+        _c.op(ARETURN);
+        addReader(aState, _c);
+    }
+
+    /**
+     * Writes the reading of the value of the nested definition at the given
+     * index of an object, leading to the given state, with the name read.
+     */
+    private void addValueReader(Code aCode, int aState, int aNested, int aNext, int aLoop) {
+        aCode.op(ALOAD_0);
+        aCode.op(INVOKEVIRTUAL).u2(helper("peek", "()I"));
+        aCode.op(ISTORE).u1(TOKEN);
+
+        int _notNull = ifNotToken(aCode, JsonToken.NULL);
+        aCode.op(ALOAD_0);
+        aCode.op(INVOKEVIRTUAL).u2(helper("nextNull", "()V"));
+        aCode.jumpBack(GOTO, aLoop);
+        aCode.landHere(_notNull);
+
+        addInlineValue(aCode, aState, aNested, aNext, aLoop);
+
+        aCode.op(ALOAD_0);
+        sipush(aCode, aState);
+        sipush(aCode, aNested);
+        aCode.op(ALOAD).u1(TARGET);
+        aCode.op(INVOKEVIRTUAL).u2(helper("readValue", "(II" + OBJECT + ")V"));
+        aCode.jumpBack(GOTO, aLoop);
+    }
+
+    private void addArrayReader(int anArray) throws IOException {
+        Code _c = new Code();
+        newInstance(_c, anArray);
+        int _loop = _c.position();
+        _c.op(ALOAD_0);
+        _c.op(INVOKEVIRTUAL).u2(helper("hasElement", "()Z"));
+        int _end = _c.jump(IFEQ);
+
+        _c.op(ALOAD_0);
+        _c.op(INVOKEVIRTUAL).u2(helper("peek", "()I"));
+        _c.op(ISTORE).u1(TOKEN);
+        // elements are set as the definition nested at index 0, which has no name
+        addInlineValue(_c, anArray, 0, elementOf(anArray), _loop);
+
+        _c.op(ALOAD_0);
+        sipush(_c, anArray);
+        _c.op(ALOAD).u1(TARGET);
+        _c.op(INVOKEVIRTUAL).u2(helper("readElement", "(I" + OBJECT + ")V"));
+        _c.jumpBack(GOTO, _loop);
+
+        _c.landHere(_end);
+        _c.op(ALOAD).u1(TARGET);
+        _c.op(ARETURN);
+        addReader(anArray, _c);
+    }
+
+    private void addReader(int aState, Code aCode) throws IOException {
+        if (aCode.position() > MAX_CODE)
+            throw new IllegalArgumentException("Definition " + table.getBuilder(aState).getName().getName() + " is too big to generate a reader of");
+        file.addMethod(readerOf(aState), "()" + OBJECT, aCode, 8, 4);
+    }
+
+    /**
+     * Writes the reading and setting of the one kind of value the given
+     * nested definition can have without the interpreter, if the token is
+     * of that kind - or nothing, if there's no such kind.
+     */
+    private void addInlineValue(Code aCode, int aState, int aNested, int aNext, int aLoop) {
+        Builder<?> _next = table.getBuilder(aNext);
+        Class<?> _primitive = Builders.getPrimitiveType(_next);
+        Method _setter = getSetter(aState, aNested);
+        Class<?> _param = (_setter == null) ? null : _setter.getParameterTypes()[0];
+
+        if ((_next instanceof PropertyBuilder<?,?>) && ((PropertyBuilder<?,?>) _next).passesStringsThrough()) {
+            int _other = ifNotToken(aCode, JsonToken.STRING);
+            Value _value = new Value(String.class, "nextString", "()Ljava/lang/String;", 0);
+            set(aCode, aState, aNested, _value, ((_param != null) && _param.isAssignableFrom(String.class)) ? _setter : null);
+            aCode.jumpBack(GOTO, aLoop);
+            aCode.landHere(_other);
+        } else if (_primitive != null) {
+            // only those the interpreter sets unboxed, and directly only to a setter taking exactly that
+            Value _value;
+            JsonToken _token = JsonToken.NUMBER;
+            if (_primitive == Integer.TYPE)
+                _value = new Value(_primitive, "nextDouble", "()D", D2I);
+            else if (_primitive == Long.TYPE)
+                _value = new Value(_primitive, "nextDouble", "()D", D2L);
+            else if (_primitive == Double.TYPE)
+                _value = new Value(_primitive, "nextDouble", "()D", 0);
+            else if (_primitive == Boolean.TYPE) {
+                _value = new Value(_primitive, "nextBoolean", "()Z", 0);
+                _token = JsonToken.BOOLEAN;
+            } else
+                return;
+            int _other = ifNotToken(aCode, _token);
+            set(aCode, aState, aNested, _value, (_param == _primitive) ? _setter : null);
+            aCode.jumpBack(GOTO, aLoop);
+            aCode.landHere(_other);
+        } else if (isObject(aNext) || isArray(aNext)) {
+            boolean _array = isArray(aNext);
+            int _other = ifNotToken(aCode, _array ? JsonToken.BEGIN_ARRAY : JsonToken.BEGIN_OBJECT);
+            aCode.op(ALOAD_0);
+            aCode.op(INVOKEVIRTUAL).u2(helper(_array ? "beginArray" : "beginObject", "()V"));
+            ReflectiveBuilder<?> _nested = table.getReflective(aNext);
+            Class<?> _type = _nested.hasConverter() ? Object.class : _nested.getInstanceType();
+            Value _value = new Value(_type, aNext, _nested.hasConverter());
+            set(aCode, aState, aNested, _value,
+                (_param != null) && !_param.isPrimitive() && _param.isAssignableFrom(_type) && isVisible(_param) ? _setter : null);
+            aCode.jumpBack(GOTO, aLoop);
+            aCode.landHere(_other);
+        }
+    }
+
+    /**
+     * @return the setter of the nested definition at the given index of the
+     * given state, if the generated code can call it itself, or null
+     */
+    private Method getSetter(int aState, int aNested) {
+        ReflectiveBuilder<?> _builder = table.getReflective(aState);
+        Method _method = Mutators.getDirectMethod(_builder.getMutator(aNested));
+        if ((_method == null)
+            || !_method.getDeclaringClass().isAssignableFrom(_builder.getInstanceType())
+            || !isVisible(_method.getDeclaringClass()))
+            return null;
+        return _method;
+    }
+
+    /**
+     * Writes the setting of the given value to the nested definition at the
+     * given index of the given state: by calling the given setter, if there
+     * is one, or else through the builder.
+     */
+    private void set(Code aCode, int aState, int aNested, Value aValue, Method aSetter) {
+        if (aSetter == null) {
+            aCode.op(ALOAD_0);
+            sipush(aCode, aState);
+            sipush(aCode, aNested);
+            aCode.op(ALOAD).u1(TARGET);
+            aValue.load(aCode);
+            if (aValue.type.isPrimitive())
+                aCode.op(INVOKEVIRTUAL).u2(helper(primitiveSetterOf(aValue.type), "(II" + OBJECT + descriptor(aValue.type) + ")V"));
+            else
+                aCode.op(INVOKEVIRTUAL).u2(helper("set", "(II" + OBJECT + OBJECT + ")V"));
+            return;
+        }
+
+        String _owner = internalName(aSetter.getDeclaringClass().getName());
+        Class<?> _param = aSetter.getParameterTypes()[0];
+        aCode.op(ALOAD).u1(TARGET);
+        aCode.op(CHECKCAST).u2(pool.classRef(_owner));
+        aValue.load(aCode);
+        if (!_param.isPrimitive() && !_param.isAssignableFrom(aValue.getLoadedType()))
+            aCode.op(CHECKCAST).u2(pool.classRef(internalName(_param.getName())));
+        int _call = aCode.position();
+        aCode.op(INVOKEVIRTUAL).u2(pool.methodRef(_owner, aSetter.getName(),
+            "(" + descriptor(_param) + ")" + descriptor(aSetter.getReturnType())));
+        int _returned = aCode.position();
+        if (aSetter.getReturnType() != Void.TYPE)
+            aCode.op(size(aSetter.getReturnType()) == 2 ? POP2 : POP);
+        int _done = aCode.jump(GOTO);
+
+        // throw failed(state, nested, target, thrown)
+        aCode.handleHere(_call, _returned, 0);
+        aCode.op(ASTORE).u1(THROWN);
+        aCode.op(ALOAD_0);
+        sipush(aCode, aState);
+        sipush(aCode, aNested);
+        aCode.op(ALOAD).u1(TARGET);
+        aCode.op(ALOAD).u1(THROWN);
+        aCode.op(INVOKEVIRTUAL).u2(helper("failed", "(II" + OBJECT + "Ljava/lang/Throwable;)Ljava/lang/RuntimeException;"));
+        aCode.op(ATHROW);
+        aCode.landHere(_done);
+    }
+
+    /**
+     * Writes the creation of the object the given state's values are set to,
+     * into the TARGET local: by calling its constructor, if the generated
+     * code can, or else through the builder.
+     */
+    private void newInstance(Code aCode, int aState) {
+        Class<?> _type = table.getReflective(aState).getInstanceType();
+        if (!isConstructible(_type)) {
+            aCode.op(ALOAD_0);
+            sipush(aCode, aState);
+            aCode.op(INVOKEVIRTUAL).u2(helper("newInstance", "(I)" + OBJECT));
+            aCode.op(ASTORE).u1(TARGET);
+            return;
+        }
+
+        String _name = internalName(_type.getName());
+        aCode.op(NEW).u2(pool.classRef(_name));
+        aCode.op(DUP);
+        int _call = aCode.position();
+        aCode.op(INVOKESPECIAL).u2(pool.methodRef(_name, "<init>", "()V"));
+        int _returned = aCode.position();
+        aCode.op(ASTORE).u1(TARGET);
+        int _done = aCode.jump(GOTO);
+
+        // throw failedToCreate(thrown)
+        aCode.handleHere(_call, _returned, 0);
+        aCode.op(ASTORE).u1(THROWN);
+        aCode.op(ALOAD_0);
+        aCode.op(ALOAD).u1(THROWN);
+        aCode.op(INVOKEVIRTUAL).u2(helper("failedToCreate", "(Ljava/lang/Throwable;)Ljava/lang/RuntimeException;"));
+        aCode.op(ATHROW);
+        aCode.landHere(_done);
+    }
+
+    private boolean isConstructible(Class<?> aType) {
+        if (aType.isInterface() || Modifier.isAbstract(aType.getModifiers()) || !Modifier.isPublic(aType.getModifiers()))
+            return false;
+        try {
+            Constructor<?> _constructor = aType.getConstructor();
+            return Modifier.isPublic(_constructor.getModifiers()) && isVisible(aType);
+        } catch (NoSuchMethodException anExc) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the generated class can refer to the given class: if
+     * it is public, and its loader would find that same class by name
+     */
+    private boolean isVisible(Class<?> aClass) {
+        while (aClass.isArray()) {
+            aClass = aClass.getComponentType();
+        }
+        if (aClass.isPrimitive())
+            return true;
+        if (!Modifier.isPublic(aClass.getModifiers()))
+            return false;
+        try {
+            return Class.forName(aClass.getName(), false, loader) == aClass;
+        } catch (ClassNotFoundException anExc) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes a comparison of the token just peeked with the given one.
+     * @return the branch taken if it is another, to land where that's handled
+     */
+    private int ifNotToken(Code aCode, JsonToken aToken) {
+        aCode.op(ILOAD).u1(TOKEN);
+        sipush(aCode, aToken.ordinal());
+        return aCode.jump(IF_ICMPNE);
+    }
+
+    private int helper(String aName, String aDescriptor) {
+        return pool.methodRef(SUPER, aName, aDescriptor);
+    }
+
+    private static String primitiveSetterOf(Class<?> aType) {
+        if (aType == Integer.TYPE) return "setInt";
+        if (aType == Long.TYPE) return "setLong";
+        if (aType == Double.TYPE) return "setDouble";
+        return "setBoolean";
+    }
+
+    private static String readerOf(int aState) {
+        return "read" + aState;
+    }
+
+    private static void sipush(Code aCode, int aValue) {
+        aCode.op(SIPUSH).u2(aValue);
+    }
+
+    /**
+     * A value read by a method of GeneratedReading, or by the read method of
+     * another state.
+     */
+    private class Value {
+        private Class<?> type;
+        private String reader;
+        private String descriptor;
+        private int conversion;
+        private int state = StateTable.NONE;
+        private boolean converted;
+
+        Value(Class<?> aType, String aReader, String aDescriptor, int aConversion) {
+            type = aType;
+            reader = aReader;
+            descriptor = aDescriptor;
+            conversion = aConversion;
+        }
+
+        Value(Class<?> aType, int aState, boolean aConverted) {
+            type = aType;
+            state = aState;
+            converted = aConverted;
+        }
+
+        /**
+         * @return the type of the value as loaded - objects read by the read
+         * method of a state are only known to be Objects
+         */
+        Class<?> getLoadedType() {
+            return (state == StateTable.NONE) ? type : Object.class;
+        }
+
+        void load(Code aCode) {
+            if (state == StateTable.NONE) {
+                aCode.op(ALOAD_0);
+                aCode.op(INVOKEVIRTUAL).u2(helper(reader, descriptor));
+                if (conversion != 0)
+                    aCode.op(conversion);
+                return;
+            }
+            if (converted) {
+                aCode.op(ALOAD_0);
+                sipush(aCode, state);
+            }
+            aCode.op(ALOAD_0);
+            aCode.op(INVOKEVIRTUAL).u2(pool.methodRef(file.getClassName(), readerOf(state), "()" + OBJECT));
+            if (converted)
+                aCode.op(INVOKEVIRTUAL).u2(helper("build", "(I" + OBJECT + ")" + OBJECT));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.sjl.dsl4xml.gson;
+
+import com.google.gson.stream.JsonReader;
+import com.sjl.dsl4xml.InterningContext;
+import com.sjl.dsl4xml.support.SharedStringPool;
+
+/**
+ * A context that the json readers keep, one per thread, from one read to the
+ * next, so that its stacks are allocated once rather than for every document.
+ */
+interface ReusableContext extends InterningContext {
+
+    /**
+     * Prepares this context to read another document from the given reader.
+     */
+    void reset(JsonReader aReader, SharedStringPool aSharedStrings);
+
+    /**
+     * Lets go of the document just read, and whatever was built from it,
+     * while this context waits to be reused.
+     */
+    void release();
+}
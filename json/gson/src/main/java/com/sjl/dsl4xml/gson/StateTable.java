@@ -0,0 +1,240 @@
+package com.sjl.dsl4xml.gson;
+
+import com.google.gson.stream.JsonToken;
+import com.sjl.dsl4xml.Name;
+import com.sjl.dsl4xml.ParsingException;
+import com.sjl.dsl4xml.support.Builder;
+import com.sjl.dsl4xml.support.Builders;
+import com.sjl.dsl4xml.support.CompiledDefinition;
+import com.sjl.dsl4xml.support.Implementations;
+import com.sjl.dsl4xml.support.KeyTable;
+import com.sjl.dsl4xml.support.NameMatcher;
+import com.sjl.dsl4xml.support.NoResultBuilder;
+import com.sjl.dsl4xml.support.ReflectiveBuilder;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled definition flattened into the tables of a state machine: each
+ * builder in the tree is a state, numbered as in
+ * {@link CompiledDefinition#getNodes()}; a name read in a state leads (by its
+ * index in that state's {@link NameMatcher}) to the state of the nested
+ * definition; and the token read next decides what to do with that state -
+ * build a value, set a primitive, enter it, or skip.
+ *
+ * Everything about the definition that {@link GsonContext} asks its builders
+ * for each token - moveDown, isArray, getPrimitiveType - is answered here, once,
+ * when the table is built. Immutable, so may be shared between threads.
+ *
+ * @author steve
+ */
+final class StateTable {
+
+    static final int NONE = -1;
+
+    // what to do with a token, given the state its name leads to
+    static final byte BUILD = 0;
+    static final byte SET_INT = 1;
+    static final byte SET_LONG = 2;
+    static final byte SET_DOUBLE = 3;
+    static final byte SET_BOOLEAN = 4;
+    static final byte ENTER = 5;
+    static final byte BUILD_IN_PLACE = 6;
+    static final byte SKIP_ARRAY = 7;
+    static final byte STAY = 8;
+    static final byte OTHER = 9;
+
+    private static final int TOKENS = JsonToken.values().length;
+
+    private final Builder<?>[] builders;
+    private final ReflectiveBuilder<?>[] reflective;
+    private final boolean[] arrays;
+    private final NameMatcher[] names;
+    private final KeyTable[] keys;
+    private final int[][] children;
+    private final int[] unnamed;
+    private final boolean[] storesUnknownNames;
+    private final byte[][] actions;
+
+    StateTable(CompiledDefinition<?> aDefinition) {
+        this(aDefinition, false);
+    }
+
+    /**
+     * @param aMatchingKeys whether to build a {@link KeyTable} for each state,
+     * for readers which match names on their characters (see
+     * {@link #keysOf(int)}) - those reading through Gson only ever have
+     * Strings to match
+     */
+    StateTable(CompiledDefinition<?> aDefinition, boolean aMatchingKeys) {
+        List<Builder<?>> _nodes = aDefinition.getNodes();
+        int _count = _nodes.size();
+        builders = _nodes.toArray(new Builder<?>[_count]);
+        reflective = new ReflectiveBuilder<?>[_count];
+        arrays = new boolean[_count];
+        names = new NameMatcher[_count];
+        keys = new KeyTable[_count];
+        children = new int[_count][];
+        unnamed = new int[_count];
+        storesUnknownNames = new boolean[_count];
+        actions = new byte[_count + 1][];
+
+        Map<Builder<?>, Integer> _states = new IdentityHashMap<Builder<?>, Integer>();
+        for (int i=0; i<_count; i++) {
+            _states.put(builders[i], i);
+        }
+
+        actions[0] = newActions(null);
+        for (int i=0; i<_count; i++) {
+            arrays[i] = builders[i].isArray();
+            actions[i + 1] = newActions(builders[i]);
+            unnamed[i] = NONE;
+            // reflective builders only have mutators for the names of their
+            // definition (even for __magic_set), and ignored ones keep nothing
+            storesUnknownNames[i] = !(builders[i] instanceof ReflectiveBuilder<?>)
+                && !(builders[i] instanceof NoResultBuilder<?>);
+            if (!(builders[i] instanceof ReflectiveBuilder<?>))
+                continue;
+
+            reflective[i] = (ReflectiveBuilder<?>) builders[i];
+            List<Builder<?>> _nested = reflective[i].getNested();
+            children[i] = new int[_nested.size()];
+            String[] _names = new String[_nested.size()];
+            for (int j=0; j<_nested.size(); j++) {
+                children[i][j] = _states.get(_nested.get(j));
+                _names[j] = _nested.get(j).getName().getName();
+            }
+
+            if ((_nested.size() == 1) && _nested.get(0).getName().equals(Name.MISSING)) {
+                // every name leads to the one unnamed definition (arrays), so never look any up
+                unnamed[i] = children[i][0];
+            } else {
+                names[i] = Implementations.newNameMatcher(_names);
+                if (aMatchingKeys)
+                    keys[i] = new KeyTable(_names);
+            }
+        }
+    }
+
+    private static byte[] newActions(Builder<?> aBuilder) {
+        byte[] _actions = new byte[TOKENS];
+        for (int i=0; i<TOKENS; i++) {
+            _actions[i] = OTHER;
+        }
+
+        if (aBuilder == null) {
+            _actions[JsonToken.STRING.ordinal()] = BUILD_IN_PLACE;
+            _actions[JsonToken.NUMBER.ordinal()] = BUILD_IN_PLACE;
+            _actions[JsonToken.BOOLEAN.ordinal()] = BUILD_IN_PLACE;
+            _actions[JsonToken.BEGIN_ARRAY.ordinal()] = SKIP_ARRAY;
+            _actions[JsonToken.BEGIN_OBJECT.ordinal()] = STAY;
+            return _actions;
+        }
+
+        Class<?> _primitive = Builders.getPrimitiveType(aBuilder);
+        _actions[JsonToken.STRING.ordinal()] = BUILD;
+        if ((_primitive == null) || (_primitive == Boolean.TYPE))
+            _actions[JsonToken.NUMBER.ordinal()] = BUILD;
+        else if (_primitive == Integer.TYPE)
+            _actions[JsonToken.NUMBER.ordinal()] = SET_INT;
+        else if (_primitive == Long.TYPE)
+            _actions[JsonToken.NUMBER.ordinal()] = SET_LONG;
+        else
+            _actions[JsonToken.NUMBER.ordinal()] = SET_DOUBLE;
+        _actions[JsonToken.BOOLEAN.ordinal()] = (_primitive == Boolean.TYPE) ? SET_BOOLEAN : BUILD;
+        _actions[JsonToken.BEGIN_ARRAY.ordinal()] = ENTER;
+        _actions[JsonToken.BEGIN_OBJECT.ordinal()] = ENTER;
+        return _actions;
+    }
+
+    /**
+     * @return the state of the given builder, or NONE if it isn't in the table
+     */
+    int stateOf(Builder<?> aBuilder) {
+        for (int i=0; i<builders.length; i++) {
+            if (builders[i] == aBuilder)
+                return i;
+        }
+        return NONE;
+    }
+
+    /**
+     * @return the number of states
+     */
+    int size() {
+        return builders.length;
+    }
+
+    Builder<?> getBuilder(int aState) {
+        return builders[aState];
+    }
+
+    /**
+     * @return the builder of the given state if it is a ReflectiveBuilder,
+     * whose nested definitions can be set by index, or null
+     */
+    ReflectiveBuilder<?> getReflective(int aState) {
+        return reflective[aState];
+    }
+
+    boolean isArray(int aState) {
+        return arrays[aState];
+    }
+
+    /**
+     * @return the index of the named definition nested in the given state,
+     * or NONE if there's no such name (or no need to look it up)
+     */
+    int indexOf(int aState, String aName) {
+        NameMatcher _names = names[aState];
+        return (_names == null) ? NONE : _names.indexOf(aName);
+    }
+
+    /**
+     * @return whether the builder of the given state could store a value by a
+     * name its definition doesn't have - if not, there's no need to make such
+     * a name into a String unless something goes wrong
+     */
+    boolean storesUnknownNames(int aState) {
+        return storesUnknownNames[aState];
+    }
+
+    /**
+     * @return the names nested in the given state, to be looked up straight
+     * from the characters of a document, or null if there's no need to look
+     * any up (or the table wasn't built for matching keys)
+     */
+    KeyTable keysOf(int aState) {
+        return keys[aState];
+    }
+
+    /**
+     * @return the state reached from the given state by a name, given that
+     * name's index (from {@link #indexOf(int, String)}), or NONE
+     */
+    int next(int aState, int anIndex, String aName) {
+        if (anIndex >= 0)
+            return children[aState][anIndex];
+        if (reflective[aState] != null)
+            return unnamed[aState];
+
+        // builders we can't see inside decide for themselves; the only ones
+        // that allow anything nested at all (ignored definitions) stay put
+        Builder<?> _next = builders[aState].moveDown(aName);
+        if (_next == null)
+            return NONE;
+        if (_next == builders[aState])
+            return aState;
+        throw new ParsingException("Definition " + builders[aState].getName().getName() + " leads to a builder outside its compiled definition");
+    }
+
+    /**
+     * @return what to do with the given token, read for the given state
+     * (which may be NONE)
+     */
+    byte actionOf(int aState, JsonToken aToken) {
+        return actions[aState + 1][aToken.ordinal()];
+    }
+}
@@ -0,0 +1,386 @@
+package com.sjl.dsl4xml.gson;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.sjl.dsl4xml.ParsingException;
+import com.sjl.dsl4xml.support.Builder;
+import com.sjl.dsl4xml.support.Builders;
+import com.sjl.dsl4xml.support.ReflectiveBuilder;
+import com.sjl.dsl4xml.support.SharedStringPool;
+import com.sjl.dsl4xml.support.StringPool;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads a document by running the state machine of a {@link StateTable},
+ * with the same results as {@link GsonContext} but without asking the
+ * builders how to get from one to the next: each name is looked up once, in
+ * the table, and the index found is used both to move to the nested state and
+ * to set its value. The states, names and objects under construction are kept
+ * in plain arrays rather than (synchronized) Stacks.
+ *
+ * The tokens come from Gson's JsonReader or, for
+ * {@link KeyMatchingDocumentReader}, straight from the characters of the
+ * document (see {@link JsonTokens}).
+ *
+ * @author steve
+ */
+class TableDrivenContext implements ReusableContext {
+
+    private JsonTokens reader;
+    private StateTable table;
+    private StringPool strings;
+
+    private int[] states = new int[16];
+    private int depth;
+
+    // each name read, the state it was read in, and its index and next state there
+    private String[] names = new String[16];
+    private int[] nameStates = new int[16];
+    private int[] nameIndexes = new int[16];
+    private int[] nameNexts = new int[16];
+    private int nameDepth;
+
+    private Object[] build = new Object[16];
+    private int top;
+
+    TableDrivenContext(JsonReader aReader, StateTable aTable, SharedStringPool aSharedStrings) {
+        this(new GsonTokens(aReader), aTable, aSharedStrings);
+    }
+
+    TableDrivenContext(JsonTokens aReader, StateTable aTable, SharedStringPool aSharedStrings) {
+        reader = aReader;
+        table = aTable;
+        strings = new StringPool(aSharedStrings, StringPool.DEFAULT_MAX_SIZE);
+    }
+
+    @Override
+    public void reset(JsonReader aReader, SharedStringPool aSharedStrings) {
+        reset(new GsonTokens(aReader), aSharedStrings);
+    }
+
+    /**
+     * Prepares this context to read another document from the given tokens.
+     */
+    void reset(JsonTokens aReader, SharedStringPool aSharedStrings) {
+        reader = aReader;
+        strings.reset(aSharedStrings);
+    }
+
+    @Override
+    public void release() {
+        reader = null;
+        Arrays.fill(names, null);
+        Arrays.fill(build, null);
+        depth = 0;
+        nameDepth = 0;
+        top = 0;
+        strings.reset(null);
+    }
+
+    @Override
+    public <T> T build(Builder<T> aBuilder) {
+        int _root = table.stateOf(aBuilder);
+        if (_root == StateTable.NONE)
+            throw new IllegalArgumentException("Builder is not part of this context's definition");
+
+        try {
+            pushState(_root);
+            aBuilder.prepare(this);
+            run(StateTable.NONE);
+            return aBuilder.build(this);
+        } catch (ParsingException anExc) {
+            throw anExc;
+        } catch (Exception anExc) {
+            throw new ParsingException(anExc);
+        }
+    }
+
+    /**
+     * Reads the value of the name just read in the given state (with the given
+     * index there, or NONE) - or, if the state is an array, its next element -
+     * and sets it to the given target, just as {@link #build(Builder)} would
+     * in the middle of a document. For {@link GeneratedReading}, which reads
+     * the rest of the document itself.
+     */
+    void readValue(int aState, int anIndex, Object aTarget) throws IOException {
+        int _depth = depth;
+        pushState(aState);
+        push(aTarget);
+        if (!table.isArray(aState))
+            pushName(aState, anIndex);
+        run(_depth + 1);
+        pop();
+        depth = _depth;
+    }
+
+    /**
+     * Runs the state machine from the state on top of the stack until, having
+     * read a value, it is back at the given depth - or to the end of the
+     * document.
+     */
+    private void run(int aDepth) throws IOException {
+        int _s = states[depth - 1];
+        JsonToken _token;
+        while ((_token = reader.peek()) != null) {
+            switch (_token) {
+                case NAME:
+                    pushName(_s);
+                    continue;
+                case NULL:
+                    reader.nextNull();
+                    if (nameDepth > 0)
+                        nameDepth--;
+                    break;
+                case END_ARRAY:
+                    reader.endArray();
+                    _s = states[--depth - 1];
+                    buildAndSet(_s, table.getBuilder(states[depth]), "");
+                    break;
+                case END_OBJECT:
+                    reader.endObject();
+                    depth--;
+                    if (depth > 0) {
+                        _s = states[depth - 1];
+                        buildAndSet(_s, table.getBuilder(states[depth]), "");
+                    }
+                    break;
+                case END_DOCUMENT:
+                    return;
+                default:
+                    _s = act(_s, _token);
+            }
+            if (depth == aDepth)
+                return;
+        }
+    }
+
+    /**
+     * does what the table says with the given token (a value, or the start of
+     * one), read in the given state
+     * @return the state to carry on in
+     */
+    private int act(int aState, JsonToken aToken) throws IOException {
+        int _s = aState;
+        int _next = next(_s);
+        switch (table.actionOf(_next, aToken)) {
+            case StateTable.BUILD:
+                buildValue(_s, table.getBuilder(_next), aToken);
+                break;
+            case StateTable.BUILD_IN_PLACE:
+                buildValue(_s, table.getBuilder(_s), aToken);
+                break;
+            case StateTable.SET_INT:
+                setInt(_s, (int) reader.nextDouble());
+                break;
+            case StateTable.SET_LONG:
+                setLong(_s, (long) reader.nextDouble());
+                break;
+            case StateTable.SET_DOUBLE:
+                setDouble(_s, reader.nextDouble());
+                break;
+            case StateTable.SET_BOOLEAN:
+                setBoolean(_s, reader.nextBoolean());
+                break;
+            case StateTable.ENTER:
+                if (aToken == JsonToken.BEGIN_ARRAY)
+                    reader.beginArray();
+                else
+                    reader.beginObject();
+                _s = _next;
+                table.getBuilder(_s).prepare(this);
+                pushState(_s);
+                break;
+            case StateTable.SKIP_ARRAY:
+                reader.beginArray();
+                if (reader.peek() == JsonToken.END_ARRAY)
+                    reader.endArray();
+                else
+                    reader.skipValue();
+                break;
+            case StateTable.STAY:
+                reader.beginObject();
+                break;
+            default:
+                throw new ParsingException("Unexpected " + aToken + " in " + table.getBuilder(_s).getName().getName());
+        }
+        return _s;
+    }
+
+    /**
+     * @return the state the current name leads to from the given state -
+     * found when the name was read, unless it was read in another state (the
+     * name of an array, read in its parent) or there is none (the root).
+     */
+    private int next(int aState) {
+        if (nameDepth == 0)
+            return table.next(aState, table.indexOf(aState, ""), "");
+
+        int i = nameDepth - 1;
+        if (nameStates[i] == aState)
+            return nameNexts[i];
+        return table.next(aState, table.indexOf(aState, names[i]), names[i]);
+    }
+
+    private void buildValue(int aState, Builder<?> aBuilder, JsonToken aToken) throws IOException {
+        aBuilder.prepare(this);
+        switch (aToken) {
+            case STRING:
+                aBuilder.setValue(this, "", reader.nextString());
+                buildAndSet(aState, aBuilder, "");
+                break;
+            case NUMBER:
+                aBuilder.setValue(this, (nameDepth == 0) ? "" : names[nameDepth - 1], reader.nextDouble());
+                buildAndSet(aState, aBuilder, "number");
+                break;
+            default:
+                aBuilder.setValue(this, "", reader.nextBoolean());
+                buildAndSet(aState, aBuilder, "bool");
+        }
+    }
+
+    private void buildAndSet(int aParentState, Builder<?> aCurrentBuilder, String aTypeName) {
+        Builder _parent = table.getBuilder(aParentState);
+        String _name = "";
+        try {
+            Object _o = aCurrentBuilder.build(this);
+
+            int _index = StateTable.NONE;
+            if (!table.isArray(aParentState)) {
+                _index = popName(aParentState);
+                _name = names[nameDepth];
+            }
+
+            if (_o != null) {
+                if (_index >= 0)
+                    table.getReflective(aParentState).setValue(this, _index, _o);
+                else
+                    _parent.setValue(this, _name, _o);
+            }
+        } catch (ClassCastException anExc) {
+            throw new ParsingException(
+                "Problem converting " + aTypeName + " '" + _name + "' in '" +
+                _parent.getName().getName() + "' ... does your document definition use 'property' where it should use '" +
+                aTypeName + "'?", anExc);
+        }
+    }
+
+    private void setInt(int aParentState, int aValue) {
+        int _index = table.isArray(aParentState) ? StateTable.NONE : popName(aParentState);
+        if (_index >= 0)
+            table.getReflective(aParentState).setInt(this, _index, aValue);
+        else
+            Builders.setInt(table.getBuilder(aParentState), this, nameOf(aParentState), aValue);
+    }
+
+    private void setLong(int aParentState, long aValue) {
+        int _index = table.isArray(aParentState) ? StateTable.NONE : popName(aParentState);
+        if (_index >= 0)
+            table.getReflective(aParentState).setLong(this, _index, aValue);
+        else
+            Builders.setLong(table.getBuilder(aParentState), this, nameOf(aParentState), aValue);
+    }
+
+    private void setDouble(int aParentState, double aValue) {
+        int _index = table.isArray(aParentState) ? StateTable.NONE : popName(aParentState);
+        if (_index >= 0)
+            table.getReflective(aParentState).setDouble(this, _index, aValue);
+        else
+            Builders.setDouble(table.getBuilder(aParentState), this, nameOf(aParentState), aValue);
+    }
+
+    private void setBoolean(int aParentState, boolean aValue) {
+        int _index = table.isArray(aParentState) ? StateTable.NONE : popName(aParentState);
+        if (_index >= 0)
+            table.getReflective(aParentState).setBoolean(this, _index, aValue);
+        else
+            Builders.setBoolean(table.getBuilder(aParentState), this, nameOf(aParentState), aValue);
+    }
+
+    /**
+     * @return the name just popped for a value set to the given state, or ""
+     * if it is an array (whose values have none)
+     */
+    private String nameOf(int aParentState) {
+        return table.isArray(aParentState) ? "" : names[nameDepth];
+    }
+
+    /**
+     * pops the current name, leaving it just above the top of the stack
+     * @return its index in the given state if it was read there, or NONE
+     */
+    private int popName(int aState) {
+        int i = --nameDepth;
+        return (nameStates[i] == aState) ? nameIndexes[i] : StateTable.NONE;
+    }
+
+    private void pushName(int aState) throws IOException {
+        pushName(aState, reader.nextName(table, aState));
+    }
+
+    /**
+     * pushes the name just read in the given state, given its index there
+     */
+    private void pushName(int aState, int anIndex) throws IOException {
+        if (nameDepth == names.length) {
+            int _size = nameDepth * 2;
+            names = Arrays.copyOf(names, _size);
+            nameStates = Arrays.copyOf(nameStates, _size);
+            nameIndexes = Arrays.copyOf(nameIndexes, _size);
+            nameNexts = Arrays.copyOf(nameNexts, _size);
+        }
+        String _name = ((anIndex >= 0) || needsUnknownName(aState)) ? reader.getName() : null;
+        names[nameDepth] = _name;
+        nameStates[nameDepth] = aState;
+        nameIndexes[nameDepth] = anIndex;
+        nameNexts[nameDepth] = table.next(aState, anIndex, _name);
+        nameDepth++;
+    }
+
+    /**
+     * @return whether a name the definition doesn't have, just read in the
+     * given state, must be made into a String: if its builder could store
+     * the value by that name, or if it is a reflective builder, which can't,
+     * and the value is anything but null - which it will fail to set, and
+     * report by name
+     */
+    private boolean needsUnknownName(int aState) throws IOException {
+        if (table.storesUnknownNames(aState))
+            return true;
+        return (table.getReflective(aState) != null) && (reader.peek() != JsonToken.NULL);
+    }
+
+    private void pushState(int aState) {
+        if (depth == states.length)
+            states = Arrays.copyOf(states, depth * 2);
+        states[depth++] = aState;
+    }
+
+    @Override
+    public void push(Object anObject) {
+        if (top == build.length) {
+            build = Arrays.copyOf(build, top * 2);
+        }
+        build[top++] = anObject;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T pop() {
+        T _o = (T) build[--top];
+        build[top] = null;
+        return _o;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T peek() {
+        return (T) build[top - 1];
+    }
+
+    @Override
+    public StringPool getStringPool() {
+        return strings;
+    }
+}
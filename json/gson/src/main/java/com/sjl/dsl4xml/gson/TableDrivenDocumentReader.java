@@ -0,0 +1,48 @@
+package com.sjl.dsl4xml.gson;
+
+import com.google.gson.stream.JsonReader;
+import com.sjl.dsl4xml.Context;
+import com.sjl.dsl4xml.json.DocumentDefinition;
+import com.sjl.dsl4xml.support.CompiledDefinition;
+import com.sjl.dsl4xml.support.SharedStringPool;
+
+/**
+ * Reads documents exactly as {@link GsonDocumentReader} does, but by running
+ * the definition as a state machine - its builder tree flattened, once, into
+ * transition tables (see {@link StateTable}) - instead of walking the builders
+ * token by token.
+ */
+public class TableDrivenDocumentReader<T> extends GsonDocumentReader<T> {
+
+    private StateTable table;
+
+    public TableDrivenDocumentReader(DocumentDefinition<T> aDefinition) {
+        this(aDefinition.compile());
+    }
+
+    /**
+     * @param aDefinition a compiled definition, which may be shared with any
+     * number of other readers
+     */
+    public TableDrivenDocumentReader(CompiledDefinition<T> aDefinition) {
+        this(aDefinition, false);
+    }
+
+    /**
+     * @param aMatchingKeys whether the table is for matching names on their
+     * characters, as {@link KeyMatchingDocumentReader} does
+     */
+    TableDrivenDocumentReader(CompiledDefinition<T> aDefinition, boolean aMatchingKeys) {
+        super(aDefinition);
+        table = new StateTable(aDefinition, aMatchingKeys);
+    }
+
+    StateTable getTable() {
+        return table;
+    }
+
+    @Override
+    protected Context newContext(JsonReader aReader, SharedStringPool aSharedStrings) {
+        return new TableDrivenContext(aReader, table, aSharedStrings);
+    }
+}
@@ -0,0 +1,211 @@
+package com.sjl.dsl4xml.gson;
+
+import com.sjl.dsl4xml.ParsingException;
+import com.sjl.dsl4xml.json.DocumentDefinition;
+import com.sjl.dsl4xml.json.JsonDocumentDefinition;
+import com.sjl.dsl4xml.support.convert.ThreadSafeDateStringConverter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Reads documents with a generated reader - the setters of public classes
+ * called by the generated code itself - and checks it reads them exactly as
+ * the interpreter does, values it leaves to the interpreter included.
+ */
+public class GeneratedDocumentReaderTest {
+
+    public static class Customer {
+        private String name;
+        public String getName() { return name; }
+        public void setName(String aName) { name = aName; }
+    }
+
+    public static class Line {
+        private String sku;
+        private int quantity;
+        public String getSku() { return sku; }
+        public void setSku(String aSku) { sku = aSku; }
+        public int getQuantity() { return quantity; }
+        public void setQuantity(int aQuantity) { quantity = aQuantity; }
+    }
+
+    public static class Order {
+        private String id;
+        private int count;
+        private long total;
+        private double price;
+        private boolean paid;
+        private Date placed;
+        private Customer customer;
+        private List<Line> lines;
+        private List<String> tags;
+        public String getId() { return id; }
+        public void setId(String anId) { id = anId; }
+        public int getCount() { return count; }
+        public void setCount(int aCount) { count = aCount; }
+        public long getTotal() { return total; }
+        public void setTotal(long aTotal) { total = aTotal; }
+        public double getPrice() { return price; }
+        public void setPrice(double aPrice) { price = aPrice; }
+        public boolean isPaid() { return paid; }
+        public void setPaid(boolean aPaid) { paid = aPaid; }
+        public Date getPlaced() { return placed; }
+        public void setPlaced(Date aPlaced) { placed = aPlaced; }
+        public Customer getCustomer() { return customer; }
+        public void setCustomer(Customer aCustomer) { customer = aCustomer; }
+        public List<Line> getLines() { return lines; }
+        public void setLines(List<Line> aLines) { lines = aLines; }
+        public List<String> getTags() { return tags; }
+        public void setTags(List<String> aTags) { tags = aTags; }
+    }
+
+    public static class Fussy {
+        public String getName() { return null; }
+        public void setName(String aName) {
+            throw new IllegalStateException("No " + aName);
+        }
+    }
+
+    private static final String ORDER =
+        "{\"id\":\"o-1\",\"count\":3,\"total\":12345678901,\"price\":-0.0,\"paid\":true," +
+        "\"placed\":\"2013-05-01\",\"customer\":{\"name\":\"Steve\",\"unknown\":null}," +
+        "\"lines\":[{\"sku\":\"a\",\"quantity\":1},{\"sku\":\"b\",\"quantity\":2}]," +
+        "\"tags\":[\"x\",\"y\"],\"unknown\":null}";
+
+    @Test
+    public void generatesAReaderForARootObject() {
+        Assert.assertTrue(new GeneratedDocumentReader<Order>(orders()).isGenerated());
+    }
+
+    @Test
+    public void readsAsTheInterpreterDoes() throws Exception {
+        Order _order = new GeneratedDocumentReader<Order>(orders()).read(new StringReader(ORDER));
+        Assert.assertEquals(describe(new KeyMatchingDocumentReader<Order>(orders()).read(new StringReader(ORDER))), describe(_order));
+
+        Assert.assertEquals("o-1", _order.getId());
+        Assert.assertEquals(3, _order.getCount());
+        Assert.assertEquals(12345678901L, _order.getTotal());
+        Assert.assertEquals(Double.valueOf(-0.0), Double.valueOf(_order.getPrice()));
+        Assert.assertTrue(_order.isPaid());
+        Assert.assertEquals(new SimpleDateFormat("yyyyMMdd").parse("20130501"), _order.getPlaced());
+        Assert.assertEquals("Steve", _order.getCustomer().getName());
+        Assert.assertEquals(2, _order.getLines().size());
+        Assert.assertEquals("b", _order.getLines().get(1).getSku());
+        Assert.assertEquals(2, _order.getLines().get(1).getQuantity());
+        Assert.assertEquals("[x, y]", _order.getTags().toString());
+    }
+
+    @Test
+    public void readsValuesOfOtherTypesAsTheInterpreterDoes() throws Exception {
+        String[] _documents = {
+            "{\"id\":7,\"count\":\"3\",\"paid\":\"true\"}",
+            "{\"customer\":null,\"lines\":[],\"tags\":null}",
+            "{\"count\":2.9,\"total\":-1e3}",
+            "{\"lines\":{\"sku\":\"a\"}}",
+            "{\"customer\":[]}",
+            "{}"
+        };
+        GeneratedDocumentReader<Order> _generated = new GeneratedDocumentReader<Order>(orders());
+        KeyMatchingDocumentReader<Order> _interpreted = new KeyMatchingDocumentReader<Order>(orders());
+        for (String _document : _documents) {
+            Assert.assertEquals(_document, read(_interpreted, _document), read(_generated, _document));
+        }
+    }
+
+    @Test
+    public void failsAsTheInterpreterDoes() {
+        DocumentDefinition<Fussy> _definition = new JsonDocumentDefinition<Fussy>(){{
+            mapping(Fussy.class).with(
+                property("name")
+            );
+        }};
+        GeneratedDocumentReader<Fussy> _generated = new GeneratedDocumentReader<Fussy>(_definition);
+        Assert.assertTrue(_generated.isGenerated());
+
+        ParsingException _expected = failure(new KeyMatchingDocumentReader<Fussy>(_definition));
+        ParsingException _actual = failure(_generated);
+        Assert.assertEquals(_expected.getMessage(), _actual.getMessage());
+        Assert.assertEquals(_expected.getCause().getClass(), _actual.getCause().getClass());
+        Assert.assertEquals(_expected.getCause().getMessage(), _actual.getCause().getMessage());
+    }
+
+    @Test
+    public void failsOnUnknownNamesAsTheInterpreterDoes() {
+        String _document = "{\"id\":\"o-1\",\"unknown\":\"value\"}";
+        try {
+            new KeyMatchingDocumentReader<Order>(orders()).read(new StringReader(_document));
+            Assert.fail("Expected the interpreter to fail");
+        } catch (ParsingException anExpected) {
+            try {
+                new GeneratedDocumentReader<Order>(orders()).read(new StringReader(_document));
+                Assert.fail("Expected the generated reader to fail");
+            } catch (ParsingException anExc) {
+                Assert.assertEquals(anExpected.getMessage(), anExc.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the order read, described - or how reading it failed
+     */
+    private String read(GsonDocumentReader<Order> aReader, String aDocument) {
+        try {
+            return describe(aReader.read(new StringReader(aDocument)));
+        } catch (ParsingException anExc) {
+            return "failed: " + anExc.getMessage();
+        }
+    }
+
+    private ParsingException failure(GsonDocumentReader<Fussy> aReader) {
+        try {
+            aReader.read(new StringReader("{\"name\":\"x\"}"));
+            throw new AssertionError("Expected the setter to fail");
+        } catch (ParsingException anExc) {
+            return anExc;
+        }
+    }
+
+    private DocumentDefinition<Order> orders() {
+        return new JsonDocumentDefinition<Order>(){{
+            registerConverters(new ThreadSafeDateStringConverter("yyyy-MM-dd"));
+
+            mapping(Order.class).with(
+                property("id"),
+                number("count", Integer.class),
+                number("total", Long.class),
+                number("price", Double.class),
+                bool("paid"),
+                property("placed"),
+                object("customer", Customer.class).with(
+                    property("name")
+                ),
+                array("lines").of(
+                    object(Line.class).with(
+                        property("sku"),
+                        number("quantity", Integer.class)
+                    )
+                ),
+                array("tags").of(String.class)
+            );
+        }};
+    }
+
+    private String describe(Order anOrder) {
+        StringBuilder _sb = new StringBuilder();
+        _sb.append(anOrder.getId()).append(',').append(anOrder.getCount()).append(',')
+            .append(anOrder.getTotal()).append(',').append(anOrder.getPrice()).append(',')
+            .append(anOrder.isPaid()).append(',').append(anOrder.getPlaced()).append(',');
+        _sb.append((anOrder.getCustomer() == null) ? null : anOrder.getCustomer().getName()).append(',');
+        if (anOrder.getLines() != null) {
+            for (Line _line : anOrder.getLines()) {
+                _sb.append(_line.getSku()).append(':').append(_line.getQuantity()).append(';');
+            }
+        }
+        return _sb.append(',').append(anOrder.getTags()).toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.sjl.dsl4xml.gson;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+import com.sjl.dsl4xml.support.Implementations;
+
+public class GeneratedImplementationGeneratedParsingTest extends GeneratedParsingTest {
+
+    @BeforeClass
+    public static void generateImplementations() {
+        Implementations.setGenerating(true);
+        Implementations.setGeneratingBindings(true);
+    }
+
+    @AfterClass
+    public static void useProxies() {
+        Implementations.setGenerating(false);
+        Implementations.setGeneratingBindings(false);
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.sjl.dsl4xml.gson;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+import com.sjl.dsl4xml.support.Implementations;
+
+public class GeneratedImplementationGsonParsingTest extends GsonParsingTest {
+
+    @BeforeClass
+    public static void generateImplementations() {
+        Implementations.setGenerating(true);
+    }
+
+    @AfterClass
+    public static void useProxies() {
+        Implementations.setGenerating(false);
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.sjl.dsl4xml.gson;
+
+import com.sjl.dsl4xml.json.DocumentDefinition;
+
+public class GeneratedJsonParsingTest extends JsonParsingTest {
+
+	@Override
+	protected <T> GsonDocumentReader<T> newReader(DocumentDefinition<T> aDefinition) {
+		return new GeneratedDocumentReader<T>(aDefinition);
+	}
+
+}
@@ -12,4 +12,9 @@ public class GsonParsingTest extends AbstractJsonParsingTest {
         return new GsonDocumentReader<T>(aDefinition);
     }
 
+    @Override
+    protected boolean readsTheSignOfIntegerZero() {
+        return false; // JsonReader reads -0 as the long 0
+    }
+
 }
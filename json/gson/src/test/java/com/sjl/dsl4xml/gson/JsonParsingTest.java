@@ -1,6 +1,7 @@
 package com.sjl.dsl4xml.gson;
 
 import com.sjl.dsl4xml.Converter;
+import com.sjl.dsl4xml.json.DocumentDefinition;
 import com.sjl.dsl4xml.json.JsonDocumentDefinition;
 import com.sjl.dsl4xml.support.Factory;
 import com.sjl.dsl4xml.support.convert.ThreadSafeDateStringConverter;
@@ -41,7 +42,7 @@ public class JsonParsingTest
 
 	@Test
 	public void parsesComplexMemberJson() throws Exception {
-		GsonDocumentReader<Member1> _reader = new GsonDocumentReader<Member1>(
+		GsonDocumentReader<Member1> _reader = newReader(
             new JsonDocumentDefinition<Member1>(){{
                 registerConverters(new ThreadSafeDateStringConverter("yyyy-MM-dd"));
 
@@ -139,7 +140,7 @@ public class JsonParsingTest
 
 	@Test
 	public void parsesComplexMemberJsonWithIdObjects() throws Exception {
-        GsonDocumentReader<Member2> _reader = new GsonDocumentReader<Member2>(
+        GsonDocumentReader<Member2> _reader = newReader(
             new JsonDocumentDefinition<Member2>(){{
                 registerConverters(new ThreadSafeDateStringConverter("yyyy-MM-dd"));
 
@@ -225,7 +226,7 @@ public class JsonParsingTest
 
 	@Test
 	public void parsesArraysOfLengthOne() {
-		GsonDocumentReader<ThingWithText> _reader = new GsonDocumentReader<ThingWithText>(
+		GsonDocumentReader<ThingWithText> _reader = newReader(
             new JsonDocumentDefinition<ThingWithText>() {{
                 mapping(ThingWithText.class).with(
                     array("text", List.class).of(
@@ -244,7 +245,7 @@ public class JsonParsingTest
 
 	@Test
 	public void parsesArraysOfStrings() {
-		GsonDocumentReader<ThingWithText> _reader = new GsonDocumentReader<ThingWithText>(
+		GsonDocumentReader<ThingWithText> _reader = newReader(
             new JsonDocumentDefinition<ThingWithText>() {{
                 mapping(ThingWithText.class).with(
                     array("text", List.class).of(
@@ -270,7 +271,7 @@ public class JsonParsingTest
 	@Test
 	public void parsesArraysOfBooleans()
 	{
-		GsonDocumentReader<Truthy> _reader =  new GsonDocumentReader<Truthy>(
+		GsonDocumentReader<Truthy> _reader =  newReader(
             new JsonDocumentDefinition<Truthy>() {{
                 mapping(Truthy.class).with(
                         array("truths", List.class).of(
@@ -296,7 +297,7 @@ public class JsonParsingTest
 	@Test
 	public void parsesArraysOfNumbers()
 	{
-		GsonDocumentReader<Numbers> _reader =  new GsonDocumentReader<Numbers>(
+		GsonDocumentReader<Numbers> _reader =  newReader(
             new JsonDocumentDefinition<Numbers>() {{
                 mapping(Numbers.class).with(
                         array("numbers", List.class).of(
@@ -321,7 +322,7 @@ public class JsonParsingTest
 
 	@Test
 	public void parsesArraysOfConvertedStrings() {
-		GsonDocumentReader<Dates> _reader = new GsonDocumentReader<Dates>(
+		GsonDocumentReader<Dates> _reader = newReader(
             new JsonDocumentDefinition<Dates>() {{
                 registerConverters(new ThreadSafeDateStringConverter("yyyyMMddZ"));
                 mapping(Dates.class).with(
@@ -367,7 +368,7 @@ public class JsonParsingTest
     }
 
 	private GsonDocumentReader<Member2> createMember2Reader() {
-        return new GsonDocumentReader<Member2>(
+        return newReader(
             new JsonDocumentDefinition<Member2>(){{
 
                 registerConverters(new ThreadSafeDateStringConverter("yyyy-MM-dd"));
@@ -409,4 +410,8 @@ public class JsonParsingTest
         );
 	}
 
+	protected <T> GsonDocumentReader<T> newReader(DocumentDefinition<T> aDefinition) {
+		return new GsonDocumentReader<T>(aDefinition);
+	}
+
 }
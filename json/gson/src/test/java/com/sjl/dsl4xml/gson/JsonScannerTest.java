@@ -0,0 +1,201 @@
+package com.sjl.dsl4xml.gson;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.sjl.dsl4xml.json.JsonDocumentDefinitions;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JsonScannerTest {
+
+    private StateTable table = new StateTable(new JsonDocumentDefinitions().simpleProperty().compile(), true);
+
+    @Test
+    public void readsTheSameTokensAsGson() throws IOException {
+        String[] _documents = {
+            "{}",
+            "[]",
+            " { \"myProperty\" : \"value\" , \"other\":[1, -2, 3.5, 1e3, -0.25E-2, 123456789012345678901234] }\n",
+            "{\"a\":{\"b\":{\"c\":[true,false,null,[],{}]}},\"myProperty\":null}",
+            "[-0.0, 0, -0e5, -0.0e-3]",
+            "{\"esc\\\"aped\":\"tab\\there \\\"quoted\\\" \\\\ \\/ \\u00e9\\u20AC\\n\"}",
+            "[\"" + repeat("long ", 1000) + "\",\"" + repeat("\\u0041", 500) + "\"]",
+            "{\"" + repeat("k", 3000) + "\":" + repeat("9", 17) + "}"
+        };
+        for (String _document : _documents) {
+            Assert.assertEquals(_document, tokens(gson(_document)), tokens(scanner(new StringReader(_document))));
+            Assert.assertEquals(_document, tokens(gson(_document)), tokens(scanner(new TrickleReader(_document))));
+        }
+    }
+
+    @Test
+    public void findsKnownNamesWithoutMakingStrings() throws IOException {
+        JsonScanner _s = scanner(new StringReader("{\"myProperty\":\"x\",\"other\":\"y\"}"));
+        _s.beginObject();
+        Assert.assertEquals(0, _s.nextName(table, 0));
+        Assert.assertSame(table.getReflective(0).getNested().get(0).getName().getName(), _s.getName());
+        _s.nextString();
+        Assert.assertEquals(StateTable.NONE, _s.nextName(table, 0));
+        Assert.assertEquals("other", _s.getName());
+    }
+
+    @Test
+    public void keepsUnknownNamesUntilAskedFor() throws IOException {
+        String _name = repeat("unknown", 20);
+        JsonScanner _s = scanner(new TrickleReader("{\"" + _name + "\":\"" + repeat("value", 300) + "\"}"));
+        _s.beginObject();
+        Assert.assertEquals(StateTable.NONE, _s.nextName(table, 0));
+        // the buffer has moved on past the name by the time the value is read
+        Assert.assertEquals(JsonToken.STRING, _s.peek());
+        _s.nextString();
+        Assert.assertEquals(_name, _s.getName());
+        Assert.assertSame(_s.getName(), _s.getName());
+    }
+
+    @Test
+    public void skipsOneValue() throws IOException {
+        JsonScanner _s = scanner(new StringReader("[{\"a\":[1,{\"b\":\"]\"}]},2]"));
+        _s.beginArray();
+        _s.skipValue();
+        Assert.assertEquals(2, _s.nextDouble(), 0);
+        _s.endArray();
+        Assert.assertEquals(JsonToken.END_DOCUMENT, _s.peek());
+    }
+
+    @Test
+    public void rejectsMalformedDocuments() throws IOException {
+        String[] _documents = { "{\"a\" 1}", "{\"a\":1 \"b\":2}", "[1 2]", "{'a':1}", "[tru]", "[nul]", "[\"\\x\"]", "{} {}" };
+        for (String _document : _documents) {
+            try {
+                tokens(scanner(new StringReader(_document)));
+                Assert.fail("Expected " + _document + " to be rejected");
+            } catch (MalformedJsonException anExc) {
+                // good
+            }
+        }
+    }
+
+    @Test
+    public void rejectsMalformedNumbers() throws IOException {
+        String[] _numbers = { "1-2", "-", "1.2.3", "012", "-01", "1.", ".5", "1e", "1e+", "1E2.5", "+1", "--1" };
+        for (String _number : _numbers) {
+            try {
+                scanner(new StringReader("[" + _number + "]")).skipValue();
+                Assert.fail("Expected " + _number + " to be rejected");
+            } catch (MalformedJsonException anExc) {
+                // good
+            }
+        }
+    }
+
+    @Test
+    public void readsWellFormedNumbers() throws IOException {
+        String[] _numbers = { "0", "-0", "0.5", "-0.5e10", "10", "1E+2", "1e-2", "120.025" };
+        for (String _number : _numbers) {
+            JsonScanner _s = scanner(new StringReader("[" + _number + "]"));
+            _s.beginArray();
+            // as Doubles, which (unlike doubles within a delta) tell -0 from 0
+            Assert.assertEquals(_number, Double.valueOf(Double.parseDouble(_number)), Double.valueOf(_s.nextDouble()));
+        }
+    }
+
+    @Test(expected=java.io.EOFException.class)
+    public void rejectsTruncatedDocuments() throws IOException {
+        tokens(scanner(new StringReader("{\"a\":[1,")));
+    }
+
+    private List<String> tokens(JsonTokens aTokens) throws IOException {
+        List<String> _tokens = new ArrayList<String>();
+        JsonToken _token;
+        while ((_token = aTokens.peek()) != JsonToken.END_DOCUMENT) {
+            switch (_token) {
+                case BEGIN_ARRAY:
+                    aTokens.beginArray();
+                    _tokens.add("[");
+                    break;
+                case END_ARRAY:
+                    aTokens.endArray();
+                    _tokens.add("]");
+                    break;
+                case BEGIN_OBJECT:
+                    aTokens.beginObject();
+                    _tokens.add("{");
+                    break;
+                case END_OBJECT:
+                    aTokens.endObject();
+                    _tokens.add("}");
+                    break;
+                case NAME:
+                    aTokens.nextName(table, 0);
+                    _tokens.add("name:" + aTokens.getName());
+                    break;
+                case STRING:
+                    _tokens.add("string:" + aTokens.nextString());
+                    break;
+                case NUMBER:
+                    _tokens.add("number:" + aTokens.nextDouble());
+                    break;
+                case BOOLEAN:
+                    _tokens.add("boolean:" + aTokens.nextBoolean());
+                    break;
+                case NULL:
+                    aTokens.nextNull();
+                    _tokens.add("null");
+                    break;
+            }
+        }
+        return _tokens;
+    }
+
+    private JsonTokens gson(String aDocument) {
+        return new GsonTokens(new JsonReader(new StringReader(aDocument)));
+    }
+
+    private JsonScanner scanner(Reader aReader) {
+        JsonScanner _s = new JsonScanner();
+        _s.reset(aReader);
+        return _s;
+    }
+
+    private String repeat(String aString, int aTimes) {
+        StringBuilder _sb = new StringBuilder();
+        for (int i=0; i<aTimes; i++) {
+            _sb.append(aString);
+        }
+        return _sb.toString();
+    }
+
+    /**
+     * Gives up its characters one or two at a time, so that every token is
+     * split across reads.
+     */
+    private static class TrickleReader extends Reader {
+        private String chars;
+        private int pos;
+
+        TrickleReader(String aChars) {
+            chars = aChars;
+        }
+
+        @Override
+        public int read(char[] aBuffer, int anOffset, int aLength) {
+            if (pos == chars.length())
+                return -1;
+            int _read = Math.min(Math.min(aLength, 1 + (pos % 2)), chars.length() - pos);
+            chars.getChars(pos, pos + _read, aBuffer, anOffset);
+            pos += _read;
+            return _read;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
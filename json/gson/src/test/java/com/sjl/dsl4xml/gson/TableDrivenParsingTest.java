@@ -0,0 +1,19 @@
+package com.sjl.dsl4xml.gson;
+
+import com.sjl.dsl4xml.json.AbstractJsonParsingTest;
+import com.sjl.dsl4xml.json.DocumentDefinition;
+import com.sjl.dsl4xml.DocumentReader;
+
+public class TableDrivenParsingTest extends AbstractJsonParsingTest {
+
+    @Override
+    protected <T> DocumentReader<T> newDocumentReader(DocumentDefinition<T> aDefinition) {
+        return new TableDrivenDocumentReader<T>(aDefinition);
+    }
+
+    @Override
+    protected boolean readsTheSignOfIntegerZero() {
+        return false; // JsonReader reads -0 as the long 0
+    }
+
+}
@@ -4,11 +4,18 @@ import com.sjl.dsl4xml.ConverterRegistration;
 import com.sjl.dsl4xml.Definition;
 import com.sjl.dsl4xml.Document;
 import com.sjl.dsl4xml.Name;
+import com.sjl.dsl4xml.support.CompiledDefinition;
 
 import java.util.List;
 
 public interface DocumentDefinition<T> extends Definition<T> {
 
+    /**
+     * @return the definition compiled into a tree of builders which can be
+     * shared between readers and threads - compiled once, on first asking.
+     */
+    public CompiledDefinition<T> compile();
+
     public <F> ConverterRegistration<F,Object> converting(Class<F> aToConvert);
 
     public Name alias(String aNameInDocument, String aNameInJavaType);
@@ -47,6 +54,16 @@ public interface DocumentDefinition<T> extends Definition<T> {
 
     public <R> NamedProperty<String,R> property(Name aName);
 
+    public <R> UnNamedProperty<String,R> interned(Class<? extends R> aClass);
+
+    public <R> NamedProperty<String,R> interned(String aName);
+
+    public <R> NamedProperty<String,R> interned(Name aName);
+
+    public <R> NamedProperty<String,R> lazy(String aName);
+
+    public <R> NamedProperty<String,R> lazy(Name aName);
+
     public <R> NamedProperty<Number,R> number(String aName, Class<R> aType);
 
     public <R> NamedProperty<Number,R> number(Name aName, Class<R> aType);
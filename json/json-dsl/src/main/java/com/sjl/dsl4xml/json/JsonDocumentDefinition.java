@@ -5,7 +5,6 @@ import com.sjl.dsl4xml.support.*;
 import com.sjl.dsl4xml.support.convert.*;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -13,52 +12,34 @@ public class JsonDocumentDefinition<T> implements DocumentDefinition<T>, Convert
 
     private static final List<Content<?>> NO_CONTENT = Collections.emptyList();
 
-    private List<TypeSafeConverter<?,?>> converters;
+    private CachingConverterRegistry converters;
     private Document<T> document;
+    private volatile CompiledDefinition<T> compiled;
 
     {
-        converters = new ArrayList<TypeSafeConverter<?,?>>();
-
-        registerConverters(
-            new PrimitiveBooleanStringConverter(),
-            new DecimalToByteStringConverter(),
-            new DecimalToShortStringConverter(),
-            new DecimalToIntStringConverter(),
-            new DecimalToLongStringConverter(),
-            new PrimitiveCharStringConverter(),
-            new PrimitiveFloatStringConverter(),
-            new PrimitiveDoubleStringConverter(),
-            new BooleanStringConverter(),
-            new ByteStringConverter(),
-            new ShortStringConverter(),
-            new IntegerStringConverter(),
-            new LongStringConverter(),
-            new CharacterStringConverter(),
-            new FloatStringConverter(),
-            new DoubleStringConverter(),
-            new ClassStringConverter(),
-            new StringStringConverter(),
-            new StringBigIntegerConverter(),
-            new StringBigDecimalConverter(),
-            new NumberByteConverter(),
-            new NumberShortConverter(),
-            new NumberIntegerConverter(),
-            new NumberLongConverter(),
-            new NumberFloatConverter(),
-            new NumberDoubleConverter(),
-            new NumberBigIntegerConverter(),
-            new NumberBigDecimalConverter(),
-            new BooleanBooleanConverter(),
-            new IdentityConverter(ArrayList.class)
-        );
+        converters = DefaultConverters.newJsonRegistry();
     }
 
     @Override
     public <R extends T> Builder<R> newBuilder() {
-        if (document == null)
-            throw new IllegalStateException("You haven't defined the document!");
+        return compile().newBuilder();
+    }
 
-        return document.newBuilder();
+    @Override
+    public CompiledDefinition<T> compile() {
+        CompiledDefinition<T> _compiled = compiled;
+        if (_compiled == null) {
+            synchronized(this) {
+                if (document == null)
+                    throw new IllegalStateException("You haven't defined the document!");
+
+                // attaching the content prepares mutators, so must only happen once
+                if (compiled == null)
+                    compiled = new CompiledDefinition<T>(document.<T>newBuilder());
+                _compiled = compiled;
+            }
+        }
+        return _compiled;
     }
 
     @Override
@@ -203,7 +184,20 @@ public class JsonDocumentDefinition<T> implements DocumentDefinition<T>, Convert
     }
 
     @Override
-    public <R> UnNamedProperty<String,R> property(final Class<? extends R> aType) {
+    public <R> UnNamedProperty<String,R> property(Class<? extends R> aType) {
+        return property(aType, false);
+    }
+
+    /**
+     * As {@link #property(Class)}, but values recurring within a document
+     * share a single String instance.
+     */
+    @Override
+    public <R> UnNamedProperty<String,R> interned(Class<? extends R> aType) {
+        return property(aType, true);
+    }
+
+    private <R> UnNamedProperty<String,R> property(final Class<? extends R> aType, final boolean anInterned) {
         return new UnNamedProperty<String,R>(){
             private StringConverter<? extends R> converter = getConverter(aType);
 
@@ -219,7 +213,7 @@ public class JsonDocumentDefinition<T> implements DocumentDefinition<T>, Convert
 
             @Override
             public Builder<R> newBuilder() {
-                return new PropertyBuilder<String,R>(Name.MISSING, aType, converter);
+                return new PropertyBuilder<String,R>(Name.MISSING, aType, converter, anInterned);
             }
         };
     }
@@ -230,7 +224,41 @@ public class JsonDocumentDefinition<T> implements DocumentDefinition<T>, Convert
     }
 
     @Override
-    public <R> NamedProperty<String,R> property(final Name aName) {
+    public <R> NamedProperty<String,R> property(Name aName) {
+        return property(aName, false, false);
+    }
+
+    @Override
+    public <R> NamedProperty<String,R> interned(String aName) {
+        return interned(alias(aName, aName));
+    }
+
+    /**
+     * As {@link #property(Name)}, but values recurring within a document
+     * share a single String instance - for the likes of author names or
+     * categories, repeated across many objects.
+     */
+    @Override
+    public <R> NamedProperty<String,R> interned(Name aName) {
+        return property(aName, true, false);
+    }
+
+    @Override
+    public <R> NamedProperty<String,R> lazy(String aName) {
+        return lazy(alias(aName, aName));
+    }
+
+    /**
+     * As {@link #property(Name)}, but the value is only converted when it is
+     * first read from the object it is mapped to, which must be an interface
+     * type - for dates, big decimals and the like that often go unread.
+     */
+    @Override
+    public <R> NamedProperty<String,R> lazy(Name aName) {
+        return property(aName, false, true);
+    }
+
+    private <R> NamedProperty<String,R> property(final Name aName, final boolean anInterned, final boolean aLazy) {
         return new NamedProperty<String,R>(){
             private Class<? extends R> type;
             private StringConverter<? extends R> converter;
@@ -249,7 +277,7 @@ public class JsonDocumentDefinition<T> implements DocumentDefinition<T>, Convert
 
             @Override
             public Builder<R> newBuilder() {
-                return new PropertyBuilder<String,R>(aName, type, converter);
+                return new PropertyBuilder<String,R>(aName, type, converter, anInterned, aLazy);
             }
         };
     }
@@ -385,7 +413,7 @@ public class JsonDocumentDefinition<T> implements DocumentDefinition<T>, Convert
             @Override
             public ConverterRegistration<F, Object> using(Converter<F, Object> aConverter) {
                 converter = aConverter;
-                converters.add(new TypeSafeConverter<F,Object>(){
+                converters.appendConverters(new TypeSafeConverter<F,Object>(){
                     @Override
                     public boolean canConvertFrom(Class<?> aClass) {
                         return aFrom.isAssignableFrom(aClass);
@@ -412,21 +440,15 @@ public class JsonDocumentDefinition<T> implements DocumentDefinition<T>, Convert
     }
 
     public void registerConverters(TypeSafeConverter<?,?>... aConverters) {
-        converters.addAll(0, Arrays.asList(aConverters)); // always push on to front to allow overriding
+        converters.registerConverters(aConverters); // always push on to front to allow overriding
     }
 
     public <T> StringConverter<T> getConverter(Class<T> aTo) {
-        return (StringConverter<T>) getConverter(String.class, aTo);
+        return converters.getConverter(aTo);
     }
 
     public <F,T> TypeSafeConverter<F,T> getConverter(Class<F> aFromType, Class<T> aToType) {
-        for (TypeSafeConverter<?,?> _c : converters) {
-            if ((_c.canConvertFrom(aFromType)) && (_c.canConvertTo(aToType))) {
-                return (TypeSafeConverter<F,T>) _c;
-            }
-        }
-
-        throw new RuntimeException("no converter registered that can convert from " + aFromType + " to " + aToType);
+        return converters.getConverter(aFromType, aToType);
     }
 
     static <T> T firstNonNull(T... aTs) {
@@ -1,12 +1,15 @@
 package com.sjl.dsl4xml.json;
 
 import com.sjl.dsl4xml.DocumentReader;
+import com.sjl.dsl4xml.ParsingException;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
 
 public abstract class AbstractJsonParsingTest {
 
@@ -39,6 +42,48 @@ public abstract class AbstractJsonParsingTest {
         Assert.assertTrue(_result.getBoolean());
     }
 
+    /**
+     * @return whether the reader reads -0, with no fraction or exponent, as
+     * negative. Gson's JsonReader (2.2.3) reads it as the long 0, so readers
+     * built on it can't tell; those reading the characters themselves can.
+     */
+    protected boolean readsTheSignOfIntegerZero() {
+        return true;
+    }
+
+    @Test
+    public void testKeepsTheSignOfNegativeZero() {
+        DocumentReader<JsonDocumentDefinitions.Typed> _r = newDocumentReader(defs.jsonTypedProperties());
+        String[] _zeros = readsTheSignOfIntegerZero() ? new String[]{ "-0", "-0.0" } : new String[]{ "-0.0" };
+        for (String _zero : _zeros) {
+            JsonDocumentDefinitions.Typed _result = _r.read(newReader("{\"integer\":0,\"float\":" + _zero + ",\"boolean\":true}"));
+            // Float.equals, unlike ==, tells -0 from 0
+            Assert.assertEquals(_zero, Float.valueOf(-0f), Float.valueOf(_result.getFloat()));
+        }
+    }
+
+    @Test
+    public void testLazyPropertiesConvertWhenRead() {
+        DocumentReader<JsonDocumentDefinitions.LazilyConverted> _r = newDocumentReader(defs.lazyProperties());
+        JsonDocumentDefinitions.LazilyConverted _result = _r.read(newReader("{\"name\":\"joe\",\"count\":\"3\"}"));
+        Assert.assertEquals("joe", _result.getName());
+        Assert.assertEquals(Integer.valueOf(3), _result.getCount());
+    }
+
+    @Test
+    public void testLazyPropertiesAreNotConvertedUnlessRead() {
+        DocumentReader<JsonDocumentDefinitions.LazilyConverted> _r = newDocumentReader(defs.lazyProperties());
+        JsonDocumentDefinitions.LazilyConverted _result = _r.read(newReader("{\"name\":\"joe\",\"count\":\"three\"}"));
+        Assert.assertEquals("joe", _result.getName());
+
+        try {
+            _result.getCount();
+            Assert.fail("Expected the unconvertable count to fail when read");
+        } catch (ParsingException anExc) {
+            // good
+        }
+    }
+
     @Test
     public void testNestedObjects1() {
         DocumentReader<JsonDocumentDefinitions.NestedObjects> _r = newDocumentReader(defs.nestedObjects1());
@@ -151,6 +196,33 @@ public abstract class AbstractJsonParsingTest {
         Assert.assertEquals("third", _result.getSimples().get(2).getMyProperty());
     }
 
+    @Test
+    public void testInternedPropertiesShareRepeatedValues() {
+        DocumentReader<JsonDocumentDefinitions.ObjectArrays> _r = newDocumentReader(defs.internedObjectArrays());
+        JsonDocumentDefinitions.ObjectArrays _result = _r.read(newReader(
+            "{\"someProperty\":\"hello\",\"simples\":[{\"myProperty\":\"same\"},{\"myProperty\":\"other\"},{\"myProperty\":\"same\"}]}"
+        ));
+
+        Assert.assertEquals(3, _result.getSimples().size());
+        Assert.assertEquals("same", _result.getSimples().get(0).getMyProperty());
+        Assert.assertEquals("other", _result.getSimples().get(1).getMyProperty());
+        Assert.assertSame(_result.getSimples().get(0).getMyProperty(), _result.getSimples().get(2).getMyProperty());
+    }
+
+    @Test
+    public void testInternedArrayElementsShareRepeatedValues() {
+        DocumentReader<JsonDocumentDefinitions.SimplePropertyArray> _r = newDocumentReader(defs.internedPropertyArrays());
+        JsonDocumentDefinitions.SimplePropertyArray _result = _r.read(newReader(
+            "{\"someProperty\":\"apples\",\"strings\":[\"apples\",\"oranges\",\"apples\"]}"
+        ));
+
+        List<String> _strings = _result.getStrings();
+        Assert.assertEquals(3, _strings.size());
+        Assert.assertEquals("oranges", _strings.get(1));
+        Assert.assertSame(_result.getSomeProperty(), _strings.get(0));
+        Assert.assertSame(_strings.get(0), _strings.get(2));
+    }
+
     @Test
     public void testArrayOfArrays() {
         DocumentReader<JsonDocumentDefinitions.ArrayOfArrays> _r = newDocumentReader(defs.arraysOfArrays());
@@ -208,6 +280,56 @@ public abstract class AbstractJsonParsingTest {
         Assert.assertNotNull(_result.second());
     }
 
+    @Test
+    public void testCompilesDefinitionOnce() {
+        DocumentDefinition<JsonDocumentDefinitions.ObjectArrays> _d = defs.objectArrays();
+        Assert.assertSame(_d.compile(), _d.compile());
+        Assert.assertSame(_d.compile().newBuilder(), _d.newBuilder());
+        Assert.assertEquals(5, _d.compile().getNodes().size()); // root, someProperty, simples, Simple, myProperty
+    }
+
+    @Test
+    public void testReadsConcurrentlyWithOneDefinition() throws Exception {
+        final DocumentReader<JsonDocumentDefinitions.ObjectArrays> _r = newDocumentReader(defs.objectArrays());
+        ExecutorService _pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<JsonDocumentDefinitions.ObjectArrays>> _results = new ArrayList<Future<JsonDocumentDefinitions.ObjectArrays>>();
+            for (int i=0; i<100; i++) {
+                final String _value = "value" + i;
+                _results.add(_pool.submit(new Callable<JsonDocumentDefinitions.ObjectArrays>() {
+                    public JsonDocumentDefinitions.ObjectArrays call() {
+                        return _r.read(newReader(
+                            "{\"someProperty\":\"" + _value + "\",\"simples\":[{\"myProperty\":\"" + _value + "\"}]}"));
+                    }
+                }));
+            }
+            for (int i=0; i<_results.size(); i++) {
+                JsonDocumentDefinitions.ObjectArrays _result = _results.get(i).get();
+                Assert.assertEquals("value" + i, _result.getSomeProperty());
+                Assert.assertEquals("value" + i, _result.getSimples().get(0).getMyProperty());
+            }
+        } finally {
+            _pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testReadsAgainAfterAFailedRead() {
+        DocumentReader<JsonDocumentDefinitions.ObjectArrays> _r = newDocumentReader(defs.objectArrays());
+        try {
+            _r.read(newReader("{\"someProperty\":\"first\",\"simples\":[{\"myProperty\":"));
+            Assert.fail("Expected the truncated document to fail");
+        } catch (ParsingException anExc) {
+            // good
+        }
+
+        JsonDocumentDefinitions.ObjectArrays _result = _r.read(newReader(
+            "{\"someProperty\":\"second\",\"simples\":[{\"myProperty\":\"2nd\"}]}"));
+        Assert.assertEquals("second", _result.getSomeProperty());
+        Assert.assertEquals(1, _result.getSimples().size());
+        Assert.assertEquals("2nd", _result.getSimples().get(0).getMyProperty());
+    }
+
     private Reader newReader(String aString) {
         return new StringReader(aString);
     }
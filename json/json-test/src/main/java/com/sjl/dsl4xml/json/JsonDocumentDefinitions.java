@@ -53,6 +53,26 @@ public class JsonDocumentDefinitions {
         }};
     }
 
+    /**
+     * {
+     *   "name":"joe",
+     *   "count":"3"
+     * }
+     */
+    public interface LazilyConverted {
+        public String getName();
+        public Integer getCount();
+    }
+
+    public DocumentDefinition<LazilyConverted> lazyProperties() {
+        return new JsonDocumentDefinition<LazilyConverted>(){{
+            mapping(LazilyConverted.class).with(
+                lazy("name"),
+                lazy("count")
+            );
+        }};
+    }
+
     /**
      * {
      *   "first": {
@@ -218,6 +238,30 @@ public class JsonDocumentDefinitions {
         }};
     }
 
+    public DocumentDefinition<ObjectArrays> internedObjectArrays() {
+        return new JsonDocumentDefinition<ObjectArrays>() {{
+            mapping(ObjectArrays.class).with(
+                property("someProperty"),
+                array("simples").of(
+                    object(Simple.class).with(
+                        interned("myProperty")
+                    )
+                )
+            );
+        }};
+    }
+
+    public DocumentDefinition<SimplePropertyArray> internedPropertyArrays() {
+        return new JsonDocumentDefinition<SimplePropertyArray>(){{
+            mapping(SimplePropertyArray.class).with(
+                interned("someProperty"),
+                array("strings").of(
+                    interned(String.class)
+                )
+            );
+        }};
+    }
+
     /**
      * {
      *     "arrays":[
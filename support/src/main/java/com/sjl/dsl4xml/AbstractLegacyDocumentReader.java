@@ -2,27 +2,78 @@ package com.sjl.dsl4xml;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.sjl.dsl4xml.support.*;
+import com.sjl.dsl4xml.support.convert.*;
 
 public abstract class AbstractLegacyDocumentReader<T> implements LegacyDocumentReader<T> {
 
-	protected StringConverter<?>[] converters;
+	// read by every thread building the registry, so must be published safely
+	protected volatile StringConverter<?>[] converters;
 	protected Class<T> resultType;
+	private final Instantiator<T> instantiator;
+	private volatile CachingConverterRegistry registry;
+	private volatile SharedStringPool sharedStrings;
+	private AtomicLong bytesSaved = new AtomicLong();
 	
 	public AbstractLegacyDocumentReader(Class<T> aClass) {
 		resultType = aClass;
+		instantiator = Instantiator.of(aClass);
 	}
 	
 	public abstract T read(Reader aReader)
 	throws ParsingException;
 	
-	public void registerConverters(StringConverter<?>... aConverters) {
+	public synchronized void registerConverters(StringConverter<?>... aConverters) {
 		List<StringConverter<?>> _converters = new ArrayList<StringConverter<?>>();
 		_converters.addAll(Arrays.asList(aConverters));
 		if (converters != null)
 			_converters.addAll(Arrays.asList(converters));
 		converters = _converters.toArray(new StringConverter<?>[_converters.size()]);
+		registry = null;
+	}
+	
+	/**
+	 * @return the default converters, overridden by any registered with this
+	 * reader. Built on first use after registration and then shared by every 
+	 * read, so reads don't set up converters of their own.
+	 */
+	protected CachingConverterRegistry getConverterRegistry() {
+		CachingConverterRegistry _registry = registry;
+		if (_registry == null) {
+			_registry = DefaultConverters.newXmlRegistry();
+			if (converters != null)
+				_registry.registerConverters(converters);
+			registry = _registry;
+		}
+		return _registry;
+	}
+
+	/**
+	 * Lets values of interned properties be shared between documents, as well
+	 * as within each one.
+	 */
+	public void setSharedStringPool(SharedStringPool aPool) {
+		sharedStrings = aPool;
+	}
+	
+	protected SharedStringPool getSharedStringPool() {
+		return sharedStrings;
+	}
+	
+	/**
+	 * @return an estimate of the heap saved by deduplicating the values of
+	 * interned properties, across every document read so far.
+	 */
+	public long getBytesSaved() {
+		return bytesSaved.get();
+	}
+	
+	protected void addBytesSaved(StringPool aPool) {
+		long _saved = aPool.getBytesSaved();
+		if (_saved > 0)
+			bytesSaved.addAndGet(_saved);
 	}
 
 	public T read(InputStream anInputStream, String aCharSet) {
@@ -30,7 +81,7 @@ public abstract class AbstractLegacyDocumentReader<T> implements LegacyDocumentR
 	}
 	
 	protected T newResultObject() {
-		return Classes.newInstance(resultType);
+		return instantiator.newInstance();
 	}
 	
 	private Reader newReader(InputStream anInputStream, String aCharSet) {
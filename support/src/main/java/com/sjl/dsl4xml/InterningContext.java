@@ -0,0 +1,18 @@
+package com.sjl.dsl4xml;
+
+import com.sjl.dsl4xml.support.StringPool;
+
+/**
+ * A {@link Context} which keeps a pool of the values of interned properties,
+ * so that equal strings read from one document share a single instance.
+ * Properties marked interned are left as read by contexts without one.
+ */
+public interface InterningContext extends Context {
+
+    /**
+     * @return the pool deduplicating the values of interned properties
+     * within the current document
+     */
+    public StringPool getStringPool();
+
+}
@@ -0,0 +1,72 @@
+package com.sjl.dsl4xml.support;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * A stack of objects in a plain array, growing as needed - what a reading
+ * context would use java.util.Stack for, without taking the Vector's monitor
+ * on every push, pop and peek. Cleared rather than re-created between
+ * documents, so a context reused from one read to the next keeps its array.
+ *
+ * Not thread-safe: each reading context has its own.
+ *
+ * @author steve
+ */
+public final class ArrayStack<T> {
+
+    private static final int INITIAL_SIZE = 16;
+
+    private Object[] elements;
+    private int size;
+
+    public ArrayStack() {
+        elements = new Object[INITIAL_SIZE];
+    }
+
+    public void push(T anElement) {
+        if (size == elements.length)
+            elements = Arrays.copyOf(elements, size << 1);
+        elements[size++] = anElement;
+    }
+
+    /**
+     * @throws EmptyStackException if the stack is empty, as java.util.Stack would
+     */
+    @SuppressWarnings("unchecked")
+    public T pop() {
+        if (size == 0)
+            throw new EmptyStackException();
+        T _top = (T) elements[--size];
+        elements[size] = null;
+        return _top;
+    }
+
+    /**
+     * @throws EmptyStackException if the stack is empty, as java.util.Stack would
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        if (size == 0)
+            throw new EmptyStackException();
+        return (T) elements[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the stack, letting go of everything on it but keeping the array.
+     */
+    public void clear() {
+        for (int i=0; i<size; i++) {
+            elements[i] = null;
+        }
+        size = 0;
+    }
+}
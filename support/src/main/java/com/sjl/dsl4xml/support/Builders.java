@@ -0,0 +1,78 @@
+package com.sjl.dsl4xml.support;
+
+import com.sjl.dsl4xml.Context;
+
+/**
+ * Drives any {@link Builder} as an {@link IndexedBuilder}, so that parsers
+ * can use indexes and primitives where a builder supports them and fall back
+ * to names and boxed values where it doesn't. A builder which isn't indexed
+ * finds no index for any name, so the methods taking one are only ever called
+ * on builders which are.
+ */
+public final class Builders {
+
+    private Builders() {
+    }
+
+    /**
+     * @return the index of the given name in the given builder, or -1 if it
+     * has none there or the builder isn't indexed
+     */
+    public static int indexOf(Builder<?> aBuilder, String aName) {
+        return (aBuilder instanceof IndexedBuilder) ? ((IndexedBuilder<?>) aBuilder).indexOf(aName) : -1;
+    }
+
+    /**
+     * @return the index of the given builder's unnamed definition (see
+     * {@link IndexedBuilder#getUnnamedIndex()}), or -1 if the builder isn't
+     * indexed
+     */
+    public static int unnamedIndexOf(Builder<?> aBuilder) {
+        return (aBuilder instanceof IndexedBuilder) ? ((IndexedBuilder<?>) aBuilder).getUnnamedIndex() : -1;
+    }
+
+    /**
+     * @return the builder nested at the given index (from
+     * {@link #indexOf(Builder, String)}), or under the given name if the
+     * builder isn't indexed
+     */
+    public static Builder<?> moveDown(Builder<?> aBuilder, int anIndex, String aName) {
+        return (aBuilder instanceof IndexedBuilder) ? ((IndexedBuilder<?>) aBuilder).moveDown(anIndex) : aBuilder.moveDown(aName);
+    }
+
+    /**
+     * @return the primitive type the given builder would build unchanged, or
+     * null if there is none or the builder isn't indexed
+     */
+    public static Class<?> getPrimitiveType(Builder<?> aBuilder) {
+        return (aBuilder instanceof IndexedBuilder) ? ((IndexedBuilder<?>) aBuilder).getPrimitiveType() : null;
+    }
+
+    public static void setInt(Builder<?> aBuilder, Context aContext, String aName, int aValue) {
+        if (aBuilder instanceof IndexedBuilder)
+            ((IndexedBuilder<?>) aBuilder).setInt(aContext, aName, aValue);
+        else
+            aBuilder.setValue(aContext, aName, aValue);
+    }
+
+    public static void setLong(Builder<?> aBuilder, Context aContext, String aName, long aValue) {
+        if (aBuilder instanceof IndexedBuilder)
+            ((IndexedBuilder<?>) aBuilder).setLong(aContext, aName, aValue);
+        else
+            aBuilder.setValue(aContext, aName, aValue);
+    }
+
+    public static void setDouble(Builder<?> aBuilder, Context aContext, String aName, double aValue) {
+        if (aBuilder instanceof IndexedBuilder)
+            ((IndexedBuilder<?>) aBuilder).setDouble(aContext, aName, aValue);
+        else
+            aBuilder.setValue(aContext, aName, aValue);
+    }
+
+    public static void setBoolean(Builder<?> aBuilder, Context aContext, String aName, boolean aValue) {
+        if (aBuilder instanceof IndexedBuilder)
+            ((IndexedBuilder<?>) aBuilder).setBoolean(aContext, aName, aValue);
+        else
+            aBuilder.setValue(aContext, aName, aValue);
+    }
+}
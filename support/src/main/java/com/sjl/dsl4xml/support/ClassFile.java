@@ -0,0 +1,460 @@
+package com.sjl.dsl4xml.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Collects the fields and methods of a class we're generating, and writes
+ * them out as a class-file.
+ *
+ * The class-file version is 49 (Java 5) - old enough that no stack-map frames
+ * are required, and still loaded by every JVM we run on. We only need a
+ * handful of instructions, so we write the bytes ourselves rather than
+ * depending on a bytecode library.
+ *
+ * Public only so that the readers of other modules can generate classes of
+ * their own with it (see the gson module's GeneratedDocumentReader) - it is
+ * not otherwise part of the API.
+ *
+ * @author steve
+ */
+public class ClassFile {
+
+    public static final int VERSION = 49;
+
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_PRIVATE = 0x0002;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_SUPER = 0x0020;
+
+    public static final int ACONST_NULL = 0x01;
+    public static final int ICONST_M1 = 0x02;
+    public static final int SIPUSH = 0x11;
+    public static final int LDC_W = 0x13;
+    public static final int ILOAD = 0x15;
+    public static final int ALOAD = 0x19;
+    public static final int ILOAD_1 = 0x1b;
+    public static final int ALOAD_0 = 0x2a;
+    public static final int ALOAD_1 = 0x2b;
+    public static final int ALOAD_2 = 0x2c;
+    public static final int ISTORE = 0x36;
+    public static final int ASTORE = 0x3a;
+    public static final int AASTORE = 0x53;
+    public static final int POP = 0x57;
+    public static final int POP2 = 0x58;
+    public static final int DUP = 0x59;
+    public static final int I2L = 0x85;
+    public static final int I2F = 0x86;
+    public static final int I2D = 0x87;
+    public static final int L2F = 0x89;
+    public static final int L2D = 0x8a;
+    public static final int D2I = 0x8e;
+    public static final int D2L = 0x8f;
+    public static final int IFEQ = 0x99;
+    public static final int IFNE = 0x9a;
+    public static final int IF_ICMPNE = 0xa0;
+    public static final int GOTO = 0xa7;
+    public static final int TABLESWITCH = 0xaa;
+    public static final int LOOKUPSWITCH = 0xab;
+    public static final int IRETURN = 0xac;
+    public static final int ARETURN = 0xb0;
+    public static final int RETURN = 0xb1;
+    public static final int GETFIELD = 0xb4;
+    public static final int PUTFIELD = 0xb5;
+    public static final int INVOKEVIRTUAL = 0xb6;
+    public static final int INVOKESPECIAL = 0xb7;
+    public static final int INVOKESTATIC = 0xb8;
+    public static final int NEW = 0xbb;
+    public static final int ATHROW = 0xbf;
+    public static final int CHECKCAST = 0xc0;
+    public static final int INSTANCEOF = 0xc1;
+    public static final int IFNULL = 0xc6;
+
+    private String className;
+    private String superName;
+    private String[] interfaces;
+    private ConstantPool pool;
+    private ByteArrayOutputStream fields;
+    private ByteArrayOutputStream methods;
+    private int fieldCount;
+    private int methodCount;
+    private Set<String> signatures;
+
+    /**
+     * @param aClassName the internal name (with slashes) of the class.
+     */
+    public ClassFile(String aClassName, String aSuperName, String... anInterfaces) {
+        className = aClassName;
+        superName = aSuperName;
+        interfaces = anInterfaces;
+        pool = new ConstantPool();
+        fields = new ByteArrayOutputStream();
+        methods = new ByteArrayOutputStream();
+        signatures = new HashSet<String>();
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getSuperName() {
+        return superName;
+    }
+
+    public ConstantPool getPool() {
+        return pool;
+    }
+
+    public void addField(int anAccess, String aName, String aDescriptor) throws IOException {
+        DataOutputStream _out = new DataOutputStream(fields);
+        _out.writeShort(anAccess);
+        _out.writeShort(pool.utf8(aName));
+        _out.writeShort(pool.utf8(aDescriptor));
+        _out.writeShort(0);
+        fieldCount++;
+    }
+
+    /**
+     * Adds a public method, unless a method with the same name and descriptor
+     * has already been added.
+     */
+    public void addMethod(String aName, String aDescriptor, Code aCode, int aMaxStack, int aMaxLocals) throws IOException {
+        if (!signatures.add(aName + aDescriptor))
+            return;
+
+        byte[] _code = aCode.toByteArray();
+        DataOutputStream _out = new DataOutputStream(methods);
+        _out.writeShort(ACC_PUBLIC);
+        _out.writeShort(pool.utf8(aName));
+        _out.writeShort(pool.utf8(aDescriptor));
+        _out.writeShort(1);
+        _out.writeShort(pool.utf8("Code"));
+        _out.writeInt(12 + _code.length + (8 * aCode.handlers.size()));
+        _out.writeShort(aMaxStack);
+        _out.writeShort(aMaxLocals);
+        _out.writeInt(_code.length);
+        _out.write(_code);
+        _out.writeShort(aCode.handlers.size());
+        for (int[] _h : aCode.handlers) {
+            for (int _i : _h) {
+                _out.writeShort(_i);
+            }
+        }
+        _out.writeShort(0); // no attributes
+        methodCount++;
+    }
+
+    public byte[] toByteArray() {
+        try {
+            ByteArrayOutputStream _bytes = new ByteArrayOutputStream();
+            DataOutputStream _out = new DataOutputStream(_bytes);
+            int _this = pool.classRef(className);
+            int _super = pool.classRef(superName);
+            int[] _interfaces = new int[interfaces.length];
+            for (int i=0; i<interfaces.length; i++) {
+                _interfaces[i] = pool.classRef(interfaces[i]);
+            }
+
+            _out.writeInt(0xCAFEBABE);
+            _out.writeShort(0);
+            _out.writeShort(VERSION);
+            pool.writeTo(_out);
+            _out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            _out.writeShort(_this);
+            _out.writeShort(_super);
+            _out.writeShort(_interfaces.length);
+            for (int _i : _interfaces) {
+                _out.writeShort(_i);
+            }
+            _out.writeShort(fieldCount);
+            _out.write(fields.toByteArray());
+            _out.writeShort(methodCount);
+            _out.write(methods.toByteArray());
+            _out.writeShort(0); // no class attributes
+            _out.flush();
+            return _bytes.toByteArray();
+        } catch (IOException anExc) {
+            throw new IllegalStateException(anExc); // can't happen - we're writing to memory
+        }
+    }
+
+    public static String internalName(String aClassName) {
+        return aClassName.replace('.', '/');
+    }
+
+    public static String descriptor(Class<?> aType) {
+        if (aType == Integer.TYPE) return "I";
+        if (aType == Long.TYPE) return "J";
+        if (aType == Float.TYPE) return "F";
+        if (aType == Double.TYPE) return "D";
+        if (aType == Boolean.TYPE) return "Z";
+        if (aType == Character.TYPE) return "C";
+        if (aType == Short.TYPE) return "S";
+        if (aType == Byte.TYPE) return "B";
+        if (aType == Void.TYPE) return "V";
+        if (aType.isArray()) return internalName(aType.getName());
+        return "L" + internalName(aType.getName()) + ";";
+    }
+
+    public static int size(Class<?> aType) {
+        return ((aType == Long.TYPE) || (aType == Double.TYPE)) ? 2 : 1;
+    }
+
+    public static int loadOp(Class<?> aType) {
+        // iload, lload, fload, dload, aload are consecutive
+        if (aType == Long.TYPE) return ILOAD + 1;
+        if (aType == Float.TYPE) return ILOAD + 2;
+        if (aType == Double.TYPE) return ILOAD + 3;
+        if (!aType.isPrimitive()) return ILOAD + 4;
+        return ILOAD;
+    }
+
+    public static int returnOp(Class<?> aType) {
+        // ireturn, lreturn, freturn, dreturn, areturn are consecutive
+        if (aType == Long.TYPE) return IRETURN + 1;
+        if (aType == Float.TYPE) return IRETURN + 2;
+        if (aType == Double.TYPE) return IRETURN + 3;
+        if (!aType.isPrimitive()) return IRETURN + 4;
+        return IRETURN;
+    }
+
+    public static Class<?> box(Class<?> aType) {
+        if (aType == Integer.TYPE) return Integer.class;
+        if (aType == Long.TYPE) return Long.class;
+        if (aType == Float.TYPE) return Float.class;
+        if (aType == Double.TYPE) return Double.class;
+        if (aType == Boolean.TYPE) return Boolean.class;
+        if (aType == Character.TYPE) return Character.class;
+        if (aType == Short.TYPE) return Short.class;
+        if (aType == Byte.TYPE) return Byte.class;
+        throw new IllegalArgumentException(aType.getName());
+    }
+
+    public static class ConstantPool {
+        private static final int UTF8 = 1;
+        private static final int CLASS = 7;
+        private static final int STRING = 8;
+        private static final int FIELDREF = 9;
+        private static final int METHODREF = 10;
+        private static final int NAME_AND_TYPE = 12;
+
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private DataOutputStream out = new DataOutputStream(bytes);
+        private Map<String,Integer> indexes = new HashMap<String,Integer>();
+        private int next = 1;
+
+        public int utf8(String aValue) {
+            Integer _i = indexes.get("U" + aValue);
+            if (_i == null) {
+                try {
+                    out.writeByte(UTF8);
+                    out.writeUTF(aValue);
+                } catch (IOException anExc) {
+                    throw new IllegalStateException(anExc);
+                }
+                _i = add("U" + aValue);
+            }
+            return _i;
+        }
+
+        public int classRef(String anInternalName) {
+            return ref(CLASS, "C" + anInternalName, utf8(anInternalName));
+        }
+
+        public int string(String aValue) {
+            return ref(STRING, "S" + aValue, utf8(aValue));
+        }
+
+        public int fieldRef(String anOwner, String aName, String aDescriptor) {
+            return ref(FIELDREF, "F" + anOwner + "." + aName + aDescriptor, classRef(anOwner), nameAndType(aName, aDescriptor));
+        }
+
+        public int methodRef(String anOwner, String aName, String aDescriptor) {
+            return ref(METHODREF, "M" + anOwner + "." + aName + aDescriptor, classRef(anOwner), nameAndType(aName, aDescriptor));
+        }
+
+        private int nameAndType(String aName, String aDescriptor) {
+            return ref(NAME_AND_TYPE, "N" + aName + aDescriptor, utf8(aName), utf8(aDescriptor));
+        }
+
+        private int ref(int aTag, String aKey, int... anIndexes) {
+            Integer _i = indexes.get(aKey);
+            if (_i == null) {
+                try {
+                    out.writeByte(aTag);
+                    for (int _index : anIndexes) {
+                        out.writeShort(_index);
+                    }
+                } catch (IOException anExc) {
+                    throw new IllegalStateException(anExc);
+                }
+                _i = add(aKey);
+            }
+            return _i;
+        }
+
+        private int add(String aKey) {
+            indexes.put(aKey, next);
+            return next++;
+        }
+
+        void writeTo(DataOutputStream anOut) throws IOException {
+            out.flush();
+            anOut.writeShort(next);
+            anOut.write(bytes.toByteArray());
+        }
+    }
+
+    public static class Code {
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private List<int[]> handlers = new ArrayList<int[]>();
+
+        public Code op(int anOpcode) {
+            bytes.write(anOpcode);
+            return this;
+        }
+
+        public Code u1(int aValue) {
+            bytes.write(aValue);
+            return this;
+        }
+
+        public Code u2(int aValue) {
+            bytes.write(aValue >>> 8);
+            bytes.write(aValue);
+            return this;
+        }
+
+        public int position() {
+            return bytes.size();
+        }
+
+        /**
+         * Writes a tableswitch over 0..aCases-1 with placeholder offsets, to be
+         * filled in through the returned Switch as each case is written.
+         */
+        public Switch tableswitch(int aCases) {
+            int _start = position();
+            op(TABLESWITCH);
+            while (position() % 4 != 0) {
+                u1(0);
+            }
+            Switch _s = new Switch(this, _start, position(), 4);
+            u4(0); // default
+            u4(0); // low
+            u4(aCases - 1); // high
+            for (int i=0; i<aCases; i++) {
+                u4(0);
+            }
+            return _s;
+        }
+
+        /**
+         * Writes a lookupswitch over the given keys, which must be sorted,
+         * with placeholder offsets, to be filled in through the returned
+         * Switch as each case is written.
+         */
+        public Switch lookupswitch(int[] aKeys) {
+            int _start = position();
+            op(LOOKUPSWITCH);
+            while (position() % 4 != 0) {
+                u1(0);
+            }
+            Switch _s = new Switch(this, _start, position(), 8);
+            u4(0); // default
+            u4(aKeys.length);
+            for (int _key : aKeys) {
+                u4(_key);
+                u4(0);
+            }
+            return _s;
+        }
+
+        /**
+         * Writes a branch with a placeholder offset.
+         *
+         * @return the position of the branch, to be given to
+         * {@link #landHere(int)} once its target is reached.
+         */
+        public int jump(int anOpcode) {
+            int _at = position();
+            op(anOpcode).u2(0);
+            return _at;
+        }
+
+        /**
+         * Writes a branch back to the given position, already written.
+         */
+        public void jumpBack(int anOpcode, int aTarget) {
+            int _at = position();
+            op(anOpcode).u2(aTarget - _at);
+        }
+
+        public void landHere(int aJump) {
+            byte[] _b = bytes.toByteArray();
+            int _offset = position() - aJump;
+            _b[aJump + 1] = (byte) (_offset >>> 8);
+            _b[aJump + 2] = (byte) _offset;
+            bytes.reset();
+            bytes.write(_b, 0, _b.length);
+        }
+
+        /**
+         * Catches exceptions of the given class (a class reference, or 0 for
+         * anything) thrown by the instructions from aStart up to but not
+         * including anEnd, by jumping here with the exception on the stack.
+         */
+        public void handleHere(int aStart, int anEnd, int aCatchType) {
+            handlers.add(new int[]{ aStart, anEnd, position(), aCatchType });
+        }
+
+        public void u4(int aValue) {
+            u2(aValue >>> 16);
+            u2(aValue & 0xffff);
+        }
+
+        void patch(int aPosition, int aValue) {
+            byte[] _b = bytes.toByteArray();
+            _b[aPosition] = (byte) (aValue >>> 24);
+            _b[aPosition + 1] = (byte) (aValue >>> 16);
+            _b[aPosition + 2] = (byte) (aValue >>> 8);
+            _b[aPosition + 3] = (byte) aValue;
+            bytes.reset();
+            bytes.write(_b, 0, _b.length);
+        }
+
+        public byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    public static class Switch {
+        private Code code;
+        private int start;
+        private int table;
+        private int stride;
+
+        Switch(Code aCode, int aStart, int aTable, int aStride) {
+            code = aCode;
+            start = aStart;
+            table = aTable;
+            stride = aStride;
+        }
+
+        /**
+         * Lands the case with the given index (not key) here. The first
+         * offset is 12 bytes into both kinds of switch: after default, low and
+         * high in a tableswitch; after default, npairs and the first key in a
+         * lookupswitch, whose offsets are then interleaved with the keys.
+         */
+        public void caseAt(int aCase) {
+            code.patch(table + 12 + (stride * aCase), code.position() - start);
+        }
+
+        public void defaultAt() {
+            code.patch(table, code.position() - start);
+        }
+    }
+}
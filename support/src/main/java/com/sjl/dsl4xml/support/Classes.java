@@ -107,162 +107,18 @@ public class Classes {
 	}
 	
 	public static <T> T newDynamicProxy(Class<T> aClass) {
-		if (Iterable.class.isAssignableFrom(aClass)) {
-			return newListBasedProxy(aClass);
-		} else {		
-			return newMapBasedProxy(aClass);
-		}
+		return Implementations.newInstance(aClass);
 	}
 	
-	@SuppressWarnings("unchecked")
 	public static <T> T newListBasedProxy(final Class<T> aClass) {
-		return (T) Proxy.newProxyInstance(
-			Classes.class.getClassLoader(),
-			new Class<?>[]{ aClass, Mutable.class },
-			new ListBasedInvocationHandler<T>(aClass));
+		return Implementations.newProxy(aClass);
 	}
 	
-	@SuppressWarnings("unchecked")
 	public static <T> T newMapBasedProxy(final Class<T> aClass) {
-		return (T) Proxy.newProxyInstance(
-			Classes.class.getClassLoader(),
-			new Class<?>[]{ aClass, Mutable.class },
-			new MapBasedInvocationHandler(aClass)
-		);
+		return Implementations.newProxy(aClass);
 	}
 	
 	private static String asString(Class<?> aClass, Class<?>... aClasses) {
 		return aClass.getName() + Arrays.asList(aClasses).toString();
 	}
-	
-	private static class MapBasedInvocationHandler implements InvocationHandler {
-		
-		private Map<String, Object> map = new HashMap<String, Object>();
-		private Class<?> clz;
-		
-		public MapBasedInvocationHandler(Class<?> aClass) {
-			clz = aClass;
-		}
-		
-		@Override
-		public Object invoke(Object aProxy, Method aMethod, Object[] aArgs) throws Throwable {
-			if ("toString".equals(aMethod.getName())) {
-				return toString();
-			} else if ("hashCode".equals(aMethod.getName())) {
-			    return hashCode();
-			} else if ("equals".equals(aMethod.getName())) {
-				return equals(aArgs[0]);
-			} else if (isMutator(aMethod)) {
-				if (aArgs.length == 2) {
-					return map.put(aArgs[0].toString(), aArgs[1]);
-				} else {
-					return map.put(getSuffix(aMethod.getName()), aArgs[0]);
-				}
-			} else {
-				return map.get(getSuffix(aMethod.getName()));
-			}				    
-		}
-		
-		private boolean isMutator(Method aMethod) {
-			return (aMethod.getParameterTypes().length > 0);
-		}
-
-		// TODO: cache?
-		private String getSuffix(String aMethodName) {
-			int _indexOfFirstUpperCase = indexOfUpperCase(aMethodName);
-			if (_indexOfFirstUpperCase < 0)
-				return aMethodName;
-
-			return
-				aMethodName.substring(_indexOfFirstUpperCase, _indexOfFirstUpperCase+1).toLowerCase() +
-				aMethodName.substring(_indexOfFirstUpperCase+1);
-		}
-
-		private int indexOfUpperCase(String aMethodName) {
-			for (int i=0; i<aMethodName.length(); i++) {
-				if (Character.isUpperCase(aMethodName.charAt(i)))
-					return i;
-			}
-			return -1;
-		}
-		
-		public String toString() {
-			return "proxy(" + clz.getName() + ")" + map;
-		}
-	}
-	
-	private static class ListBasedInvocationHandler<T> implements InvocationHandler {
-		
-		private Map<String, Object> map = new HashMap<String, Object>();
-		private List<T> list = new ArrayList<T>();
-		private Class<?> clz;
-		
-		public ListBasedInvocationHandler(Class<?> aClass) {
-			clz = aClass;
-		}
-		
-		@Override
-		public Object invoke(Object aProxy, Method aMethod, Object[] aArgs) throws Throwable {
-			try {
-				if ("toString".equals(aMethod.getName())) {
-					return toString();
-				} else if ("hashCode".equals(aMethod.getName())) {
-				    return hashCode();
-				} else if ("equals".equals(aMethod.getName())) {
-					return equals(aArgs[0]);
-				} else {
-					if (isMethodOf(List.class, aMethod)) {
-						return aMethod.invoke(list, aArgs);
-					} else {
-						if (isMutator(aMethod)) {
-							if (aArgs.length == 2) {
-								return map.put(aArgs[0].toString(), aArgs[1]);
-							} else {
-								return map.put(getSuffix(aMethod.getName()), aArgs[0]);
-							}
-						} else {
-							return map.get(getSuffix(aMethod.getName()));
-						}
-					}
-				}
-			} catch (InvocationTargetException anExc) {
-				throw anExc.getCause();
-			} catch (IllegalAccessException anExc) {
-				throw anExc;
-			}
-		}
-			
-		// todo: cache for efficiency?
-		private boolean isMethodOf(Class<?> aClass, Method aMethod) {
-			for (Method _m : aClass.getMethods()) {
-				if (_m.getName().equals(aMethod.getName())) {
-					Class<?>[] _mp1 = _m.getParameterTypes();
-					Class<?>[] _mp2 = aMethod.getParameterTypes();
-					if (_mp1.length == _mp2.length) {
-						boolean _match = true;
-						for (int i=0; i<_mp1.length; i++) {
-							if (!_mp1[i].equals(_mp2[i]))
-								_match = false;
-						}
-						if (_match) {
-							return true;
-						}
-					}
-				}
-			}
-			return false;
-		}
-			
-		private boolean isMutator(Method aMethod) {
-			return (aMethod.getParameterTypes().length > 0);
-		}
-		
-		private String getSuffix(String aMethodName) {
-			return aMethodName.substring(3); // TODO
-		}
-		
-		public String toString() {
-			return "proxy(" + clz.getName() + ")" + list;
-		}
-	}
 }
@@ -0,0 +1,83 @@
+package com.sjl.dsl4xml.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.sjl.dsl4xml.Definition;
+
+/**
+ * A definition compiled, once, into the tree of builders that reads its
+ * documents. Compiling does all the work of interpreting the definition -
+ * attaching each nested definition to its container, resolving mutators and
+ * converters, generating implementations of interfaces, building the name
+ * table of each object - so none of it is repeated per document, let alone
+ * per token.
+ *
+ * The tree never changes once compiled, so one CompiledDefinition can be
+ * shared by any number of readers, on any number of threads.
+ *
+ * @author steve
+ */
+public final class CompiledDefinition<T> implements Definition<T> {
+
+    private final Builder<T> root;
+    private final List<Builder<?>> nodes;
+
+    /**
+     * @param aRoot the builder of the whole document, with every builder
+     * beneath it already constructed
+     */
+    public CompiledDefinition(Builder<T> aRoot) {
+        if (aRoot == null)
+            throw new IllegalArgumentException("Must supply a builder");
+
+        root = aRoot;
+        List<Builder<?>> _nodes = new ArrayList<Builder<?>>();
+        collect(aRoot, _nodes);
+        nodes = Collections.unmodifiableList(_nodes);
+    }
+
+    /**
+     * @return the given definition compiled, or the definition itself if it
+     * already is
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompiledDefinition<T> compile(Definition<T> aDefinition) {
+        if (aDefinition instanceof CompiledDefinition<?>)
+            return (CompiledDefinition<T>) aDefinition;
+        return new CompiledDefinition<T>(aDefinition.<T>newBuilder());
+    }
+
+    /**
+     * @return the compiled root builder - the same one every time
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R extends T> Builder<R> newBuilder() {
+        return (Builder<R>) root;
+    }
+
+    /**
+     * @return every builder in the tree, depth first from the root, so that
+     * each has a fixed index
+     */
+    public List<Builder<?>> getNodes() {
+        return nodes;
+    }
+
+    private static void collect(Builder<?> aBuilder, List<Builder<?>> aNodes) {
+        aNodes.add(aBuilder);
+        if (aBuilder instanceof ReflectiveBuilder<?>) {
+            for (Builder<?> _b : ((ReflectiveBuilder<?>) aBuilder).getNested()) {
+                collect(_b, aNodes);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        Class<?> _type = root.getTargetType();
+        return "compiled(" + ((_type == null) ? "?" : _type.getName()) + ", " + nodes.size() + " nodes)";
+    }
+}
@@ -0,0 +1,317 @@
+package com.sjl.dsl4xml.support;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+import static com.sjl.dsl4xml.support.ClassFile.*;
+
+/**
+ * Writes the class-file for a plain implementation of an interface described
+ * by a {@link PropertyTable}: one typed field per slot (primitives are not
+ * boxed), the interface's accessors and mutators as field reads and writes,
+ * a "set" method for every property, plus {@link Slotted} and {@link Mutable}
+ * - whose magic set keeps values of names that aren't properties in a map
+ * of extras, as the proxies do.
+ * Implementations of list-based interfaces extend ArrayList.
+ *
+ * A {@link LazyValue} given to __slot_set is kept aside in an array, created
+ * only when the first one arrives, and converted into its typed field - under
+ * the object's lock - when the property is first read; setting the property
+ * again discards it.
+ *
+ * @author steve
+ */
+class ImplementationGenerator {
+
+    private static final String HELPER = Implementations.class.getName().replace('.', '/');
+    private static final String LAZY = "__lazy";
+    private static final String LAZY_TYPE = "[Ljava/lang/Object;";
+    private static final String EXTRAS = "__extras";
+    private static final String EXTRAS_TYPE = "Ljava/util/Map;";
+
+    /**
+     * @return a reason why the interface can't be implemented by a generated
+     * class, or null if it can.
+     */
+    static String whyNot(PropertyTable aTable) {
+        Class<?> _type = aTable.getType();
+        if (!Modifier.isPublic(_type.getModifiers()))
+            return _type.getName() + " is not public";
+        if (_type.getName().startsWith("java."))
+            return _type.getName() + " is a core interface";
+        if (!aTable.getUnsupported().isEmpty())
+            return "don't know how to implement " + aTable.getUnsupported();
+        if (!aTable.isConsistent())
+            return "the accessors and mutators of " + _type.getName() + " disagree on property types";
+
+        for (int i=0; i<aTable.size(); i++) {
+            if (!isAccessible(aTable.getType(i)))
+                return "property " + aTable.getName(i) + " has non-public type " + aTable.getType(i).getName();
+        }
+        for (Method _m : aTable.getMutators()) {
+            if (_m.getReturnType() != Void.TYPE)
+                return "mutator " + _m.getName() + " does not return void";
+        }
+        Class<?> _base = aTable.isListBased() ? ArrayList.class : Object.class;
+        for (Method _m : aTable.getInherited()) {
+            if (!isImplementedBy(_base, _m))
+                return _base.getSimpleName() + " has no method matching " + _m;
+        }
+        return null;
+    }
+
+    static String getImplementationName(Class<?> anInterface) {
+        return anInterface.getName() + "$$Dsl4Xml";
+    }
+
+    static byte[] generate(PropertyTable aTable) {
+        return new ImplementationGenerator(aTable).toByteArray();
+    }
+
+    private PropertyTable table;
+    private ClassFile file;
+    private ConstantPool pool;
+
+    private ImplementationGenerator(PropertyTable aTable) {
+        table = aTable;
+        file = new ClassFile(
+            internalName(getImplementationName(aTable.getType())),
+            internalName((aTable.isListBased() ? ArrayList.class : Object.class).getName()),
+            internalName(aTable.getType().getName()),
+            internalName(Mutable.class.getName()),
+            internalName(Slotted.class.getName()));
+        pool = file.getPool();
+    }
+
+    private byte[] toByteArray() {
+        try {
+            for (int i=0; i<table.size(); i++) {
+                file.addField(ACC_PRIVATE, fieldName(i), descriptor(table.getType(i)));
+            }
+            file.addField(ACC_PRIVATE, LAZY, LAZY_TYPE);
+            file.addField(ACC_PRIVATE, EXTRAS, EXTRAS_TYPE);
+
+            addConstructor();
+            for (Method _m : table.getAccessors()) {
+                addAccessor(_m.getName(), table.getAccessorSlot(_m));
+            }
+            for (Method _m : table.getMutators()) {
+                addMutator(_m.getName(), table.getMutatorSlot(_m));
+            }
+            for (int i=0; i<table.size(); i++) {
+                addMutator("set" + table.getName(i), i);
+            }
+            addSlotSet();
+            addSlotGet();
+            addMagicSet();
+            if (!table.isListBased())
+                addToString();
+
+            return file.toByteArray();
+        } catch (IOException anExc) {
+            throw new IllegalStateException(anExc); // can't happen - we're writing to memory
+        }
+    }
+
+    private void addConstructor() throws IOException {
+        Code _c = new Code();
+        _c.op(ALOAD_0);
+        _c.op(INVOKESPECIAL).u2(pool.methodRef(file.getSuperName(), "<init>", "()V"));
+        _c.op(RETURN);
+        file.addMethod("<init>", "()V", _c, 1, 1);
+    }
+
+    private void addAccessor(String aName, int aSlot) throws IOException {
+        Class<?> _type = table.getType(aSlot);
+        Code _c = new Code();
+        resolveLazy(_c, aSlot);
+        _c.op(ALOAD_0);
+        _c.op(GETFIELD).u2(fieldRef(aSlot));
+        _c.op(returnOp(_type));
+        file.addMethod(aName, "()" + descriptor(_type), _c, Math.max(3, size(_type)), 1);
+    }
+
+    private void addMutator(String aName, int aSlot) throws IOException {
+        Class<?> _type = table.getType(aSlot);
+        Code _c = new Code();
+        discardLazy(_c, aSlot);
+        _c.op(ALOAD_0);
+        _c.op(loadOp(_type)).u1(1);
+        _c.op(PUTFIELD).u2(fieldRef(aSlot));
+        _c.op(RETURN);
+        file.addMethod(aName, "(" + descriptor(_type) + ")V", _c, Math.max(3, 1 + size(_type)), 1 + size(_type));
+    }
+
+    private void addSlotSet() throws IOException {
+        Code _c = new Code();
+        if (table.size() > 0) {
+            // __lazy = Implementations.defer(__lazy, size, slot, value) for lazy values
+            _c.op(ALOAD_2);
+            _c.op(INSTANCEOF).u2(pool.classRef(internalName(LazyValue.class.getName())));
+            int _notLazy = _c.jump(IFEQ);
+            _c.op(ALOAD_0);
+            _c.op(ALOAD_0);
+            _c.op(GETFIELD).u2(lazyRef());
+            _c.op(SIPUSH).u2(table.size());
+            _c.op(ILOAD_1);
+            _c.op(ALOAD_2);
+            _c.op(INVOKESTATIC).u2(pool.methodRef(HELPER, "defer", "(" + LAZY_TYPE + "IILjava/lang/Object;)" + LAZY_TYPE));
+            _c.op(PUTFIELD).u2(lazyRef());
+            _c.op(RETURN);
+            _c.landHere(_notLazy);
+
+            // otherwise discard any lazy value the slot had
+            _c.op(ALOAD_0);
+            _c.op(GETFIELD).u2(lazyRef());
+            int _noneLazy = _c.jump(IFNULL);
+            _c.op(ALOAD_0);
+            _c.op(GETFIELD).u2(lazyRef());
+            _c.op(ILOAD_1);
+            _c.op(ACONST_NULL);
+            _c.op(AASTORE);
+            _c.landHere(_noneLazy);
+
+            _c.op(ILOAD_1);
+            Switch _s = _c.tableswitch(table.size());
+            for (int i=0; i<table.size(); i++) {
+                Class<?> _type = table.getType(i);
+                _s.caseAt(i);
+                _c.op(ALOAD_0);
+                _c.op(ALOAD_2);
+                if (_type.isPrimitive()) {
+                    _c.op(INVOKESTATIC).u2(pool.methodRef(HELPER, _type.getName() + "Value", "(Ljava/lang/Object;)" + descriptor(_type)));
+                } else if (_type != Object.class) {
+                    _c.op(CHECKCAST).u2(pool.classRef(internalName(_type.getName())));
+                }
+                _c.op(PUTFIELD).u2(fieldRef(i));
+                _c.op(RETURN);
+            }
+            _s.defaultAt();
+        }
+        _c.op(RETURN);
+        file.addMethod("__slot_set", "(ILjava/lang/Object;)V", _c, 6, 3);
+    }
+
+    private void addSlotGet() throws IOException {
+        Code _c = new Code();
+        if (table.size() > 0) {
+            _c.op(ILOAD_1);
+            Switch _s = _c.tableswitch(table.size());
+            for (int i=0; i<table.size(); i++) {
+                Class<?> _type = table.getType(i);
+                _s.caseAt(i);
+                resolveLazy(_c, i);
+                _c.op(ALOAD_0);
+                _c.op(GETFIELD).u2(fieldRef(i));
+                if (_type.isPrimitive()) {
+                    String _box = internalName(box(_type).getName());
+                    _c.op(INVOKESTATIC).u2(pool.methodRef(_box, "valueOf", "(" + descriptor(_type) + ")L" + _box + ";"));
+                }
+                _c.op(ARETURN);
+            }
+            _s.defaultAt();
+        }
+        _c.op(ACONST_NULL);
+        _c.op(ARETURN);
+        file.addMethod("__slot_get", "(I)Ljava/lang/Object;", _c, 3, 2);
+    }
+
+    private void addMagicSet() throws IOException {
+        // __extras = Implementations.magicSet(this, __extras, name, value)
+        Code _c = new Code();
+        _c.op(ALOAD_0);
+        _c.op(ALOAD_0);
+        _c.op(ALOAD_0);
+        _c.op(GETFIELD).u2(extrasRef());
+        _c.op(ALOAD_1);
+        _c.op(ALOAD_2);
+        _c.op(INVOKESTATIC).u2(pool.methodRef(HELPER, "magicSet", "(Lcom/sjl/dsl4xml/support/Slotted;" + EXTRAS_TYPE + "Ljava/lang/String;Ljava/lang/Object;)" + EXTRAS_TYPE));
+        _c.op(PUTFIELD).u2(extrasRef());
+        _c.op(RETURN);
+        file.addMethod(ReflectorFactory.MAGIC_SET, "(Ljava/lang/String;Ljava/lang/Object;)V", _c, 5, 3);
+    }
+
+    private void addToString() throws IOException {
+        Code _c = new Code();
+        _c.op(ALOAD_0);
+        _c.op(ALOAD_0);
+        _c.op(GETFIELD).u2(extrasRef());
+        _c.op(INVOKESTATIC).u2(pool.methodRef(HELPER, "toString", "(Lcom/sjl/dsl4xml/support/Slotted;" + EXTRAS_TYPE + ")Ljava/lang/String;"));
+        _c.op(ARETURN);
+        file.addMethod("toString", "()Ljava/lang/String;", _c, 2, 1);
+    }
+
+    /**
+     * Writes "if (__lazy != null) Implementations.resolve(this, __lazy, slot)"
+     * ahead of reading a reference-typed slot - primitives are never lazy.
+     */
+    private void resolveLazy(Code aCode, int aSlot) {
+        if (table.getType(aSlot).isPrimitive())
+            return;
+
+        aCode.op(ALOAD_0);
+        aCode.op(GETFIELD).u2(lazyRef());
+        int _skip = aCode.jump(IFNULL);
+        aCode.op(ALOAD_0);
+        aCode.op(ALOAD_0);
+        aCode.op(GETFIELD).u2(lazyRef());
+        aCode.op(SIPUSH).u2(aSlot);
+        aCode.op(INVOKESTATIC).u2(pool.methodRef(HELPER, "resolve", "(Lcom/sjl/dsl4xml/support/Slotted;" + LAZY_TYPE + "I)V"));
+        aCode.landHere(_skip);
+    }
+
+    /**
+     * Writes "if (__lazy != null) __lazy[slot] = null" ahead of writing a
+     * reference-typed slot, so that a stale lazy value can't overwrite it.
+     */
+    private void discardLazy(Code aCode, int aSlot) {
+        if (table.getType(aSlot).isPrimitive())
+            return;
+
+        aCode.op(ALOAD_0);
+        aCode.op(GETFIELD).u2(lazyRef());
+        int _skip = aCode.jump(IFNULL);
+        aCode.op(ALOAD_0);
+        aCode.op(GETFIELD).u2(lazyRef());
+        aCode.op(SIPUSH).u2(aSlot);
+        aCode.op(ACONST_NULL);
+        aCode.op(AASTORE);
+        aCode.landHere(_skip);
+    }
+
+    private int lazyRef() {
+        return pool.fieldRef(file.getClassName(), LAZY, LAZY_TYPE);
+    }
+
+    private int extrasRef() {
+        return pool.fieldRef(file.getClassName(), EXTRAS, EXTRAS_TYPE);
+    }
+
+    private int fieldRef(int aSlot) {
+        return pool.fieldRef(file.getClassName(), fieldName(aSlot), descriptor(table.getType(aSlot)));
+    }
+
+    private static String fieldName(int aSlot) {
+        return "slot" + aSlot;
+    }
+
+    private static boolean isImplementedBy(Class<?> aBase, Method aMethod) {
+        if (!Modifier.isAbstract(aMethod.getModifiers()))
+            return true; // default methods of newer interfaces
+
+        try {
+            return aBase.getMethod(aMethod.getName(), aMethod.getParameterTypes()).getReturnType() == aMethod.getReturnType();
+        } catch (NoSuchMethodException anExc) {
+            return false;
+        }
+    }
+
+    private static boolean isAccessible(Class<?> aType) {
+        while (aType.isArray()) {
+            aType = aType.getComponentType();
+        }
+        return aType.isPrimitive() || Modifier.isPublic(aType.getModifiers());
+    }
+}
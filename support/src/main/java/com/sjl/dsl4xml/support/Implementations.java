@@ -0,0 +1,444 @@
+package com.sjl.dsl4xml.support;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * Creates the objects that stand in for interface-mapped types.
+ *
+ * By default these are java.lang.reflect.Proxy instances whose invocation
+ * handlers keep property values in an array, indexed by the slots of the
+ * interface's {@link PropertyTable}. Optionally - see {@link #setGenerating(boolean)},
+ * or start the JVM with -Ddsl4xml.generate=true - we instead generate a plain
+ * class per interface that stores each property in a typed field. Generated
+ * classes are defined by one class loader per interface class loader, so they
+ * can be collected along with the interfaces they implement. Where generation
+ * isn't possible (non-public interfaces, unusual method signatures, or a
+ * platform such as Android which can't define classes from bytes) we fall back
+ * to proxies.
+ *
+ * Whether an interface is implemented by a generated class or a proxy is
+ * decided by the setting when the class is asked for - for readers, when
+ * their definitions are compiled, after which each type's {@link Instantiator}
+ * creates its objects without coming back here. Proxies and generated classes
+ * are both {@link Slotted}, with the same slots, so definitions prepared
+ * against one work with the other.
+ *
+ * Separately - see {@link #setGeneratingBindings(boolean)}, or start the JVM
+ * with -Ddsl4xml.generateBindings=true - we can generate the code that binds
+ * a definition to its model: {@link MethodMutator}s which call single-argument
+ * mutator methods directly (passing primitive values without boxing them)
+ * rather than reflectively, and {@link NameMatcher}s which find the names of
+ * nested definitions rather than {@link NameTable}s. Generated mutators fail
+ * just as reflective ones do. The typed setters of generated implementations are always
+ * called directly.
+ *
+ * @author steve
+ */
+public final class Implementations {
+
+    public static final String GENERATE_PROPERTY = "dsl4xml.generate";
+
+    public static final String GENERATE_BINDINGS_PROPERTY = "dsl4xml.generateBindings";
+
+    private static volatile boolean generating = Boolean.getBoolean(GENERATE_PROPERTY);
+    private static volatile boolean generatingBindings = Boolean.getBoolean(GENERATE_BINDINGS_PROPERTY);
+
+    private static final Map<ClassLoader,WeakReference<ImplementationLoader>> loaders =
+        new WeakHashMap<ClassLoader,WeakReference<ImplementationLoader>>();
+
+    // tables refer to their interface, so must only be weakly referenced here
+    private static final Map<Class<?>,WeakReference<PropertyTable>> tables =
+        new WeakHashMap<Class<?>,WeakReference<PropertyTable>>();
+
+    private Implementations() {}
+
+    public static boolean isGenerating() {
+        return generating;
+    }
+
+    public static void setGenerating(boolean aGenerating) {
+        generating = aGenerating;
+    }
+
+    public static boolean isGeneratingBindings() {
+        return generatingBindings;
+    }
+
+    /**
+     * Whether mutators and name matchers are generated for definitions
+     * prepared from now on, independently of whether implementations of
+     * interfaces are.
+     */
+    public static void setGeneratingBindings(boolean aGenerating) {
+        generatingBindings = aGenerating;
+    }
+
+    /**
+     * @return the property table of the given interface, or of the interface
+     * implemented by the given generated class or proxy class.
+     */
+    public static PropertyTable getPropertyTable(Class<?> aClass) {
+        if (aClass.getClassLoader() instanceof ImplementationLoader) {
+            return ((ImplementationLoader) aClass.getClassLoader()).getPropertyTable(aClass);
+        } else if (Proxy.isProxyClass(aClass)) {
+            return getPropertyTable(aClass.getInterfaces()[0]);
+        }
+
+        synchronized(tables) {
+            WeakReference<PropertyTable> _ref = tables.get(aClass);
+            PropertyTable _table = (_ref == null) ? null : _ref.get();
+            if (_table == null) {
+                _table = new PropertyTable(aClass);
+                tables.put(aClass, new WeakReference<PropertyTable>(_table));
+            }
+            return _table;
+        }
+    }
+
+    /**
+     * @return the generated implementation of the given interface, generating
+     * it if necessary and enabled, or null if proxies should be used.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Class<? extends T> getImplementation(Class<T> anInterface) {
+        if (!generating)
+            return null;
+
+        return (Class<? extends T>) getLoader(anInterface).getImplementation(anInterface, generating);
+    }
+
+    /**
+     * @return the class that stands in for the given interface - either its
+     * generated implementation or a proxy class.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Class<T> getImplementationClass(Class<T> anInterface) {
+        Class<? extends T> _impl = getImplementation(anInterface);
+        if (_impl != null)
+            return (Class<T>) _impl;
+
+        return (Class<T>) getProxyClass(anInterface);
+    }
+
+    /**
+     * @return a new instance of the generated implementation of the given
+     * interface if there is one, otherwise a new proxy. The class is looked
+     * up (under a lock, when generating) for every call, so anything creating
+     * objects repeatedly should resolve an {@link Instantiator} once instead.
+     */
+    public static <T> T newInstance(Class<T> anInterface) {
+        Class<? extends T> _impl = getImplementation(anInterface);
+        if (_impl == null)
+            return newProxy(anInterface);
+
+        try {
+            return _impl.newInstance();
+        } catch (InstantiationException anExc) {
+            throw new IllegalStateException(anExc);
+        } catch (IllegalAccessException anExc) {
+            throw new IllegalStateException(anExc);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T newProxy(Class<T> anInterface) {
+        return (T) Proxy.newProxyInstance(
+            Classes.class.getClassLoader(),
+            getProxyInterfaces(anInterface),
+            newInvocationHandler(getPropertyTable(anInterface)));
+    }
+
+    static Class<?> getProxyClass(Class<?> anInterface) {
+        return Proxy.getProxyClass(Classes.class.getClassLoader(), getProxyInterfaces(anInterface));
+    }
+
+    static InvocationHandler newInvocationHandler(PropertyTable aTable) {
+        return aTable.isListBased() ?
+            new ListBasedInvocationHandler<Object>(aTable) :
+            new MapBasedInvocationHandler(aTable);
+    }
+
+    private static Class<?>[] getProxyInterfaces(Class<?> anInterface) {
+        return new Class<?>[]{ anInterface, Mutable.class, Slotted.class };
+    }
+
+    /**
+     * @return a mutator which calls the given method directly where it can,
+     * generating it if necessary and enabled, or null if the method should be
+     * invoked reflectively.
+     */
+    public static MethodMutator newMutator(Method aMethod) {
+        return generatingBindings ? generateMutator(aMethod) : null;
+    }
+
+    /**
+     * @return a generated mutator calling the given method, whatever the
+     * setting, or null if one can't be generated
+     */
+    static MethodMutator generateMutator(Method aMethod) {
+        if (MutatorGenerator.whyNot(aMethod) != null)
+            return null;
+
+        Class<?> _mutator = getLoader(aMethod.getDeclaringClass()).getMutator(aMethod);
+        if (_mutator == null)
+            return null;
+
+        try {
+            return (MethodMutator) _mutator.getConstructor(Method.class).newInstance(aMethod);
+        } catch (Exception anExc) {
+            throw new IllegalStateException(anExc);
+        }
+    }
+
+    /**
+     * @return a matcher of the given names - generated, if enabled and
+     * possible, otherwise a {@link NameTable}.
+     */
+    public static NameMatcher newNameMatcher(String[] aNames) {
+        if (!generatingBindings || (aNames.length > Short.MAX_VALUE))
+            return new NameTable(aNames);
+
+        Class<?> _matcher = getLoader(NameMatcher.class).getNameMatcher(aNames);
+        if (_matcher == null)
+            return new NameTable(aNames);
+
+        try {
+            return (NameMatcher) _matcher.newInstance();
+        } catch (Exception anExc) {
+            throw new IllegalStateException(anExc);
+        }
+    }
+
+    /**
+     * @return true if the given class was generated to implement an interface.
+     */
+    public static boolean isImplementation(Class<?> aClass) {
+        return aClass.getClassLoader() instanceof ImplementationLoader;
+    }
+
+    private static ImplementationLoader getLoader(Class<?> aClass) {
+        if (aClass.getClassLoader() instanceof ImplementationLoader)
+            return (ImplementationLoader) aClass.getClassLoader(); // generated classes can see each other
+
+        ClassLoader _parent = aClass.getClassLoader();
+        if (_parent == null)
+            _parent = Implementations.class.getClassLoader();
+
+        synchronized(loaders) {
+            WeakReference<ImplementationLoader> _ref = loaders.get(_parent);
+            ImplementationLoader _loader = (_ref == null) ? null : _ref.get();
+            if (_loader == null) {
+                _loader = new ImplementationLoader(_parent);
+                loaders.put(_parent, new WeakReference<ImplementationLoader>(_loader));
+            }
+            return _loader;
+        }
+    }
+
+    // the following are called by generated classes, so must be public
+
+    /**
+     * Sets the named property, or if the interface has no such property,
+     * keeps the value among the given extras (created if necessary) as the
+     * map-based proxies do, so that it shows up in toString.
+     *
+     * @return the extras
+     */
+    public static Map<String,Object> magicSet(Slotted aTarget, Map<String,Object> anExtras, String aName, Object aValue) {
+        int _slot = getPropertyTable(aTarget.getClass()).getSlot(aName);
+        if (_slot >= 0) {
+            aTarget.__slot_set(_slot, aValue);
+            return anExtras;
+        }
+
+        Map<String,Object> _extras = (anExtras == null) ? new HashMap<String,Object>() : anExtras;
+        _extras.put(aName, aValue);
+        return _extras;
+    }
+
+    public static String toString(Slotted aTarget, Map<String,Object> anExtras) {
+        // same format as the map-based proxies, which people may already rely
+        // on - except that primitive properties, which can't be unset, are
+        // always shown
+        PropertyTable _table = getPropertyTable(aTarget.getClass());
+        StringBuilder _sb = new StringBuilder("{");
+        for (int i=0; i<_table.size(); i++) {
+            Object _value = aTarget.__slot_get(i);
+            if (_value != null) {
+                if (_sb.length() > 1)
+                    _sb.append(", ");
+                String _name = _table.getName(i);
+                _sb.append(Character.toLowerCase(_name.charAt(0))).append(_name.substring(1));
+                _sb.append("=").append(_value);
+            }
+        }
+        if (anExtras != null) {
+            for (Map.Entry<String,Object> _e : anExtras.entrySet()) {
+                if (_sb.length() > 1)
+                    _sb.append(", ");
+                _sb.append(_e.getKey()).append("=").append(_e.getValue());
+            }
+        }
+        return "proxy(" + _table.getType().getName() + ")" + _sb.append("}");
+    }
+
+    /**
+     * @return the array of lazy values of a generated implementation, created
+     * if necessary, with the given value put in the given slot.
+     */
+    public static Object[] defer(Object[] aLazy, int aSize, int aSlot, Object aValue) {
+        Object[] _lazy = (aLazy == null) ? new Object[aSize] : aLazy;
+        _lazy[aSlot] = aValue;
+        return _lazy;
+    }
+
+    /**
+     * Converts the lazy value in the given slot, if there is one, and sets it
+     * - which also discards it. Holds the target's lock while doing so, so
+     * that a getter racing another on a different thread either converts the
+     * value itself or sees the one set by the other, never a half-way state.
+     */
+    public static void resolve(Slotted aTarget, Object[] aLazy, int aSlot) {
+        synchronized (aTarget) {
+            Object _value = aLazy[aSlot];
+            if (_value != null)
+                aTarget.__slot_set(aSlot, ((LazyValue) _value).get());
+        }
+    }
+
+    public static int intValue(Object aValue) {
+        return (aValue == null) ? 0 : ((Number) aValue).intValue();
+    }
+
+    public static long longValue(Object aValue) {
+        return (aValue == null) ? 0L : ((Number) aValue).longValue();
+    }
+
+    public static float floatValue(Object aValue) {
+        return (aValue == null) ? 0f : ((Number) aValue).floatValue();
+    }
+
+    public static double doubleValue(Object aValue) {
+        return (aValue == null) ? 0d : ((Number) aValue).doubleValue();
+    }
+
+    public static short shortValue(Object aValue) {
+        return (aValue == null) ? 0 : ((Number) aValue).shortValue();
+    }
+
+    public static byte byteValue(Object aValue) {
+        return (aValue == null) ? 0 : ((Number) aValue).byteValue();
+    }
+
+    public static boolean booleanValue(Object aValue) {
+        return (aValue != null) && ((Boolean) aValue).booleanValue();
+    }
+
+    public static char charValue(Object aValue) {
+        return (aValue == null) ? 0 : ((Character) aValue).charValue();
+    }
+
+    /**
+     * Defines the generated implementations of interfaces, and generated
+     * mutators of classes, loaded by one class loader, and holds the property
+     * tables the implementations were generated from. Also defines the
+     * matchers of sets of names, which refer to nothing but Strings, so are
+     * all defined by the loader of this class.
+     */
+    private static class ImplementationLoader extends ClassLoader {
+
+        private Map<Class<?>,PropertyTable> tables;
+        private Map<Class<?>,Class<?>> implementations;
+        private Set<Class<?>> unimplementable;
+        private Map<Method,Class<?>> mutators;
+        private Map<List<String>,Class<?>> matchers;
+
+        ImplementationLoader(ClassLoader aParent) {
+            super(aParent);
+            tables = new HashMap<Class<?>,PropertyTable>();
+            implementations = new HashMap<Class<?>,Class<?>>();
+            unimplementable = new HashSet<Class<?>>();
+            mutators = new HashMap<Method,Class<?>>();
+            matchers = new HashMap<List<String>,Class<?>>();
+        }
+
+        synchronized PropertyTable getPropertyTable(Class<?> anImplementation) {
+            return tables.get(anImplementation);
+        }
+
+        synchronized Class<?> getImplementation(Class<?> anInterface, boolean aGenerate) {
+            Class<?> _impl = implementations.get(anInterface);
+            if ((_impl != null) || !aGenerate || unimplementable.contains(anInterface))
+                return _impl;
+
+            PropertyTable _table = Implementations.getPropertyTable(anInterface);
+            if (ImplementationGenerator.whyNot(_table) == null) {
+                try {
+                    byte[] _bytes = ImplementationGenerator.generate(_table);
+                    _impl = defineClass(ImplementationGenerator.getImplementationName(anInterface), _bytes, 0, _bytes.length);
+                    implementations.put(anInterface, _impl);
+                    tables.put(_impl, _table); // keeps the table alive as long as the class
+                    return _impl;
+                } catch (LinkageError anErr) {
+                    // fall through to use proxies instead
+                } catch (UnsupportedOperationException anExc) {
+                    // android can't define classes from bytecode
+                }
+            }
+            unimplementable.add(anInterface);
+            return null;
+        }
+
+        synchronized Class<?> getMutator(Method aMethod) {
+            if (mutators.containsKey(aMethod))
+                return mutators.get(aMethod);
+
+            Class<?> _mutator = null;
+            try {
+                String _name = aMethod.getDeclaringClass().getName() + "$$Dsl4XmlMutator" + mutators.size();
+                byte[] _bytes = MutatorGenerator.generate(aMethod, _name);
+                _mutator = defineClass(_name, _bytes, 0, _bytes.length);
+            } catch (LinkageError anErr) {
+                // leave it to reflection
+            } catch (UnsupportedOperationException anExc) {
+                // android can't define classes from bytecode
+            } catch (SecurityException anExc) {
+                // e.g. a signed package
+            }
+            mutators.put(aMethod, _mutator);
+            return _mutator;
+        }
+
+        synchronized Class<?> getNameMatcher(String[] aNames) {
+            List<String> _key = Arrays.asList(aNames.clone());
+            if (matchers.containsKey(_key))
+                return matchers.get(_key);
+
+            Class<?> _matcher = null;
+            try {
+                String _name = NameMatcher.class.getName() + "$$Dsl4XmlMatcher" + matchers.size();
+                byte[] _bytes = MatcherGenerator.generate(aNames, _name);
+                _matcher = defineClass(_name, _bytes, 0, _bytes.length);
+            } catch (LinkageError anErr) {
+                // leave it to a NameTable
+            } catch (UnsupportedOperationException anExc) {
+                // android can't define classes from bytecode
+            } catch (SecurityException anExc) {
+                // e.g. a signed package
+            }
+            matchers.put(_key, _matcher);
+            return _matcher;
+        }
+
+        @Override
+        protected Class<?> findClass(String aName) throws ClassNotFoundException {
+            // generated classes refer to our own types, which the interface's
+            // class loader might not be able to see
+            return Implementations.class.getClassLoader().loadClass(aName);
+        }
+    }
+}
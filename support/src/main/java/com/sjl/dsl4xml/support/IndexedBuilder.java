@@ -0,0 +1,70 @@
+package com.sjl.dsl4xml.support;
+
+import com.sjl.dsl4xml.Context;
+
+/**
+ * A {@link Builder} which can also be driven by index rather than by name,
+ * and can take primitive values without boxing them. The builders of the
+ * JSON definitions all implement it; parsers fall back to the plain
+ * {@link Builder} methods for any that don't (see {@link Builders}).
+ */
+public interface IndexedBuilder<T> extends Builder<T> {
+
+    /**
+     * @return the index of the given name among the definitions nested in
+     * this one, or -1 if it isn't one of them - so that a parser can look up
+     * each name it reads once, and pass the index to the methods taking one
+     * rather than the name to each of the others.
+     */
+    public int indexOf(String aName);
+
+    /**
+     * @return the builder for the nested object at the given index (from
+     * {@link #indexOf(String)}), or as {@link #moveDown(String)} would for an
+     * unknown name if the index is -1
+     */
+    public Builder<?> moveDown(int anIndex);
+
+    /**
+     * @return the index {@link #indexOf(String)} gives "" - the definition
+     * nested with no name, such as an array's elements - found once, when the
+     * definition is compiled, so that a parser needn't look it up for every
+     * element; or -1 if there is none
+     */
+    public int getUnnamedIndex();
+
+    /**
+     * @return the primitive type (int, long, double or boolean) whose values
+     * this builder would build unchanged, so that a parser holding such a
+     * value may pass it straight to the parent's primitive setter instead;
+     * or null if the value must be built as normal.
+     */
+    public Class<?> getPrimitiveType();
+
+    /**
+     * set a named primitive value to the build-context object, without boxing
+     * it where the mutator can accept it as a primitive
+     */
+    public void setInt(Context aContext, String aName, int aValue);
+
+    public void setLong(Context aContext, String aName, long aValue);
+
+    public void setDouble(Context aContext, String aName, double aValue);
+
+    public void setBoolean(Context aContext, String aName, boolean aValue);
+
+    /**
+     * set a value to the nested definition at the given index (from
+     * {@link #indexOf(String)}, and never -1), without looking its name up again
+     */
+    public void setValue(Context aContext, int anIndex, Object aValue);
+
+    public void setInt(Context aContext, int anIndex, int aValue);
+
+    public void setLong(Context aContext, int anIndex, long aValue);
+
+    public void setDouble(Context aContext, int anIndex, double aValue);
+
+    public void setBoolean(Context aContext, int anIndex, boolean aValue);
+
+}
@@ -0,0 +1,133 @@
+package com.sjl.dsl4xml.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+
+import com.sjl.dsl4xml.ParsingException;
+
+/**
+ * Creates instances of one type, with whatever that takes - the class that
+ * stands in for an interface, the constructor to call, the property table of
+ * a proxy - resolved once, when a definition is compiled, instead of for
+ * every object read.
+ *
+ * @author steve
+ */
+public abstract class Instantiator<T> {
+
+    public abstract T newInstance();
+
+    /**
+     * @return the class of the instances created - for an interface, the
+     * generated implementation or proxy class standing in for it
+     */
+    public abstract Class<?> getType();
+
+    /**
+     * @return an instantiator of the given type, or of the class that stands
+     * in for it if it is an interface (see {@link Implementations}).
+     */
+    public static <T> Instantiator<T> of(final Class<T> aType) {
+        Class<? extends T> _class = aType;
+        if (aType.isInterface()) {
+            _class = Implementations.getImplementation(aType);
+            if (_class == null)
+                return new ProxyInstantiator<T>(aType);
+        }
+
+        try {
+            Constructor<? extends T> _constructor = _class.getDeclaredConstructor();
+            _constructor.setAccessible(true);
+            return new ConstructorInstantiator<T>(_constructor);
+        } catch (NoSuchMethodException anExc) {
+            // report it if and when we're asked for an instance, as we always have
+            return new Instantiator<T>() {
+                @Override
+                public T newInstance() {
+                    throw new ParsingException("Can't instantiate " + aType.getName() + " - it has no constructor without parameters");
+                }
+
+                @Override
+                public Class<?> getType() {
+                    return aType;
+                }
+            };
+        } catch (SecurityException anExc) {
+            return new ReflectiveInstantiator<T>(_class);
+        }
+    }
+
+    private static class ConstructorInstantiator<T> extends Instantiator<T> {
+        private final Constructor<? extends T> constructor;
+
+        ConstructorInstantiator(Constructor<? extends T> aConstructor) {
+            constructor = aConstructor;
+        }
+
+        @Override
+        public T newInstance() {
+            try {
+                return constructor.newInstance();
+            } catch (Exception anExc) {
+                throw new ParsingException(anExc);
+            }
+        }
+
+        @Override
+        public Class<?> getType() {
+            return constructor.getDeclaringClass();
+        }
+    }
+
+    private static class ReflectiveInstantiator<T> extends Instantiator<T> {
+        private final Class<? extends T> type;
+
+        ReflectiveInstantiator(Class<? extends T> aType) {
+            type = aType;
+        }
+
+        @Override
+        public T newInstance() {
+            try {
+                return type.newInstance();
+            } catch (Exception anExc) {
+                throw new ParsingException(anExc);
+            }
+        }
+
+        @Override
+        public Class<?> getType() {
+            return type;
+        }
+    }
+
+    private static class ProxyInstantiator<T> extends Instantiator<T> {
+        private final Constructor<?> constructor;
+        private final PropertyTable table;
+
+        ProxyInstantiator(Class<T> anInterface) {
+            try {
+                constructor = Implementations.getProxyClass(anInterface).getConstructor(InvocationHandler.class);
+                constructor.setAccessible(true); // proxies of non-public interfaces aren't public either
+            } catch (NoSuchMethodException anExc) {
+                throw new IllegalStateException(anExc); // all proxy classes have one
+            }
+            table = Implementations.getPropertyTable(anInterface);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T newInstance() {
+            try {
+                return (T) constructor.newInstance(Implementations.newInvocationHandler(table));
+            } catch (Exception anExc) {
+                throw new ParsingException(anExc);
+            }
+        }
+
+        @Override
+        public Class<?> getType() {
+            return constructor.getDeclaringClass();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.sjl.dsl4xml.support;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * A stack of ints in a plain array, growing as needed, for the indexes a
+ * reading context looks names up to - {@link ArrayStack} without boxing.
+ *
+ * Not thread-safe: each reading context has its own.
+ *
+ * @author steve
+ */
+public final class IntStack {
+
+    private static final int INITIAL_SIZE = 16;
+
+    private int[] elements;
+    private int size;
+
+    public IntStack() {
+        elements = new int[INITIAL_SIZE];
+    }
+
+    public void push(int anElement) {
+        if (size == elements.length)
+            elements = Arrays.copyOf(elements, size << 1);
+        elements[size++] = anElement;
+    }
+
+    /**
+     * @throws EmptyStackException if the stack is empty
+     */
+    public int pop() {
+        if (size == 0)
+            throw new EmptyStackException();
+        return elements[--size];
+    }
+
+    /**
+     * @throws EmptyStackException if the stack is empty
+     */
+    public int peek() {
+        if (size == 0)
+            throw new EmptyStackException();
+        return elements[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,208 @@
+package com.sjl.dsl4xml.support;
+
+/**
+ * A minimal perfect hash of names: each name has a slot of its own, in a
+ * table no bigger than the number of names, so that a name can be looked up
+ * straight from the characters of a document - hashed where they lie, and
+ * compared with the one name in their slot - without making a String of them.
+ *
+ * Built once when a definition is compiled, by hash and displace: the names
+ * are hashed to buckets, and each bucket, biggest first, is given the
+ * displacement that moves all of its names to slots still free.
+ *
+ * Safe to share between threads once built.
+ *
+ * @author steve
+ */
+public final class KeyTable {
+
+    private static final int MAX_DISPLACEMENT = 1 << 16;
+    private static final int MAX_MULTIPLIERS = 1 << 10;
+
+    private final String[] names;
+    private final char[][] keys;
+    private final int[] indexes;
+    private final int[] displacements;
+    private final int size;
+    private final int multiplier;
+
+    /**
+     * @param aNames the names to look up, which may include nulls (never
+     * found); where a name appears more than once, the first wins.
+     */
+    public KeyTable(String[] aNames) {
+        names = aNames.clone();
+
+        String[] _distinct = new String[aNames.length];
+        int[] _indexes = new int[aNames.length];
+        int _count = 0;
+        for (int i=0; i<aNames.length; i++) {
+            if ((aNames[i] != null) && (indexOf(_distinct, _count, aNames[i]) < 0)) {
+                _distinct[_count] = aNames[i];
+                _indexes[_count++] = i;
+            }
+        }
+
+        size = _count;
+        keys = new char[_count][];
+        indexes = new int[_count];
+        displacements = new int[_count];
+
+        // the names' hashes must differ before they can go to different
+        // slots, and with no choice of displacement a bucket may not fit, so
+        // try another multiplier for the hash until both work
+        int _multiplier = 0;
+        int[] _slots = null;
+        for (int m=0; (m<MAX_MULTIPLIERS) && (_slots == null); m++) {
+            _multiplier = 31 + (m * 2);
+            int[] _hashes = new int[_count];
+            for (int i=0; i<_count; i++) {
+                _hashes[i] = hash(_distinct[i], _multiplier);
+            }
+            _slots = displace(_hashes);
+        }
+        if (_slots == null)
+            throw new IllegalArgumentException("Can't build a perfect hash of " + _count + " names");
+
+        multiplier = _multiplier;
+        for (int i=0; i<_count; i++) {
+            keys[_slots[i]] = _distinct[i].toCharArray();
+            indexes[_slots[i]] = _indexes[i];
+        }
+    }
+
+    /**
+     * @return the index of the name in the given characters, or -1 if it
+     * isn't one of ours.
+     */
+    public int indexOf(char[] aChars, int anOffset, int aLength) {
+        if (size == 0)
+            return -1;
+
+        int _hash = 0;
+        for (int i=0; i<aLength; i++) {
+            _hash = (_hash * multiplier) + aChars[anOffset + i];
+        }
+        int _slot = slot(_hash, displacements[bucket(_hash)]);
+
+        char[] _key = keys[_slot];
+        if (_key.length != aLength)
+            return -1;
+        for (int i=0; i<aLength; i++) {
+            if (_key[i] != aChars[anOffset + i])
+                return -1;
+        }
+        return indexes[_slot];
+    }
+
+    public int indexOf(String aName) {
+        return indexOf(aName.toCharArray(), 0, aName.length());
+    }
+
+    /**
+     * @return the name at the given index, as given - so that a name found
+     * in a document needn't be made into a String of its own
+     */
+    public String getName(int anIndex) {
+        return names[anIndex];
+    }
+
+    /**
+     * @return the slot of each hash, or null if some bucket can't be given a
+     * displacement that moves all of its names to free slots
+     */
+    private int[] displace(int[] aHashes) {
+        int[] _slots = new int[aHashes.length];
+        int[] _buckets = new int[aHashes.length];
+        int[] _bucketSizes = new int[size];
+        int _biggest = 0;
+        for (int i=0; i<aHashes.length; i++) {
+            for (int j=0; j<i; j++) {
+                if (aHashes[i] == aHashes[j])
+                    return null;
+            }
+            _buckets[i] = bucket(aHashes[i]);
+            _biggest = Math.max(_biggest, ++_bucketSizes[_buckets[i]]);
+        }
+
+        boolean[] _used = new boolean[size];
+        for (int _bucketSize=_biggest; _bucketSize>0; _bucketSize--) {
+            for (int b=0; b<size; b++) {
+                if (_bucketSizes[b] != _bucketSize)
+                    continue;
+                int d = 0;
+                while (!fits(aHashes, _buckets, b, d, _used, _slots)) {
+                    if (++d == MAX_DISPLACEMENT)
+                        return null;
+                }
+                displacements[b] = d;
+            }
+        }
+        return _slots;
+    }
+
+    /**
+     * @return whether the given displacement moves every name in the given
+     * bucket to a slot still free, having taken those slots if so
+     */
+    private boolean fits(int[] aHashes, int[] aBuckets, int aBucket, int aDisplacement, boolean[] aUsed, int[] aSlots) {
+        for (int i=0; i<aHashes.length; i++) {
+            if (aBuckets[i] != aBucket)
+                continue;
+            int _slot = slot(aHashes[i], aDisplacement);
+            if (aUsed[_slot]) {
+                // give back the slots taken by this bucket's names so far
+                for (int j=0; j<i; j++) {
+                    if (aBuckets[j] == aBucket)
+                        aUsed[aSlots[j]] = false;
+                }
+                return false;
+            }
+            aUsed[_slot] = true;
+            aSlots[i] = _slot;
+        }
+        return true;
+    }
+
+    private static int hash(String aName, int aMultiplier) {
+        int _hash = 0;
+        for (int i=0; i<aName.length(); i++) {
+            _hash = (_hash * aMultiplier) + aName.charAt(i);
+        }
+        return _hash;
+    }
+
+    private int bucket(int aHash) {
+        return reduce(mix(aHash, 0));
+    }
+
+    private int slot(int aHash, int aDisplacement) {
+        return reduce(mix(aHash, aDisplacement + 1));
+    }
+
+    /**
+     * @return a number from 0 to size - 1, from the high bits of the given
+     * hash multiplied by the size, rather than the remainder, which is slower
+     */
+    private int reduce(int aHash) {
+        return (int) (((aHash & 0xFFFFFFFFL) * size) >>> 32);
+    }
+
+    private static int mix(int aHash, int aSeed) {
+        int _h = aHash ^ (aSeed * 0x9E3779B9);
+        _h ^= _h >>> 16;
+        _h *= 0x85EBCA6B;
+        _h ^= _h >>> 13;
+        _h *= 0xC2B2AE35;
+        _h ^= _h >>> 16;
+        return _h;
+    }
+
+    private static int indexOf(String[] aNames, int aCount, String aName) {
+        for (int i=0; i<aCount; i++) {
+            if (aNames[i].equals(aName))
+                return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sjl.dsl4xml.support;
+
+import com.sjl.dsl4xml.Converter;
+import com.sjl.dsl4xml.ParsingException;
+
+/**
+ * A value read from a document but not yet converted, for properties mapped
+ * lazily. It is stored in the property's slot of a {@link Slotted} object in
+ * place of the converted value, and converted the first time the property is
+ * read - so conversions (dates, big decimals, enums) are never paid for values
+ * that nobody looks at.
+ *
+ * Only ever passed to {@link Slotted#__slot_set(int, Object)}, and only for
+ * properties of reference types: mutators which can't defer conversion are
+ * given {@link #get()} instead.
+ *
+ * Objects read from a document are often handed to other threads, so the
+ * first read may happen on any of them - possibly several at once.
+ *
+ * @author steve
+ */
+public final class LazyValue {
+
+    // stands in for a converted value of null, so that null can mean "not yet"
+    private static final Object NULL = new Object();
+
+    private Converter<Object,?> converter;
+    private Object raw;
+    private volatile Object value;
+
+    @SuppressWarnings("unchecked")
+    public LazyValue(Converter<?,?> aConverter, Object aRaw) {
+        converter = (Converter<Object,?>) aConverter;
+        raw = aRaw;
+    }
+
+    /**
+     * @return the converted value, converting it if this is the first time of
+     * asking. Safe to call from several threads at once: the value is
+     * converted exactly once, and every caller sees the same result.
+     */
+    public Object get() {
+        Object _value = value;
+        if (_value == null)
+            _value = convert();
+        return (_value == NULL) ? null : _value;
+    }
+
+    private synchronized Object convert() {
+        Object _value = value;
+        if (_value == null) {
+            try {
+                _value = converter.convert(raw);
+            } catch (IllegalArgumentException anExc) {
+                throw new ParsingException(anExc.getMessage() + " while lazily converting " + raw + " with " + converter, anExc);
+            }
+            if (_value == null)
+                _value = NULL;
+            value = _value;
+            converter = null;
+            raw = null;
+        }
+        return _value;
+    }
+
+    /**
+     * @return the given value, converted first if it is a LazyValue
+     */
+    public static Object resolve(Object aValue) {
+        return (aValue instanceof LazyValue) ? ((LazyValue) aValue).get() : aValue;
+    }
+
+    /**
+     * @return true if a property of the given type is worth converting lazily
+     * - i.e. it is not a String, which needs no conversion, or a primitive,
+     * which has nowhere to keep the unconverted value.
+     */
+    public static boolean isDeferrable(Class<?> aType) {
+        return (aType != null) && !aType.isPrimitive() && (aType != String.class) && (aType != Object.class);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(get());
+    }
+}
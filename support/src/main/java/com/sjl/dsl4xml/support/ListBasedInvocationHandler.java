@@ -0,0 +1,49 @@
+package com.sjl.dsl4xml.support;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Backs a dynamic proxy of an Iterable interface: methods matching those of
+ * List are delegated to an ArrayList (the most common directly, the rest
+ * reflectively), anything else is treated as a property as for
+ * {@link MapBasedInvocationHandler}.
+ *
+ * @author steve
+ */
+@SuppressWarnings("unchecked")
+class ListBasedInvocationHandler<T> extends MapBasedInvocationHandler {
+
+    private List<T> list = new ArrayList<T>();
+
+    public ListBasedInvocationHandler(PropertyTable aTable) {
+        super(aTable);
+    }
+
+    @Override
+    protected Object invokeOther(ProxyAction anAction, Object[] aArgs) throws Throwable {
+        switch (anAction.kind) {
+            case ProxyAction.LIST_SIZE :
+                return list.size();
+            case ProxyAction.LIST_GET :
+                return list.get((Integer) aArgs[0]);
+            case ProxyAction.LIST_ITERATOR :
+                return list.iterator();
+            case ProxyAction.LIST_ADD :
+                return list.add((T) aArgs[0]);
+            case ProxyAction.LIST :
+                try {
+                    return anAction.target.invoke(list, aArgs);
+                } catch (InvocationTargetException anExc) {
+                    throw anExc.getCause();
+                }
+            default:
+                return super.invokeOther(anAction, aArgs);
+        }
+    }
+
+    public String toString() {
+        return "proxy(" + table.getType().getName() + ")" + list;
+    }
+}
@@ -0,0 +1,105 @@
+package com.sjl.dsl4xml.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Backs a dynamic proxy of an interface, storing each property in the slot
+ * assigned to it by the interface's {@link PropertyTable}.
+ *
+ * @author steve
+ */
+class MapBasedInvocationHandler implements InvocationHandler {
+
+    protected PropertyTable table;
+    protected Object[] values;
+    private Map<String,Object> extras;
+
+    public MapBasedInvocationHandler(PropertyTable aTable) {
+        table = aTable;
+        values = new Object[aTable.size()];
+    }
+
+    @Override
+    public Object invoke(Object aProxy, Method aMethod, Object[] aArgs) throws Throwable {
+        ProxyAction _action = table.getAction(aMethod);
+        switch (_action.kind) {
+            case ProxyAction.GET :
+                return get(_action.slot);
+            case ProxyAction.SET :
+                return put(_action.slot, aArgs[0]);
+            case ProxyAction.NAMED_SET :
+                return put(aArgs[0].toString(), aArgs[1]);
+            case ProxyAction.SLOT_GET :
+                return get((Integer) aArgs[0]);
+            case ProxyAction.SLOT_SET :
+                return put((Integer) aArgs[0], aArgs[1]);
+            case ProxyAction.TO_STRING :
+                return toString();
+            case ProxyAction.HASH_CODE :
+                return hashCode();
+            case ProxyAction.EQUALS :
+                return aProxy == aArgs[0];
+            default:
+                return invokeOther(_action, aArgs);
+        }
+    }
+
+    protected Object invokeOther(ProxyAction anAction, Object[] aArgs) throws Throwable {
+        throw new UnsupportedOperationException(String.valueOf(anAction.target));
+    }
+
+    /**
+     * @return the value of the given slot, converting it first if it was set
+     * lazily. The converted value is not written back to the slot: another
+     * thread reading the slot would not be guaranteed to see it fully
+     * constructed, whereas the LazyValue publishes it safely.
+     */
+    protected Object get(int aSlot) {
+        return LazyValue.resolve(values[aSlot]);
+    }
+
+    protected Object put(int aSlot, Object aValue) {
+        Object _old = values[aSlot];
+        values[aSlot] = aValue;
+        return _old;
+    }
+
+    protected Object put(String aName, Object aValue) {
+        int _slot = table.getSlot(aName);
+        if (_slot >= 0)
+            return put(_slot, aValue);
+
+        // not a property of the interface, but keep it so that it shows up in toString
+        if (extras == null)
+            extras = new HashMap<String,Object>();
+        return extras.put(aName, aValue);
+    }
+
+    protected String describeValues() {
+        StringBuilder _sb = new StringBuilder("{");
+        for (int i=0; i<values.length; i++) {
+            if (values[i] != null) {
+                if (_sb.length() > 1)
+                    _sb.append(", ");
+                String _name = table.getName(i);
+                _sb.append(Character.toLowerCase(_name.charAt(0))).append(_name.substring(1));
+                _sb.append("=").append(get(i));
+            }
+        }
+        if (extras != null) {
+            for (Map.Entry<String,Object> _e : extras.entrySet()) {
+                if (_sb.length() > 1)
+                    _sb.append(", ");
+                _sb.append(_e.getKey()).append("=").append(_e.getValue());
+            }
+        }
+        return _sb.append("}").toString();
+    }
+
+    public String toString() {
+        return "proxy(" + table.getType().getName() + ")" + describeValues();
+    }
+}
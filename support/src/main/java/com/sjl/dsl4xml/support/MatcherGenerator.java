@@ -0,0 +1,105 @@
+package com.sjl.dsl4xml.support;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.sjl.dsl4xml.support.ClassFile.*;
+
+/**
+ * Writes the class-file for a {@link NameMatcher} of a fixed set of names,
+ * whose indexOf switches on the hashCode of the name it is given and then
+ * compares it with the (one, usually) name of that hash, returning its index
+ * as a constant - the code we would write by hand for a fixed set of names,
+ * and much as javac compiles a switch on strings.
+ *
+ * @author steve
+ */
+class MatcherGenerator {
+
+    private static final String SUPER = internalName(NameMatcher.class.getName());
+    private static final String STRING = "java/lang/String";
+
+    static byte[] generate(String[] aNames, String aClassName) {
+        return new MatcherGenerator(aNames, aClassName).toByteArray();
+    }
+
+    private String[] names;
+    private ClassFile file;
+    private ConstantPool pool;
+
+    private MatcherGenerator(String[] aNames, String aClassName) {
+        names = aNames;
+        file = new ClassFile(internalName(aClassName), SUPER);
+        pool = file.getPool();
+    }
+
+    private byte[] toByteArray() {
+        try {
+            addConstructor();
+            addIndexOf();
+            return file.toByteArray();
+        } catch (IOException anExc) {
+            throw new IllegalStateException(anExc); // can't happen - we're writing to memory
+        }
+    }
+
+    private void addConstructor() throws IOException {
+        Code _c = new Code();
+        _c.op(ALOAD_0);
+        _c.op(INVOKESPECIAL).u2(pool.methodRef(SUPER, "<init>", "()V"));
+        _c.op(RETURN);
+        file.addMethod("<init>", "()V", _c, 1, 1);
+    }
+
+    private void addIndexOf() throws IOException {
+        // the index of each distinct name, the first where names repeat, by hash
+        Map<Integer, List<Integer>> _byHash = new LinkedHashMap<Integer, List<Integer>>();
+        List<String> _seen = new ArrayList<String>();
+        for (int i=0; i<names.length; i++) {
+            if ((names[i] == null) || _seen.contains(names[i]))
+                continue;
+            _seen.add(names[i]);
+
+            List<Integer> _indexes = _byHash.get(names[i].hashCode());
+            if (_indexes == null) {
+                _indexes = new ArrayList<Integer>();
+                _byHash.put(names[i].hashCode(), _indexes);
+            }
+            _indexes.add(i);
+        }
+
+        int[] _hashes = new int[_byHash.size()];
+        int _h = 0;
+        for (Integer _hash : _byHash.keySet()) {
+            _hashes[_h++] = _hash;
+        }
+        Arrays.sort(_hashes);
+
+        Code _c = new Code();
+        _c.op(ALOAD_1);
+        _c.op(INVOKEVIRTUAL).u2(pool.methodRef(STRING, "hashCode", "()I"));
+        Switch _s = _c.lookupswitch(_hashes);
+        for (int i=0; i<_hashes.length; i++) {
+            _s.caseAt(i);
+            for (int _index : _byHash.get(_hashes[i])) {
+                _c.op(ALOAD_1);
+                _c.op(LDC_W).u2(pool.string(names[_index]));
+                _c.op(INVOKEVIRTUAL).u2(pool.methodRef(STRING, "equals", "(Ljava/lang/Object;)Z"));
+                int _miss = _c.jump(IFEQ);
+                _c.op(SIPUSH).u2(_index);
+                _c.op(IRETURN);
+                _c.landHere(_miss);
+            }
+            _c.op(ICONST_M1);
+            _c.op(IRETURN);
+        }
+        _s.defaultAt();
+        _c.op(ICONST_M1);
+        _c.op(IRETURN);
+        file.addMethod("indexOf", "(Ljava/lang/String;)I", _c, 2, 2);
+    }
+}
@@ -0,0 +1,83 @@
+package com.sjl.dsl4xml.support;
+
+import com.sjl.dsl4xml.ParsingException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Calls a single-argument mutator method reflectively, boxing any primitive
+ * values it is given.
+ *
+ * This is also the superclass of the mutators we generate (see
+ * {@link Implementations#setGeneratingBindings(boolean)}), which override
+ * the setters the method can accept to call it directly - and fail, through
+ * {@link #mismatched(Object, Object)} and {@link #failed(Object, Throwable)},
+ * exactly as calling it reflectively would.
+ */
+public class MethodMutator implements PrimitiveMutator {
+
+    private Method method;
+
+    public MethodMutator(Method aMethod) {
+        method = aMethod;
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    @Override
+    public void set(Object aTarget, Object aValue) {
+        try {
+            method.invoke(aTarget, aValue);
+        } catch (IllegalAccessException anExc) {
+            throw new ParsingException("Not allowed to invoke " + method.getName() + " on " + aTarget.getClass().getName(), anExc);
+        } catch (InvocationTargetException anExc) {
+            throw new ParsingException("Problem while invoking " + method.getName() + " on " + aTarget.getClass().getName(), anExc);
+        }
+    }
+
+    @Override
+    public void setInt(Object aTarget, int aValue) {
+        set(aTarget, Integer.valueOf(aValue));
+    }
+
+    @Override
+    public void setLong(Object aTarget, long aValue) {
+        set(aTarget, Long.valueOf(aValue));
+    }
+
+    @Override
+    public void setDouble(Object aTarget, double aValue) {
+        set(aTarget, Double.valueOf(aValue));
+    }
+
+    @Override
+    public void setBoolean(Object aTarget, boolean aValue) {
+        set(aTarget, Boolean.valueOf(aValue));
+    }
+
+    /**
+     * @return the exception Method.invoke throws for a target or value of the
+     * wrong type, for a generated mutator whose cast of them failed
+     */
+    protected RuntimeException mismatched(Object aTarget, Object aValue) {
+        return new IllegalArgumentException(method.getDeclaringClass().isInstance(aTarget) ?
+            "argument type mismatch" : "object is not an instance of declaring class");
+    }
+
+    /**
+     * @return what {@link #set(Object, Object)} throws when the method throws
+     * the given exception, for a generated mutator to throw in its place
+     */
+    protected RuntimeException failed(Object aTarget, Throwable aCause) {
+        return new ParsingException("Problem while invoking " + method.getName() + " on " + aTarget.getClass().getName(),
+            new InvocationTargetException(aCause));
+    }
+
+    @Override
+    public String toString() {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
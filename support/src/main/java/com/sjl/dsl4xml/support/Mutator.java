@@ -0,0 +1,12 @@
+package com.sjl.dsl4xml.support;
+
+/**
+ * Sets one property of a target object. Mutators are resolved once, when a
+ * definition is prepared, so that setting a value while parsing is a direct
+ * call rather than a name lookup followed by a reflective invocation.
+ */
+public interface Mutator {
+
+    public void set(Object aTarget, Object aValue);
+
+}
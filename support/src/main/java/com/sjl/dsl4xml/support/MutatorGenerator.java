@@ -0,0 +1,178 @@
+package com.sjl.dsl4xml.support;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static com.sjl.dsl4xml.support.ClassFile.*;
+
+/**
+ * Writes the class-file for a {@link MethodMutator} subclass that calls one
+ * particular mutator method directly. For a method taking a primitive, that's
+ * each of the primitive setters whose values the method accepts without
+ * boxing - e.g. setInt and setLong for a method taking a long. Java's own
+ * widening rules decide which those are, as they decide what Method.invoke
+ * accepts. For a method taking an object, it's set, which casts the value.
+ * Everything else is left to MethodMutator.
+ *
+ * Either way they fail as Method.invoke would: a target or value of the
+ * wrong type with an IllegalArgumentException, and anything the method
+ * throws wrapped as MethodMutator wraps it - the casts and the call are each
+ * covered by an exception handler which asks MethodMutator for the exception
+ * to throw.
+ *
+ * @author steve
+ */
+class MutatorGenerator {
+
+    private static final String SUPER = internalName(MethodMutator.class.getName());
+
+    // the primitive setters of PrimitiveMutator, by the type of value they take
+    private static final Class<?>[] SETTER_TYPES = { Integer.TYPE, Long.TYPE, Double.TYPE, Boolean.TYPE };
+    private static final String[] SETTER_NAMES = { "setInt", "setLong", "setDouble", "setBoolean" };
+
+    /**
+     * @return a reason why no mutator can be generated to call the given
+     * method, or null if one can.
+     */
+    static String whyNot(Method aMethod) {
+        Class<?> _owner = aMethod.getDeclaringClass();
+        if (!Modifier.isPublic(aMethod.getModifiers()) || !Modifier.isPublic(_owner.getModifiers()))
+            return aMethod + " is not accessible";
+        if (Modifier.isStatic(aMethod.getModifiers()) || _owner.isInterface())
+            return aMethod + " is not an instance method of a class";
+        if (_owner.getName().startsWith("java."))
+            return aMethod + " belongs to a core class";
+
+        Class<?>[] _params = aMethod.getParameterTypes();
+        if (_params.length != 1)
+            return aMethod + " does not take a single value";
+
+        Class<?> _type = _params[0];
+        while (_type.isArray()) {
+            _type = _type.getComponentType();
+        }
+        if (!_type.isPrimitive() && !Modifier.isPublic(_type.getModifiers()))
+            return aMethod + " takes a " + _type.getName() + ", which is not accessible";
+        return null;
+    }
+
+    static byte[] generate(Method aMethod, String aClassName) {
+        return new MutatorGenerator(aMethod, aClassName).toByteArray();
+    }
+
+    private Method method;
+    private ClassFile file;
+    private ConstantPool pool;
+
+    private MutatorGenerator(Method aMethod, String aClassName) {
+        method = aMethod;
+        file = new ClassFile(internalName(aClassName), SUPER);
+        pool = file.getPool();
+    }
+
+    private byte[] toByteArray() {
+        try {
+            addConstructor();
+            Class<?> _param = method.getParameterTypes()[0];
+            if (!_param.isPrimitive()) {
+                addSetter(_param);
+                return file.toByteArray();
+            }
+            for (int i=0; i<SETTER_TYPES.length; i++) {
+                int _conversion = getConversion(SETTER_TYPES[i], _param);
+                if (_conversion >= 0)
+                    addSetter(SETTER_NAMES[i], SETTER_TYPES[i], _param, _conversion);
+            }
+            return file.toByteArray();
+        } catch (IOException anExc) {
+            throw new IllegalStateException(anExc); // can't happen - we're writing to memory
+        }
+    }
+
+    private void addConstructor() throws IOException {
+        Code _c = new Code();
+        _c.op(ALOAD_0);
+        _c.op(ALOAD_1);
+        _c.op(INVOKESPECIAL).u2(pool.methodRef(SUPER, "<init>", "(Ljava/lang/reflect/Method;)V"));
+        _c.op(RETURN);
+        file.addMethod("<init>", "(Ljava/lang/reflect/Method;)V", _c, 2, 2);
+    }
+
+    private void addSetter(Class<?> aType) throws IOException {
+        Code _c = new Code();
+        int _casts = _c.position();
+        _c.op(ALOAD_1);
+        _c.op(CHECKCAST).u2(pool.classRef(internalName(method.getDeclaringClass().getName())));
+        _c.op(ALOAD_2);
+        if (aType != Object.class)
+            _c.op(CHECKCAST).u2(pool.classRef(internalName(aType.getName())));
+        invoke(_c, _casts, aType, 3);
+        file.addMethod("set", "(Ljava/lang/Object;Ljava/lang/Object;)V", _c, 3, 4);
+    }
+
+    private void addSetter(String aName, Class<?> aFrom, Class<?> aTo, int aConversion) throws IOException {
+        Code _c = new Code();
+        int _casts = _c.position();
+        _c.op(ALOAD_1);
+        _c.op(CHECKCAST).u2(pool.classRef(internalName(method.getDeclaringClass().getName())));
+        _c.op(loadOp(aFrom)).u1(2);
+        if (aConversion > 0)
+            _c.op(aConversion);
+        invoke(_c, _casts, aTo, 2 + size(aFrom));
+        file.addMethod(aName, "(Ljava/lang/Object;" + descriptor(aFrom) + ")V", _c,
+            Math.max(3, 1 + Math.max(size(aFrom), size(aTo))), 3 + size(aFrom));
+    }
+
+    /**
+     * Writes the call of the method with the target and value on the stack,
+     * and the handlers of the casts since the given position and of the call,
+     * which keep what the call throws in the given local.
+     */
+    private void invoke(Code aCode, int aCasts, Class<?> aType, int aThrown) {
+        int _call = aCode.position();
+        aCode.op(INVOKEVIRTUAL).u2(pool.methodRef(internalName(method.getDeclaringClass().getName()), method.getName(),
+            "(" + descriptor(aType) + ")" + descriptor(method.getReturnType())));
+        int _returned = aCode.position();
+        if (method.getReturnType() != Void.TYPE)
+            aCode.op(size(method.getReturnType()) == 2 ? POP2 : POP);
+        aCode.op(RETURN);
+
+        // throw mismatched(target, value) - or null for primitive values, which can't mismatch
+        aCode.handleHere(aCasts, _call, pool.classRef("java/lang/ClassCastException"));
+        aCode.op(POP);
+        aCode.op(ALOAD_0);
+        aCode.op(ALOAD_1);
+        aCode.op(aType.isPrimitive() ? ACONST_NULL : ALOAD_2);
+        aCode.op(INVOKEVIRTUAL).u2(pool.methodRef(SUPER, "mismatched", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/RuntimeException;"));
+        aCode.op(ATHROW);
+
+        // throw failed(target, thrown)
+        aCode.handleHere(_call, _returned, 0);
+        aCode.op(ASTORE).u1(aThrown);
+        aCode.op(ALOAD_0);
+        aCode.op(ALOAD_1);
+        aCode.op(ALOAD).u1(aThrown);
+        aCode.op(INVOKEVIRTUAL).u2(pool.methodRef(SUPER, "failed", "(Ljava/lang/Object;Ljava/lang/Throwable;)Ljava/lang/RuntimeException;"));
+        aCode.op(ATHROW);
+    }
+
+    /**
+     * @return the instruction that widens a value of one primitive type to
+     * another, 0 if they're the same type, or -1 if Java doesn't widen the
+     * one to the other.
+     */
+    private static int getConversion(Class<?> aFrom, Class<?> aTo) {
+        if (aFrom == aTo)
+            return 0;
+        if (aFrom == Integer.TYPE) {
+            if (aTo == Long.TYPE) return I2L;
+            if (aTo == Float.TYPE) return I2F;
+            if (aTo == Double.TYPE) return I2D;
+        } else if (aFrom == Long.TYPE) {
+            if (aTo == Float.TYPE) return L2F;
+            if (aTo == Double.TYPE) return L2D;
+        }
+        return -1;
+    }
+}
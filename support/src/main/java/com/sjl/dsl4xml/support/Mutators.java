@@ -0,0 +1,219 @@
+package com.sjl.dsl4xml.support;
+
+import com.sjl.dsl4xml.ParsingException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+/**
+ * Binds mutator methods found by reflection to {@link Mutator}s.
+ *
+ * Where the method is one we know about (the magic-set method of our dynamic
+ * proxies, or Collection.add for array intermediates) the returned mutator calls
+ * it directly through its interface, avoiding Method.invoke altogether. Anything
+ * else is invoked reflectively, but with the arity and property name resolved
+ * up front rather than on every call - or, for single-argument methods, through
+ * a generated mutator which calls the method directly, when {@link Implementations}
+ * is generating bindings.
+ */
+public class Mutators {
+
+    public static Mutator newMutator(Method aMethod, String aPropertyName) {
+        Class<?>[] _params = aMethod.getParameterTypes();
+        if (isMagicSet(aMethod, _params)) {
+            return new MagicSetMutator(aPropertyName);
+        } else if (isCollectionAdd(aMethod, _params)) {
+            return COLLECTION_ADD;
+        }
+
+        switch (_params.length) {
+            case 1 :
+                MethodMutator _generated = Implementations.newMutator(aMethod);
+                return (_generated != null) ? _generated : new MethodMutator(aMethod);
+            case 2 :
+                return new NamedMethodMutator(aMethod, aPropertyName);
+            default:
+                throw new NoSuitableMethodException(
+                    "Don't know how to deal with mutator method " + aMethod.getName() +
+                    " of " + aMethod.getDeclaringClass().getName() + " which requires " +
+                    _params.length + " parameters");
+        }
+    }
+
+    /**
+     * @return a mutator which sets the given slot of {@link Slotted} targets
+     * of the given type. Where the type is a generated implementation, which
+     * has a typed setter for every slot, primitives are passed to that setter
+     * rather than boxed for the slot.
+     */
+    public static Mutator newSlotMutator(Class<?> aType, int aSlot, String aPropertyName) {
+        PrimitiveMutator _primitives = null;
+        if (Implementations.isImplementation(aType)) {
+            PropertyTable _table = Implementations.getPropertyTable(aType);
+            if (_table.getType(aSlot).isPrimitive()) {
+                try {
+                    _primitives = Implementations.generateMutator(
+                        aType.getMethod("set" + _table.getName(aSlot), _table.getType(aSlot)));
+                } catch (NoSuchMethodException anExc) {
+                    throw new IllegalStateException(anExc); // we generated it, so it's there
+                }
+            }
+        }
+        return new SlotMutator(aSlot, aPropertyName, _primitives);
+    }
+
+    /**
+     * @return true if the given mutator can be given a {@link LazyValue},
+     * leaving its target to convert it when the property is first read.
+     */
+    public static boolean acceptsLazyValues(Mutator aMutator) {
+        return aMutator instanceof SlotMutator;
+    }
+
+    /**
+     * @return the method the given mutator calls, if it is one that generated
+     * code could call directly in its place, or null
+     */
+    public static Method getDirectMethod(Mutator aMutator) {
+        if (!(aMutator instanceof MethodMutator))
+            return null;
+        Method _method = ((MethodMutator) aMutator).getMethod();
+        return (MutatorGenerator.whyNot(_method) == null) ? _method : null;
+    }
+
+    /**
+     * @return what the given mutator throws when its method (see
+     * {@link #getDirectMethod(Mutator)}) throws the given exception, for
+     * generated code that called the method itself to throw in its place
+     */
+    public static RuntimeException failed(Mutator aMutator, Object aTarget, Throwable aCause) {
+        return ((MethodMutator) aMutator).failed(aTarget, aCause);
+    }
+
+    private static boolean isMagicSet(Method aMethod, Class<?>[] aParams) {
+        return
+            (aParams.length == 2) &&
+            (ReflectorFactory.MAGIC_SET.equals(aMethod.getName())) &&
+            (Mutable.class.isAssignableFrom(aMethod.getDeclaringClass()));
+    }
+
+    private static boolean isCollectionAdd(Method aMethod, Class<?>[] aParams) {
+        return
+            (aParams.length == 1) &&
+            (aParams[0] == Object.class) &&
+            ("add".equals(aMethod.getName())) &&
+            (Collection.class.isAssignableFrom(aMethod.getDeclaringClass()));
+    }
+
+    private static final Mutator COLLECTION_ADD = new Mutator() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public void set(Object aTarget, Object aValue) {
+            ((Collection<Object>) aTarget).add(aValue);
+        }
+
+        @Override
+        public String toString() {
+            return "Collection.add";
+        }
+    };
+
+    private static class MagicSetMutator implements Mutator {
+        private String name;
+
+        public MagicSetMutator(String aName) {
+            name = aName;
+        }
+
+        @Override
+        public void set(Object aTarget, Object aValue) {
+            ((Mutable) aTarget).__magic_set(name, aValue);
+        }
+
+        @Override
+        public String toString() {
+            return ReflectorFactory.MAGIC_SET + "(" + name + ")";
+        }
+    }
+
+    private static class SlotMutator implements PrimitiveMutator {
+        private int slot;
+        private String name;
+        private PrimitiveMutator primitives;
+
+        public SlotMutator(int aSlot, String aName, PrimitiveMutator aPrimitives) {
+            slot = aSlot;
+            name = aName;
+            primitives = aPrimitives;
+        }
+
+        @Override
+        public void set(Object aTarget, Object aValue) {
+            ((Slotted) aTarget).__slot_set(slot, aValue);
+        }
+
+        @Override
+        public void setInt(Object aTarget, int aValue) {
+            if (primitives != null)
+                primitives.setInt(aTarget, aValue);
+            else
+                set(aTarget, Integer.valueOf(aValue));
+        }
+
+        @Override
+        public void setLong(Object aTarget, long aValue) {
+            if (primitives != null)
+                primitives.setLong(aTarget, aValue);
+            else
+                set(aTarget, Long.valueOf(aValue));
+        }
+
+        @Override
+        public void setDouble(Object aTarget, double aValue) {
+            if (primitives != null)
+                primitives.setDouble(aTarget, aValue);
+            else
+                set(aTarget, Double.valueOf(aValue));
+        }
+
+        @Override
+        public void setBoolean(Object aTarget, boolean aValue) {
+            if (primitives != null)
+                primitives.setBoolean(aTarget, aValue);
+            else
+                set(aTarget, Boolean.valueOf(aValue));
+        }
+
+        @Override
+        public String toString() {
+            return "slot" + slot + "(" + name + ")";
+        }
+    }
+
+    private static class NamedMethodMutator implements Mutator {
+        private Method method;
+        private String name;
+
+        public NamedMethodMutator(Method aMethod, String aName) {
+            method = aMethod;
+            name = aName;
+        }
+
+        @Override
+        public void set(Object aTarget, Object aValue) {
+            try {
+                method.invoke(aTarget, name, aValue);
+            } catch (IllegalAccessException anExc) {
+                throw new ParsingException("Not allowed to invoke " + method.getName() + " on " + aTarget.getClass().getName(), anExc);
+            } catch (InvocationTargetException anExc) {
+                throw new ParsingException("Problem while invoking " + method.getName() + " on " + aTarget.getClass().getName(), anExc);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "(" + name + ")";
+        }
+    }
+}
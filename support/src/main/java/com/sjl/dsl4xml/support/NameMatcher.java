@@ -0,0 +1,20 @@
+package com.sjl.dsl4xml.support;
+
+/**
+ * Finds names among those of the definitions nested in another, by their
+ * index. Either a {@link NameTable}, or - when {@link Implementations} is
+ * generating - a class generated to compare the name against each candidate
+ * directly (see {@link Implementations#newNameMatcher(String[])}).
+ *
+ * Safe to share between threads.
+ *
+ * @author steve
+ */
+public abstract class NameMatcher {
+
+    /**
+     * @return the index of the given name, or -1 if it isn't one of ours.
+     */
+    public abstract int indexOf(String aName);
+
+}
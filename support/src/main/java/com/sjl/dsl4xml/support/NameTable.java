@@ -0,0 +1,59 @@
+package com.sjl.dsl4xml.support;
+
+/**
+ * An immutable table of names, each looked up to its index in the array the
+ * table was built from. Built once when a definition is compiled, so that
+ * finding the definition of a name in a document is a probe or two into an
+ * array rather than a scan of every nested definition.
+ *
+ * Safe to share between threads once built.
+ *
+ * @author steve
+ */
+public final class NameTable extends NameMatcher {
+
+    private final String[] keys;
+    private final int[] indexes;
+    private final int mask;
+
+    /**
+     * @param aNames the names to look up, which may include nulls (never
+     * found); where a name appears more than once, the first wins.
+     */
+    public NameTable(String[] aNames) {
+        // at most half full, so that probe sequences stay short
+        int _size = 2;
+        while (_size < aNames.length * 2) {
+            _size <<= 1;
+        }
+        keys = new String[_size];
+        indexes = new int[_size];
+        mask = _size - 1;
+
+        for (int i=0; i<aNames.length; i++) {
+            if (aNames[i] == null)
+                continue;
+
+            int _slot = StringPool.spread(aNames[i].hashCode()) & mask;
+            while ((keys[_slot] != null) && !keys[_slot].equals(aNames[i])) {
+                _slot = (_slot + 1) & mask;
+            }
+            if (keys[_slot] == null) {
+                keys[_slot] = aNames[i];
+                indexes[_slot] = i;
+            }
+        }
+    }
+
+    @Override
+    public int indexOf(String aName) {
+        int _slot = StringPool.spread(aName.hashCode()) & mask;
+        String _key;
+        while ((_key = keys[_slot]) != null) {
+            if ((_key == aName) || _key.equals(aName))
+                return indexes[_slot];
+            _slot = (_slot + 1) & mask;
+        }
+        return -1;
+    }
+}
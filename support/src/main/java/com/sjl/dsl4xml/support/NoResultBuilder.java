@@ -3,7 +3,7 @@ package com.sjl.dsl4xml.support;
 import com.sjl.dsl4xml.Context;
 import com.sjl.dsl4xml.Name;
 
-public class NoResultBuilder<T> implements Builder<T> {
+public class NoResultBuilder<T> implements IndexedBuilder<T> {
     private Name name;
 
     public NoResultBuilder(Name aName) {
@@ -30,6 +30,21 @@ public class NoResultBuilder<T> implements Builder<T> {
         return this;
     }
 
+    @Override
+    public int indexOf(String aName) {
+        return -1;
+    }
+
+    @Override
+    public int getUnnamedIndex() {
+        return -1;
+    }
+
+    @Override
+    public Builder<?> moveDown(int anIndex) {
+        return this;
+    }
+
     @Override
     public void prepare(Context aContext) {
     }
@@ -38,6 +53,47 @@ public class NoResultBuilder<T> implements Builder<T> {
     public void setValue(Context aContext, String aName, Object aValue) {
     }
 
+    @Override
+    public Class<?> getPrimitiveType() {
+        return null;
+    }
+
+    @Override
+    public void setInt(Context aContext, String aName, int aValue) {
+    }
+
+    @Override
+    public void setLong(Context aContext, String aName, long aValue) {
+    }
+
+    @Override
+    public void setDouble(Context aContext, String aName, double aValue) {
+    }
+
+    @Override
+    public void setBoolean(Context aContext, String aName, boolean aValue) {
+    }
+
+    @Override
+    public void setValue(Context aContext, int anIndex, Object aValue) {
+    }
+
+    @Override
+    public void setInt(Context aContext, int anIndex, int aValue) {
+    }
+
+    @Override
+    public void setLong(Context aContext, int anIndex, long aValue) {
+    }
+
+    @Override
+    public void setDouble(Context aContext, int anIndex, double aValue) {
+    }
+
+    @Override
+    public void setBoolean(Context aContext, int anIndex, boolean aValue) {
+    }
+
     @Override
     public T build(Context aContext) {
         return null;
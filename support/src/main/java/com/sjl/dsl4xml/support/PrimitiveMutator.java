@@ -0,0 +1,18 @@
+package com.sjl.dsl4xml.support;
+
+/**
+ * A {@link Mutator} which can also be given primitive values. Where the
+ * mutator method it calls accepts the primitive (or a wider one) the value is
+ * passed straight through; otherwise it is boxed and set as an object.
+ */
+public interface PrimitiveMutator extends Mutator {
+
+    public void setInt(Object aTarget, int aValue);
+
+    public void setLong(Object aTarget, long aValue);
+
+    public void setDouble(Object aTarget, double aValue);
+
+    public void setBoolean(Object aTarget, boolean aValue);
+
+}
@@ -2,16 +2,39 @@ package com.sjl.dsl4xml.support;
 
 import com.sjl.dsl4xml.Context;
 import com.sjl.dsl4xml.Converter;
+import com.sjl.dsl4xml.InterningContext;
 import com.sjl.dsl4xml.Name;
 import com.sjl.dsl4xml.ParsingException;
+import com.sjl.dsl4xml.support.convert.CastingConverter;
+import com.sjl.dsl4xml.support.convert.StringStringConverter;
 
-public class PropertyBuilder<F,T> implements Builder<T> {
+public class PropertyBuilder<F,T> implements IndexedBuilder<T> {
 
     private Name name;
     private Class<? extends T> target;
     private Converter<F,? extends T> converter;
+    private Class<?> primitive;
+    private boolean interned;
+    private boolean lazy;
 
     public PropertyBuilder(Name aName, Class<? extends T> aTarget, Converter<F,? extends T> aConverter) {
+        this(aName, aTarget, aConverter, false);
+    }
+
+    /**
+     * @param anInterned whether to deduplicate String values through the
+     * context's {@link StringPool}, if it is an {@link InterningContext}
+     */
+    public PropertyBuilder(Name aName, Class<? extends T> aTarget, Converter<F,? extends T> aConverter, boolean anInterned) {
+        this(aName, aTarget, aConverter, anInterned, false);
+    }
+
+    /**
+     * @param aLazy whether to build a {@link LazyValue}, leaving the value to
+     * be converted when it is first read, rather than converting it now. Has
+     * no effect for Strings and primitives.
+     */
+    public PropertyBuilder(Name aName, Class<? extends T> aTarget, Converter<F,? extends T> aConverter, boolean anInterned, boolean aLazy) {
         if (aName == null)
             throw new IllegalArgumentException("Must supply a name");
         if (aConverter == null)
@@ -20,6 +43,20 @@ public class PropertyBuilder<F,T> implements Builder<T> {
         name = aName;
         target = aTarget;
         converter = aConverter;
+        interned = anInterned;
+        lazy = aLazy && LazyValue.isDeferrable(aTarget);
+        primitive = getPrimitiveType(aTarget, aConverter);
+    }
+
+    private static Class<?> getPrimitiveType(Class<?> aTarget, Converter<?,?> aConverter) {
+        if (!(aConverter instanceof CastingConverter))
+            return null;
+
+        // only if we'd have built the primitive's wrapper anyway
+        Class<?> _primitive = ((CastingConverter) aConverter).getPrimitiveType();
+        if ((aTarget == _primitive) || (aTarget == ClassFile.box(_primitive)))
+            return _primitive;
+        return null;
     }
 
     @Override
@@ -42,6 +79,21 @@ public class PropertyBuilder<F,T> implements Builder<T> {
         throw new ParsingException("Nothing can be nested in property " + name + " - definition doesn't match document?");
     }
 
+    @Override
+    public int indexOf(String aName) {
+        return -1;
+    }
+
+    @Override
+    public int getUnnamedIndex() {
+        return -1;
+    }
+
+    @Override
+    public Builder<?> moveDown(int anIndex) {
+        return moveDown(name.getName());
+    }
+
     @Override
     public final void prepare(Context aContext) {
         // no-op
@@ -49,11 +101,75 @@ public class PropertyBuilder<F,T> implements Builder<T> {
 
     @Override
     public void setValue(Context aContext, String aName, Object aValue) {
+        if (interned && (aValue instanceof String) && (aContext instanceof InterningContext))
+            aValue = ((InterningContext) aContext).getStringPool().intern((String) aValue);
         aContext.push(aValue);
     }
 
     @Override
+    public Class<?> getPrimitiveType() {
+        return primitive;
+    }
+
+    /**
+     * @return true if the value this builds from a String is that same String
+     * - not converted, interned or deferred - so that a reader may set the
+     * String itself
+     */
+    public boolean passesStringsThrough() {
+        return !interned && !lazy && (converter instanceof StringStringConverter);
+    }
+
+    @Override
+    public void setInt(Context aContext, String aName, int aValue) {
+        setValue(aContext, aName, aValue);
+    }
+
+    @Override
+    public void setLong(Context aContext, String aName, long aValue) {
+        setValue(aContext, aName, aValue);
+    }
+
+    @Override
+    public void setDouble(Context aContext, String aName, double aValue) {
+        setValue(aContext, aName, aValue);
+    }
+
+    @Override
+    public void setBoolean(Context aContext, String aName, boolean aValue) {
+        setValue(aContext, aName, aValue);
+    }
+
+    @Override
+    public void setValue(Context aContext, int anIndex, Object aValue) {
+        setValue(aContext, name.getName(), aValue);
+    }
+
+    @Override
+    public void setInt(Context aContext, int anIndex, int aValue) {
+        setValue(aContext, name.getName(), aValue);
+    }
+
+    @Override
+    public void setLong(Context aContext, int anIndex, long aValue) {
+        setValue(aContext, name.getName(), aValue);
+    }
+
+    @Override
+    public void setDouble(Context aContext, int anIndex, double aValue) {
+        setValue(aContext, name.getName(), aValue);
+    }
+
+    @Override
+    public void setBoolean(Context aContext, int anIndex, boolean aValue) {
+        setValue(aContext, name.getName(), aValue);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
     public T build(Context aContext) {
+        if (lazy)
+            return (T) new LazyValue(converter, aContext.pop()); // resolved by the parent's mutator if it can't defer
 
         return converter.convert((F)aContext.pop());
     }
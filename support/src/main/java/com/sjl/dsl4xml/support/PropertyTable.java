@@ -0,0 +1,248 @@
+package com.sjl.dsl4xml.support;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * The properties of an interface that dsl4xml implements on the fly, each
+ * assigned a fixed slot.
+ *
+ * A property is named after the accessor or mutator that refers to it, from
+ * the first upper-case letter onwards ("getFirstName" and "setFirstName" both
+ * refer to "FirstName"; a method without an upper-case letter, like "first()",
+ * refers to "First"). Slots are assigned in property-name order, so the same
+ * interface always yields the same slots.
+ *
+ * @author steve
+ */
+public final class PropertyTable {
+
+    private Class<?> type;
+    private boolean listBased;
+    private String[] names;
+    private Class<?>[] types;
+    private Map<String,Integer> slots;
+    private Map<Method,Integer> accessors;
+    private Map<Method,Integer> mutators;
+    private volatile Map<Method,ProxyAction> actions;
+    private List<Method> inherited;
+    private List<Method> unsupported;
+    private boolean consistent;
+
+    public PropertyTable(Class<?> anInterface) {
+        if (!anInterface.isInterface())
+            throw new IllegalArgumentException(anInterface.getName() + " is not an interface");
+
+        type = anInterface;
+        listBased = Iterable.class.isAssignableFrom(anInterface);
+        accessors = new HashMap<Method,Integer>();
+        mutators = new HashMap<Method,Integer>();
+        inherited = new ArrayList<Method>();
+        unsupported = new ArrayList<Method>();
+        consistent = true;
+
+        SortedMap<String,Class<?>> _properties = new TreeMap<String,Class<?>>();
+        Map<Method,String> _accessors = new HashMap<Method,String>();
+        Map<Method,String> _mutators = new HashMap<Method,String>();
+        for (Method _m : anInterface.getMethods()) {
+            if (!Modifier.isAbstract(_m.getModifiers()) || isInherited(_m)) {
+                inherited.add(_m);
+                continue;
+            }
+
+            Class<?>[] _params = _m.getParameterTypes();
+            if ((_params.length == 0) && (_m.getReturnType() != Void.TYPE)) {
+                String _name = getPropertyName(_m.getName());
+                _accessors.put(_m, _name);
+                // accessors decide the type of a property, mutators only fill gaps
+                Class<?> _existing = _properties.put(_name, _m.getReturnType());
+                if ((_existing != null) && (_existing != _m.getReturnType()) && isAccessorType(_existing, _name, _accessors))
+                    consistent = false;
+            } else if (_params.length == 1) {
+                String _name = getPropertyName(_m.getName());
+                _mutators.put(_m, _name);
+                if (!_properties.containsKey(_name))
+                    _properties.put(_name, _params[0]);
+            } else {
+                unsupported.add(_m);
+            }
+        }
+
+        actions = new IdentityHashMap<Method,ProxyAction>();
+        names = new String[_properties.size()];
+        types = new Class<?>[_properties.size()];
+        slots = new HashMap<String,Integer>();
+        int _slot = 0;
+        for (Map.Entry<String,Class<?>> _e : _properties.entrySet()) {
+            names[_slot] = _e.getKey();
+            types[_slot] = _e.getValue();
+            slots.put(_e.getKey(), _slot);
+            _slot++;
+        }
+
+        for (Map.Entry<Method,String> _e : _accessors.entrySet()) {
+            accessors.put(_e.getKey(), slots.get(_e.getValue()));
+        }
+        for (Map.Entry<Method,String> _e : _mutators.entrySet()) {
+            int _s = slots.get(_e.getValue());
+            mutators.put(_e.getKey(), _s);
+            if (_e.getKey().getParameterTypes()[0] != types[_s])
+                consistent = false;
+        }
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return true if the interface is an Iterable, in which case its
+     * implementations are also Lists.
+     */
+    public boolean isListBased() {
+        return listBased;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int aSlot) {
+        return names[aSlot];
+    }
+
+    public Class<?> getType(int aSlot) {
+        return types[aSlot];
+    }
+
+    /**
+     * @param aName a property name as used in a document definition, e.g.
+     * "firstName" or "first-name".
+     * @return the slot of the named property, or -1 if the interface has no
+     * such property.
+     */
+    public int getSlot(String aName) {
+        Integer _slot = slots.get(ReflectorFactory.removeHyphensAndUpperCaseFirstLetters(aName));
+        return (_slot == null) ? -1 : _slot;
+    }
+
+    /**
+     * @return the slot read by the given method, or -1 if it is not an accessor.
+     */
+    public int getAccessorSlot(Method aMethod) {
+        Integer _slot = accessors.get(aMethod);
+        return (_slot == null) ? -1 : _slot;
+    }
+
+    /**
+     * @return the slot written by the given method, or -1 if it is not a mutator.
+     */
+    public int getMutatorSlot(Method aMethod) {
+        Integer _slot = mutators.get(aMethod);
+        return (_slot == null) ? -1 : _slot;
+    }
+
+    /**
+     * @return what a proxy of this interface should do when the given method
+     * is invoked.
+     *
+     * Proxies always pass the same Method instances to their invocation
+     * handlers, so after the first call for each method this is an identity
+     * lookup.
+     */
+    ProxyAction getAction(Method aMethod) {
+        ProxyAction _action = actions.get(aMethod);
+        if (_action == null) {
+            _action = ProxyAction.resolve(this, aMethod);
+            synchronized(this) {
+                Map<Method,ProxyAction> _actions = new IdentityHashMap<Method,ProxyAction>(actions);
+                _actions.put(aMethod, _action);
+                actions = _actions;
+            }
+        }
+        return _action;
+    }
+
+    public Set<Method> getAccessors() {
+        return Collections.unmodifiableSet(accessors.keySet());
+    }
+
+    public Set<Method> getMutators() {
+        return Collections.unmodifiableSet(mutators.keySet());
+    }
+
+    /**
+     * @return methods that are not accessors or mutators, but are implemented
+     * anyway - by Object, or for list-based interfaces by List.
+     */
+    public List<Method> getInherited() {
+        return Collections.unmodifiableList(inherited);
+    }
+
+    /**
+     * @return methods we can't implement as property accessors or mutators
+     * (e.g. those with more than one parameter).
+     */
+    public List<Method> getUnsupported() {
+        return Collections.unmodifiableList(unsupported);
+    }
+
+    /**
+     * @return true if every accessor and mutator of each property agrees on its type.
+     */
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder _sb = new StringBuilder(type.getName()).append("[");
+        for (int i=0; i<names.length; i++) {
+            if (i > 0)
+                _sb.append(", ");
+            _sb.append(i).append(":").append(names[i]).append("(").append(types[i].getSimpleName()).append(")");
+        }
+        return _sb.append("]").toString();
+    }
+
+    static String getPropertyName(String aMethodName) {
+        for (int i=0; i<aMethodName.length(); i++) {
+            if (Character.isUpperCase(aMethodName.charAt(i)))
+                return aMethodName.substring(i);
+        }
+        return ReflectorFactory.removeHyphensAndUpperCaseFirstLetters(aMethodName);
+    }
+
+    /**
+     * @return the List method with the same name and parameters as the given
+     * method, or null if there isn't one.
+     */
+    static Method getListMethod(Method aMethod) {
+        try {
+            return List.class.getMethod(aMethod.getName(), aMethod.getParameterTypes());
+        } catch (NoSuchMethodException anExc) {
+            return null;
+        }
+    }
+
+    private boolean isInherited(Method aMethod) {
+        if (listBased && (getListMethod(aMethod) != null))
+            return true;
+
+        try {
+            Object.class.getMethod(aMethod.getName(), aMethod.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException anExc) {
+            return false;
+        }
+    }
+
+    private boolean isAccessorType(Class<?> aType, String aName, Map<Method,String> anAccessors) {
+        for (Map.Entry<Method,String> _e : anAccessors.entrySet()) {
+            if (aName.equals(_e.getValue()) && (_e.getKey().getReturnType() == aType))
+                return true;
+        }
+        return false;
+    }
+}
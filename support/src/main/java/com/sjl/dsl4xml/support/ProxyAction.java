@@ -0,0 +1,97 @@
+package com.sjl.dsl4xml.support;
+
+import java.lang.reflect.Method;
+
+/**
+ * What a dynamic proxy does when one of its methods is invoked. Resolved once
+ * per method and interface (see {@link PropertyTable#getAction(Method)}), so
+ * that invocation handlers can switch on the kind of action rather than
+ * inspecting the method every time.
+ *
+ * @author steve
+ */
+final class ProxyAction {
+
+    static final int GET = 0;
+    static final int SET = 1;
+    static final int NAMED_SET = 2;
+    static final int SLOT_GET = 3;
+    static final int SLOT_SET = 4;
+    static final int TO_STRING = 5;
+    static final int HASH_CODE = 6;
+    static final int EQUALS = 7;
+    static final int LIST = 8;
+    static final int LIST_SIZE = 9;
+    static final int LIST_GET = 10;
+    static final int LIST_ITERATOR = 11;
+    static final int LIST_ADD = 12;
+    static final int UNSUPPORTED = 13;
+
+    final int kind;
+    final int slot;
+    final Method target;
+
+    private ProxyAction(int aKind, int aSlot, Method aTarget) {
+        kind = aKind;
+        slot = aSlot;
+        target = aTarget;
+    }
+
+    static ProxyAction resolve(PropertyTable aTable, Method aMethod) {
+        String _name = aMethod.getName();
+        Class<?>[] _params = aMethod.getParameterTypes();
+        Class<?> _declarer = aMethod.getDeclaringClass();
+
+        if ("toString".equals(_name) && (_params.length == 0)) {
+            return new ProxyAction(TO_STRING, -1, null);
+        } else if ("hashCode".equals(_name) && (_params.length == 0)) {
+            return new ProxyAction(HASH_CODE, -1, null);
+        } else if ("equals".equals(_name) && (_params.length == 1) && (_params[0] == Object.class)) {
+            return new ProxyAction(EQUALS, -1, null);
+        } else if (_declarer == Slotted.class) {
+            return new ProxyAction((_params.length == 2) ? SLOT_SET : SLOT_GET, -1, null);
+        } else if (_declarer == Mutable.class) {
+            return new ProxyAction(NAMED_SET, -1, null);
+        }
+
+        if (aTable.isListBased()) {
+            Method _listMethod = PropertyTable.getListMethod(aMethod);
+            if (_listMethod != null)
+                return newListAction(_listMethod);
+        }
+
+        int _slot = aTable.getAccessorSlot(aMethod);
+        if (_slot >= 0)
+            return new ProxyAction(GET, _slot, null);
+
+        _slot = aTable.getMutatorSlot(aMethod);
+        if (_slot >= 0)
+            return new ProxyAction(SET, _slot, null);
+
+        if (_params.length == 2)
+            return new ProxyAction(NAMED_SET, -1, null);
+
+        return new ProxyAction(UNSUPPORTED, -1, aMethod);
+    }
+
+    private static ProxyAction newListAction(Method aListMethod) {
+        String _name = aListMethod.getName();
+        Class<?>[] _params = aListMethod.getParameterTypes();
+        if ("size".equals(_name)) {
+            return new ProxyAction(LIST_SIZE, -1, aListMethod);
+        } else if ("iterator".equals(_name)) {
+            return new ProxyAction(LIST_ITERATOR, -1, aListMethod);
+        } else if ("get".equals(_name) && (_params[0] == Integer.TYPE)) {
+            return new ProxyAction(LIST_GET, -1, aListMethod);
+        } else if ("add".equals(_name) && (_params.length == 1)) {
+            return new ProxyAction(LIST_ADD, -1, aListMethod);
+        } else {
+            return new ProxyAction(LIST, -1, aListMethod);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return kind + ((slot >= 0) ? "(" + slot + ")" : "") + ((target != null) ? target.getName() : "");
+    }
+}
@@ -5,23 +5,34 @@ import com.sjl.dsl4xml.Converter;
 import com.sjl.dsl4xml.Name;
 import com.sjl.dsl4xml.ParsingException;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
+/**
+ * Builds an object (or array) from its nested definitions. Everything it
+ * needs is resolved when it is constructed - the builder and mutator of each
+ * nested name, found through a {@link NameMatcher}, and how to instantiate the
+ * target - and never changes after, so a builder (and the tree beneath it)
+ * can be shared by any number of readers and threads. See
+ * {@link CompiledDefinition}.
+ */
 // TODO - extract to dsl4 support
-public class ReflectiveBuilder<T> implements Builder<T> {
+public class ReflectiveBuilder<T> implements IndexedBuilder<T> {
 
-    private Name name;
-    private Class<T> target;
-    private Class<?> intermediate;
-    private Converter<Object,T> converter;
-    private Reflector reflector;
-    private List<Builder<?>> nested;
-    private Map<String,String> aliases;
-    private boolean array;
+    private final Name name;
+    private final Class<T> target;
+    private final Class<?> intermediate;
+    private final Converter<Object,T> converter;
+    private final Reflector reflector;
+    private final Instantiator<?> instantiator;
+    private final Builder<?>[] nested;
+    private final Mutator[] mutators;
+    private final String[] aliases;
+    private final NameMatcher names;
+    private final Builder<?> unnamed;
+    private final int unnamedIndex;
+    private final boolean array;
 
     public ReflectiveBuilder(
             Name aName, Class<T> aTarget, Class<?> anIntermediate, Converter<Object,T> aConverter,
@@ -38,15 +49,49 @@ public class ReflectiveBuilder<T> implements Builder<T> {
         intermediate = (anIntermediate == null) ? aTarget : anIntermediate;
         converter = aConverter;
         reflector = aReflector;
-        nested = aNested;
+        instantiator = Instantiator.of(intermediate);
         array = anIsArray;
 
-        if (nested != null)
-        {
-            aliases = new HashMap<String,String>();
-            for (Builder<?> _b : nested)
-                aliases.put(_b.getName().getName(), _b.getName().getAlias());
+        // resolve each nested name to its builder and mutator once, rather
+        // than scanning the nested builders and looking up the alias and then
+        // the mutator for every value
+        nested = (aNested == null) ? new Builder<?>[0] : aNested.toArray(new Builder<?>[aNested.size()]);
+        mutators = new Mutator[nested.length];
+        aliases = new String[nested.length];
+        String[] _names = new String[nested.length];
+        for (int i=0; i<nested.length; i++) {
+            _names[i] = nested[i].getName().getName();
+            String _propertyName = nested[i].getName().getAlias();
+            if ((_propertyName == null) || ("".equals(_propertyName))) _propertyName = _names[i];
+            aliases[i] = _propertyName;
+            mutators[i] = reflector.getMutator(_propertyName);
         }
+        names = Implementations.newNameMatcher(_names);
+        unnamedIndex = names.indexOf("");
+        unnamed = ((nested.length == 1) && nested[0].getName().equals(Name.MISSING)) ? nested[0] : null;
+    }
+
+    /**
+     * @return the builders of the definitions nested in this one
+     */
+    public List<Builder<?>> getNested() {
+        return Collections.unmodifiableList(Arrays.asList(nested));
+    }
+
+    /**
+     * @return the class of the objects this creates to set values to - the
+     * intermediate, or for an interface the class standing in for it
+     */
+    public Class<?> getInstanceType() {
+        return instantiator.getType();
+    }
+
+    /**
+     * @return true if what this builds is converted from the object the
+     * values were set to, rather than being that object
+     */
+    public boolean hasConverter() {
+        return converter != null;
     }
 
     @Override
@@ -66,60 +111,166 @@ public class ReflectiveBuilder<T> implements Builder<T> {
 
     @Override
     public Builder<?> moveDown(String aName) {
-        for (Builder<?> _b : nested) {
-            if ((aName.equals(_b.getName().getName())) ||
-                (_b.getName().equals(Name.MISSING) && nested.size()==1)) {
-                return _b;
-            }
-        }
-        return null;
+        return moveDown(names.indexOf(aName));
+    }
+
+    @Override
+    public int indexOf(String aName) {
+        return names.indexOf(aName);
+    }
+
+    @Override
+    public int getUnnamedIndex() {
+        return unnamedIndex;
+    }
+
+    @Override
+    public Builder<?> moveDown(int anIndex) {
+        return (anIndex >= 0) ? nested[anIndex] : unnamed;
     }
 
     @Override
     public void prepare(Context aContext) {
-        aContext.push(reflector.newInstance(intermediate));
+        aContext.push(instantiator.newInstance());
     }
 
     @Override
     public void setValue(Context aContext, String aName, Object aValue) {
-        String _propertyName = aliases.get(aName);
-        if ((_propertyName == null) || ("".equals(_propertyName))) _propertyName = aName;
-        Method _m = reflector.getMutator(intermediate, _propertyName, aValue);
-        if (_m == null)
-            throw new IllegalStateException(
-                "No mutator method found for '" + _propertyName + "' of type " +
-                aValue.getClass().getName() + " in target " + intermediate);
-
-//        if (!_m.getDeclaringClass().equals(intermediate))
-//        {
-//            throw new IllegalArgumentException(
-//                "cannot invoke " + _m.getName() + " on " + intermediate.getName() + " - it is not the declaring class!");
-//        }
-
-        try {
-            T _ctx = aContext.peek();
-            if (intermediate.isAssignableFrom(_ctx.getClass())) {
-                switch (_m.getParameterTypes().length) {
-                    case 1 :
-                        _m.invoke(aContext.peek(), aValue);
-                        break;
-                    case 2 :
-                        _m.invoke(aContext.peek(), _propertyName, aValue);
-                        break;
-                    default:
-                        throw new NoSuitableMethodException(
-                            "Don't know how to deal with mutator method " + _m.getName() +
-                            " of " + aContext.getClass().getName() + " which requires " +
-                            _m.getParameterTypes().length + " parameters");
-                }
-            } else {
-                throw new ParsingException("Expected " + _propertyName + " to be a " + intermediate.getName() + " but got a " + _ctx.getClass().getName());
-            }
-        } catch (IllegalAccessException anExc) {
-            throw new ParsingException("Not allowed to invoke " + _m.getName() + " on " + intermediate.getName(), anExc);
-        } catch (InvocationTargetException anExc) {
-            throw new ParsingException("Problem while invoking " + _m.getName() + " on " + intermediate.getName(), anExc);
-        }
+        set(getMutator(aName), aContext, aName, aValue);
+    }
+
+    @Override
+    public Class<?> getPrimitiveType() {
+        return null;
+    }
+
+    @Override
+    public void setInt(Context aContext, String aName, int aValue) {
+        setInt(getMutator(aName), aContext, aName, aValue);
+    }
+
+    @Override
+    public void setLong(Context aContext, String aName, long aValue) {
+        setLong(getMutator(aName), aContext, aName, aValue);
+    }
+
+    @Override
+    public void setDouble(Context aContext, String aName, double aValue) {
+        setDouble(getMutator(aName), aContext, aName, aValue);
+    }
+
+    @Override
+    public void setBoolean(Context aContext, String aName, boolean aValue) {
+        setBoolean(getMutator(aName), aContext, aName, aValue);
+    }
+
+    /**
+     * set a value to the nested definition at the given index of
+     * {@link #getNested()}, for parsers which have already resolved the name
+     * to its index and needn't look it up again
+     */
+    @Override
+    public void setValue(Context aContext, int aNested, Object aValue) {
+        set(getMutator(aNested), aContext, getNestedName(aNested), aValue);
+    }
+
+    @Override
+    public void setInt(Context aContext, int aNested, int aValue) {
+        setInt(getMutator(aNested), aContext, getNestedName(aNested), aValue);
+    }
+
+    @Override
+    public void setLong(Context aContext, int aNested, long aValue) {
+        setLong(getMutator(aNested), aContext, getNestedName(aNested), aValue);
+    }
+
+    @Override
+    public void setDouble(Context aContext, int aNested, double aValue) {
+        setDouble(getMutator(aNested), aContext, getNestedName(aNested), aValue);
+    }
+
+    @Override
+    public void setBoolean(Context aContext, int aNested, boolean aValue) {
+        setBoolean(getMutator(aNested), aContext, getNestedName(aNested), aValue);
+    }
+
+    private void set(Mutator aMutator, Context aContext, String aName, Object aValue) {
+        if (aMutator == null)
+            throw noMutator(aName, aValue.getClass());
+        if ((aValue instanceof LazyValue) && !Mutators.acceptsLazyValues(aMutator))
+            aValue = ((LazyValue) aValue).get();
+        aMutator.set(getTarget(aContext, aName), aValue);
+    }
+
+    private void setInt(Mutator aMutator, Context aContext, String aName, int aValue) {
+        if (aMutator == null)
+            throw noMutator(aName, Integer.TYPE);
+        if (aMutator instanceof PrimitiveMutator)
+            ((PrimitiveMutator) aMutator).setInt(getTarget(aContext, aName), aValue);
+        else
+            aMutator.set(getTarget(aContext, aName), aValue);
+    }
+
+    private void setLong(Mutator aMutator, Context aContext, String aName, long aValue) {
+        if (aMutator == null)
+            throw noMutator(aName, Long.TYPE);
+        if (aMutator instanceof PrimitiveMutator)
+            ((PrimitiveMutator) aMutator).setLong(getTarget(aContext, aName), aValue);
+        else
+            aMutator.set(getTarget(aContext, aName), aValue);
+    }
+
+    private void setDouble(Mutator aMutator, Context aContext, String aName, double aValue) {
+        if (aMutator == null)
+            throw noMutator(aName, Double.TYPE);
+        if (aMutator instanceof PrimitiveMutator)
+            ((PrimitiveMutator) aMutator).setDouble(getTarget(aContext, aName), aValue);
+        else
+            aMutator.set(getTarget(aContext, aName), aValue);
+    }
+
+    private void setBoolean(Mutator aMutator, Context aContext, String aName, boolean aValue) {
+        if (aMutator == null)
+            throw noMutator(aName, Boolean.TYPE);
+        if (aMutator instanceof PrimitiveMutator)
+            ((PrimitiveMutator) aMutator).setBoolean(getTarget(aContext, aName), aValue);
+        else
+            aMutator.set(getTarget(aContext, aName), aValue);
+    }
+
+    /**
+     * @return the mutator of the nested definition at the given index of
+     * {@link #getNested()}, or null if the target has none
+     */
+    // mutators are prepared by alias, so are looked up by alias, as when
+    // they were bound to the nested names
+    public Mutator getMutator(int aNested) {
+        Mutator _m = mutators[aNested];
+        return (_m == null) ? reflector.getMutator(aliases[aNested]) : _m;
+    }
+
+    private String getNestedName(int aNested) {
+        return nested[aNested].getName().getName();
+    }
+
+    private Mutator getMutator(String aName) {
+        int i = names.indexOf(aName);
+        if (i >= 0)
+            return getMutator(i);
+        return reflector.getMutator(aName);
+    }
+
+    private IllegalStateException noMutator(String aName, Class<?> aType) {
+        return new IllegalStateException(
+            "No mutator method found for '" + aName + "' of type " +
+            aType.getName() + " in target " + intermediate);
+    }
+
+    private Object getTarget(Context aContext, String aName) {
+        Object _ctx = aContext.peek();
+        if (!intermediate.isAssignableFrom(_ctx.getClass()))
+            throw new ParsingException("Expected " + aName + " to be a " + intermediate.getName() + " but got a " + _ctx.getClass().getName());
+        return _ctx;
     }
 
     @Override
@@ -1,11 +1,13 @@
 package com.sjl.dsl4xml.support;
 
-import java.lang.reflect.Method;
-
 public interface Reflector {
 
     public <T> T newInstance(Class<T> aType);
 
-    public Method getMutator(Class<?> aClass, String aName, Object aValue);
+    /**
+     * @return the mutator prepared for the named property, or null if
+     * no mutator was prepared for that name.
+     */
+    public Mutator getMutator(String aName);
 
 }
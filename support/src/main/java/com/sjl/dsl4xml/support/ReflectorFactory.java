@@ -1,12 +1,8 @@
 package com.sjl.dsl4xml.support;
 
 import com.sjl.dsl4xml.Name;
-import com.sjl.dsl4xml.ParsingException;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.util.*;
 
 public class ReflectorFactory {
@@ -17,51 +13,61 @@ public class ReflectorFactory {
     public static final String[] MUTATOR_PREFIXES = {"add", "set", "insert", "put", MAGIC_SET};
 
     private Object lock;
-    private Map<String,Method> cache;
+    private Map<String,Mutator> cache;
 
     public ReflectorFactory() {
         lock = new Object();
-        cache = new HashMap<String,Method>();
+        cache = new HashMap<String,Mutator>();
     }
 
     // TODO: separate Reflector from ReflectorFactory - the interfaces are different!
     public Reflector newReflector()
     {
-        final Map<String,Method> methods = new HashMap<String,Method>(cache);
+        final Map<String,Mutator> mutators = new HashMap<String,Mutator>(cache);
 
         return new Reflector()
         {
+            // each type's instantiator, resolved the first time it is asked
+            // for and replaced copy-on-write, so that creating objects takes
+            // no locks
+            private volatile Map<Class<?>,Instantiator<?>> instantiators = new HashMap<Class<?>,Instantiator<?>>();
+
             @Override
+            @SuppressWarnings("unchecked")
             public <T> T newInstance(Class<T> aType) {
-                try {
-                    if (aType.isInterface()) {
-                        return newDynamicProxy(aType);
-                    } else {
-                        return aType.newInstance();
-                    }
-                } catch (Exception anExc) {
-                    throw new ParsingException(anExc);
+                Instantiator<T> _i = (Instantiator<T>) instantiators.get(aType);
+                if (_i == null) {
+                    _i = Instantiator.of(aType);
+                    Map<Class<?>,Instantiator<?>> _new = new HashMap<Class<?>,Instantiator<?>>(instantiators);
+                    _new.put(aType, _i);
+                    instantiators = _new;
                 }
+                return _i.newInstance();
             }
 
             @Override
-            public Method getMutator(Class<?> aClass, String aName, Object aValue) {
-                return methods.get(aName);
+            public Mutator getMutator(String aName) {
+                return mutators.get(aName);
             }
         };
     }
 
     public boolean prepare(Class<?> aClass, Name aName, Class<?> aValueType) {
-        Method _m = cache.get(aName.getAlias());
+        Mutator _m = cache.get(aName.getAlias());
         if (_m == null) {
             synchronized(lock) {
                 _m = cache.get(aName.getAlias());
                 // doesn't actually matter that DCL is broken, as worst case
-                // we replace the cached method with the same method
+                // we replace the cached mutator with an equivalent mutator
                 if (_m == null) {
-                    _m = getMutatorMethod(aClass, aName); // TODO: use the value for disambiguation?
+                    _m = getSlotMutator(aClass, aName);
+                    if (_m == null) {
+                        Method _method = getMutatorMethod(aClass, aName); // TODO: use the value for disambiguation?
+                        if (_method != null)
+                            _m = Mutators.newMutator(_method, aName.getAlias());
+                    }
                     if (_m != null) {
-                        Map<String,Method> _newCache = new HashMap<String,Method>(cache);
+                        Map<String,Mutator> _newCache = new HashMap<String,Mutator>(cache);
                         _newCache.put(aName.getAlias(), _m);
                         cache = _newCache;
                     }
@@ -71,12 +77,18 @@ public class ReflectorFactory {
         return _m != null;
     }
 
+    private Mutator getSlotMutator(Class<?> aClass, Name aName) {
+        if (Slotted.class.isAssignableFrom(aClass)) {
+            int _slot = Implementations.getPropertyTable(aClass).getSlot(aName.getAlias());
+            if (_slot >= 0)
+                return Mutators.newSlotMutator(aClass, _slot, aName.getAlias());
+        }
+        return null;
+    }
+
     public static <T> Class<T> maybeConvertToProxy(Class<T> aClass) {
         if (aClass.isInterface()) {
-            return (Class<T>)Proxy.getProxyClass(
-                Classes.class.getClassLoader(),
-                new Class<?>[]{ aClass, Mutable.class }
-            );
+            return Implementations.getImplementationClass(aClass);
         } else {
             return aClass;
         }
@@ -138,7 +150,7 @@ public class ReflectorFactory {
         return getMethod(aContextClass, _names, true);
     }
 
-    private static String removeHyphensAndUpperCaseFirstLetters(String aString) {
+    static String removeHyphensAndUpperCaseFirstLetters(String aString) {
         if (aString == null || "".equals(aString))
             return "";
 
@@ -192,144 +204,4 @@ public class ReflectorFactory {
     private static String asString(Class<?> aClass, Class<?>... aClasses) {
         return aClass.getName() + Arrays.asList(aClasses).toString();
     }
-
-    private static <T> T newDynamicProxy(Class<T> aClass) {
-        if (Iterable.class.isAssignableFrom(aClass)) {
-            return newListBasedProxy(aClass);
-        } else {
-            return newMapBasedProxy(aClass);
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private static <T> T newListBasedProxy(final Class<T> aClass) {
-        return (T) Proxy.newProxyInstance(
-            Classes.class.getClassLoader(),
-            new Class<?>[]{aClass, Mutable.class},
-            new ListBasedInvocationHandler<T>(aClass)
-        );
-    }
-
-    @SuppressWarnings("unchecked")
-    private static <T> T newMapBasedProxy(final Class<T> aClass) {
-        return (T) Proxy.newProxyInstance(
-            Classes.class.getClassLoader(),
-            new Class<?>[]{ aClass, Mutable.class },
-            new MapBasedInvocationHandler(aClass)
-        );
-    }
-
-    private static class MapBasedInvocationHandler implements InvocationHandler {
-
-        private Map<String, Object> map = new HashMap<String, Object>();
-        private Class<?> clz;
-
-        public MapBasedInvocationHandler(Class<?> aClass) {
-            clz = aClass;
-        }
-
-        @Override
-        public Object invoke(Object aProxy, Method aMethod, Object[] aArgs) throws Throwable {
-            if ("toString".equals(aMethod.getName())) {
-                return toString();
-            } else if ("hashCode".equals(aMethod.getName())) {
-                return hashCode();
-            } else if ("equals".equals(aMethod.getName())) {
-                return equals(aArgs[0]);
-            } else if (isMutator(aMethod)) {
-                if (aArgs.length == 2) {
-                    return map.put(aArgs[0].toString(), aArgs[1]);
-                } else {
-                    return map.put(getSuffix(aMethod.getName()), aArgs[0]);
-                }
-            } else {
-                return map.get(getSuffix(aMethod.getName()));
-            }
-        }
-
-        private boolean isMutator(Method aMethod) {
-            return (aMethod.getParameterTypes().length > 0);
-        }
-
-        // TODO: cache?
-        private String getSuffix(String aMethodName) {
-            int _indexOfFirstUpperCase = indexOfUpperCase(aMethodName);
-            if (_indexOfFirstUpperCase < 0)
-                return aMethodName;
-
-            return aMethodName.substring(
-                _indexOfFirstUpperCase, _indexOfFirstUpperCase+1).toLowerCase() +
-                aMethodName.substring(_indexOfFirstUpperCase+1);
-        }
-
-        private int indexOfUpperCase(String aMethodName) {
-            for (int i=0; i<aMethodName.length(); i++) {
-                if (Character.isUpperCase(aMethodName.charAt(i)))
-                    return i;
-            }
-            return -1;
-        }
-
-        public String toString() {
-            return "proxy(" + clz.getName() + ")" + map;
-        }
-    }
-
-    private static class ListBasedInvocationHandler<T> implements InvocationHandler {
-
-        private Map<String, Object> map = new HashMap<String, Object>();
-        private List<T> list = new ArrayList<T>();
-        private Class<?> clz;
-
-        public ListBasedInvocationHandler(Class<?> aClass) {
-            clz = aClass;
-        }
-
-        @Override
-        public Object invoke(Object aProxy, Method aMethod, Object[] aArgs) throws Throwable {
-            try {
-                if ("toString".equals(aMethod.getName())) {
-                    return toString();
-                } else if ("hashCode".equals(aMethod.getName())) {
-                    return hashCode();
-                } else if ("equals".equals(aMethod.getName())) {
-                    return equals(aArgs[0]);
-                } else {
-                    if (isMethodOf(List.class, aMethod)) {
-                        return aMethod.invoke(list, aArgs);
-                    } else {
-                        if (isMutator(aMethod)) {
-                            if (aArgs.length == 2) {
-                                return map.put(aArgs[0].toString(), aArgs[1]);
-                            } else {
-                                return map.put(getSuffix(aMethod.getName()), aArgs[0]);
-                            }
-                        } else {
-                            return map.get(getSuffix(aMethod.getName()));
-                        }
-                    }
-                }
-            } catch (InvocationTargetException anExc) {
-                throw anExc.getCause();
-            } catch (IllegalAccessException anExc) {
-                throw anExc;
-            }
-        }
-
-        private boolean isMethodOf(Class<?> aClass, Method aMethod) {
-            return aMethod.getDeclaringClass().isAssignableFrom(aClass);
-        }
-
-        private boolean isMutator(Method aMethod) {
-            return (aMethod.getParameterTypes().length > 0);
-        }
-
-        private String getSuffix(String aMethodName) {
-            return aMethodName.substring(3); // TODO
-        }
-
-        public String toString() {
-            return "proxy(" + clz.getName() + ")" + list;
-        }
-    }
 }
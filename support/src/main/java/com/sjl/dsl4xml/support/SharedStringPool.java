@@ -0,0 +1,85 @@
+package com.sjl.dsl4xml.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of strings shared by every document a reader reads, so
+ * that values recurring from one document to the next (e.g. in a cache of
+ * feeds) are held once between them.
+ *
+ * Each string has exactly one place it can be kept, chosen by its hash, and
+ * a newer string simply replaces whatever was there - so the pool never
+ * grows beyond its capacity, and needs no locking: Strings are immutable,
+ * so a thread seeing another's string in a slot sees it whole. The price is
+ * that two frequent values sharing a slot will keep displacing each other.
+ *
+ * @author steve
+ */
+public class SharedStringPool {
+
+    private String[] slots;
+    private int mask;
+    private AtomicLong bytesSaved;
+
+    /**
+     * @param aCapacity the number of strings the pool may hold, rounded up to
+     * a power of two
+     */
+    public SharedStringPool(int aCapacity) {
+        int _size = 1;
+        while (_size < aCapacity) {
+            _size <<= 1;
+        }
+        slots = new String[_size];
+        mask = _size - 1;
+        bytesSaved = new AtomicLong();
+    }
+
+    /**
+     * @return a String with the given characters - the one already pooled if
+     * there is one
+     */
+    public String intern(char[] aChars, int anOffset, int aLength) {
+        int _hash = StringPool.hash(aChars, anOffset, aLength);
+        String _s = lookup(aChars, null, anOffset, aLength, _hash);
+        if (_s == null) {
+            _s = new String(aChars, anOffset, aLength);
+            store(_s, _hash);
+        }
+        return _s;
+    }
+
+    /**
+     * @return an equal String - the one already pooled if there is one
+     */
+    public String intern(CharSequence aChars) {
+        int _hash = (aChars instanceof String) ? aChars.hashCode() : StringPool.hash(aChars);
+        String _s = lookup(null, aChars, 0, aChars.length(), _hash);
+        if (_s == null) {
+            _s = aChars.toString();
+            store(_s, _hash);
+        }
+        return _s;
+    }
+
+    /**
+     * @return an estimate of the heap saved so far by handing out strings
+     * already held rather than new ones.
+     */
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    String lookup(char[] aChars, CharSequence aSequence, int anOffset, int aLength, int aHash) {
+        String _s = slots[StringPool.spread(aHash) & mask];
+        if ((_s != null) && (_s.hashCode() == aHash) && StringPool.matches(_s, aChars, aSequence, anOffset, aLength)) {
+            bytesSaved.addAndGet(StringPool.sizeOf(aLength));
+            return _s;
+        }
+        return null;
+    }
+
+    void store(String aString, int aHash) {
+        slots[StringPool.spread(aHash) & mask] = aString;
+    }
+}
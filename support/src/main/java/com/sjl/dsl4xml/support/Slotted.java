@@ -0,0 +1,15 @@
+package com.sjl.dsl4xml.support;
+
+/**
+ * Implemented by the objects dsl4xml creates for interface mappings. Each
+ * property of the interface is assigned a slot (see {@link PropertyTable}),
+ * so that values can be set and read by index instead of by name.
+ *
+ * @author steve
+ */
+public interface Slotted
+{
+	public void __slot_set(int aSlot, Object aValue);
+
+	public Object __slot_get(int aSlot);
+}
@@ -0,0 +1,171 @@
+package com.sjl.dsl4xml.support;
+
+/**
+ * Deduplicates the strings read from a single document, so that a value
+ * which recurs throughout it (an author's name, a tag, a URL...) is held in
+ * memory once however many objects refer to it. Text is looked up straight
+ * from the parser's characters, so a repeated value doesn't even make a new
+ * String.
+ *
+ * Only properties the definition marks as interned go through the pool. A
+ * pool remembers at most {@link #DEFAULT_MAX_SIZE} strings of at most
+ * {@link #MAX_LENGTH} characters - longer text is rarely repeated - and may
+ * fall back to a {@link SharedStringPool} that outlives the document.
+ *
+ * Not thread-safe: each reading context has its own, reset for each document.
+ *
+ * @author steve
+ */
+public class StringPool {
+
+    public static final int DEFAULT_MAX_SIZE = 4096;
+    public static final int MAX_LENGTH = 256;
+
+    private static final int INITIAL_SIZE = 64;
+
+    private SharedStringPool shared;
+    private int maxSize;
+    private String[] table;
+    private int size;
+    private long bytesSaved;
+
+    public StringPool() {
+        this(null, DEFAULT_MAX_SIZE);
+    }
+
+    public StringPool(SharedStringPool aShared, int aMaxSize) {
+        shared = aShared;
+        maxSize = aMaxSize;
+    }
+
+    /**
+     * Forgets the strings of the last document, ready for the next, which
+     * will fall back to the given shared pool (if not null).
+     */
+    public void reset(SharedStringPool aShared) {
+        shared = aShared;
+        if (table != null) {
+            for (int i=0; i<table.length; i++) {
+                table[i] = null;
+            }
+        }
+        size = 0;
+        bytesSaved = 0;
+    }
+
+    /**
+     * @return a String with the given characters, the same one each time the
+     * same characters are given.
+     */
+    public String intern(char[] aChars, int anOffset, int aLength) {
+        if (aLength > MAX_LENGTH)
+            return new String(aChars, anOffset, aLength);
+        return intern(aChars, null, anOffset, aLength, hash(aChars, anOffset, aLength));
+    }
+
+    /**
+     * @return an equal String, the same one each time equal characters are
+     * given; the given value itself if it is a String not seen before.
+     */
+    public String intern(CharSequence aChars) {
+        if (aChars.length() > MAX_LENGTH)
+            return aChars.toString();
+        int _hash = (aChars instanceof String) ? aChars.hashCode() : hash(aChars);
+        return intern(null, aChars, 0, aChars.length(), _hash);
+    }
+
+    /**
+     * @return an estimate of the heap saved so far by handing out strings
+     * already held rather than new ones.
+     */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    private String intern(char[] aChars, CharSequence aSequence, int anOffset, int aLength, int aHash) {
+        if (table == null)
+            table = new String[INITIAL_SIZE];
+
+        int _mask = table.length - 1;
+        int i = spread(aHash) & _mask;
+        String _s;
+        while ((_s = table[i]) != null) {
+            if ((_s.hashCode() == aHash) && matches(_s, aChars, aSequence, anOffset, aLength)) {
+                bytesSaved += sizeOf(aLength);
+                return _s;
+            }
+            i = (i + 1) & _mask;
+        }
+
+        _s = (shared == null) ? null : shared.lookup(aChars, aSequence, anOffset, aLength, aHash);
+        if (_s != null) {
+            bytesSaved += sizeOf(aLength);
+        } else {
+            _s = (aChars != null) ? new String(aChars, anOffset, aLength) : aSequence.toString();
+            if (shared != null)
+                shared.store(_s, aHash);
+        }
+
+        if (size < maxSize) {
+            table[i] = _s;
+            if (++size * 2 > table.length)
+                grow();
+        }
+        return _s;
+    }
+
+    private void grow() {
+        String[] _old = table;
+        table = new String[_old.length * 2];
+        int _mask = table.length - 1;
+        for (String _s : _old) {
+            if (_s != null) {
+                int i = spread(_s.hashCode()) & _mask;
+                while (table[i] != null) {
+                    i = (i + 1) & _mask;
+                }
+                table[i] = _s;
+            }
+        }
+    }
+
+    /**
+     * @return roughly what a String of the given length costs: the object and
+     * its character array, with their headers, on a 64 bit JVM.
+     */
+    static long sizeOf(int aLength) {
+        return 40 + (2L * aLength);
+    }
+
+    // String.hashCode, so that the hash cached by a String can be used instead
+    static int hash(char[] aChars, int anOffset, int aLength) {
+        int _h = 0;
+        for (int i=anOffset; i<anOffset + aLength; i++) {
+            _h = (31 * _h) + aChars[i];
+        }
+        return _h;
+    }
+
+    static int hash(CharSequence aChars) {
+        int _h = 0;
+        for (int i=0; i<aChars.length(); i++) {
+            _h = (31 * _h) + aChars.charAt(i);
+        }
+        return _h;
+    }
+
+    static int spread(int aHash) {
+        return aHash ^ (aHash >>> 16);
+    }
+
+    static boolean matches(String aString, char[] aChars, CharSequence aSequence, int anOffset, int aLength) {
+        if (aString.length() != aLength)
+            return false;
+        for (int i=0; i<aLength; i++) {
+            char _c = (aChars != null) ? aChars[anOffset + i] : aSequence.charAt(anOffset + i);
+            if (aString.charAt(i) != _c)
+                return false;
+        }
+        return true;
+    }
+}
@@ -3,14 +3,33 @@ package com.sjl.dsl4xml.support;
 import java.lang.reflect.*;
 
 import com.sjl.dsl4xml.*;
+import com.sjl.dsl4xml.support.convert.*;
 
+/**
+ * Converts and sets the values the XML readers find. Single-argument setters
+ * are called through a {@link Mutator} (generated, when {@link Implementations}
+ * is generating bindings) and, where the setter takes an int, long, double or
+ * boolean that the default converter would parse, the value is parsed and
+ * passed to it without ever being boxed.
+ */
 @Deprecated
 public class ValueSetter {
 
+	private static final int BOXED = 0;
+	private static final int INT = 1;
+	private static final int LONG = 2;
+	private static final int DOUBLE = 3;
+	private static final int BOOLEAN = 4;
+
 	private Method setter;
 	private StringConverter<?> converter;
 	private boolean twoArgSetter;
+	private Mutator mutator;
+	private int primitive = BOXED;
 	private Method getter;
+	private Class<?> contextType;
+	private String[] names;
+	private int lazySlot = -1;
 
 	public ValueSetter(ConverterRegistry aConverters, Class<?> aContextType, String... aMaybeNames) {
 		this(aConverters, aContextType, null, aMaybeNames);
@@ -33,14 +52,88 @@ public class ValueSetter {
 			}
 		}
 		twoArgSetter = (setter.getParameterTypes().length == 2);
+		contextType = aContextType;
+		names = aMaybeNames;
+		if (!twoArgSetter) {
+			mutator = Mutators.newMutator(setter, aMaybeNames[0]);
+			if (mutator instanceof PrimitiveMutator)
+				primitive = getPrimitive(setter.getParameterTypes()[0], converter);
+		}
+	}
+	
+	/**
+	 * @return the primitive the given converter would parse for a setter
+	 * taking the given type - only for the default converters, since any
+	 * other might parse differently - or BOXED.
+	 */
+	private static int getPrimitive(Class<?> aType, StringConverter<?> aConverter) {
+		if (!aType.isPrimitive() || (aConverter == null))
+			return BOXED;
+		Class<?> _c = aConverter.getClass();
+		boolean _acceptsLong = (aType == Long.TYPE) || (aType == Float.TYPE) || (aType == Double.TYPE);
+		if ((_c == PrimitiveIntStringConverter.class) && ((aType == Integer.TYPE) || _acceptsLong))
+			return INT;
+		if ((_c == PrimitiveLongStringConverter.class) && _acceptsLong)
+			return LONG;
+		if ((_c == PrimitiveDoubleStringConverter.class) && (aType == Double.TYPE))
+			return DOUBLE;
+		if ((_c == PrimitiveBooleanStringConverter.class) && (aType == Boolean.TYPE))
+			return BOOLEAN;
+		return BOXED;
+	}
+	
+	/**
+	 * Leaves values to be converted when they are first read, by setting them
+	 * as {@link LazyValue}s - if the context type is one of our interface
+	 * implementations, and the property's type needs converting at all.
+	 */
+	public ValueSetter lazy() {
+		if (Slotted.class.isAssignableFrom(contextType)) {
+			PropertyTable _table = Implementations.getPropertyTable(contextType);
+			for (String _name : names) {
+				int _slot = _table.getSlot(_name);
+				if ((_slot >= 0) && LazyValue.isDeferrable(_table.getType(_slot))) {
+					lazySlot = _slot;
+					break;
+				}
+			}
+		}
+		return this;
 	}
 	
 	public void invoke(String aKey, Object anOn, String aWith) {
+		set(aKey, anOn, aWith, null, 0, 0);
+	}
+	
+	/**
+	 * Converts the given characters without first making a String of them, if
+	 * the converter allows.
+	 */
+	public void invoke(String aKey, Object anOn, char[] aChars, int anOffset, int aLength) {
+		set(aKey, anOn, null, aChars, anOffset, aLength);
+	}
+	
+	public void invoke(String aKey, Object anOn, CharSequence aChars) {
+		set(aKey, anOn, aChars, null, 0, 0);
+	}
+	
+	private void set(String aKey, Object anOn, CharSequence aSequence, char[] aChars, int anOffset, int aLength) {
+		Object _value = null;
 		try {
+			if (lazySlot >= 0) {
+				String _raw = (aChars != null) ? new String(aChars, anOffset, aLength) : ((aSequence == null) ? null : aSequence.toString());
+				((Slotted) anOn).__slot_set(lazySlot, new LazyValue(converter, _raw));
+				return;
+			}
+			if (primitive != BOXED) {
+				setPrimitive(anOn, aSequence, aChars, anOffset, aLength);
+				return;
+			}
+			_value = convert(aSequence, aChars, anOffset, aLength);
 			if (twoArgSetter) {
-				setter.invoke(anOn, aKey, converter.convert(aWith));
+				setter.invoke(anOn, aKey, _value);
 			} else {
-				setter.invoke(anOn, converter.convert(aWith));
+				mutator.set(anOn, _value);
 			}
 		} catch (ParsingException anExc) {
 			throw anExc;
@@ -49,13 +142,47 @@ public class ValueSetter {
                 anExc.getMessage() +
                 " while trying to invoke " + setter +
                 " on " + anOn +
-                " with " + ((aKey != null) ? aKey + " and " : "") + aWith +
+                " with " + ((aKey != null) ? aKey + " and " : "") + 
+                ((aChars != null) ? new String(aChars, anOffset, aLength) : aSequence) +
                 " converted by " + converter, anExc);
 		} catch (Exception anExc) {
 			throw new RuntimeException(anExc);
 		}
 	}
 	
+	/**
+	 * Parses the value as the default converter would, empty values being
+	 * zero or false, and passes it to the mutator unboxed.
+	 */
+	private void setPrimitive(Object anOn, CharSequence aSequence, char[] aChars, int anOffset, int aLength) {
+		PrimitiveMutator _m = (PrimitiveMutator) mutator;
+		boolean _empty = (aChars != null) ? (aLength == 0) : ((aSequence == null) || (aSequence.length() == 0));
+		switch (primitive) {
+			case INT :
+				_m.setInt(anOn, _empty ? 0 : (aChars != null) ? PrimitiveParsers.parseInt(aChars, anOffset, aLength) : PrimitiveParsers.parseInt(aSequence));
+				break;
+			case LONG :
+				_m.setLong(anOn, _empty ? 0L : (aChars != null) ? PrimitiveParsers.parseLong(aChars, anOffset, aLength) : PrimitiveParsers.parseLong(aSequence));
+				break;
+			case DOUBLE :
+				_m.setDouble(anOn, _empty ? 0d : (aChars != null) ? PrimitiveParsers.parseDouble(aChars, anOffset, aLength) : PrimitiveParsers.parseDouble(aSequence));
+				break;
+			default :
+				_m.setBoolean(anOn, !_empty && ((aChars != null) ? PrimitiveParsers.parseBoolean(aChars, anOffset, aLength) : PrimitiveParsers.parseBoolean(aSequence)));
+		}
+	}
+	
+	private Object convert(CharSequence aSequence, char[] aChars, int anOffset, int aLength) {
+		if (converter instanceof CharSequenceConverter<?>) {
+			CharSequenceConverter<?> _c = (CharSequenceConverter<?>) converter;
+			return (aChars != null) ? _c.convert(aChars, anOffset, aLength) : _c.convert(aSequence);
+		} else if (aChars != null) {
+			return converter.convert(new String(aChars, anOffset, aLength));
+		} else {
+			return converter.convert((aSequence == null) ? null : aSequence.toString());
+		}
+	}
+	
 	public String toString() {
 		return setter.getDeclaringClass().getSimpleName() + "." + setter.getName();
 	}
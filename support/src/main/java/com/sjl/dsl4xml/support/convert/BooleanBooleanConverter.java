@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.TypeSafeConverter;
 
-public class BooleanBooleanConverter implements TypeSafeConverter<Boolean,Boolean> {
+public class BooleanBooleanConverter implements TypeSafeConverter<Boolean,Boolean>, CastingConverter {
 
     @Override
     public boolean canConvertFrom(Class<?> aClass) {
@@ -20,4 +20,9 @@ public class BooleanBooleanConverter implements TypeSafeConverter<Boolean,Boolea
     public Boolean convert(Boolean aFrom) {
         return aFrom;
     }
+
+    @Override
+    public Class<?> getPrimitiveType() {
+        return Boolean.TYPE;
+    }
 }
@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.support.StringConverter;
 
-public class BooleanStringConverter extends StringConverter<Boolean> {
+public class BooleanStringConverter extends StringConverter<Boolean> implements CharSequenceConverter<Boolean> {
 
 	@Override
 	public boolean canConvertTo(Class<?> aClass) {
@@ -11,7 +11,17 @@ public class BooleanStringConverter extends StringConverter<Boolean> {
 
 	@Override
 	public Boolean convert(String aValue) {
-		return ((aValue == null) || ("".equals(aValue))) ? Boolean.FALSE : Boolean.valueOf(aValue);
+		return convert((CharSequence) aValue);
+	}
+
+	@Override
+	public Boolean convert(CharSequence aChars) {
+		return ((aChars == null) || (aChars.length() == 0)) ? Boolean.FALSE : PrimitiveParsers.parseBoolean(aChars);
+	}
+
+	@Override
+	public Boolean convert(char[] aChars, int anOffset, int aLength) {
+		return (aLength == 0) ? Boolean.FALSE : PrimitiveParsers.parseBoolean(aChars, anOffset, aLength);
 	}
 	
 }
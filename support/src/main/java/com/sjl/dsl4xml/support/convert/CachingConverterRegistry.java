@@ -0,0 +1,143 @@
+package com.sjl.dsl4xml.support.convert;
+
+import java.util.concurrent.*;
+
+import com.sjl.dsl4xml.*;
+import com.sjl.dsl4xml.support.StringConverter;
+
+/**
+ * A ConverterRegistry which remembers the converter it found for each pair of
+ * types, so that the list of converters is only scanned the first time a pair
+ * is asked for. Pairs that no converter can handle are remembered too.
+ *
+ * As with the registries it replaces, the most recently registered converters
+ * take precedence. Registering converters discards everything cached so far.
+ *
+ * Lookups are thread-safe and don't lock; registration is expected to happen
+ * while setting up, and is synchronized.
+ *
+ * @author steve
+ */
+public class CachingConverterRegistry implements ConverterRegistry {
+
+    private static final Object NONE = new Object();
+
+    private volatile State state;
+
+    public CachingConverterRegistry(TypeSafeConverter<?,?>... aConverters) {
+        state = new State(aConverters);
+    }
+
+    /**
+     * Starts out with the same converters as the given registry, but a cache
+     * of its own - so that lookups made by one reader don't collect, keeping
+     * its classes from being unloaded, in a registry shared by them all.
+     */
+    public CachingConverterRegistry(CachingConverterRegistry aPrototype) {
+        state = new State(aPrototype.state.converters);
+    }
+
+    @Override
+    public synchronized void registerConverters(TypeSafeConverter<?,?>... aConverters) {
+        // push any registered converters on ahead of existing converters (allows simple override)
+        state = new State(concat(aConverters, state.converters));
+    }
+
+    /**
+     * Adds converters behind those already registered, to be used only when
+     * none of those can convert between the requested types.
+     */
+    public synchronized void appendConverters(TypeSafeConverter<?,?>... aConverters) {
+        state = new State(concat(state.converters, aConverters));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> StringConverter<T> getConverter(Class<T> aTo) {
+        TypeSafeConverter<String,T> _c = getConverter(String.class, aTo);
+        if (_c instanceof StringConverter)
+            return (StringConverter<T>) _c;
+        // e.g. a MemoizingConverter wrapping a StringConverter
+        return new StringConverterAdapter<T>(_c);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <F,T> TypeSafeConverter<F,T> getConverter(Class<F> aFromType, Class<T> aToType) {
+        Object _c = state.lookup(aFromType, aToType);
+        if (_c == NONE)
+            throw new RuntimeException("No converter registered that can convert from " + aFromType + " to " + aToType);
+        return (TypeSafeConverter<F,T>) _c;
+    }
+
+    private static TypeSafeConverter<?,?>[] concat(TypeSafeConverter<?,?>[] aFirst, TypeSafeConverter<?,?>[] aSecond) {
+        TypeSafeConverter<?,?>[] _result = new TypeSafeConverter<?,?>[aFirst.length + aSecond.length];
+        System.arraycopy(aFirst, 0, _result, 0, aFirst.length);
+        System.arraycopy(aSecond, 0, _result, aFirst.length, aSecond.length);
+        return _result;
+    }
+
+    private static class StringConverterAdapter<T> extends StringConverter<T> {
+        private TypeSafeConverter<String,T> delegate;
+
+        StringConverterAdapter(TypeSafeConverter<String,T> aDelegate) {
+            delegate = aDelegate;
+        }
+
+        @Override
+        public boolean canConvertFrom(Class<?> aClass) {
+            return delegate.canConvertFrom(aClass);
+        }
+
+        @Override
+        public boolean canConvertTo(Class<?> aClass) {
+            return delegate.canConvertTo(aClass);
+        }
+
+        @Override
+        public T convert(String aValue) {
+            return delegate.convert(aValue);
+        }
+    }
+
+    /**
+     * The converters and the cache of lookups made against them, replaced as
+     * a whole on registration so that a lookup racing with a registration
+     * can't cache a result from the old converters alongside the new ones.
+     */
+    private static class State {
+        private TypeSafeConverter<?,?>[] converters;
+        private ConcurrentMap<Class<?>,ConcurrentMap<Class<?>,Object>> cache;
+
+        State(TypeSafeConverter<?,?>[] aConverters) {
+            converters = aConverters.clone();
+            cache = new ConcurrentHashMap<Class<?>,ConcurrentMap<Class<?>,Object>>();
+        }
+
+        Object lookup(Class<?> aFromType, Class<?> aToType) {
+            ConcurrentMap<Class<?>,Object> _to = cache.get(aFromType);
+            if (_to == null) {
+                _to = new ConcurrentHashMap<Class<?>,Object>(4);
+                ConcurrentMap<Class<?>,Object> _existing = cache.putIfAbsent(aFromType, _to);
+                if (_existing != null)
+                    _to = _existing;
+            }
+
+            Object _c = _to.get(aToType);
+            if (_c == null) {
+                _c = find(aFromType, aToType);
+                _to.put(aToType, _c);
+            }
+            return _c;
+        }
+
+        private Object find(Class<?> aFromType, Class<?> aToType) {
+            for (TypeSafeConverter<?,?> _c : converters) {
+                if ((_c.canConvertFrom(aFromType)) && (_c.canConvertTo(aToType))) {
+                    return _c;
+                }
+            }
+            return NONE;
+        }
+    }
+}
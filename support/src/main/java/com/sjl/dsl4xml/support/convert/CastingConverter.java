@@ -0,0 +1,16 @@
+package com.sjl.dsl4xml.support.convert;
+
+/**
+ * Marks a converter whose conversion is no more than a Java cast to a
+ * primitive type (and boxing the result). Callers that already hold the value
+ * as a primitive may skip the converter, apply the cast themselves, and pass
+ * the primitive on without boxing it.
+ */
+public interface CastingConverter {
+
+    /**
+     * @return the primitive type values are cast to, e.g. Integer.TYPE
+     */
+    public Class<?> getPrimitiveType();
+
+}
@@ -0,0 +1,19 @@
+package com.sjl.dsl4xml.support.convert;
+
+/**
+ * Implemented by String converters that can also convert characters where
+ * they lie - in a parser's buffer, or a StringBuilder collecting text - so
+ * that readers needn't make a String of them first.
+ *
+ * Either method must give the same result as converting a String of the same
+ * characters.
+ *
+ * @author steve
+ */
+public interface CharSequenceConverter<T> {
+
+	public T convert(char[] aChars, int anOffset, int aLength);
+
+	public T convert(CharSequence aChars);
+
+}
@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.support.StringConverter;
 
-public class CharacterStringConverter extends StringConverter<Character> {
+public class CharacterStringConverter extends StringConverter<Character> implements CharSequenceConverter<Character> {
 
 	@Override
 	public boolean canConvertTo(Class<?> aClass) {
@@ -11,7 +11,17 @@ public class CharacterStringConverter extends StringConverter<Character> {
 
 	@Override
 	public Character convert(String aValue) {
-		return ((aValue == null) || ("".equals(aValue))) ? null : aValue.charAt(0);
+		return convert((CharSequence) aValue);
+	}
+
+	@Override
+	public Character convert(CharSequence aChars) {
+		return ((aChars == null) || (aChars.length() == 0)) ? null : aChars.charAt(0);
+	}
+
+	@Override
+	public Character convert(char[] aChars, int anOffset, int aLength) {
+		return (aLength == 0) ? null : aChars[anOffset];
 	}
 	
 }
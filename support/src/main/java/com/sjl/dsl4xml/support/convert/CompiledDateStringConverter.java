@@ -0,0 +1,75 @@
+package com.sjl.dsl4xml.support.convert;
+
+import java.text.*;
+import java.util.*;
+
+import com.sjl.dsl4xml.*;
+import com.sjl.dsl4xml.support.StringConverter;
+
+/**
+ * A Date converter which compiles its pattern once into a parser for
+ * fixed-width fields, then parses straight from the characters with no
+ * DateFormat involved. It is immutable, so one instance can be shared by
+ * any number of threads without ThreadLocal storage.
+ *
+ * Patterns may use yyyy, MM, dd, HH, mm, ss, SSS, Z and literal text - e.g.
+ * "yyyy-MM-dd'T'HH:mm:ss" - and a pattern using anything else is rejected
+ * when the converter is created. The odd value that doesn't match the
+ * pattern exactly (or, say, has a month of 13) is handed to a
+ * SimpleDateFormat, so the results are always the same as those of the
+ * other date converters.
+ *
+ * @author steve
+ */
+public class CompiledDateStringConverter extends StringConverter<Date> implements CharSequenceConverter<Date> {
+
+	private String pattern;
+	private TimeZone zone;
+	private DateParser parser;
+
+	public CompiledDateStringConverter(String aDateFormatPattern) {
+		pattern = aDateFormatPattern;
+		zone = TimeZone.getDefault();
+		parser = DateParser.compile(aDateFormatPattern, zone);
+		if (parser == null)
+			throw new IllegalArgumentException(
+				"Can't compile date pattern '" + aDateFormatPattern + "' - " +
+				"use a ThreadSafeDateStringConverter for patterns with other fields");
+	}
+
+	@Override
+	public boolean canConvertTo(Class<?> aClass) {
+		return aClass.isAssignableFrom(Date.class);
+	}
+
+	@Override
+	public Date convert(String aValue) {
+		return (aValue == null) ? null : convert((CharSequence) aValue);
+	}
+
+	@Override
+	public Date convert(CharSequence aChars) {
+		if (aChars.length() == 0)
+			return null;
+		long _time = parser.parse(aChars);
+		return (_time != DateParser.UNPARSEABLE) ? new Date(_time) : parseSlowly(aChars.toString());
+	}
+
+	@Override
+	public Date convert(char[] aChars, int anOffset, int aLength) {
+		if (aLength == 0)
+			return null;
+		long _time = parser.parse(aChars, anOffset, aLength);
+		return (_time != DateParser.UNPARSEABLE) ? new Date(_time) : parseSlowly(new String(aChars, anOffset, aLength));
+	}
+
+	private Date parseSlowly(String aValue) {
+		try {
+			DateFormat _f = new SimpleDateFormat(pattern);
+			_f.setTimeZone(zone);
+			return _f.parse(aValue);
+		} catch (ParseException anExc) {
+			throw new ParsingException(anExc);
+		}
+	}
+}
@@ -0,0 +1,288 @@
+package com.sjl.dsl4xml.support.convert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * A SimpleDateFormat pattern compiled into a list of fixed-width fields and
+ * literals, which parses dates straight from characters without allocating.
+ *
+ * Only patterns made of yyyy, MM, dd, HH, mm, ss, SSS, Z and literal text
+ * compile; anything else (text fields, two-digit years, variable width
+ * fields...) is left to SimpleDateFormat. Likewise, values are only parsed
+ * here when they match the pattern exactly and every field is in range, and
+ * otherwise {@link #UNPARSEABLE} is returned so that the caller can hand the
+ * value to a SimpleDateFormat, which decides what lenient or malformed input
+ * means. That keeps the results identical to SimpleDateFormat's.
+ *
+ * Instances are immutable apart from a cache of the most recently parsed day
+ * (its midnight in UTC, and whether the zone's offset is constant through the
+ * day), which is replaced as a whole, so they are safe to share between
+ * threads.
+ *
+ * @author steve
+ */
+final class DateParser {
+
+    static final long UNPARSEABLE = Long.MIN_VALUE;
+
+    private static final int LITERAL = 0;
+    private static final int YEAR = 1;
+    private static final int MONTH = 2;
+    private static final int DAY = 3;
+    private static final int HOUR = 4;
+    private static final int MINUTE = 5;
+    private static final int SECOND = 6;
+    private static final int MILLIS = 7;
+    private static final int ZONE = 8;
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final long THREE_HOURS = 3L * 60 * 60 * 1000;
+
+    // before this, SimpleDateFormat's calendar may be Julian
+    private static final int FIRST_GREGORIAN_YEAR = 1600;
+
+    private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+    private final int[] kinds;
+    private final int[] widths;
+    private final String[] literals;
+    private final int length;
+    private final TimeZone zone;
+    private volatile Day day;
+
+    private DateParser(int[] aKinds, int[] aWidths, String[] aLiterals, TimeZone aZone) {
+        kinds = aKinds;
+        widths = aWidths;
+        literals = aLiterals;
+        zone = aZone;
+
+        int _length = 0;
+        for (int _w : aWidths) {
+            _length += _w;
+        }
+        length = _length;
+    }
+
+    /**
+     * @return a parser for the pattern which interprets dates in the given
+     * zone (unless the pattern has a Z field), or null if the pattern can't
+     * be compiled.
+     */
+    static DateParser compile(String aPattern, TimeZone aZone) {
+        List<int[]> _fields = new ArrayList<int[]>();
+        List<String> _literals = new ArrayList<String>();
+
+        int i = 0;
+        while (i < aPattern.length()) {
+            char _c = aPattern.charAt(i);
+            if (_c == '\'') {
+                // quoted text, in which '' is a quote, as is '' on its own
+                StringBuilder _quoted = new StringBuilder();
+                int j = i + 1;
+                if ((j < aPattern.length()) && (aPattern.charAt(j) == '\'')) {
+                    _quoted.append('\'');
+                    j++;
+                } else {
+                    while (true) {
+                        if (j == aPattern.length())
+                            return null; // unterminated - let SimpleDateFormat complain
+                        char _q = aPattern.charAt(j++);
+                        if (_q != '\'') {
+                            _quoted.append(_q);
+                        } else if ((j < aPattern.length()) && (aPattern.charAt(j) == '\'')) {
+                            _quoted.append('\'');
+                            j++;
+                        } else {
+                            break;
+                        }
+                    }
+                }
+                _fields.add(new int[]{ LITERAL, _quoted.length() });
+                _literals.add(_quoted.toString());
+                i = j;
+            } else if (((_c >= 'a') && (_c <= 'z')) || ((_c >= 'A') && (_c <= 'Z'))) {
+                int j = i;
+                while ((j < aPattern.length()) && (aPattern.charAt(j) == _c)) {
+                    j++;
+                }
+                int[] _field = field(_c, j - i);
+                if (_field == null)
+                    return null;
+                _fields.add(_field);
+                _literals.add(null);
+                i = j;
+            } else {
+                _fields.add(new int[]{ LITERAL, 1 });
+                _literals.add(String.valueOf(_c));
+                i++;
+            }
+        }
+
+        int[] _kinds = new int[_fields.size()];
+        int[] _widths = new int[_fields.size()];
+        for (int k=0; k<_kinds.length; k++) {
+            _kinds[k] = _fields.get(k)[0];
+            _widths[k] = _fields.get(k)[1];
+        }
+        return new DateParser(_kinds, _widths, _literals.toArray(new String[_literals.size()]), aZone);
+    }
+
+    private static int[] field(char aLetter, int aCount) {
+        switch (aLetter) {
+            case 'y' :
+                return (aCount == 4) ? new int[]{ YEAR, 4 } : null;
+            case 'M' :
+                return (aCount == 2) ? new int[]{ MONTH, 2 } : null;
+            case 'd' :
+                return (aCount == 2) ? new int[]{ DAY, 2 } : null;
+            case 'H' :
+                return (aCount == 2) ? new int[]{ HOUR, 2 } : null;
+            case 'm' :
+                return (aCount == 2) ? new int[]{ MINUTE, 2 } : null;
+            case 's' :
+                return (aCount == 2) ? new int[]{ SECOND, 2 } : null;
+            case 'S' :
+                return (aCount == 3) ? new int[]{ MILLIS, 3 } : null;
+            case 'Z' :
+                return new int[]{ ZONE, 5 }; // +hhmm
+            default :
+                return null;
+        }
+    }
+
+    long parse(char[] aChars, int anOffset, int aLength) {
+        return parse(aChars, null, anOffset, aLength);
+    }
+
+    long parse(CharSequence aChars) {
+        return parse(null, aChars, 0, aChars.length());
+    }
+
+    private long parse(char[] aChars, CharSequence aSequence, int anOffset, int aLength) {
+        if (aLength != length)
+            return UNPARSEABLE;
+
+        // SimpleDateFormat's defaults for fields the pattern doesn't have
+        int _year = 1970;
+        int _month = 1;
+        int _day = 1;
+        int _hour = 0;
+        int _minute = 0;
+        int _second = 0;
+        int _millis = 0;
+        int _offset = 0;
+        boolean _zoned = false;
+
+        int i = anOffset;
+        for (int f=0; f<kinds.length; f++) {
+            int _kind = kinds[f];
+            if (_kind == LITERAL) {
+                String _literal = literals[f];
+                for (int j=0; j<_literal.length(); j++) {
+                    if (charAt(aChars, aSequence, i++) != _literal.charAt(j))
+                        return UNPARSEABLE;
+                }
+            } else if (_kind == ZONE) {
+                char _sign = charAt(aChars, aSequence, i);
+                int _hours = digits(aChars, aSequence, i + 1, 2);
+                int _minutes = digits(aChars, aSequence, i + 3, 2);
+                if (((_sign != '+') && (_sign != '-')) || (_hours < 0) || (_hours > 23) || (_minutes < 0) || (_minutes > 59))
+                    return UNPARSEABLE;
+                _offset = ((_hours * 60) + _minutes) * 60000;
+                if (_sign == '-')
+                    _offset = -_offset;
+                _zoned = true;
+                i += 5;
+            } else {
+                int _value = digits(aChars, aSequence, i, widths[f]);
+                if (_value < 0)
+                    return UNPARSEABLE;
+                i += widths[f];
+                switch (_kind) {
+                    case YEAR : _year = _value; break;
+                    case MONTH : _month = _value; break;
+                    case DAY : _day = _value; break;
+                    case HOUR : _hour = _value; break;
+                    case MINUTE : _minute = _value; break;
+                    case SECOND : _second = _value; break;
+                    default : _millis = _value;
+                }
+            }
+        }
+
+        // out of range values mean something to a lenient SimpleDateFormat, so leave them to it
+        if ((_year < FIRST_GREGORIAN_YEAR) || (_month < 1) || (_month > 12) || (_day < 1) ||
+            (_day > daysInMonth(_year, _month)) || (_hour > 23) || (_minute > 59) || (_second > 59))
+            return UNPARSEABLE;
+
+        long _time = ((((_hour * 60L) + _minute) * 60) + _second) * 1000 + _millis;
+        if (_zoned)
+            return (epochDay(_year, _month, _day) * DAY_MILLIS) + _time - _offset;
+
+        int _key = (((_year * 100) + _month) * 100) + _day;
+        Day _d = day;
+        if ((_d == null) || (_d.key != _key)) {
+            _d = newDay(_key, _year, _month, _day);
+            if (_d == null)
+                return UNPARSEABLE;
+            day = _d;
+        }
+        return _d.midnight + _time;
+    }
+
+    /**
+     * @return the day, or null if the zone's offset changes during it, in
+     * which case it is better left to the calendar.
+     */
+    private Day newDay(int aKey, int aYear, int aMonth, int aDay) {
+        long _local = epochDay(aYear, aMonth, aDay) * DAY_MILLIS;
+        int _offset = zone.getOffset(_local - zone.getRawOffset());
+        if ((zone.getOffset(_local - _offset - THREE_HOURS) != _offset) ||
+            (zone.getOffset(_local + DAY_MILLIS - _offset + THREE_HOURS) != _offset))
+            return null;
+        return new Day(aKey, _local - _offset);
+    }
+
+    private static char charAt(char[] aChars, CharSequence aSequence, int anIndex) {
+        return (aChars != null) ? aChars[anIndex] : aSequence.charAt(anIndex);
+    }
+
+    private static int digits(char[] aChars, CharSequence aSequence, int anOffset, int aCount) {
+        int _result = 0;
+        for (int i=anOffset; i<anOffset + aCount; i++) {
+            int _digit = charAt(aChars, aSequence, i) - '0';
+            if ((_digit < 0) || (_digit > 9))
+                return -1;
+            _result = (_result * 10) + _digit;
+        }
+        return _result;
+    }
+
+    private static int daysInMonth(int aYear, int aMonth) {
+        if ((aMonth == 2) && (((aYear % 4 == 0) && (aYear % 100 != 0)) || (aYear % 400 == 0)))
+            return 29;
+        return DAYS_IN_MONTH[aMonth - 1];
+    }
+
+    // days since 1970-01-01 in the proleptic Gregorian calendar
+    private static long epochDay(int aYear, int aMonth, int aDay) {
+        int _y = (aMonth <= 2) ? aYear - 1 : aYear;
+        int _era = _y / 400;
+        int _yearOfEra = _y - (_era * 400);
+        int _dayOfYear = ((153 * (aMonth + ((aMonth > 2) ? -3 : 9))) + 2) / 5 + aDay - 1;
+        int _dayOfEra = (_yearOfEra * 365) + (_yearOfEra / 4) - (_yearOfEra / 100) + _dayOfYear;
+        return (_era * 146097L) + _dayOfEra - 719468;
+    }
+
+    private static class Day {
+        private final int key;
+        private final long midnight;
+
+        Day(int aKey, long aMidnight) {
+            key = aKey;
+            midnight = aMidnight;
+        }
+    }
+}
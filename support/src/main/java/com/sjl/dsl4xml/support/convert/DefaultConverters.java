@@ -0,0 +1,93 @@
+package com.sjl.dsl4xml.support.convert;
+
+import java.util.*;
+
+/**
+ * The converters every reader starts out with, built once and shared.
+ *
+ * The registries handed out here begin with the defaults, so setting up a
+ * reader or document definition doesn't instantiate any converters, but each
+ * caches its own lookups - the defaults are never searched, so never hold on
+ * to the classes of any one reader. Registering converters with a registry
+ * affects only that registry. The shared defaults themselves
+ * are never registered with, and since the converters keep no state they can
+ * be used from any number of threads.
+ *
+ * @author steve
+ */
+public final class DefaultConverters {
+
+    private static final CachingConverterRegistry XML = new CachingConverterRegistry(
+        new PrimitiveBooleanStringConverter(),
+        new PrimitiveByteStringConverter(),
+        new PrimitiveShortStringConverter(),
+        new PrimitiveIntStringConverter(),
+        new PrimitiveLongStringConverter(),
+        new PrimitiveCharStringConverter(),
+        new PrimitiveFloatStringConverter(),
+        new PrimitiveDoubleStringConverter(),
+        new BooleanStringConverter(),
+        new ByteStringConverter(),
+        new ShortStringConverter(),
+        new IntegerStringConverter(),
+        new LongStringConverter(),
+        new CharacterStringConverter(),
+        new FloatStringConverter(),
+        new DoubleStringConverter(),
+        new ClassStringConverter(),
+        new StringStringConverter()
+    );
+
+    private static final CachingConverterRegistry JSON = new CachingConverterRegistry(
+        new PrimitiveBooleanStringConverter(),
+        new DecimalToByteStringConverter(),
+        new DecimalToShortStringConverter(),
+        new DecimalToIntStringConverter(),
+        new DecimalToLongStringConverter(),
+        new PrimitiveCharStringConverter(),
+        new PrimitiveFloatStringConverter(),
+        new PrimitiveDoubleStringConverter(),
+        new BooleanStringConverter(),
+        new ByteStringConverter(),
+        new ShortStringConverter(),
+        new IntegerStringConverter(),
+        new LongStringConverter(),
+        new CharacterStringConverter(),
+        new FloatStringConverter(),
+        new DoubleStringConverter(),
+        new ClassStringConverter(),
+        new StringStringConverter(),
+        new StringBigIntegerConverter(),
+        new StringBigDecimalConverter(),
+        new NumberByteConverter(),
+        new NumberShortConverter(),
+        new NumberIntegerConverter(),
+        new NumberLongConverter(),
+        new NumberFloatConverter(),
+        new NumberDoubleConverter(),
+        new NumberBigIntegerConverter(),
+        new NumberBigDecimalConverter(),
+        new BooleanBooleanConverter(),
+        new IdentityConverter(ArrayList.class)
+    );
+
+    private DefaultConverters() {}
+
+    /**
+     * @return a new registry holding the converters for XML readers, which
+     * convert attribute values and text from Strings.
+     */
+    public static CachingConverterRegistry newXmlRegistry() {
+        return new CachingConverterRegistry(XML);
+    }
+
+    /**
+     * @return a new registry holding the converters for JSON document
+     * definitions, which convert from Strings, Numbers, Booleans and arrays.
+     * Integral types also accept Strings like "3.0", which some JSON writers
+     * produce for whole numbers.
+     */
+    public static CachingConverterRegistry newJsonRegistry() {
+        return new CachingConverterRegistry(JSON);
+    }
+}
@@ -6,30 +6,78 @@ import com.sjl.dsl4xml.support.StringConverter;
  * A converter that can convert specific enum classes.
  * You must register a converter per enum class that you wish to convert.
  *
+ * The constants' names are put into a hash table when the converter is
+ * created, so values are looked up straight from their characters - without
+ * Enum.valueOf, without upper-casing a copy of the value when matching case
+ * insensitively, and (given a fallback constant) without an exception for
+ * values that name no constant.
+ *
  * @author steve
  */
-public class EnumStringConverter<T extends java.lang.Enum<T>> extends StringConverter<T> {
+public class EnumStringConverter<T extends java.lang.Enum<T>> extends StringConverter<T> implements CharSequenceConverter<T> {
 
 	private Class<T> enumClass;
 	private boolean forceCaseInsensitivity;
+	private T fallback;
+	private char[][] names;
+	private T[] constants;
+	private int mask;
 
 	/**
 	 * @param anEnumClass the concrete enum class to convert to
 	 * @param aForceCaseInsensitivity - set to true if your xml/json expresses the values in lower or mixed case
+	 * @param aFallback the constant to convert values that name no constant to, or null to throw an IllegalArgumentException for them
 	 */
-	public EnumStringConverter(Class<T> anEnumClass, boolean aForceCaseInsensitivity) {
+	public EnumStringConverter(Class<T> anEnumClass, boolean aForceCaseInsensitivity, T aFallback) {
 		if (!anEnumClass.isEnum())
 			throw new IllegalArgumentException(anEnumClass + " is not an enum.");
 
 		forceCaseInsensitivity = aForceCaseInsensitivity;
+		fallback = aFallback;
 
 		enumClass = anEnumClass;
+		buildTable(anEnumClass.getEnumConstants());
+	}
+
+	/**
+	 * @param anEnumClass the concrete enum class to convert to
+	 * @param aForceCaseInsensitivity - set to true if your xml/json expresses the values in lower or mixed case
+	 */
+	public EnumStringConverter(Class<T> anEnumClass, boolean aForceCaseInsensitivity) {
+		this(anEnumClass, aForceCaseInsensitivity, null);
 	}
 
 	public EnumStringConverter(Class<T> anEnumClass) {
 		this(anEnumClass, false); // prefer speed
 	}
 
+	@SuppressWarnings("unchecked")
+	private void buildTable(T[] aConstants) {
+		// at most half full, so that probe sequences stay short
+		int _size = 2;
+		while (_size < aConstants.length * 2) {
+			_size <<= 1;
+		}
+		names = new char[_size][];
+		constants = (T[]) new Enum<?>[_size];
+		mask = _size - 1;
+
+		for (T _c : aConstants) {
+			char[] _name = _c.name().toCharArray();
+			int i = hash(_name, null, 0, _name.length) & mask;
+			boolean _duplicate = false;
+			while ((names[i] != null) && !_duplicate) {
+				// when ignoring case, the first of any names differing only in case wins
+				_duplicate = matches(names[i], _name, null, 0, _name.length);
+				i = (i + 1) & mask;
+			}
+			if (!_duplicate) {
+				names[i] = _name;
+				constants[i] = _c;
+			}
+		}
+	}
+
 	@Override
 	public boolean canConvertTo(Class<?> aClass) {
 		return aClass.isAssignableFrom(enumClass);
@@ -37,10 +85,58 @@ public class EnumStringConverter<T extends java.lang.Enum<T>> extends StringConv
 
 	@Override
 	public T convert(String aValue) {
-		if (forceCaseInsensitivity) {
-			return (aValue == null) ? null : Enum.valueOf(enumClass, aValue.toUpperCase());
-		} else {
-			return (aValue == null) ? null : Enum.valueOf(enumClass, aValue);
+		return (aValue == null) ? null : convert((CharSequence) aValue);
+	}
+
+	@Override
+	public T convert(CharSequence aChars) {
+		return lookup(null, aChars, 0, aChars.length());
+	}
+
+	@Override
+	public T convert(char[] aChars, int anOffset, int aLength) {
+		return lookup(aChars, null, anOffset, aLength);
+	}
+
+	private T lookup(char[] aChars, CharSequence aSequence, int anOffset, int aLength) {
+		int i = hash(aChars, aSequence, anOffset, aLength) & mask;
+		while (names[i] != null) {
+			if (matches(names[i], aChars, aSequence, anOffset, aLength))
+				return constants[i];
+			i = (i + 1) & mask;
+		}
+
+		if (fallback != null)
+			return fallback;
+		String _value = (aChars != null) ? new String(aChars, anOffset, aLength) : aSequence.toString();
+		throw new IllegalArgumentException("No enum constant " + enumClass.getName() + "." + _value);
+	}
+
+	private int hash(char[] aChars, CharSequence aSequence, int anOffset, int aLength) {
+		int _h = 0;
+		for (int i=anOffset; i<anOffset + aLength; i++) {
+			_h = (31 * _h) + fold(charAt(aChars, aSequence, i));
+		}
+		return _h ^ (_h >>> 16);
+	}
+
+	private boolean matches(char[] aName, char[] aChars, CharSequence aSequence, int anOffset, int aLength) {
+		if (aName.length != aLength)
+			return false;
+		for (int i=0; i<aLength; i++) {
+			char _c = charAt(aChars, aSequence, anOffset + i);
+			if ((_c != aName[i]) && (!forceCaseInsensitivity || (fold(_c) != fold(aName[i]))))
+				return false;
 		}
+		return true;
+	}
+
+	// the same folding as String.equalsIgnoreCase, applied to each character
+	private char fold(char aChar) {
+		return forceCaseInsensitivity ? Character.toLowerCase(Character.toUpperCase(aChar)) : aChar;
+	}
+
+	private static char charAt(char[] aChars, CharSequence aSequence, int anIndex) {
+		return (aChars != null) ? aChars[anIndex] : aSequence.charAt(anIndex);
 	}
 }
@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.support.StringConverter;
 
-public class FloatStringConverter extends StringConverter<Float> {
+public class FloatStringConverter extends StringConverter<Float> implements CharSequenceConverter<Float> {
 
 	@Override
 	public boolean canConvertTo(Class<?> aClass) {
@@ -11,7 +11,17 @@ public class FloatStringConverter extends StringConverter<Float> {
 
 	@Override
 	public Float convert(String aValue) {
-		return ((aValue == null) || ("".equals(aValue))) ? null : new Float(aValue);
+		return convert((CharSequence) aValue);
+	}
+
+	@Override
+	public Float convert(CharSequence aChars) {
+		return ((aChars == null) || (aChars.length() == 0)) ? null : PrimitiveParsers.parseFloat(aChars);
+	}
+
+	@Override
+	public Float convert(char[] aChars, int anOffset, int aLength) {
+		return (aLength == 0) ? null : PrimitiveParsers.parseFloat(aChars, anOffset, aLength);
 	}
 	
 }
@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.support.StringConverter;
 
-public class IntegerStringConverter extends StringConverter<Integer> {
+public class IntegerStringConverter extends StringConverter<Integer> implements CharSequenceConverter<Integer> {
 
 	@Override
 	public boolean canConvertTo(Class<?> aClass) {
@@ -11,7 +11,17 @@ public class IntegerStringConverter extends StringConverter<Integer> {
 
 	@Override
 	public Integer convert(String aValue) {
-		return ((aValue == null) || ("".equals(aValue))) ? null : new Integer(aValue);
+		return convert((CharSequence) aValue);
+	}
+
+	@Override
+	public Integer convert(CharSequence aChars) {
+		return ((aChars == null) || (aChars.length() == 0)) ? null : PrimitiveParsers.parseInt(aChars);
+	}
+
+	@Override
+	public Integer convert(char[] aChars, int anOffset, int aLength) {
+		return (aLength == 0) ? null : PrimitiveParsers.parseInt(aChars, anOffset, aLength);
 	}
 	
 }
@@ -0,0 +1,208 @@
+package com.sjl.dsl4xml.support.convert;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sjl.dsl4xml.TypeSafeConverter;
+
+/**
+ * Wraps a converter to remember what it converted each value to, for values
+ * drawn from a small set that repeat throughout a document - language codes,
+ * status strings, class names (which ClassStringConverter would otherwise
+ * look up with Class.forName every time) and so on. A repeated value costs a
+ * single lookup, and every occurrence converts to the same shared instance.
+ *
+ * At most aCapacity values are remembered. When a new value arrives and the
+ * cache is full, one is forgotten according to the eviction policy: LRU
+ * forgets the least recently used value, while CLOCK forgets one that hasn't
+ * been used since the clock hand last passed it - an approximation of LRU
+ * that doesn't lock or reorder anything on a hit.
+ *
+ * Register it as you would the converter it wraps, e.g.
+ *
+ *     registerConverters(new MemoizingConverter<String,Class<?>>(new ClassStringConverter(), 64));
+ *
+ * Instances are thread safe provided the wrapped converter is. Nulls, and
+ * values that convert to null, are never remembered.
+ *
+ * @author steve
+ */
+public class MemoizingConverter<F,T> implements TypeSafeConverter<F,T> {
+
+    public enum Eviction { LRU, CLOCK }
+
+    private TypeSafeConverter<F,T> delegate;
+    private Memo<F,T> memo;
+    private AtomicLong hits;
+    private AtomicLong misses;
+
+    public MemoizingConverter(TypeSafeConverter<F,T> aDelegate, int aCapacity) {
+        this(aDelegate, aCapacity, Eviction.CLOCK);
+    }
+
+    public MemoizingConverter(TypeSafeConverter<F,T> aDelegate, int aCapacity, Eviction anEviction) {
+        if (aDelegate == null)
+            throw new IllegalArgumentException("Must supply a converter to memoize");
+        if (aCapacity < 1)
+            throw new IllegalArgumentException("Capacity must be at least 1, not " + aCapacity);
+
+        delegate = aDelegate;
+        memo = (anEviction == Eviction.LRU) ? new LruMemo<F,T>(aCapacity) : new ClockMemo<F,T>(aCapacity);
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+    }
+
+    @Override
+    public boolean canConvertFrom(Class<?> aClass) {
+        return delegate.canConvertFrom(aClass);
+    }
+
+    @Override
+    public boolean canConvertTo(Class<?> aClass) {
+        return delegate.canConvertTo(aClass);
+    }
+
+    @Override
+    public T convert(F aFrom) {
+        if (aFrom == null)
+            return delegate.convert(null);
+
+        T _result = memo.get(aFrom);
+        if (_result != null) {
+            hits.incrementAndGet();
+            return _result;
+        }
+
+        misses.incrementAndGet();
+        _result = delegate.convert(aFrom);
+        return (_result == null) ? null : memo.putIfAbsent(aFrom, _result);
+    }
+
+    /**
+     * @return the number of conversions answered from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of conversions handed to the wrapped converter
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of values currently remembered
+     */
+    public int size() {
+        return memo.size();
+    }
+
+    private interface Memo<K,V> {
+        public V get(K aKey);
+
+        /**
+         * @return the value already remembered for the key if another thread
+         * got there first, otherwise the given value
+         */
+        public V putIfAbsent(K aKey, V aValue);
+
+        public int size();
+    }
+
+    private static class LruMemo<K,V> implements Memo<K,V> {
+        private Map<K,V> map;
+
+        LruMemo(final int aCapacity) {
+            map = new LinkedHashMap<K,V>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K,V> anEldest) {
+                    return size() > aCapacity;
+                }
+            };
+        }
+
+        @Override
+        public synchronized V get(K aKey) {
+            return map.get(aKey);
+        }
+
+        @Override
+        public synchronized V putIfAbsent(K aKey, V aValue) {
+            V _existing = map.get(aKey);
+            if (_existing != null)
+                return _existing;
+            map.put(aKey, aValue);
+            return aValue;
+        }
+
+        @Override
+        public synchronized int size() {
+            return map.size();
+        }
+    }
+
+    private static class ClockMemo<K,V> implements Memo<K,V> {
+        private ConcurrentMap<K,Slot<K,V>> map;
+        private Slot<K,V>[] ring;
+        private int used;
+        private int hand;
+
+        @SuppressWarnings("unchecked")
+        ClockMemo(int aCapacity) {
+            map = new ConcurrentHashMap<K,Slot<K,V>>();
+            ring = new Slot[aCapacity];
+        }
+
+        @Override
+        public V get(K aKey) {
+            Slot<K,V> _s = map.get(aKey);
+            if (_s == null)
+                return null;
+            if (!_s.referenced)
+                _s.referenced = true; // only write when it changes, to spare the cache line
+            return _s.value;
+        }
+
+        @Override
+        public synchronized V putIfAbsent(K aKey, V aValue) {
+            Slot<K,V> _existing = map.get(aKey);
+            if (_existing != null)
+                return _existing.value;
+
+            Slot<K,V> _s = new Slot<K,V>(aKey, aValue);
+            if (used < ring.length) {
+                ring[used++] = _s;
+            } else {
+                // give each referenced slot a second chance, and evict the first that isn't
+                while (ring[hand].referenced) {
+                    ring[hand].referenced = false;
+                    hand = (hand + 1) % ring.length;
+                }
+                map.remove(ring[hand].key);
+                ring[hand] = _s;
+                hand = (hand + 1) % ring.length;
+            }
+            map.put(aKey, _s);
+            return aValue;
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+    }
+
+    private static class Slot<K,V> {
+        private final K key;
+        private final V value;
+        private volatile boolean referenced;
+
+        Slot(K aKey, V aValue) {
+            key = aKey;
+            value = aValue;
+        }
+    }
+}
@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.TypeSafeConverter;
 
-public class NumberDoubleConverter implements TypeSafeConverter<Number,Double> {
+public class NumberDoubleConverter implements TypeSafeConverter<Number,Double>, CastingConverter {
 
     @Override
     public boolean canConvertFrom(Class<?> aClass) {
@@ -26,4 +26,9 @@ public class NumberDoubleConverter implements TypeSafeConverter<Number,Double> {
 
         return aFrom.doubleValue();
     }
+
+    @Override
+    public Class<?> getPrimitiveType() {
+        return Double.TYPE;
+    }
 }
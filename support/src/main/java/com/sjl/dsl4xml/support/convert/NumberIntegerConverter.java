@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.TypeSafeConverter;
 
-public class NumberIntegerConverter implements TypeSafeConverter<Number,Integer> {
+public class NumberIntegerConverter implements TypeSafeConverter<Number,Integer>, CastingConverter {
 
     @Override
     public boolean canConvertFrom(Class<?> aClass) {
@@ -26,4 +26,9 @@ public class NumberIntegerConverter implements TypeSafeConverter<Number,Integer>
 
         return aFrom.intValue();
     }
+
+    @Override
+    public Class<?> getPrimitiveType() {
+        return Integer.TYPE;
+    }
 }
@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.TypeSafeConverter;
 
-public class NumberLongConverter implements TypeSafeConverter<Number,Long> {
+public class NumberLongConverter implements TypeSafeConverter<Number,Long>, CastingConverter {
 
     @Override
     public boolean canConvertFrom(Class<?> aClass) {
@@ -26,4 +26,9 @@ public class NumberLongConverter implements TypeSafeConverter<Number,Long> {
 
         return aFrom.longValue();
     }
+
+    @Override
+    public Class<?> getPrimitiveType() {
+        return Long.TYPE;
+    }
 }
@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.support.StringConverter;
 
-public class PrimitiveByteStringConverter extends StringConverter<Byte> {
+public class PrimitiveByteStringConverter extends StringConverter<Byte> implements CharSequenceConverter<Byte> {
 
 	@Override
 	public boolean canConvertTo(Class<?> aClass) {
@@ -11,7 +11,17 @@ public class PrimitiveByteStringConverter extends StringConverter<Byte> {
 
 	@Override
 	public Byte convert(String aValue) {
-		return ((aValue == null) || ("".equals(aValue))) ? 0 : new Byte(aValue);
+		return convert((CharSequence) aValue);
+	}
+
+	@Override
+	public Byte convert(CharSequence aChars) {
+		return ((aChars == null) || (aChars.length() == 0)) ? 0 : PrimitiveParsers.parseByte(aChars);
+	}
+
+	@Override
+	public Byte convert(char[] aChars, int anOffset, int aLength) {
+		return (aLength == 0) ? 0 : PrimitiveParsers.parseByte(aChars, anOffset, aLength);
 	}
 
 }
@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.support.StringConverter;
 
-public class PrimitiveDoubleStringConverter extends StringConverter<Double> {
+public class PrimitiveDoubleStringConverter extends StringConverter<Double> implements CharSequenceConverter<Double> {
 
 	@Override
 	public boolean canConvertTo(Class<?> aClass) {
@@ -11,7 +11,17 @@ public class PrimitiveDoubleStringConverter extends StringConverter<Double> {
 
 	@Override
 	public Double convert(String aValue) {
-		return ((aValue == null) || ("".equals(aValue))) ? 0 : new Double(aValue);
+		return convert((CharSequence) aValue);
+	}
+
+	@Override
+	public Double convert(CharSequence aChars) {
+		return ((aChars == null) || (aChars.length() == 0)) ? 0 : PrimitiveParsers.parseDouble(aChars);
+	}
+
+	@Override
+	public Double convert(char[] aChars, int anOffset, int aLength) {
+		return (aLength == 0) ? 0 : PrimitiveParsers.parseDouble(aChars, anOffset, aLength);
 	}
 
 }
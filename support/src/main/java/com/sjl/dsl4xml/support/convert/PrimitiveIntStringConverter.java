@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.support.StringConverter;
 
-public class PrimitiveIntStringConverter extends StringConverter<Integer> {
+public class PrimitiveIntStringConverter extends StringConverter<Integer> implements CharSequenceConverter<Integer> {
 
 	@Override
 	public boolean canConvertTo(Class<?> aClass) {
@@ -11,7 +11,17 @@ public class PrimitiveIntStringConverter extends StringConverter<Integer> {
 
 	@Override
 	public Integer convert(String aValue) {
-		return ((aValue == null) || ("".equals(aValue))) ? 0 : new Integer(aValue);
+		return convert((CharSequence) aValue);
+	}
+
+	@Override
+	public Integer convert(CharSequence aChars) {
+		return ((aChars == null) || (aChars.length() == 0)) ? 0 : PrimitiveParsers.parseInt(aChars);
+	}
+
+	@Override
+	public Integer convert(char[] aChars, int anOffset, int aLength) {
+		return (aLength == 0) ? 0 : PrimitiveParsers.parseInt(aChars, anOffset, aLength);
 	}
 
 }
@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.support.StringConverter;
 
-public class PrimitiveLongStringConverter extends StringConverter<Long> {
+public class PrimitiveLongStringConverter extends StringConverter<Long> implements CharSequenceConverter<Long> {
 
 	@Override
 	public boolean canConvertTo(Class<?> aClass) {
@@ -11,7 +11,17 @@ public class PrimitiveLongStringConverter extends StringConverter<Long> {
 
 	@Override
 	public Long convert(String aValue) {
-		return ((aValue == null) || ("".equals(aValue))) ? 0 : new Long(aValue);
+		return convert((CharSequence) aValue);
+	}
+
+	@Override
+	public Long convert(CharSequence aChars) {
+		return ((aChars == null) || (aChars.length() == 0)) ? 0 : PrimitiveParsers.parseLong(aChars);
+	}
+
+	@Override
+	public Long convert(char[] aChars, int anOffset, int aLength) {
+		return (aLength == 0) ? 0 : PrimitiveParsers.parseLong(aChars, anOffset, aLength);
 	}
 
 }
@@ -0,0 +1,261 @@
+package com.sjl.dsl4xml.support.convert;
+
+/**
+ * Parses primitive values straight out of character buffers, so that a
+ * number read from a document needn't first be copied into a String.
+ *
+ * Values are parsed exactly as Integer.parseInt, Double.parseDouble and
+ * friends would parse the same characters, including the exceptions thrown
+ * for malformed input. The common forms - plain decimal integers, and
+ * decimals with at most 15 significant digits and a modest exponent - are
+ * parsed here without allocating; anything else (surrounding whitespace,
+ * "NaN", hex floats, non-ASCII digits...) is handed to the JDK as a String.
+ *
+ * @author steve
+ */
+public final class PrimitiveParsers {
+
+    private static final int BYTE = 0;
+    private static final int SHORT = 1;
+    private static final int INT = 2;
+    private static final int LONG = 3;
+
+    // the largest mantissa for which m * 10^e (or m / 10^e) is exact, given exact powers
+    private static final long MAX_DOUBLE_MANTISSA = 1L << 53;
+    private static final long MAX_FLOAT_MANTISSA = 1L << 24;
+
+    // powers of ten that are exactly representable
+    private static final double[] DOUBLE_POWERS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    private PrimitiveParsers() {}
+
+    public static byte parseByte(char[] aChars, int anOffset, int aLength) {
+        return (byte) parseIntegral(aChars, null, anOffset, aLength, BYTE);
+    }
+
+    public static byte parseByte(CharSequence aChars) {
+        return (byte) parseIntegral(null, aChars, 0, aChars.length(), BYTE);
+    }
+
+    public static short parseShort(char[] aChars, int anOffset, int aLength) {
+        return (short) parseIntegral(aChars, null, anOffset, aLength, SHORT);
+    }
+
+    public static short parseShort(CharSequence aChars) {
+        return (short) parseIntegral(null, aChars, 0, aChars.length(), SHORT);
+    }
+
+    public static int parseInt(char[] aChars, int anOffset, int aLength) {
+        return (int) parseIntegral(aChars, null, anOffset, aLength, INT);
+    }
+
+    public static int parseInt(CharSequence aChars) {
+        return (int) parseIntegral(null, aChars, 0, aChars.length(), INT);
+    }
+
+    public static long parseLong(char[] aChars, int anOffset, int aLength) {
+        return parseIntegral(aChars, null, anOffset, aLength, LONG);
+    }
+
+    public static long parseLong(CharSequence aChars) {
+        return parseIntegral(null, aChars, 0, aChars.length(), LONG);
+    }
+
+    public static double parseDouble(char[] aChars, int anOffset, int aLength) {
+        return parseDecimal(aChars, null, anOffset, aLength, false);
+    }
+
+    public static double parseDouble(CharSequence aChars) {
+        return parseDecimal(null, aChars, 0, aChars.length(), false);
+    }
+
+    public static float parseFloat(char[] aChars, int anOffset, int aLength) {
+        return (float) parseDecimal(aChars, null, anOffset, aLength, true);
+    }
+
+    public static float parseFloat(CharSequence aChars) {
+        return (float) parseDecimal(null, aChars, 0, aChars.length(), true);
+    }
+
+    /**
+     * @return true if the characters spell "true", ignoring case, as for
+     * Boolean.parseBoolean.
+     */
+    public static boolean parseBoolean(char[] aChars, int anOffset, int aLength) {
+        return isTrue(aChars, null, anOffset, aLength);
+    }
+
+    public static boolean parseBoolean(CharSequence aChars) {
+        return isTrue(null, aChars, 0, aChars.length());
+    }
+
+    private static char charAt(char[] aChars, CharSequence aSequence, int anIndex) {
+        return (aChars != null) ? aChars[anIndex] : aSequence.charAt(anIndex);
+    }
+
+    private static String toString(char[] aChars, CharSequence aSequence, int anOffset, int aLength) {
+        return (aChars != null) ? new String(aChars, anOffset, aLength) : aSequence.subSequence(anOffset, anOffset + aLength).toString();
+    }
+
+    private static long parseIntegral(char[] aChars, CharSequence aSequence, int anOffset, int aLength, int aType) {
+        int _end = anOffset + aLength;
+        int i = anOffset;
+        boolean _negative = false;
+        if (aLength > 0) {
+            char _c = charAt(aChars, aSequence, i);
+            if ((_c == '-') || (_c == '+')) {
+                _negative = (_c == '-');
+                i++;
+            }
+        }
+        if (i == _end)
+            return parseIntegral(toString(aChars, aSequence, anOffset, aLength), aType);
+
+        // accumulate negatively, as the JDK does, so that MIN_VALUE doesn't overflow
+        long _limit = _negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long _multMin = _limit / 10;
+        long _result = 0;
+        for (; i<_end; i++) {
+            int _digit = charAt(aChars, aSequence, i) - '0';
+            if ((_digit < 0) || (_digit > 9) || (_result < _multMin))
+                return parseIntegral(toString(aChars, aSequence, anOffset, aLength), aType);
+            _result *= 10;
+            if (_result < _limit + _digit)
+                return parseIntegral(toString(aChars, aSequence, anOffset, aLength), aType);
+            _result -= _digit;
+        }
+        _result = _negative ? _result : -_result;
+
+        if (!fits(_result, aType))
+            return parseIntegral(toString(aChars, aSequence, anOffset, aLength), aType);
+        return _result;
+    }
+
+    private static boolean fits(long aValue, int aType) {
+        switch (aType) {
+            case BYTE :
+                return (aValue >= Byte.MIN_VALUE) && (aValue <= Byte.MAX_VALUE);
+            case SHORT :
+                return (aValue >= Short.MIN_VALUE) && (aValue <= Short.MAX_VALUE);
+            case INT :
+                return (aValue >= Integer.MIN_VALUE) && (aValue <= Integer.MAX_VALUE);
+            default :
+                return true;
+        }
+    }
+
+    // the JDK decides what anything we can't parse ourselves means, or throws the exception it would have thrown
+    private static long parseIntegral(String aValue, int aType) {
+        switch (aType) {
+            case BYTE :
+                return Byte.parseByte(aValue);
+            case SHORT :
+                return Short.parseShort(aValue);
+            case INT :
+                return Integer.parseInt(aValue);
+            default :
+                return Long.parseLong(aValue);
+        }
+    }
+
+    private static double parseDecimal(char[] aChars, CharSequence aSequence, int anOffset, int aLength, boolean aFloat) {
+        int _end = anOffset + aLength;
+        int i = anOffset;
+        boolean _negative = false;
+        if (aLength > 0) {
+            char _c = charAt(aChars, aSequence, i);
+            if ((_c == '-') || (_c == '+')) {
+                _negative = (_c == '-');
+                i++;
+            }
+        }
+
+        long _mantissa = 0;
+        int _significant = 0;
+        int _digits = 0;
+        int _exponent = 0;
+        boolean _point = false;
+        for (; i<_end; i++) {
+            char _c = charAt(aChars, aSequence, i);
+            if ((_c >= '0') && (_c <= '9')) {
+                _digits++;
+                if ((_mantissa > 0) || (_c != '0'))
+                    _significant++;
+                if (_significant > 15)
+                    return parseDecimal(toString(aChars, aSequence, anOffset, aLength), aFloat);
+                _mantissa = _mantissa * 10 + (_c - '0');
+                if (_point)
+                    _exponent--;
+            } else if ((_c == '.') && !_point) {
+                _point = true;
+            } else {
+                break;
+            }
+        }
+        if (_digits == 0)
+            return parseDecimal(toString(aChars, aSequence, anOffset, aLength), aFloat);
+
+        if (i < _end) {
+            char _c = charAt(aChars, aSequence, i++);
+            if (((_c != 'e') && (_c != 'E')) || (i == _end))
+                return parseDecimal(toString(aChars, aSequence, anOffset, aLength), aFloat);
+
+            boolean _negativeExponent = false;
+            _c = charAt(aChars, aSequence, i);
+            if ((_c == '-') || (_c == '+')) {
+                _negativeExponent = (_c == '-');
+                if (++i == _end)
+                    return parseDecimal(toString(aChars, aSequence, anOffset, aLength), aFloat);
+            }
+            int _explicit = 0;
+            for (; i<_end; i++) {
+                _c = charAt(aChars, aSequence, i);
+                if ((_c < '0') || (_c > '9') || (_explicit > 1000))
+                    return parseDecimal(toString(aChars, aSequence, anOffset, aLength), aFloat);
+                _explicit = _explicit * 10 + (_c - '0');
+            }
+            _exponent += _negativeExponent ? -_explicit : _explicit;
+        }
+
+        double _result;
+        if (_mantissa == 0) {
+            _result = 0d;
+        } else if (aFloat) {
+            if ((_mantissa > MAX_FLOAT_MANTISSA) || (_exponent < -10) || (_exponent > 10))
+                return parseDecimal(toString(aChars, aSequence, anOffset, aLength), aFloat);
+            // both operands are exact floats, so the result is rounded only once
+            float _f = (_exponent < 0) ?
+                ((float) _mantissa) / FLOAT_POWERS[-_exponent] :
+                ((float) _mantissa) * FLOAT_POWERS[_exponent];
+            _result = _f;
+        } else {
+            if ((_mantissa > MAX_DOUBLE_MANTISSA) || (_exponent < -22) || (_exponent > 22))
+                return parseDecimal(toString(aChars, aSequence, anOffset, aLength), aFloat);
+            _result = (_exponent < 0) ?
+                ((double) _mantissa) / DOUBLE_POWERS[-_exponent] :
+                ((double) _mantissa) * DOUBLE_POWERS[_exponent];
+        }
+        return _negative ? -_result : _result;
+    }
+
+    private static double parseDecimal(String aValue, boolean aFloat) {
+        return aFloat ? Float.parseFloat(aValue) : Double.parseDouble(aValue);
+    }
+
+    private static boolean isTrue(char[] aChars, CharSequence aSequence, int anOffset, int aLength) {
+        if (aLength != 4)
+            return false;
+        String _true = "true";
+        for (int i=0; i<4; i++) {
+            if (Character.toLowerCase(charAt(aChars, aSequence, anOffset + i)) != _true.charAt(i))
+                return false;
+        }
+        return true;
+    }
+}
@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.support.StringConverter;
 
-public class PrimitiveShortStringConverter extends StringConverter<Short> {
+public class PrimitiveShortStringConverter extends StringConverter<Short> implements CharSequenceConverter<Short> {
 
 	@Override
 	public boolean canConvertTo(Class<?> aClass) {
@@ -11,7 +11,17 @@ public class PrimitiveShortStringConverter extends StringConverter<Short> {
 
 	@Override
 	public Short convert(String aValue) {
-		return ((aValue == null) || ("".equals(aValue))) ? 0 : new Short(aValue);
+		return convert((CharSequence) aValue);
+	}
+
+	@Override
+	public Short convert(CharSequence aChars) {
+		return ((aChars == null) || (aChars.length() == 0)) ? 0 : PrimitiveParsers.parseShort(aChars);
+	}
+
+	@Override
+	public Short convert(char[] aChars, int anOffset, int aLength) {
+		return (aLength == 0) ? 0 : PrimitiveParsers.parseShort(aChars, anOffset, aLength);
 	}
 
 }
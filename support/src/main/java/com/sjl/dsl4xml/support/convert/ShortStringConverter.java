@@ -2,7 +2,7 @@ package com.sjl.dsl4xml.support.convert;
 
 import com.sjl.dsl4xml.support.StringConverter;
 
-public class ShortStringConverter extends StringConverter<Short> {
+public class ShortStringConverter extends StringConverter<Short> implements CharSequenceConverter<Short> {
 
 	@Override
 	public boolean canConvertTo(Class<?> aClass) {
@@ -11,7 +11,17 @@ public class ShortStringConverter extends StringConverter<Short> {
 
 	@Override
 	public Short convert(String aValue) {
-		return ((aValue == null) || ("".equals(aValue))) ? null : new Short(aValue);
+		return convert((CharSequence) aValue);
+	}
+
+	@Override
+	public Short convert(CharSequence aChars) {
+		return ((aChars == null) || (aChars.length() == 0)) ? null : PrimitiveParsers.parseShort(aChars);
+	}
+
+	@Override
+	public Short convert(char[] aChars, int anOffset, int aLength) {
+		return (aLength == 0) ? null : PrimitiveParsers.parseShort(aChars, anOffset, aLength);
 	}
 	
 }
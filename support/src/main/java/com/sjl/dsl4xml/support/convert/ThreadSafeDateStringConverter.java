@@ -12,16 +12,25 @@ import com.sjl.dsl4xml.support.StringConverter;
  * best performance. There is a small overhead associated with
  * using ThreadLocal storage of the DateFormat.
  * 
+ * Where the pattern only has fixed-width numeric fields, values are parsed
+ * as by a CompiledDateStringConverter, and the DateFormat is only needed for
+ * values that don't match it exactly.
+ * 
  * @author steve
  */
 public class ThreadSafeDateStringConverter extends StringConverter<Date> {
 
 	private ThreadLocal<DateFormat> dateFormat;
+	private DateParser parser;
 	
 	public ThreadSafeDateStringConverter(final String aDateFormatPattern) {
+		final TimeZone _zone = TimeZone.getDefault();
+		parser = DateParser.compile(aDateFormatPattern, _zone);
 		dateFormat = new ThreadLocal<DateFormat>() {
 			protected DateFormat initialValue() {
-				return new SimpleDateFormat(aDateFormatPattern);
+				DateFormat _f = new SimpleDateFormat(aDateFormatPattern);
+				_f.setTimeZone(_zone);
+				return _f;
 			}
 		};
 	}
@@ -33,8 +42,15 @@ public class ThreadSafeDateStringConverter extends StringConverter<Date> {
 
 	@Override
 	public Date convert(String aValue) {
+		if ((aValue == null) || ("".equals(aValue)))
+			return null;
+		
+		long _time = (parser == null) ? DateParser.UNPARSEABLE : parser.parse(aValue);
+		if (_time != DateParser.UNPARSEABLE)
+			return new Date(_time);
+		
 		try {
-			return ((aValue == null) || ("".equals(aValue))) ? null : dateFormat.get().parse(aValue);
+			return dateFormat.get().parse(aValue);
 		} catch (ParseException anExc) {
 			throw new ParsingException(anExc);
 		}
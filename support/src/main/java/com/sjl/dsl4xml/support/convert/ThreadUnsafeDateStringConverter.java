@@ -11,16 +11,21 @@ import com.sjl.dsl4xml.support.StringConverter;
  * the PullDocumentReader that refers to this converter will only
  * ever be used in a single-threaded manner.
  * 
- * For multi-threaded usage, use ThreadSafeDateStringConverter instead.
+ * For multi-threaded usage, use ThreadSafeDateStringConverter instead,
+ * or a CompiledDateStringConverter if the pattern only has fixed-width
+ * numeric fields (in which case this converter parses the same way, and
+ * only falls back to its DateFormat for values that don't fit the pattern).
  * 
  * @author steve
  */
 public class ThreadUnsafeDateStringConverter extends StringConverter<Date> {
 
 	private DateFormat dateFormat;
+	private DateParser parser;
 	
 	public ThreadUnsafeDateStringConverter(String aDateFormatPattern) {
 		dateFormat = new SimpleDateFormat(aDateFormatPattern);
+		parser = DateParser.compile(aDateFormatPattern, dateFormat.getTimeZone());
 	}
 	
 	@Override
@@ -30,8 +35,15 @@ public class ThreadUnsafeDateStringConverter extends StringConverter<Date> {
 
 	@Override
 	public Date convert(String aValue) {
+		if ((aValue == null) || ("".equals(aValue)))
+			return null;
+		
+		long _time = (parser == null) ? DateParser.UNPARSEABLE : parser.parse(aValue);
+		if (_time != DateParser.UNPARSEABLE)
+			return new Date(_time);
+		
 		try {
-			return ((aValue == null) || ("".equals(aValue))) ? null : dateFormat.parse(aValue);
+			return dateFormat.parse(aValue);
 		} catch (ParseException anExc) {
 			throw new ParsingException(anExc);
 		}
@@ -0,0 +1,67 @@
+package com.sjl.dsl4xml.support;
+
+import java.util.EmptyStackException;
+
+import org.junit.*;
+
+public class ArrayStackTest {
+
+	@Test
+	public void popsInReverseOrderOfPushes() {
+		ArrayStack<String> _s = new ArrayStack<String>();
+		for (int i=0; i<100; i++) {
+			_s.push("item" + i);
+		}
+		Assert.assertEquals(100, _s.size());
+		Assert.assertEquals("item99", _s.peek());
+		for (int i=99; i>=0; i--) {
+			Assert.assertEquals("item" + i, _s.pop());
+		}
+		Assert.assertTrue(_s.isEmpty());
+	}
+
+	@Test
+	public void clearEmptiesForReuse() {
+		ArrayStack<String> _s = new ArrayStack<String>();
+		_s.push("a");
+		_s.push("b");
+		_s.clear();
+		Assert.assertTrue(_s.isEmpty());
+		_s.push("c");
+		Assert.assertEquals("c", _s.pop());
+	}
+
+	@Test(expected=EmptyStackException.class)
+	public void peekingAnEmptyStackFails() {
+		new ArrayStack<String>().peek();
+	}
+
+	@Test(expected=EmptyStackException.class)
+	public void poppingAnEmptyStackFails() {
+		ArrayStack<String> _s = new ArrayStack<String>();
+		_s.push("a");
+		_s.pop();
+		_s.pop();
+	}
+
+	@Test
+	public void intStackPopsInReverseOrderOfPushes() {
+		IntStack _s = new IntStack();
+		for (int i=0; i<100; i++) {
+			_s.push(i);
+		}
+		Assert.assertEquals(99, _s.peek());
+		for (int i=99; i>=0; i--) {
+			Assert.assertEquals(i, _s.pop());
+		}
+		Assert.assertTrue(_s.isEmpty());
+		_s.push(-1);
+		_s.clear();
+		Assert.assertEquals(0, _s.size());
+	}
+
+	@Test(expected=EmptyStackException.class)
+	public void poppingAnEmptyIntStackFails() {
+		new IntStack().pop();
+	}
+}
@@ -0,0 +1,85 @@
+package com.sjl.dsl4xml.support;
+
+import java.util.*;
+
+import org.junit.*;
+
+import com.sjl.dsl4xml.*;
+import com.sjl.dsl4xml.support.convert.*;
+
+public class BuildersTest {
+
+	@Test
+	public void plainBuildersFindNoIndexesOrPrimitives() {
+		Plain _b = new Plain();
+		Assert.assertEquals(-1, Builders.indexOf(_b, "a"));
+		Assert.assertEquals(-1, Builders.unnamedIndexOf(_b));
+		Assert.assertNull(Builders.getPrimitiveType(_b));
+	}
+
+	@Test
+	public void plainBuildersMoveDownByName() {
+		Plain _b = new Plain();
+		Assert.assertSame(_b, Builders.moveDown(_b, -1, "a"));
+		Assert.assertEquals(Arrays.asList("a"), _b.moved);
+	}
+
+	@Test
+	public void plainBuildersAreGivenPrimitivesBoxed() {
+		Plain _b = new Plain();
+		Builders.setInt(_b, null, "i", 1);
+		Builders.setLong(_b, null, "l", 2L);
+		Builders.setDouble(_b, null, "d", 3d);
+		Builders.setBoolean(_b, null, "b", true);
+
+		Map<String,Object> _expected = new HashMap<String,Object>();
+		_expected.put("i", 1);
+		_expected.put("l", 2L);
+		_expected.put("d", 3d);
+		_expected.put("b", true);
+		Assert.assertEquals(_expected, _b.values);
+	}
+
+	@Test
+	public void indexedBuildersAreUsedAsSuch() {
+		PropertyBuilder<Number,Integer> _b = new PropertyBuilder<Number,Integer>(
+			new Name.Impl("n"), Integer.TYPE, new NumberIntegerConverter());
+		Assert.assertEquals(Integer.TYPE, Builders.getPrimitiveType(_b));
+		Assert.assertEquals(-1, Builders.indexOf(_b, "n"));
+		Assert.assertEquals(-1, Builders.unnamedIndexOf(_b));
+	}
+
+	// implements only the methods a Builder had before there were indexed ones
+	static class Plain implements Builder<Object> {
+		List<String> moved = new ArrayList<String>();
+		Map<String,Object> values = new HashMap<String,Object>();
+
+		public Name getName() {
+			return new Name.Impl("plain");
+		}
+
+		public boolean isArray() {
+			return false;
+		}
+
+		public Class<? extends Object> getTargetType() {
+			return Object.class;
+		}
+
+		public Builder<?> moveDown(String aName) {
+			moved.add(aName);
+			return this;
+		}
+
+		public void prepare(Context aContext) {
+		}
+
+		public void setValue(Context aContext, String aName, Object aValue) {
+			values.put(aName, aValue);
+		}
+
+		public Object build(Context aContext) {
+			return values;
+		}
+	}
+}
@@ -0,0 +1,370 @@
+package com.sjl.dsl4xml.support;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.junit.*;
+
+import com.sjl.dsl4xml.Converter;
+
+public class ImplementationsTest {
+
+	@Before
+	public void generateImplementations() {
+		Implementations.setGenerating(true);
+	}
+
+	@After
+	public void useProxies() {
+		Implementations.setGenerating(false);
+	}
+
+	@Test
+	public void assignsSlotsInPropertyNameOrder() {
+		PropertyTable _table = Implementations.getPropertyTable(Typed.class);
+		Assert.assertEquals(6, _table.size());
+		Assert.assertEquals(0, _table.getSlot("active"));
+		Assert.assertEquals(1, _table.getSlot("count"));
+		Assert.assertEquals(3, _table.getSlot("name"));
+		Assert.assertEquals(4, _table.getSlot("ratio"));
+		Assert.assertEquals(5, _table.getSlot("total"));
+		Assert.assertEquals(-1, _table.getSlot("missing"));
+	}
+
+	@Test
+	public void normalisesHyphenatedNames() {
+		Assert.assertEquals(2, Implementations.getPropertyTable(Typed.class).getSlot("first-letter"));
+	}
+
+	@Test
+	public void generatesImplementationOfPublicInterface() {
+		Typed _t = Implementations.newInstance(Typed.class);
+		Assert.assertNotNull(_t);
+		Assert.assertTrue(Implementations.isImplementation(_t.getClass()));
+		Assert.assertSame(_t.getClass(), Implementations.getImplementation(Typed.class));
+	}
+
+	@Test
+	public void storesPropertiesInTypedSlots() {
+		Typed _t = Implementations.newInstance(Typed.class);
+		Slotted _s = (Slotted) _t;
+		_s.__slot_set(0, Boolean.TRUE);
+		_s.__slot_set(1, 42);
+		_s.__slot_set(2, 'x');
+		_s.__slot_set(3, "hello");
+		_s.__slot_set(4, 0.5d);
+		_s.__slot_set(5, 123456789012L);
+
+		Assert.assertTrue(_t.isActive());
+		Assert.assertEquals(42, _t.getCount());
+		Assert.assertEquals('x', _t.getFirstLetter());
+		Assert.assertEquals("hello", _t.getName());
+		Assert.assertEquals(0.5d, _t.getRatio(), 0d);
+		Assert.assertEquals(123456789012L, _t.getTotal());
+		Assert.assertEquals(42, _s.__slot_get(1));
+	}
+
+	@Test
+	public void leavesPrimitivesAtDefaultsWhenSetToNull() {
+		Typed _t = Implementations.newInstance(Typed.class);
+		((Slotted) _t).__slot_set(1, null);
+		((Slotted) _t).__slot_set(0, null);
+		Assert.assertEquals(0, _t.getCount());
+		Assert.assertFalse(_t.isActive());
+	}
+
+	@Test
+	public void implementsInterfaceMutators() {
+		Typed _t = Implementations.newInstance(Typed.class);
+		_t.setName("world");
+		Assert.assertEquals("world", _t.getName());
+	}
+
+	@Test
+	public void implementsMagicSet() {
+		Typed _t = Implementations.newInstance(Typed.class);
+		((Mutable) _t).__magic_set("count", 7);
+		Assert.assertEquals(7, _t.getCount());
+	}
+
+	@Test
+	public void keepsUnknownNamesAsExtrasLikeProxies() {
+		Typed _t = Implementations.newInstance(Typed.class);
+		((Mutable) _t).__magic_set("colour", "red");
+		Assert.assertTrue(_t.toString(), _t.toString().contains("colour=red"));
+	}
+
+	@Test
+	public void describesPropertiesInTheSameFormatAsProxies() {
+		Typed _generated = Implementations.newInstance(Typed.class);
+		Typed _proxy = Implementations.newProxy(Typed.class);
+		for (Typed _t : Arrays.asList(_generated, _proxy)) {
+			Slotted _s = (Slotted) _t;
+			_s.__slot_set(0, Boolean.TRUE);
+			_s.__slot_set(1, 42);
+			_s.__slot_set(2, 'x');
+			_s.__slot_set(4, 0.5d);
+			_s.__slot_set(5, 7L);
+			((Mutable) _t).__magic_set("colour", "red");
+		}
+		Assert.assertEquals(_proxy.toString(), _generated.toString());
+	}
+
+	@Test
+	public void generatesMutatorsForEveryProperty() throws Exception {
+		Typed _t = Implementations.newInstance(Typed.class);
+		_t.getClass().getMethod("setCount", Integer.TYPE).invoke(_t, 3);
+		Assert.assertEquals(3, _t.getCount());
+	}
+
+	@Test
+	public void describesPropertiesInToString() {
+		Typed _t = Implementations.newInstance(Typed.class);
+		_t.setName("steve");
+		Assert.assertTrue(_t.toString(), _t.toString().contains("name=steve"));
+	}
+
+	@Test
+	public void implementsListBasedInterfacesAsLists() {
+		Shelf _shelf = Implementations.newInstance(Shelf.class);
+		_shelf.add("one");
+		_shelf.add("two");
+		((Slotted) _shelf).__slot_set(Implementations.getPropertyTable(Shelf.class).getSlot("label"), "fiction");
+
+		Assert.assertEquals(Arrays.asList("one", "two"), new ArrayList<String>(_shelf));
+		Assert.assertEquals("fiction", _shelf.getLabel());
+	}
+
+	@Test
+	public void fallsBackToProxiesForNonPublicInterfaces() {
+		Assert.assertNull(Implementations.getImplementation(Hidden.class));
+		Assert.assertTrue(Proxy.isProxyClass(Implementations.newInstance(Hidden.class).getClass()));
+	}
+
+	@Test
+	public void fallsBackToProxiesForUnsupportedMethods() {
+		Assert.assertNull(Implementations.getImplementation(TwoArgs.class));
+	}
+
+	@Test
+	public void usesProxiesWhenNotGenerating() {
+		Implementations.setGenerating(false);
+		Assert.assertNull(Implementations.getImplementation(NotGenerated.class));
+	}
+
+	@Test
+	public void stopsUsingGeneratedImplementationsWhenSwitchedOff() {
+		Assert.assertTrue(Implementations.isImplementation(Implementations.newInstance(Typed.class).getClass()));
+		Instantiator<Typed> _resolved = Instantiator.of(Typed.class);
+
+		Implementations.setGenerating(false);
+		Assert.assertNull(Implementations.getImplementation(Typed.class));
+		Assert.assertTrue(Proxy.isProxyClass(Implementations.newInstance(Typed.class).getClass()));
+		// but whatever was resolved while generating carries on as it was
+		Assert.assertTrue(Implementations.isImplementation(_resolved.newInstance().getClass()));
+	}
+
+	@Test
+	public void proxiesShareSlotsWithGeneratedImplementations() {
+		PropertyTable _table = Implementations.getPropertyTable(Typed.class);
+		Typed _proxy = Implementations.newProxy(Typed.class);
+		((Slotted) _proxy).__slot_set(_table.getSlot("name"), "proxied");
+		((Mutable) _proxy).__magic_set("count", 9);
+		_proxy.setName(_proxy.getName() + "!");
+
+		Assert.assertEquals("proxied!", _proxy.getName());
+		Assert.assertEquals(9, _proxy.getCount());
+		Assert.assertEquals("proxied!", ((Slotted) _proxy).__slot_get(_table.getSlot("name")));
+		Assert.assertSame(_table, Implementations.getPropertyTable(_proxy.getClass()));
+	}
+
+	@Test
+	public void proxiesKeepListBasedInterfacesInAList() {
+		Shelf _shelf = Implementations.newProxy(Shelf.class);
+		_shelf.add("one");
+		((Mutable) _shelf).__magic_set("label", "fiction");
+
+		Assert.assertEquals(1, _shelf.size());
+		Assert.assertEquals("one", _shelf.get(0));
+		Assert.assertEquals("fiction", _shelf.getLabel());
+	}
+
+	@Test
+	public void proxiesDelegateRedeclaredListMethodsToTheList() {
+		Assert.assertNull(Implementations.getImplementation(Titles.class));
+
+		Titles _titles = Implementations.newInstance(Titles.class);
+		_titles.add("first");
+		_titles.add("second");
+		String _second = _titles.get(1);
+
+		Assert.assertEquals("second", _second);
+		Assert.assertEquals(2, _titles.size());
+		Assert.assertEquals(-1, Implementations.getPropertyTable(Titles.class).getSlot("get"));
+	}
+
+	@Test
+	public void convertsLazyValuesOnFirstRead() {
+		Counting _converter = new Counting();
+		Dated _d = Implementations.newInstance(Dated.class);
+		Assert.assertTrue(Implementations.isImplementation(_d.getClass()));
+		((Slotted) _d).__slot_set(0, new LazyValue(_converter, "42"));
+		Assert.assertEquals(0, _converter.count);
+
+		Assert.assertEquals(Integer.valueOf(42), _d.getWhen());
+		Assert.assertSame(_d.getWhen(), ((Slotted) _d).__slot_get(0));
+		Assert.assertEquals(1, _converter.count);
+	}
+
+	@Test
+	public void discardsLazyValuesWhenPropertySetAgain() {
+		Counting _converter = new Counting();
+		Dated _d = Implementations.newInstance(Dated.class);
+		((Slotted) _d).__slot_set(0, new LazyValue(_converter, "1"));
+		_d.setWhen(2);
+		Assert.assertEquals(Integer.valueOf(2), _d.getWhen());
+
+		((Slotted) _d).__slot_set(0, new LazyValue(_converter, "3"));
+		((Slotted) _d).__slot_set(0, 4);
+		Assert.assertEquals(Integer.valueOf(4), _d.getWhen());
+		Assert.assertEquals(0, _converter.count);
+	}
+
+	@Test
+	public void proxiesConvertLazyValuesOnFirstRead() {
+		Counting _converter = new Counting();
+		Dated _d = Implementations.newProxy(Dated.class);
+		((Slotted) _d).__slot_set(0, new LazyValue(_converter, "42"));
+		Assert.assertEquals(0, _converter.count);
+
+		Assert.assertEquals(Integer.valueOf(42), _d.getWhen());
+		Assert.assertEquals(Integer.valueOf(42), _d.getWhen());
+		Assert.assertTrue(_d.toString().contains("when=42"));
+		Assert.assertEquals(1, _converter.count);
+	}
+
+	@Test
+	public void convertsLazyValuesOnceWhenReadConcurrently() throws Exception {
+		final Slow _converter = new Slow();
+		final LazyValue _value = new LazyValue(_converter, "42");
+		assertReadOnce(_converter, new Callable<Object>() {
+			public Object call() {
+				return _value.get();
+			}
+		});
+	}
+
+	@Test
+	public void generatedImplementationsConvertLazyValuesOnceWhenReadConcurrently() throws Exception {
+		Slow _converter = new Slow();
+		final Dated _d = Implementations.newInstance(Dated.class);
+		Assert.assertTrue(Implementations.isImplementation(_d.getClass()));
+		((Slotted) _d).__slot_set(0, new LazyValue(_converter, "42"));
+		assertReadOnce(_converter, new Callable<Object>() {
+			public Object call() {
+				return _d.getWhen();
+			}
+		});
+	}
+
+	@Test
+	public void proxiesConvertLazyValuesOnceWhenReadConcurrently() throws Exception {
+		Slow _converter = new Slow();
+		final Dated _d = Implementations.newProxy(Dated.class);
+		((Slotted) _d).__slot_set(0, new LazyValue(_converter, "42"));
+		assertReadOnce(_converter, new Callable<Object>() {
+			public Object call() {
+				return _d.getWhen();
+			}
+		});
+	}
+
+	private void assertReadOnce(Slow aConverter, final Callable<Object> aRead) throws Exception {
+		int _threads = 8;
+		final CyclicBarrier _start = new CyclicBarrier(_threads);
+		ExecutorService _pool = Executors.newFixedThreadPool(_threads);
+		try {
+			List<Future<Object>> _reads = new ArrayList<Future<Object>>();
+			for (int i=0; i<_threads; i++) {
+				_reads.add(_pool.submit(new Callable<Object>() {
+					public Object call() throws Exception {
+						_start.await();
+						return aRead.call();
+					}
+				}));
+			}
+			Object _first = _reads.get(0).get();
+			Assert.assertEquals(Integer.valueOf(42), _first);
+			for (Future<Object> _read : _reads) {
+				Assert.assertSame(_first, _read.get());
+			}
+			Assert.assertEquals(1, aConverter.count.get());
+		} finally {
+			_pool.shutdown();
+		}
+	}
+
+	public interface Dated {
+		public Integer getWhen();
+		public void setWhen(Integer aWhen);
+	}
+
+	static class Counting implements Converter<String,Integer> {
+		int count;
+
+		@Override
+		public Integer convert(String aFrom) {
+			count++;
+			return Integer.valueOf(aFrom);
+		}
+	}
+
+	// converts slowly, to widen the window in which readers can race
+	static class Slow implements Converter<String,Integer> {
+		AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Integer convert(String aFrom) {
+			count.incrementAndGet();
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException anExc) {
+				Thread.currentThread().interrupt();
+			}
+			return new Integer(aFrom);
+		}
+	}
+
+	public interface Typed {
+		public String getName();
+		public void setName(String aName);
+		public int getCount();
+		public boolean isActive();
+		public long getTotal();
+		public double getRatio();
+		public char getFirstLetter();
+	}
+
+	public interface Shelf extends List<String> {
+		public String getLabel();
+	}
+
+	public interface Titles extends List<String> {
+		public String get(int anIndex);
+	}
+
+	public interface TwoArgs {
+		public String getName();
+		public void setName(String aFirst, String aLast);
+	}
+
+	public interface NotGenerated {
+		public String getName();
+	}
+
+	interface Hidden {
+		public String getName();
+	}
+}
@@ -0,0 +1,55 @@
+package com.sjl.dsl4xml.support;
+
+import org.junit.*;
+
+public class KeyTableTest {
+
+	@Test
+	public void findsEachNameByIndex() {
+		String[] _names = new String[500];
+		for (int i=0; i<_names.length; i++) {
+			_names[i] = "name" + i;
+		}
+		KeyTable _t = new KeyTable(_names);
+		for (int i=0; i<_names.length; i++) {
+			Assert.assertEquals(i, _t.indexOf("name" + i));
+			Assert.assertSame(_names[i], _t.getName(i));
+		}
+		Assert.assertEquals(-1, _t.indexOf("name500"));
+		Assert.assertEquals(-1, _t.indexOf(""));
+	}
+
+	@Test
+	public void findsNamesInPlace() {
+		KeyTable _t = new KeyTable(new String[]{ "id", "firstname", "lastname" });
+		char[] _chars = "{\"lastname\":\"x\",\"firstname\":\"y\",\"first\":\"z\"}".toCharArray();
+		Assert.assertEquals(2, _t.indexOf(_chars, 2, 8));
+		Assert.assertEquals(1, _t.indexOf(_chars, 17, 9));
+		Assert.assertEquals(-1, _t.indexOf(_chars, 33, 5));
+	}
+
+	@Test
+	public void firstOfRepeatedNamesWins() {
+		KeyTable _t = new KeyTable(new String[]{ "a", "b", "a" });
+		Assert.assertEquals(0, _t.indexOf("a"));
+		Assert.assertEquals(1, _t.indexOf("b"));
+	}
+
+	@Test
+	public void separatesNamesWithSameHashCode() {
+		KeyTable _t = new KeyTable(new String[]{ null, "", "Aa", "BB", "AaAa", "BBBB", "AaBB" });
+		Assert.assertEquals(1, _t.indexOf(""));
+		Assert.assertEquals(2, _t.indexOf("Aa"));
+		Assert.assertEquals(3, _t.indexOf("BB"));
+		Assert.assertEquals(4, _t.indexOf("AaAa"));
+		Assert.assertEquals(5, _t.indexOf("BBBB"));
+		Assert.assertEquals(6, _t.indexOf("AaBB"));
+		Assert.assertEquals(-1, _t.indexOf("BBAa"));
+	}
+
+	@Test
+	public void emptyTableFindsNothing() {
+		Assert.assertEquals(-1, new KeyTable(new String[0]).indexOf("anything"));
+		Assert.assertEquals(-1, new KeyTable(new String[]{ null }).indexOf(""));
+	}
+}
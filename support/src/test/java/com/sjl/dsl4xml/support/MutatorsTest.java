@@ -0,0 +1,215 @@
+package com.sjl.dsl4xml.support;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+import org.junit.*;
+
+import com.sjl.dsl4xml.*;
+
+public class MutatorsTest {
+
+	@Test
+	public void invokesSingleArgumentMutators() throws Exception {
+		TestModel _model = new TestModel();
+		Mutator _m = Mutators.newMutator(TestModel.class.getMethod("setFieldOne", String.class), "fieldOne");
+		_m.set(_model, "hello");
+		Assert.assertEquals("hello", _model.fieldOne);
+	}
+
+	@Test
+	public void passesPropertyNameToTwoArgumentMutators() throws Exception {
+		TestModel _model = new TestModel();
+		Mutator _m = Mutators.newMutator(TestModel.class.getMethod("put", String.class, Object.class), "fieldTwo");
+		_m.set(_model, "world");
+		Assert.assertEquals("world", _model.named.get("fieldTwo"));
+	}
+
+	@Test
+	public void addsDirectlyToCollections() throws Exception {
+		List<Object> _list = new ArrayList<Object>();
+		Mutator _m = Mutators.newMutator(ArrayList.class.getMethod("add", Object.class), "");
+		_m.set(_list, "one");
+		_m.set(_list, "two");
+		Assert.assertEquals(Arrays.asList("one", "two"), _list);
+	}
+
+	@Test
+	public void callsMagicSetDirectlyOnMutables() throws Exception {
+		MutableModel _model = new MutableModel();
+		Mutator _m = Mutators.newMutator(MutableModel.class.getMethod(ReflectorFactory.MAGIC_SET, String.class, Object.class), "fieldThree");
+		_m.set(_model, 53);
+		Assert.assertEquals(53, _model.named.get("fieldThree"));
+	}
+
+	@Test
+	public void wrapsExceptionsThrownByMutators() throws Exception {
+		Mutator _m = Mutators.newMutator(TestModel.class.getMethod("setBroken", String.class), "broken");
+		try {
+			_m.set(new TestModel(), "boom");
+			Assert.fail("Expected an exception");
+		} catch (ParsingException anExc) {
+			// good
+		}
+	}
+
+	@Test
+	public void throwsGoodExceptionWhenMutatorHasTooManyParameters() throws Exception {
+		try {
+			Mutators.newMutator(TestModel.class.getMethod("setThree", String.class, String.class, String.class), "three");
+			Assert.fail("Expected an exception");
+		} catch (NoSuitableMethodException anExc) {
+			// good
+		}
+	}
+
+	@Test
+	public void generatesPrimitiveMutatorsWhenGenerating() throws Exception {
+		Implementations.setGeneratingBindings(true);
+		try {
+			TestModel _model = new TestModel();
+			Mutator _count = Mutators.newMutator(TestModel.class.getMethod("setCount", Integer.TYPE), "count");
+			Mutator _total = Mutators.newMutator(TestModel.class.getMethod("setTotal", Long.TYPE), "total");
+			Assert.assertNotSame(MethodMutator.class, _count.getClass());
+
+			((PrimitiveMutator) _count).setInt(_model, 42);
+			((PrimitiveMutator) _total).setInt(_model, 7);
+			Assert.assertEquals(42, _model.count);
+			Assert.assertEquals(7L, _model.total);
+
+			_count.set(_model, 43);
+			Assert.assertEquals(43, _model.count);
+		} finally {
+			Implementations.setGeneratingBindings(false);
+		}
+	}
+
+	@Test
+	public void generatesObjectMutatorsWhenGenerating() throws Exception {
+		Implementations.setGeneratingBindings(true);
+		try {
+			TestModel _model = new TestModel();
+			Mutator _m = Mutators.newMutator(TestModel.class.getMethod("setFieldOne", String.class), "fieldOne");
+			Assert.assertNotSame(MethodMutator.class, _m.getClass());
+
+			_m.set(_model, "direct");
+			Assert.assertEquals("direct", _model.fieldOne);
+			try {
+				_m.set(_model, 42);
+				Assert.fail("Expected an exception");
+			} catch (IllegalArgumentException anExc) {
+				// good - as for reflection
+			}
+		} finally {
+			Implementations.setGeneratingBindings(false);
+		}
+	}
+
+	@Test
+	public void generatedMutatorsFailAsReflectiveOnesDo() throws Exception {
+		Method[] _methods = {
+			TestModel.class.getMethod("setBroken", String.class),
+			TestModel.class.getMethod("setBrokenCount", Integer.TYPE)
+		};
+		for (Method _method : _methods) {
+			PrimitiveMutator _reflective = (PrimitiveMutator) Mutators.newMutator(_method, "broken");
+			Implementations.setGeneratingBindings(true);
+			PrimitiveMutator _generated;
+			try {
+				_generated = (PrimitiveMutator) Mutators.newMutator(_method, "broken");
+			} finally {
+				Implementations.setGeneratingBindings(false);
+			}
+			Assert.assertNotSame(MethodMutator.class, _generated.getClass());
+
+			boolean _primitive = _method.getParameterTypes()[0].isPrimitive();
+			Assert.assertEquals(describeFailure(_reflective, new TestModel(), _primitive), describeFailure(_generated, new TestModel(), _primitive));
+			Assert.assertEquals(describeFailure(_reflective, "not a model", _primitive), describeFailure(_generated, "not a model", _primitive));
+		}
+	}
+
+	private String describeFailure(PrimitiveMutator aMutator, Object aTarget, boolean aPrimitive) {
+		try {
+			if (aPrimitive)
+				aMutator.setInt(aTarget, 42);
+			else
+				aMutator.set(aTarget, "42");
+			return "nothing thrown";
+		} catch (RuntimeException anExc) {
+			StringBuilder _sb = new StringBuilder();
+			for (Throwable _t = anExc; _t != null; _t = _t.getCause()) {
+				_sb.append(_t.getClass().getName()).append(": ").append(_t.getMessage()).append("; ");
+			}
+			return _sb.toString();
+		}
+	}
+
+	@Test
+	public void boxesPrimitivesWhenNotGenerating() throws Exception {
+		TestModel _model = new TestModel();
+		Mutator _m = Mutators.newMutator(TestModel.class.getMethod("setCount", Integer.TYPE), "count");
+		Assert.assertSame(MethodMutator.class, _m.getClass());
+
+		((PrimitiveMutator) _m).setInt(_model, 42);
+		Assert.assertEquals(42, _model.count);
+	}
+
+	@Test
+	public void boxesPrimitivesTheMethodCannotAccept() throws Exception {
+		Implementations.setGeneratingBindings(true);
+		try {
+			TestModel _model = new TestModel();
+			PrimitiveMutator _m = (PrimitiveMutator) Mutators.newMutator(TestModel.class.getMethod("setCount", Integer.TYPE), "count");
+			try {
+				_m.setLong(_model, 42L);
+				Assert.fail("Expected an exception");
+			} catch (IllegalArgumentException anExc) {
+				// good - long can't be narrowed to int, as for reflection
+			}
+		} finally {
+			Implementations.setGeneratingBindings(false);
+		}
+	}
+
+	public static class TestModel {
+		private String fieldOne;
+		private int count;
+		private long total;
+		private Map<String,Object> named = new HashMap<String,Object>();
+
+		public void setFieldOne(String aValue) {
+			fieldOne = aValue;
+		}
+
+		public void setCount(int aValue) {
+			count = aValue;
+		}
+
+		public void setTotal(long aValue) {
+			total = aValue;
+		}
+
+		public void put(String aName, Object aValue) {
+			named.put(aName, aValue);
+		}
+
+		public void setBroken(String aValue) {
+			throw new IllegalStateException(aValue);
+		}
+
+		public void setBrokenCount(int aValue) {
+			throw new IllegalStateException(String.valueOf(aValue));
+		}
+
+		public void setThree(String aOne, String aTwo, String aThree) {}
+	}
+
+	public static class MutableModel implements Mutable {
+		private Map<String,Object> named = new HashMap<String,Object>();
+
+		@Override
+		public void __magic_set(String aPropertyName, Object aValue) {
+			named.put(aPropertyName, aValue);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.sjl.dsl4xml.support;
+
+import org.junit.*;
+
+public class NameTableTest {
+
+	@Test
+	public void findsEachNameByIndex() {
+		String[] _names = new String[100];
+		for (int i=0; i<_names.length; i++) {
+			_names[i] = "name" + i;
+		}
+		NameTable _t = new NameTable(_names);
+		for (int i=0; i<_names.length; i++) {
+			Assert.assertEquals(i, _t.indexOf(new String("name" + i)));
+		}
+		Assert.assertEquals(-1, _t.indexOf("name100"));
+		Assert.assertEquals(-1, _t.indexOf(""));
+	}
+
+	@Test
+	public void firstOfRepeatedNamesWins() {
+		NameTable _t = new NameTable(new String[]{ "a", "b", "a" });
+		Assert.assertEquals(0, _t.indexOf("a"));
+		Assert.assertEquals(1, _t.indexOf("b"));
+	}
+
+	@Test
+	public void skipsNulls() {
+		NameTable _t = new NameTable(new String[]{ null, "", "Aa", "BB" });
+		Assert.assertEquals(1, _t.indexOf(""));
+		// "Aa" and "BB" share a hashCode
+		Assert.assertEquals(2, _t.indexOf("Aa"));
+		Assert.assertEquals(3, _t.indexOf("BB"));
+	}
+
+	@Test
+	public void emptyTableFindsNothing() {
+		Assert.assertEquals(-1, new NameTable(new String[0]).indexOf("anything"));
+	}
+
+	@Test
+	public void generatedMatchersFindTheSameIndexes() {
+		String[] _names = new String[]{ null, "", "Aa", "BB", "a", "b", "a", "name" };
+		Implementations.setGeneratingBindings(true);
+		try {
+			NameMatcher _m = Implementations.newNameMatcher(_names);
+			Assert.assertFalse(_m instanceof NameTable);
+
+			NameTable _t = new NameTable(_names);
+			for (String _name : new String[]{ "", "Aa", "BB", "a", "b", "name", "c", "nam" }) {
+				Assert.assertEquals(_t.indexOf(_name), _m.indexOf(new String(_name)));
+			}
+			Assert.assertEquals(-1, Implementations.newNameMatcher(new String[0]).indexOf("anything"));
+		} finally {
+			Implementations.setGeneratingBindings(false);
+		}
+	}
+
+	@Test
+	public void usesTablesWhenNotGenerating() {
+		Assert.assertTrue(Implementations.newNameMatcher(new String[]{ "a" }) instanceof NameTable);
+	}
+}
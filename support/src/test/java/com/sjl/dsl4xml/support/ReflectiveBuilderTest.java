@@ -0,0 +1,82 @@
+package com.sjl.dsl4xml.support;
+
+import java.util.*;
+
+import org.junit.*;
+
+import com.sjl.dsl4xml.*;
+import com.sjl.dsl4xml.support.convert.*;
+
+public class ReflectiveBuilderTest {
+
+	@Test
+	public void looksUpMutatorsByAliasWhenNoneWasBound() {
+		final List<String> _asked = new ArrayList<String>();
+		Reflector _reflector = new Reflector() {
+			public <T> T newInstance(Class<T> aType) {
+				throw new UnsupportedOperationException();
+			}
+
+			public Mutator getMutator(String aName) {
+				_asked.add(aName);
+				return null;
+			}
+		};
+
+		List<Builder<?>> _nested = new ArrayList<Builder<?>>();
+		_nested.add(new PropertyBuilder<String,String>(new Name.Impl("display-label", "label"), String.class, new StringStringConverter()));
+		ReflectiveBuilder<Object> _b = new ReflectiveBuilder<Object>(
+			new Name.Impl("sample"), Object.class, null, null, _reflector, _nested, false);
+
+		setByIndex(_b);
+		setByName(_b, "display-label");
+		Assert.assertEquals(Arrays.asList("label", "label", "label"), _asked);
+
+		// names the builder doesn't know have no alias but themselves
+		setByName(_b, "other");
+		Assert.assertEquals("other", _asked.get(3));
+	}
+
+	@Test
+	public void findsItsUnnamedDefinitionOnceCompiled() {
+		Reflector _reflector = new Reflector() {
+			public <T> T newInstance(Class<T> aType) {
+				throw new UnsupportedOperationException();
+			}
+
+			public Mutator getMutator(String aName) {
+				return null;
+			}
+		};
+
+		List<Builder<?>> _nested = new ArrayList<Builder<?>>();
+		_nested.add(new PropertyBuilder<String,String>(new Name.Impl("label"), String.class, new StringStringConverter()));
+		ReflectiveBuilder<Object> _named = new ReflectiveBuilder<Object>(
+			new Name.Impl("sample"), Object.class, null, null, _reflector, _nested, false);
+		Assert.assertEquals(-1, _named.getUnnamedIndex());
+
+		_nested.add(new PropertyBuilder<String,String>(Name.MISSING, String.class, new StringStringConverter()));
+		ReflectiveBuilder<Object> _unnamed = new ReflectiveBuilder<Object>(
+			new Name.Impl("sample"), Object.class, null, null, _reflector, _nested, true);
+		Assert.assertEquals(_unnamed.indexOf(""), _unnamed.getUnnamedIndex());
+		Assert.assertEquals(1, Builders.unnamedIndexOf(_unnamed));
+	}
+
+	private void setByIndex(ReflectiveBuilder<Object> aBuilder) {
+		try {
+			aBuilder.setValue(null, 0, "x");
+			Assert.fail("expected no mutator to be found");
+		} catch (IllegalStateException anExc) {
+			// expected
+		}
+	}
+
+	private void setByName(ReflectiveBuilder<Object> aBuilder, String aName) {
+		try {
+			aBuilder.setValue(null, aName, "x");
+			Assert.fail("expected no mutator to be found");
+		} catch (IllegalStateException anExc) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.sjl.dsl4xml.support;
+
+import org.junit.*;
+
+public class StringPoolTest {
+
+	@Test
+	public void returnsTheSameInstanceForEqualValues() {
+		StringPool _p = new StringPool();
+		String _first = _p.intern(new String("author"));
+		Assert.assertSame(_first, _p.intern(new String("author")));
+		Assert.assertSame(_first, _p.intern(new StringBuilder("author")));
+		Assert.assertNotSame(_first, _p.intern("other"));
+	}
+
+	@Test
+	public void internsStraightFromCharacters() {
+		StringPool _p = new StringPool();
+		char[] _chars = "<author>author</author>".toCharArray();
+		String _first = _p.intern(_chars, 8, 6);
+		Assert.assertEquals("author", _first);
+		Assert.assertSame(_first, _p.intern(_chars, 1, 6));
+		Assert.assertEquals("", _p.intern(_chars, 0, 0));
+	}
+
+	@Test
+	public void keepsDistinctValuesWithSameHash() {
+		StringPool _p = new StringPool();
+		// "Aa" and "BB" share a hashCode
+		Assert.assertEquals("Aa", _p.intern("Aa"));
+		Assert.assertEquals("BB", _p.intern("BB"));
+		Assert.assertEquals("Aa", _p.intern(new StringBuilder("Aa")));
+	}
+
+	@Test
+	public void growsBeyondItsInitialSize() {
+		StringPool _p = new StringPool();
+		String[] _values = new String[1000];
+		for (int i=0; i<_values.length; i++) {
+			_values[i] = _p.intern(new String("value" + i));
+		}
+		for (int i=0; i<_values.length; i++) {
+			Assert.assertSame(_values[i], _p.intern(new String("value" + i)));
+		}
+	}
+
+	@Test
+	public void stopsRememberingWhenFull() {
+		StringPool _p = new StringPool(null, 2);
+		_p.intern("one");
+		_p.intern("two");
+		String _three = new String("three");
+		Assert.assertSame(_three, _p.intern(_three));
+		Assert.assertNotSame(_three, _p.intern(new String("three")));
+	}
+
+	@Test
+	public void doesNotPoolLongValues() {
+		StringPool _p = new StringPool();
+		char[] _chars = new char[StringPool.MAX_LENGTH + 1];
+		Assert.assertNotSame(_p.intern(_chars, 0, _chars.length), _p.intern(_chars, 0, _chars.length));
+		Assert.assertEquals(0, _p.getBytesSaved());
+	}
+
+	@Test
+	public void countsBytesSaved() {
+		StringPool _p = new StringPool();
+		_p.intern(new String("abc"));
+		Assert.assertEquals(0, _p.getBytesSaved());
+		_p.intern(new String("abc"));
+		_p.intern(new String("abc"));
+		Assert.assertEquals(2 * StringPool.sizeOf(3), _p.getBytesSaved());
+	}
+
+	@Test
+	public void forgetsValuesWhenReset() {
+		StringPool _p = new StringPool();
+		String _first = _p.intern(new String("abc"));
+		_p.intern(new String("abc"));
+		_p.reset(null);
+		Assert.assertEquals(0, _p.getBytesSaved());
+		Assert.assertNotSame(_first, _p.intern(new String("abc")));
+	}
+
+	@Test
+	public void fallsBackToSharedPool() {
+		SharedStringPool _shared = new SharedStringPool(16);
+		StringPool _p = new StringPool(_shared, StringPool.DEFAULT_MAX_SIZE);
+		String _first = _p.intern(new String("abc"));
+
+		_p.reset(_shared);
+		Assert.assertSame(_first, _p.intern("abc".toCharArray(), 0, 3));
+		Assert.assertEquals(StringPool.sizeOf(3), _p.getBytesSaved());
+		Assert.assertEquals(StringPool.sizeOf(3), _shared.getBytesSaved());
+	}
+
+	@Test
+	public void sharedPoolIsBounded() {
+		SharedStringPool _shared = new SharedStringPool(4);
+		for (int i=0; i<100; i++) {
+			Assert.assertEquals("value" + i, _shared.intern("value" + i));
+		}
+		String _last = _shared.intern(new String("value99"));
+		Assert.assertSame(_last, _shared.intern(new StringBuilder("value99")));
+	}
+}
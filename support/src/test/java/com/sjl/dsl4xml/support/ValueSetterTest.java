@@ -5,6 +5,7 @@ import org.jmock.lib.legacy.ClassImposteriser;
 import org.junit.*;
 
 import com.sjl.dsl4xml.*;
+import com.sjl.dsl4xml.support.convert.*;
 
 public class ValueSetterTest {
 
@@ -115,6 +116,80 @@ public class ValueSetterTest {
 		}
 	}
 	
+	@Test
+	public void parsesPrimitivesStraightIntoPrimitiveSetters() {
+		Implementations.setGeneratingBindings(true);
+		try {
+			ConverterRegistry _converters = DefaultConverters.newXmlRegistry();
+			Counts _counts = new Counts();
+			new ValueSetter(_converters, Counts.class, "count").invoke("count", _counts, "x42x".toCharArray(), 1, 2);
+			new ValueSetter(_converters, Counts.class, "total").invoke("total", _counts, new StringBuilder("12345678901"));
+			new ValueSetter(_converters, Counts.class, "ratio").invoke("ratio", _counts, "0.5");
+			new ValueSetter(_converters, Counts.class, "active").invoke("active", _counts, "TRUE");
+			Assert.assertEquals(42, _counts.count);
+			Assert.assertEquals(12345678901L, _counts.total);
+			Assert.assertEquals(0.5d, _counts.ratio, 0d);
+			Assert.assertTrue(_counts.active);
+
+			new ValueSetter(_converters, Counts.class, "count").invoke("count", _counts, "");
+			Assert.assertEquals(0, _counts.count);
+		} finally {
+			Implementations.setGeneratingBindings(false);
+		}
+	}
+
+	@Test
+	public void usesRegisteredConvertersForPrimitivesToo() {
+		CachingConverterRegistry _converters = DefaultConverters.newXmlRegistry();
+		_converters.registerConverters(new StringConverter<Integer>() {
+			@Override
+			public boolean canConvertTo(Class<?> aClass) {
+				return aClass == Integer.TYPE;
+			}
+
+			@Override
+			public Integer convert(String aValue) {
+				return 7;
+			}
+		});
+		Counts _counts = new Counts();
+		new ValueSetter(_converters, Counts.class, "count").invoke("count", _counts, "42");
+		Assert.assertEquals(7, _counts.count);
+	}
+
+	@Test
+	public void failsToParsePrimitivesWithParsingExceptions() {
+		try {
+			new ValueSetter(DefaultConverters.newXmlRegistry(), Counts.class, "count").invoke("count", new Counts(), "forty-two");
+			Assert.fail("Expected an exception");
+		} catch (ParsingException anExc) {
+			// good
+		}
+	}
+
+	public static class Counts {
+		private int count;
+		private long total;
+		private double ratio;
+		private boolean active;
+
+		public void setCount(int aCount) {
+			count = aCount;
+		}
+
+		public void setTotal(long aTotal) {
+			total = aTotal;
+		}
+
+		public void setRatio(double aRatio) {
+			ratio = aRatio;
+		}
+
+		public void setActive(boolean anActive) {
+			active = anActive;
+		}
+	}
+
 	public interface TestModel {
 		public Integer getFieldOne();
 		public Integer getFieldTwo();
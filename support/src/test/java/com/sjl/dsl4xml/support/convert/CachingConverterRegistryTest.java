@@ -0,0 +1,120 @@
+package com.sjl.dsl4xml.support.convert;
+
+import org.junit.*;
+
+import com.sjl.dsl4xml.*;
+
+public class CachingConverterRegistryTest {
+
+	@Test
+	public void findsConverterForTypePair() {
+		CachingConverterRegistry _r = new CachingConverterRegistry(new IntegerStringConverter(), new StringStringConverter());
+		Assert.assertTrue(_r.getConverter(Integer.class) instanceof IntegerStringConverter);
+		Assert.assertTrue(_r.getConverter(String.class) instanceof StringStringConverter);
+	}
+
+	@Test
+	public void returnsSameConverterFromCache() {
+		CountingConverter _c = new CountingConverter();
+		CachingConverterRegistry _r = new CachingConverterRegistry(_c);
+		Assert.assertSame(_c, _r.getConverter(String.class, Integer.class));
+		Assert.assertSame(_c, _r.getConverter(String.class, Integer.class));
+		Assert.assertEquals(1, _c.checks);
+	}
+
+	@Test
+	public void mostRecentlyRegisteredConverterWins() {
+		CachingConverterRegistry _r = new CachingConverterRegistry(new IntegerStringConverter());
+		Assert.assertTrue(_r.getConverter(Integer.class) instanceof IntegerStringConverter);
+
+		CountingConverter _c = new CountingConverter();
+		_r.registerConverters(_c);
+		Assert.assertSame(_c, _r.getConverter(String.class, Integer.class));
+	}
+
+	@Test
+	public void appendedConvertersAreUsedLast() {
+		CountingConverter _c = new CountingConverter();
+		CachingConverterRegistry _r = new CachingConverterRegistry(new IntegerStringConverter());
+		_r.appendConverters(_c);
+		Assert.assertTrue(_r.getConverter(Integer.class) instanceof IntegerStringConverter);
+	}
+
+	@Test
+	public void remembersThatNoConverterMatches() {
+		CountingConverter _c = new CountingConverter();
+		CachingConverterRegistry _r = new CachingConverterRegistry(_c);
+		for (int i=0; i<2; i++) {
+			try {
+				_r.getConverter(Long.class);
+				Assert.fail("Expected an exception");
+			} catch (RuntimeException anExc) {
+				// good
+			}
+		}
+		Assert.assertEquals(1, _c.checks);
+	}
+
+	@Test
+	public void forgetsMissesWhenNewConvertersAreRegistered() {
+		CachingConverterRegistry _r = new CachingConverterRegistry(new IntegerStringConverter());
+		try {
+			_r.getConverter(Long.class);
+			Assert.fail("Expected an exception");
+		} catch (RuntimeException anExc) {
+			// good
+		}
+		_r.registerConverters(new LongStringConverter());
+		Assert.assertTrue(_r.getConverter(Long.class) instanceof LongStringConverter);
+	}
+
+	@Test
+	public void sharesConvertersButNotLookupsWithPrototype() {
+		CountingConverter _c = new CountingConverter();
+		CachingConverterRegistry _prototype = new CachingConverterRegistry(_c);
+		CachingConverterRegistry _r = new CachingConverterRegistry(_prototype);
+		Assert.assertSame(_c, _r.getConverter(String.class, Integer.class));
+		Assert.assertSame(_c, _r.getConverter(String.class, Integer.class));
+		Assert.assertEquals(1, _c.checks);
+
+		// the prototype's cache is untouched, so it searches for itself
+		Assert.assertSame(_c, _prototype.getConverter(String.class, Integer.class));
+		Assert.assertEquals(2, _c.checks);
+	}
+
+	@Test
+	public void registeringDoesNotAffectPrototype() {
+		CachingConverterRegistry _prototype = new CachingConverterRegistry(new IntegerStringConverter());
+		CachingConverterRegistry _r = new CachingConverterRegistry(_prototype);
+		CountingConverter _c = new CountingConverter();
+		_r.registerConverters(_c);
+		Assert.assertSame(_c, _r.getConverter(String.class, Integer.class));
+		Assert.assertTrue(_prototype.getConverter(Integer.class) instanceof IntegerStringConverter);
+	}
+
+	@Test
+	public void adaptsOtherConvertersFromStringsToStringConverters() {
+		CachingConverterRegistry _r = new CachingConverterRegistry(new CountingConverter());
+		Assert.assertEquals(Integer.valueOf(42), _r.getConverter(Integer.class).convert("42"));
+	}
+
+	private static class CountingConverter implements TypeSafeConverter<String,Integer> {
+		private int checks;
+
+		@Override
+		public boolean canConvertFrom(Class<?> aClass) {
+			checks++;
+			return String.class.isAssignableFrom(aClass);
+		}
+
+		@Override
+		public boolean canConvertTo(Class<?> aClass) {
+			return aClass.isAssignableFrom(Integer.class);
+		}
+
+		@Override
+		public Integer convert(String aFrom) {
+			return Integer.valueOf(aFrom);
+		}
+	}
+}
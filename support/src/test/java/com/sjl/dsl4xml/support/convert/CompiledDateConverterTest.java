@@ -0,0 +1,127 @@
+package com.sjl.dsl4xml.support.convert;
+
+import java.text.*;
+import java.util.*;
+
+import org.junit.*;
+
+import com.sjl.dsl4xml.*;
+
+public class CompiledDateConverterTest {
+
+	private TimeZone defaultZone;
+
+	@Before
+	public void useZoneWithDaylightSaving() {
+		defaultZone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("Europe/London"));
+	}
+
+	@After
+	public void restoreDefaultZone() {
+		TimeZone.setDefault(defaultZone);
+	}
+
+	@Test
+	public void testCanConvertDates() {
+		CompiledDateStringConverter _c = new CompiledDateStringConverter("yyyyMMdd");
+		Assert.assertTrue(_c.canConvertTo(Date.class));
+	}
+
+	@Test
+	public void testConvertsDatesUsingDateFormatPattern() throws Exception {
+		assertSameAsDateFormat("yyyyMMdd", "20120408");
+		assertSameAsDateFormat("yyyyMMddHHmmss", "20120408172033");
+		assertSameAsDateFormat("yyyy-MM-dd'T'HH:mm:ss", "2012-04-08T17:20:33");
+		assertSameAsDateFormat("yyyy-MM-dd HH:mm:ss.SSS", "2012-12-31 23:59:59.999");
+		assertSameAsDateFormat("dd/MM/yyyy 'at' HH:mm", "29/02/2012 at 08:15");
+		assertSameAsDateFormat("''yyyy''", "'2012'");
+	}
+
+	@Test
+	public void testConvertsDatesWithTimeZones() throws Exception {
+		assertSameAsDateFormat("yyyyMMddZ", "20120408+0000");
+		assertSameAsDateFormat("yyyy-MM-dd'T'HH:mm:ssZ", "2012-04-08T17:20:33-0530");
+		assertSameAsDateFormat("yyyy-MM-dd'T'HH:mm:ssZ", "2012-01-01T00:20:33+1100");
+	}
+
+	@Test
+	public void testConvertsRandomTimestampsAsDateFormatDoes() throws Exception {
+		Random _r = new Random(42);
+		DateFormat _df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+		long _start = _df.parse("1990-01-01T00:00:00").getTime();
+		for (int i=0; i<10000; i++) {
+			String _s = _df.format(new Date(_start + (long) (_r.nextDouble() * 40L * 365 * 24 * 60 * 60 * 1000)));
+			assertSameAsDateFormat("yyyy-MM-dd'T'HH:mm:ss", _s);
+		}
+	}
+
+	@Test
+	public void testConvertsConsecutiveTimesOnTheSameDay() throws Exception {
+		CompiledDateStringConverter _c = new CompiledDateStringConverter("yyyy-MM-dd'T'HH:mm:ss");
+		DateFormat _df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+		for (String _s : new String[]{ "2013-03-31T00:59:59", "2013-03-31T02:00:00", "2013-10-27T01:30:00", "2013-10-28T01:30:00", "2013-10-28T09:00:00" }) {
+			Assert.assertEquals(_s, _df.parse(_s), _c.convert(_s));
+		}
+	}
+
+	@Test
+	public void testLeavesLenientValuesToDateFormat() throws Exception {
+		assertSameAsDateFormat("yyyyMMdd", "20121308");
+		assertSameAsDateFormat("yyyy-MM-dd", "2012-4-8");
+		assertSameAsDateFormat("yyyy-MM-dd", "2012-04-08 and then some");
+		assertSameAsDateFormat("yyyy-MM-dd HH:mm", "2012-04-08 24:00");
+		assertSameAsDateFormat("yyyy-MM-dd", "1066-10-14");
+	}
+
+	@Test
+	public void testConvertsFromCharacters() throws Exception {
+		CompiledDateStringConverter _c = new CompiledDateStringConverter("yyyyMMdd");
+		DateFormat _df = new SimpleDateFormat("yyyyMMdd");
+		Assert.assertEquals(_df.parse("20120408"), _c.convert("xx20120408xx".toCharArray(), 2, 8));
+		Assert.assertEquals(_df.parse("20120408"), _c.convert(new StringBuilder("20120408")));
+		Assert.assertNull(_c.convert(new char[4], 1, 0));
+	}
+
+	@Test
+	public void testThrowsExceptionWhenPatternCantBeCompiled() throws Exception {
+		for (String _pattern : new String[]{ "fnar", "dd MMM yyyy", "yy-MM-dd", "yyyy-M-d", "'unterminated" }) {
+			try {
+				new CompiledDateStringConverter(_pattern);
+				Assert.fail("Expected an exception for " + _pattern);
+			} catch (IllegalArgumentException anExc) {
+				// good
+			}
+		}
+	}
+
+	@Test
+	public void testThrowsExceptionWhenInvalidDateValue() throws Exception {
+		CompiledDateStringConverter _c = new CompiledDateStringConverter("20120408");
+		try {
+			_c.convert("boo");
+			Assert.fail("Expected an exception");
+		} catch (ParsingException anExc) {
+			Assert.assertEquals(ParseException.class, anExc.getCause().getClass());
+		}
+	}
+
+	@Test
+	public void testReturnsNullWhenEmptyString() {
+		CompiledDateStringConverter _c = new CompiledDateStringConverter("yyyyMMdd");
+		Assert.assertEquals(null, _c.convert(""));
+	}
+
+	@Test
+	public void testReturnsNullWhenNullValue() {
+		CompiledDateStringConverter _c = new CompiledDateStringConverter("yyyyMMdd");
+		Assert.assertEquals(null, _c.convert((String) null));
+	}
+
+	private void assertSameAsDateFormat(String aPattern, String aValue) throws Exception {
+		Date _expected = new SimpleDateFormat(aPattern).parse(aValue);
+		Assert.assertEquals(aValue, _expected, new CompiledDateStringConverter(aPattern).convert(aValue));
+		Assert.assertEquals(aValue, _expected, new ThreadSafeDateStringConverter(aPattern).convert(aValue));
+		Assert.assertEquals(aValue, _expected, new ThreadUnsafeDateStringConverter(aPattern).convert(aValue));
+	}
+}
@@ -0,0 +1,75 @@
+package com.sjl.dsl4xml.support.convert;
+
+import org.junit.*;
+
+public class EnumConverterTest {
+
+	enum Colour { RED, GREEN, BLUE, UNKNOWN }
+
+	@Test
+	public void canConvertEnums() {
+		EnumStringConverter<Colour> _c = new EnumStringConverter<Colour>(Colour.class);
+		Assert.assertTrue(_c.canConvertTo(Colour.class));
+		Assert.assertFalse(_c.canConvertTo(String.class));
+	}
+
+	@Test
+	public void convertsEveryConstant() {
+		EnumStringConverter<Colour> _c = new EnumStringConverter<Colour>(Colour.class);
+		for (Colour _colour : Colour.values()) {
+			Assert.assertSame(_colour, _c.convert(_colour.name()));
+		}
+	}
+
+	@Test
+	public void convertsCaseInsensitivelyWhenAsked() {
+		EnumStringConverter<Colour> _c = new EnumStringConverter<Colour>(Colour.class, true);
+		Assert.assertSame(Colour.GREEN, _c.convert("green"));
+		Assert.assertSame(Colour.GREEN, _c.convert("GrEeN"));
+		Assert.assertSame(Colour.BLUE, _c.convert("BLUE"));
+	}
+
+	@Test
+	public void convertsFromCharacters() {
+		EnumStringConverter<Colour> _c = new EnumStringConverter<Colour>(Colour.class, true);
+		Assert.assertSame(Colour.RED, _c.convert("<red>".toCharArray(), 1, 3));
+		Assert.assertSame(Colour.BLUE, _c.convert(new StringBuilder("Blue")));
+	}
+
+	@Test
+	public void throwsExceptionForUnknownValues() {
+		EnumStringConverter<Colour> _c = new EnumStringConverter<Colour>(Colour.class);
+		for (String _value : new String[]{ "green", "PURPLE", "", "RE" }) {
+			try {
+				_c.convert(_value);
+				Assert.fail("Expected an exception for '" + _value + "'");
+			} catch (IllegalArgumentException anExc) {
+				// good
+			}
+		}
+	}
+
+	@Test
+	public void convertsUnknownValuesToFallback() {
+		EnumStringConverter<Colour> _c = new EnumStringConverter<Colour>(Colour.class, false, Colour.UNKNOWN);
+		Assert.assertSame(Colour.UNKNOWN, _c.convert("PURPLE"));
+		Assert.assertSame(Colour.UNKNOWN, _c.convert("red"));
+		Assert.assertSame(Colour.RED, _c.convert("RED"));
+	}
+
+	@Test
+	public void returnsNullWhenNullValue() {
+		EnumStringConverter<Colour> _c = new EnumStringConverter<Colour>(Colour.class);
+		Assert.assertNull(_c.convert((String) null));
+	}
+
+	@Test
+	public void rejectsNonEnumClasses() {
+		try {
+			new EnumStringConverter(String.class);
+			Assert.fail("Expected an exception");
+		} catch (IllegalArgumentException anExc) {
+			// good
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.sjl.dsl4xml.support.convert;
+
+import java.util.*;
+
+import org.junit.*;
+
+import com.sjl.dsl4xml.*;
+import com.sjl.dsl4xml.support.StringConverter;
+
+public class MemoizingConverterTest {
+
+	@Test
+	public void convertsAsTheWrappedConverterDoes() {
+		MemoizingConverter<String,Class<?>> _c = new MemoizingConverter<String,Class<?>>(new ClassStringConverter(), 8);
+		Assert.assertTrue(_c.canConvertFrom(String.class));
+		Assert.assertTrue(_c.canConvertTo(Class.class));
+		Assert.assertSame(String.class, _c.convert("java.lang.String"));
+		Assert.assertNull(_c.convert(null));
+	}
+
+	@Test
+	public void convertsRepeatedValuesOnceToTheSameInstance() {
+		for (MemoizingConverter.Eviction _e : MemoizingConverter.Eviction.values()) {
+			CountingConverter _counting = new CountingConverter();
+			MemoizingConverter<String,String> _c = new MemoizingConverter<String,String>(_counting, 8, _e);
+			String _first = _c.convert("en-GB");
+			Assert.assertSame(_e.name(), _first, _c.convert(new String("en-GB")));
+			Assert.assertSame(_e.name(), _first, _c.convert("en-GB"));
+			Assert.assertEquals(_e.name(), 1, _counting.conversions);
+			Assert.assertEquals(_e.name(), 2, _c.getHits());
+			Assert.assertEquals(_e.name(), 1, _c.getMisses());
+		}
+	}
+
+	@Test
+	public void remembersNoMoreThanItsCapacity() {
+		for (MemoizingConverter.Eviction _e : MemoizingConverter.Eviction.values()) {
+			MemoizingConverter<String,String> _c = new MemoizingConverter<String,String>(new CountingConverter(), 4, _e);
+			for (int i=0; i<100; i++) {
+				_c.convert("value" + i);
+			}
+			Assert.assertEquals(_e.name(), 4, _c.size());
+		}
+	}
+
+	@Test
+	public void lruForgetsLeastRecentlyUsedValue() {
+		CountingConverter _counting = new CountingConverter();
+		MemoizingConverter<String,String> _c = new MemoizingConverter<String,String>(_counting, 2, MemoizingConverter.Eviction.LRU);
+		_c.convert("a");
+		_c.convert("b");
+		_c.convert("a");
+		_c.convert("c"); // evicts b
+		_c.convert("a");
+		Assert.assertEquals(3, _counting.conversions);
+		_c.convert("b");
+		Assert.assertEquals(4, _counting.conversions);
+	}
+
+	@Test
+	public void clockKeepsValuesUsedSinceTheHandPassed() {
+		CountingConverter _counting = new CountingConverter();
+		MemoizingConverter<String,String> _c = new MemoizingConverter<String,String>(_counting, 2, MemoizingConverter.Eviction.CLOCK);
+		_c.convert("a");
+		_c.convert("b");
+		_c.convert("c"); // nothing used yet, so the hand evicts a
+		_c.convert("c");
+		_c.convert("d"); // b wasn't used, c was - evicts b
+		_c.convert("c");
+		Assert.assertEquals(4, _counting.conversions);
+		_c.convert("b");
+		Assert.assertEquals(5, _counting.conversions);
+	}
+
+	@Test
+	public void canBeRegisteredInPlaceOfAStringConverter() {
+		CachingConverterRegistry _r = DefaultConverters.newXmlRegistry();
+		_r.registerConverters(new MemoizingConverter<String,Class<?>>(new ClassStringConverter(), 8));
+		StringConverter<Class> _c = _r.getConverter(Class.class);
+		Assert.assertSame(Integer.class, _c.convert("java.lang.Integer"));
+	}
+
+	@Test
+	public void doesNotRememberFailures() {
+		MemoizingConverter<String,Class<?>> _c = new MemoizingConverter<String,Class<?>>(new ClassStringConverter(), 8);
+		for (int i=0; i<2; i++) {
+			try {
+				_c.convert("no.such.Class");
+				Assert.fail("Expected an exception");
+			} catch (ParsingException anExc) {
+				// good
+			}
+		}
+		Assert.assertEquals(0, _c.size());
+		Assert.assertEquals(2, _c.getMisses());
+	}
+
+	@Test
+	public void sharesInstancesBetweenThreads() throws Exception {
+		final MemoizingConverter<String,String> _c = new MemoizingConverter<String,String>(new CountingConverter(), 16);
+		final List<String> _results = Collections.synchronizedList(new ArrayList<String>());
+		Thread[] _threads = new Thread[4];
+		for (int i=0; i<_threads.length; i++) {
+			_threads[i] = new Thread() {
+				public void run() {
+					for (int j=0; j<1000; j++) {
+						_results.add(_c.convert("status" + (j % 8)));
+					}
+				}
+			};
+			_threads[i].start();
+		}
+		for (Thread _t : _threads) {
+			_t.join();
+		}
+		for (String _s : _results) {
+			Assert.assertSame(_c.convert(_s), _s);
+		}
+	}
+
+	private static class CountingConverter extends StringConverter<String> {
+		private int conversions;
+
+		@Override
+		public boolean canConvertTo(Class<?> aClass) {
+			return aClass.isAssignableFrom(String.class);
+		}
+
+		@Override
+		public synchronized String convert(String aValue) {
+			conversions++;
+			return new String(aValue);
+		}
+	}
+}
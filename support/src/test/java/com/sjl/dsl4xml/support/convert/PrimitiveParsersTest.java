@@ -0,0 +1,117 @@
+package com.sjl.dsl4xml.support.convert;
+
+import java.util.*;
+
+import org.junit.*;
+
+public class PrimitiveParsersTest {
+
+	@Test
+	public void parsesIntegersAsTheJdkDoes() {
+		for (String _s : new String[]{ "0", "7", "-7", "+7", "0042", "2147483647", "-2147483648" }) {
+			Assert.assertEquals(_s, Integer.parseInt(_s), PrimitiveParsers.parseInt(_s));
+			Assert.assertEquals(_s, Integer.parseInt(_s), PrimitiveParsers.parseInt(chars(_s), 3, _s.length()));
+		}
+		for (String _s : new String[]{ "9223372036854775807", "-9223372036854775808", "-1" }) {
+			Assert.assertEquals(_s, Long.parseLong(_s), PrimitiveParsers.parseLong(_s));
+		}
+		Assert.assertEquals(-128, PrimitiveParsers.parseByte("-128"));
+		Assert.assertEquals(32767, PrimitiveParsers.parseShort(new StringBuilder("32767")));
+	}
+
+	@Test
+	public void rejectsIntegersAsTheJdkDoes() {
+		for (String _s : new String[]{ "", "-", "+", "1.0", " 1", "2147483648", "-2147483649", "12x" }) {
+			try {
+				PrimitiveParsers.parseInt(chars(_s), 3, _s.length());
+				Assert.fail("Expected an exception for '" + _s + "'");
+			} catch (NumberFormatException anExc) {
+				// good
+			}
+		}
+		try {
+			PrimitiveParsers.parseByte("128");
+			Assert.fail("Expected an exception");
+		} catch (NumberFormatException anExc) {
+			// good
+		}
+	}
+
+	@Test
+	public void parsesDecimalsAsTheJdkDoes() {
+		String[] _values = {
+			"0", "-0", "0.0", "1", "-1.5", "+2.25", "3.", ".5", "0.1", "0.3", "123.456", "1e10", "1E-5",
+			"2.5e+3", "-7.0e-22", "9007199254740993", "123456789012345678", "0.1234567890123456789",
+			"1e23", "1e-400", "1e400", " 1.5 ", "NaN", "-Infinity", "1d", "0x1p3", "4.9e-324"
+		};
+		for (String _s : _values) {
+			Assert.assertEquals(_s, Double.doubleToLongBits(Double.parseDouble(_s)), Double.doubleToLongBits(PrimitiveParsers.parseDouble(_s)));
+			Assert.assertEquals(_s, Double.doubleToLongBits(Double.parseDouble(_s)), Double.doubleToLongBits(PrimitiveParsers.parseDouble(chars(_s), 3, _s.length())));
+			Assert.assertEquals(_s, Float.floatToIntBits(Float.parseFloat(_s)), Float.floatToIntBits(PrimitiveParsers.parseFloat(_s)));
+		}
+	}
+
+	@Test
+	public void parsesRandomDecimalsAsTheJdkDoes() {
+		Random _r = new Random(42);
+		for (int i=0; i<10000; i++) {
+			String _s = randomDecimal(_r);
+			Assert.assertEquals(_s, Double.doubleToLongBits(Double.parseDouble(_s)), Double.doubleToLongBits(PrimitiveParsers.parseDouble(_s)));
+			Assert.assertEquals(_s, Float.floatToIntBits(Float.parseFloat(_s)), Float.floatToIntBits(PrimitiveParsers.parseFloat(_s)));
+		}
+	}
+
+	@Test
+	public void rejectsDecimalsAsTheJdkDoes() {
+		for (String _s : new String[]{ "", ".", "-", "1e", "1e+", "1.2.3", "abc" }) {
+			try {
+				PrimitiveParsers.parseDouble(chars(_s), 3, _s.length());
+				Assert.fail("Expected an exception for '" + _s + "'");
+			} catch (NumberFormatException anExc) {
+				// good
+			}
+		}
+	}
+
+	@Test
+	public void parsesBooleansAsTheJdkDoes() {
+		for (String _s : new String[]{ "true", "TRUE", "True", "false", "yes", "", "truer" }) {
+			Assert.assertEquals(_s, Boolean.parseBoolean(_s), PrimitiveParsers.parseBoolean(_s));
+			Assert.assertEquals(_s, Boolean.parseBoolean(_s), PrimitiveParsers.parseBoolean(chars(_s), 3, _s.length()));
+		}
+	}
+
+	@Test
+	public void convertersGiveSameResultsFromCharsAsFromStrings() {
+		Assert.assertEquals(new PrimitiveIntStringConverter().convert("42"), new PrimitiveIntStringConverter().convert(chars("42"), 3, 2));
+		Assert.assertEquals(Integer.valueOf(0), new PrimitiveIntStringConverter().convert(chars(""), 3, 0));
+		Assert.assertNull(new IntegerStringConverter().convert(new StringBuilder()));
+		Assert.assertEquals(Double.valueOf(2.5), new DoubleStringConverter().convert(new StringBuilder("2.5")));
+		Assert.assertEquals(Character.valueOf('x'), new PrimitiveCharStringConverter().convert(chars("xyz"), 3, 3));
+		Assert.assertEquals(Boolean.TRUE, new BooleanStringConverter().convert(chars("true"), 3, 4));
+	}
+
+	// puts the characters part way into a larger buffer, as a parser would
+	private char[] chars(String aValue) {
+		char[] _result = new char[aValue.length() + 6];
+		Arrays.fill(_result, '9');
+		aValue.getChars(0, aValue.length(), _result, 3);
+		return _result;
+	}
+
+	private String randomDecimal(Random aRandom) {
+		StringBuilder _sb = new StringBuilder();
+		if (aRandom.nextBoolean())
+			_sb.append('-');
+		int _digits = 1 + aRandom.nextInt(17);
+		int _point = aRandom.nextInt(_digits + 1);
+		for (int i=0; i<_digits; i++) {
+			if (i == _point)
+				_sb.append('.');
+			_sb.append((char) ('0' + aRandom.nextInt(10)));
+		}
+		if (aRandom.nextInt(3) == 0)
+			_sb.append('e').append(aRandom.nextInt(60) - 30);
+		return _sb.toString();
+	}
+}
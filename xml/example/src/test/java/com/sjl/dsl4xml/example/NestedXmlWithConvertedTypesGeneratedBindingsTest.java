@@ -0,0 +1,19 @@
+package com.sjl.dsl4xml.example;
+
+import org.junit.*;
+
+import com.sjl.dsl4xml.support.*;
+
+public class NestedXmlWithConvertedTypesGeneratedBindingsTest extends NestedXmlWithConvertedTypesTest {
+
+	@BeforeClass
+	public static void generateBindings() {
+		Implementations.setGeneratingBindings(true);
+	}
+
+	@AfterClass
+	public static void useReflection() {
+		Implementations.setGeneratingBindings(false);
+	}
+
+}
@@ -63,6 +63,8 @@ public class PullLegacyDocumentReader<T> extends AbstractLegacyDocumentReader<T>
 	
 	private XmlPullParserFactory factory;
 	private XmlReader[] mappers = new XmlReader[]{};
+	// one parser and context per thread, reused from one read to the next
+	private ThreadLocal<PullParserReadingContext> contexts = new ThreadLocal<PullParserReadingContext>();
 	
 	public PullLegacyDocumentReader(Class<T> aClass) {
 		super(aClass);
@@ -83,13 +85,16 @@ public class PullLegacyDocumentReader<T> extends AbstractLegacyDocumentReader<T>
 	public T read(Reader aReader)
 	throws ParsingException
 	{
+		PullParserReadingContext _ctx = contexts.get();
 		try {
-			XmlPullParser _p = factory.newPullParser();
-			_p.setInput(aReader);
-			
-		    ReadingContext _ctx = new PullParserReadingContext(_p);
-		    if (converters != null)
-		    	_ctx.registerConverters(converters);
+			if (_ctx == null) {
+				_ctx = new PullParserReadingContext(newPullParser(), getConverterRegistry());
+			} else {
+				// a converter could read another document with this reader on the same thread
+				contexts.set(null);
+			}
+			_ctx.reset(aReader, getConverterRegistry());
+			_ctx.getStringPool().reset(getSharedStringPool());
 		    _ctx.push(newResultObject());
 		    
 		    try
@@ -121,6 +126,18 @@ public class PullLegacyDocumentReader<T> extends AbstractLegacyDocumentReader<T>
 			throw anExc;
 		} catch (Exception anExc) {
 			throw new ParsingException(anExc);
+		} finally {
+			if (_ctx != null) {
+				addBytesSaved(_ctx.getStringPool());
+				_ctx.release();
+				contexts.set(_ctx);
+			}
+		}
+	}
+	
+	private XmlPullParser newPullParser() throws XmlPullParserException {
+		synchronized (factory) { // factories needn't be thread-safe
+			return factory.newPullParser();
 		}
 	}
 }
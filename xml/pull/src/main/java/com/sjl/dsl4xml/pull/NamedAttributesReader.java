@@ -5,7 +5,8 @@ import com.sjl.dsl4xml.support.*;
 public class NamedAttributesReader implements AttributesReader {
 
 	private String[] attributeNames;
-	private ValueSetter[] mutators;
+	// shared by every thread reading, so replaced rather than changed
+	private volatile ValueSetter[] mutators;
 	
 	public NamedAttributesReader(String... anAttributeNames) {
 		attributeNames = anAttributeNames;
@@ -29,9 +30,14 @@ public class NamedAttributesReader implements AttributesReader {
 	}
 	
 	private ValueSetter getValueSetter(int anIndex, ReadingContext aContext, Class<?> aCurrentContextClass) {
-		if (mutators[anIndex] == null) {
-			mutators[anIndex] = new ValueSetter(aContext, aCurrentContextClass, attributeNames[anIndex]);
+		ValueSetter[] _mutators = mutators;
+		if (_mutators[anIndex] == null) {
+			ValueSetter _vs = new ValueSetter(aContext, aCurrentContextClass, attributeNames[anIndex]);
+			_mutators = _mutators.clone();
+			_mutators[anIndex] = _vs;
+			mutators = _mutators;
+			return _vs;
 		}
-		return mutators[anIndex];
+		return _mutators[anIndex];
 	}
 }
@@ -5,7 +5,8 @@ import com.sjl.dsl4xml.support.*;
 public class OrderedAttributesReader implements AttributesReader {
 
 	private String[] methodNames;
-	private ValueSetter[] mutators;
+	// shared by every thread reading, so replaced rather than changed
+	private volatile ValueSetter[] mutators;
 	
 	public OrderedAttributesReader(String... aSetterMethodNames) {
 		methodNames = aSetterMethodNames;
@@ -25,9 +26,14 @@ public class OrderedAttributesReader implements AttributesReader {
 	}
 	
 	private ValueSetter getValueSetter(int anIndex, ReadingContext aContext, Class<?> aCurrentContextClass) {
-		if (mutators[anIndex] == null) {
-			mutators[anIndex] = new ValueSetter(aContext, aCurrentContextClass, methodNames[anIndex]);
+		ValueSetter[] _mutators = mutators;
+		if (_mutators[anIndex] == null) {
+			ValueSetter _vs = new ValueSetter(aContext, aCurrentContextClass, methodNames[anIndex]);
+			_mutators = _mutators.clone();
+			_mutators[anIndex] = _vs;
+			mutators = _mutators;
+			return _vs;
 		}
-		return mutators[anIndex];
+		return _mutators[anIndex];
 	}
 }
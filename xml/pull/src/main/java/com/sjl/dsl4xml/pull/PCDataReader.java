@@ -6,16 +6,40 @@ import com.sjl.dsl4xml.support.*;
 public final class PCDataReader<T> implements ContentReader {
 
 	private String fieldName;
-	private ValueSetter setter;
+	private volatile ValueSetter setter;
+	private boolean interned;
+	private boolean lazy;
 
 	public PCDataReader(String aFieldName) {
 		fieldName = aFieldName;
 	}
 	
+	/**
+	 * Deduplicates the text read within each document (see {@link StringPool}),
+	 * for String properties whose values recur.
+	 */
+	public PCDataReader<T> interned() {
+		interned = true;
+		return this;
+	}
+	
+	/**
+	 * Leaves the text to be converted when the property is first read, for
+	 * properties of interface-mapped types which are often left unread.
+	 */
+	public PCDataReader<T> lazy() {
+		lazy = true;
+		return this;
+	}
+	
 	@Override
 	public final boolean read(ReadingContext aContext) {
 		if (aContext.isTextNode()) {
-			read(aContext, aContext.getParser().getText());
+			char[] _chars = aContext.getTextCharacters();
+			if (interned)
+				read(aContext, aContext.getStringPool().intern(_chars, aContext.getTextStart(), aContext.getTextLength()));
+			else
+				read(aContext, _chars, aContext.getTextStart(), aContext.getTextLength());
 			return true;
 		} else {
 			return false;
@@ -35,10 +59,32 @@ public final class PCDataReader<T> implements ContentReader {
 		}
 	}
 	
+	/**
+	 * Converts text straight from the parser's buffer where the converter 
+	 * allows, so numbers and the like don't make a String on the way.
+	 */
+	public void read(ReadingContext aContext, char[] aChars, int aStart, int aLength) {
+		T _currentContext = aContext.peek();
+		
+		try {
+			ValueSetter _vs = getSetter(aContext, _currentContext.getClass(), fieldName);
+			_vs.invoke(fieldName, _currentContext, aChars, aStart, aLength);
+		} catch (ParsingException anExc) {
+			throw anExc;
+		} catch (Exception anExc) {
+			throw new ParsingException(anExc);
+		}
+	}
+	
 	private ValueSetter getSetter(ReadingContext aContext, Class<?> aClass, String aFieldName) {
-		if (setter == null) {
-			setter = new ValueSetter(aContext, aClass, aFieldName);
+		ValueSetter _s = setter;
+		if (_s == null) {
+			// readers are shared between threads, so only published once built
+			_s = new ValueSetter(aContext, aClass, aFieldName);
+			if (lazy)
+				_s.lazy();
+			setter = _s;
 		}
-		return setter;
+		return _s;
 	}	
 }
@@ -1,8 +1,10 @@
 package com.sjl.dsl4xml.pull;
 
-import java.util.*;
+import java.io.*;
 
+import com.sjl.dsl4xml.support.ArrayStack;
 import com.sjl.dsl4xml.support.StringConverter;
+import com.sjl.dsl4xml.support.StringPool;
 import org.xmlpull.v1.*;
 
 import com.sjl.dsl4xml.*;
@@ -11,40 +13,55 @@ import com.sjl.dsl4xml.support.convert.*;
 public final class PullParserReadingContext implements ReadingContext {
 
 	private XmlPullParser parser;
-	private Stack<Object> stack;
-	private List<TypeSafeConverter<?,?>> converters;
+	private ArrayStack<Object> stack;
+	private CachingConverterRegistry converters;
+	private int[] textBounds = new int[2];
+	private StringPool strings = new StringPool();
 	
 	public PullParserReadingContext(XmlPullParser aParser) {
-		stack = new Stack<Object>();
+		stack = new ArrayStack<Object>();
 		parser = aParser;
-		converters = new ArrayList<TypeSafeConverter<?,?>>();
-		
-		registerConverters(
-			new PrimitiveBooleanStringConverter(),
-			new PrimitiveByteStringConverter(),
-			new PrimitiveShortStringConverter(),
-			new PrimitiveIntStringConverter(),
-			new PrimitiveLongStringConverter(),
-			new PrimitiveCharStringConverter(),
-			new PrimitiveFloatStringConverter(),
-			new PrimitiveDoubleStringConverter(),
-			new BooleanStringConverter(),
-			new ByteStringConverter(),
-			new ShortStringConverter(),
-			new IntegerStringConverter(),
-			new LongStringConverter(),
-			new CharacterStringConverter(),
-			new FloatStringConverter(),
-			new DoubleStringConverter(),
-			new ClassStringConverter(),
-			new StringStringConverter()
-		);
+		converters = DefaultConverters.newXmlRegistry();
+	}
+	
+	/**
+	 * Looks up converters in the given registry rather than one of its own, so
+	 * converters registered with this context are registered there too.
+	 */
+	public PullParserReadingContext(XmlPullParser aParser, CachingConverterRegistry aConverters) {
+		stack = new ArrayStack<Object>();
+		parser = aParser;
+		converters = aConverters;
+	}
+	
+	/**
+	 * Prepares this context, and its parser, to read another document.
+	 */
+	public void reset(Reader aReader, CachingConverterRegistry aConverters) 
+	throws XmlPullParserException {
+		parser.setInput(aReader);
+		stack.clear();
+		converters = aConverters;
+	}
+	
+	/**
+	 * Lets go of the document just read, and whatever was built from it, 
+	 * while this context waits to be reused.
+	 */
+	public void release() {
+		stack.clear();
+		strings.reset(null);
+		try {
+			parser.setInput(null);
+		} catch (XmlPullParserException anExc) {
+			// the parser keeps the old input until reset
+		}
 	}
 	
 	@Override
 	public void registerConverters(TypeSafeConverter<?,?>... aConverters) {
 		// push any registered converters on ahead of existing converters (allows simple override)
-		converters.addAll(0, Arrays.asList(aConverters));
+		converters.registerConverters(aConverters);
 	}
 	
 	@Override
@@ -133,6 +150,26 @@ public final class PullParserReadingContext implements ReadingContext {
 		}
 	}
 
+	@Override
+	public char[] getTextCharacters() {
+		return parser.getTextCharacters(textBounds);
+	}
+	
+	@Override
+	public int getTextStart() {
+		return textBounds[0];
+	}
+	
+	@Override
+	public int getTextLength() {
+		return textBounds[1];
+	}
+
+	@Override
+	public StringPool getStringPool() {
+		return strings;
+	}
+
 	@Override
 	public boolean isStartTagNamed(String aNamespacePrefix, String aTagName) {
 		try {
@@ -147,16 +184,11 @@ public final class PullParserReadingContext implements ReadingContext {
 	}
 
     public <T> StringConverter<T> getConverter(Class<T> aTo) {
-        return (StringConverter<T>) getConverter(String.class, aTo);
+        return converters.getConverter(aTo);
     }
 
     public <F,T> TypeSafeConverter<F,T> getConverter(Class<F> aFromType, Class<T> aToType) {
-        for (TypeSafeConverter<?,?> _c : converters) {
-            if ((_c.canConvertFrom(aFromType)) && (_c.canConvertTo(aToType))) {
-                return (TypeSafeConverter<F,T>) _c;
-            }
-        }
-        throw new RuntimeException("No converter registered that can convert from " + aFromType + " to " + aToType);
+        return converters.getConverter(aFromType, aToType);
     }
 
 	private boolean isMatchingNamespace(String aWantedPrefix, String aCurrentPrefix) {
@@ -3,6 +3,7 @@ package com.sjl.dsl4xml.pull;
 import org.xmlpull.v1.*;
 
 import com.sjl.dsl4xml.*;
+import com.sjl.dsl4xml.support.StringPool;
 
 public interface ReadingContext extends ConverterRegistry {
 
@@ -27,6 +28,22 @@ public interface ReadingContext extends ConverterRegistry {
 	public abstract String getAttributeValue(int anIndex);
 
 	public abstract boolean isTextNode();
+	
+	/**
+	 * @return the parser's buffer holding the current text, which starts at
+	 * {@link #getTextStart()} and runs for {@link #getTextLength()} characters.
+	 */
+	public abstract char[] getTextCharacters();
+	
+	public abstract int getTextStart();
+	
+	public abstract int getTextLength();
+
+	/**
+	 * @return the pool deduplicating the values of interned properties
+	 * within the current document
+	 */
+	public abstract StringPool getStringPool();
 
 	public abstract boolean isStartTagNamed(String aNamespace, String aTagName);
 	
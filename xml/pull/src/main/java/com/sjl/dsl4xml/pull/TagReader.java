@@ -11,10 +11,13 @@ public class TagReader<T> implements ContentReader {
 	private String namespace;
 	private String tagName;
 	private Class<T> type;
+	private Instantiator<T> instantiator;
 	private Factory<T,?> factory;
-	private ContextMutator mutator;
+	private volatile ContextMutator mutator;
 	private AttributesReader attributes;
 	private List<XmlReader> mappers;
+	private boolean interned;
+	private boolean lazy;
 	
 	public TagReader(String aTagName) {
 		tagName = aTagName;
@@ -28,17 +31,20 @@ public class TagReader<T> implements ContentReader {
 	public TagReader(String aTagName, Class<T> aType) {
 		tagName = aTagName;
 		type = aType;
+		instantiator = Instantiator.of(aType);
 	}
 	
 	public TagReader(String aNamespace, String aTagName, Class<T> aType) {
 		namespace = aNamespace;
 		tagName = aTagName;
 		type = aType;
+		instantiator = Instantiator.of(aType);
 	}
 
 	public TagReader(String aTagName, Class<T> aType, Factory<T,?> aFactory) {
 		tagName = aTagName;
 		type = aType;
+		instantiator = Instantiator.of(aType);
 		factory = aFactory;
 	}
 
@@ -46,6 +52,7 @@ public class TagReader<T> implements ContentReader {
 		namespace = aNamespace;
 		tagName = aTagName;
 		type = aType;
+		instantiator = Instantiator.of(aType);
 		factory = aFactory;
 	}
 	
@@ -58,11 +65,47 @@ public class TagReader<T> implements ContentReader {
 			mappers = new ArrayList<XmlReader>();
 		}
 		
-		mappers.add(new PCDataReader<T>(aFieldName));
+		PCDataReader<T> _reader = new PCDataReader<T>(aFieldName);
+		if (interned)
+			_reader.interned();
+		if (lazy)
+			_reader.lazy();
+		mappers.add(_reader);
 		
 		return this;
 	}
 	
+	/**
+	 * Deduplicates this tag's text within each document, so that a String
+	 * value recurring throughout it is only held once.
+	 */
+	public TagReader<T> interned() {
+		interned = true;
+		if (mappers != null) {
+			for (XmlReader _m : mappers) {
+				if (_m instanceof PCDataReader<?>)
+					((PCDataReader<?>) _m).interned();
+			}
+		}
+		return this;
+	}
+	
+	/**
+	 * Leaves this tag's text to be converted when the property is first read.
+	 * Only properties of interface-mapped types, other than Strings and
+	 * primitives, are converted lazily - the rest as usual.
+	 */
+	public TagReader<T> lazy() {
+		lazy = true;
+		if (mappers != null) {
+			for (XmlReader _m : mappers) {
+				if (_m instanceof PCDataReader<?>)
+					((PCDataReader<?>) _m).lazy();
+			}
+		}
+		return this;
+	}
+	
 	public TagReader<T> mappingPCDataTo(XmlReader aMapper) {
 		if (mappers == null) {
 			mappers = new ArrayList<XmlReader>();
@@ -158,23 +201,18 @@ public class TagReader<T> implements ContentReader {
 		}
 	}
 	
+	// the class (or the implementation of an interface) and its constructor
+	// are resolved when the reader is defined, not for every tag read
 	private T newContextObject() {
-		try {
-			if (type.isInterface()) {		
-				return (T) Classes.newDynamicProxy(type);
-			} else {		
-				return (T) type.newInstance();	
-			}
-		} catch (Exception anExc) {
-			throw new ParsingException(anExc);
-		}
+		return instantiator.newInstance();
 	}
 	
 	private ContextMutator getMutator(Class<?> aFor, Class<?> aWith, String aTagName) {
-		if (mutator == null) {
-			mutator = new ContextMutator(aFor, aWith, aTagName);
+		ContextMutator _m = mutator;
+		if (_m == null) {
+			mutator = _m = new ContextMutator(aFor, aWith, aTagName);
 		}
-		return mutator;
+		return _m;
 	}
 	
 	private class ContextMutator {
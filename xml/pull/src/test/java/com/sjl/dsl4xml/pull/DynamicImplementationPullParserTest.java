@@ -57,6 +57,18 @@ public class DynamicImplementationPullParserTest extends DynamicImplementationTe
 		);
 	}
 	
+	@Override
+	protected AbstractLegacyDocumentReader<Profile1> newInternedProfile1Unmarshaller() {
+		return mappingOf(Profile1.class).to(
+			tag("name"),
+			tag("readingList", List.class).with(
+				tag("book", Book.class).with(
+					tag("title"), tag("author").interned()
+				)
+			)
+		);
+	}
+	
 	protected LegacyDocumentReader<Person> newPersonUnmarshaller() {
 		LegacyDocumentReader<Person> _r = mappingOf(Person.class).to(
 			tag("name"),
@@ -69,4 +81,17 @@ public class DynamicImplementationPullParserTest extends DynamicImplementationTe
 		return _r;
 	}
 	
+	@Override
+	protected LegacyDocumentReader<Person> newLazyPersonUnmarshaller() {
+		LegacyDocumentReader<Person> _r = mappingOf(Person.class).to(
+			tag("name").lazy(),
+			tag("dateOfBirth").lazy(),
+			tag("numberOfDependents").lazy()
+		);
+		
+		_r.registerConverters(new ThreadUnsafeDateStringConverter("yyyyMMdd"));
+		
+		return _r;
+	}
+	
 }
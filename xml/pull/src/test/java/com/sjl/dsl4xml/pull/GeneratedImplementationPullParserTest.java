@@ -0,0 +1,26 @@
+package com.sjl.dsl4xml.pull;
+
+import org.junit.*;
+
+import com.sjl.dsl4xml.support.*;
+
+public class GeneratedImplementationPullParserTest extends DynamicImplementationPullParserTest
+{
+	@BeforeClass
+	public static void generateImplementations() {
+		Implementations.setGenerating(true);
+		Implementations.setGeneratingBindings(true);
+	}
+
+	@AfterClass
+	public static void useProxies() {
+		Implementations.setGenerating(false);
+		Implementations.setGeneratingBindings(false);
+	}
+
+	@Test
+	public void usesGeneratedImplementations() {
+		Root _root = newRootOnlyUnmarshaller().read(get("root-1.xml"), "utf-8");
+		Assert.assertTrue(Implementations.isImplementation(_root.getClass()));
+	}
+}
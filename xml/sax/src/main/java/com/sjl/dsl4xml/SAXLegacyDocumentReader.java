@@ -7,6 +7,7 @@ import javax.xml.parsers.*;
 import org.xml.sax.*;
 
 import com.sjl.dsl4xml.sax.*;
+import com.sjl.dsl4xml.support.convert.*;
 
 public class SAXLegacyDocumentReader<T> extends AbstractLegacyDocumentReader<T> {
 
@@ -28,20 +29,19 @@ public class SAXLegacyDocumentReader<T> extends AbstractLegacyDocumentReader<T>
 		return new AttributesHandler(anAttributeNames);
 	}
 	
-	private XMLReader reader;
+	private SAXParserFactory factory;
 	private TagHandler<T> root;
-	private Dsl4XmlContentHandler<T> handler;
+	// one XMLReader and content handler per thread, reused from one read to the next
+	private ThreadLocal<XMLReader> readers = new ThreadLocal<XMLReader>();
+	// the converters the tag handlers' setters were last built with
+	private volatile CachingConverterRegistry prepared;
 	
 	public SAXLegacyDocumentReader(Class<T> aResultType, TagHandler<T> aRootTagHandler) {
 		super(aResultType);
 		try {
-			SAXParserFactory _f = SAXParserFactory.newInstance();
-		    SAXParser _p = _f.newSAXParser();
-		    
+			factory = SAXParserFactory.newInstance();
 		    root = aRootTagHandler;
-		    reader = _p.getXMLReader();
-		    handler = new Dsl4XmlContentHandler<T>(new DocHandler<T>(aRootTagHandler));
-		    reader.setContentHandler(handler);
+		    readers.set(newXMLReader());
 		} catch (Exception anExc) {
 			throw new ParsingException(anExc);
 		}
@@ -65,14 +65,57 @@ public class SAXLegacyDocumentReader<T> extends AbstractLegacyDocumentReader<T>
 	@Override
 	public T read(Reader aReader) throws ParsingException
 	{
-		handler.prepare(converters);
+		XMLReader _reader = readers.get();
+		Dsl4XmlContentHandler<T> _handler = null;
 		try {
-			reader.parse(new InputSource(aReader));
-			return handler.getResult();
+			if (_reader == null) {
+				_reader = newXMLReader();
+			} else {
+				// a converter could read another document with this reader on the same thread
+				readers.set(null);
+			}
+			CachingConverterRegistry _converters = getConverterRegistry();
+			if (prepared != _converters)
+				prepare(_converters);
+			_handler = getHandler(_reader);
+			_handler.prepare(_converters, getSharedStringPool());
+			_reader.parse(new InputSource(aReader));
+			return _handler.getResult();
 		} catch (ParsingException anExc) {
 			throw anExc;
 		} catch (Exception anExc) {		
 			throw new ParsingException(anExc);
+		} finally {
+			if (_handler != null) {
+				addBytesSaved(_handler.getStringPool());
+				_handler.release();
+				readers.set(_reader);
+			}
 		}
 	}
+	
+	/**
+	 * Builds the tag handlers' setters and mutators before they are shared by
+	 * the threads reading, rather than letting the first reads race to.
+	 */
+	private synchronized void prepare(CachingConverterRegistry aConverters) {
+		if (prepared != aConverters) {
+			root.prepare(aConverters, null);
+			prepared = aConverters;
+		}
+	}
+	
+	private XMLReader newXMLReader() throws Exception {
+		XMLReader _reader;
+		synchronized (factory) { // factories needn't be thread-safe
+			_reader = factory.newSAXParser().getXMLReader();
+		}
+		_reader.setContentHandler(new Dsl4XmlContentHandler<T>(new DocHandler<T>(root)));
+		return _reader;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Dsl4XmlContentHandler<T> getHandler(XMLReader aReader) {
+		return (Dsl4XmlContentHandler<T>) aReader.getContentHandler();
+	}
 }
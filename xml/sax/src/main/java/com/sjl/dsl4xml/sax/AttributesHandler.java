@@ -7,13 +7,32 @@ import com.sjl.dsl4xml.support.*;
 
 public class AttributesHandler {
 	private String[] attributeNames;
-	private ValueSetter[] mutators;
+	// shared by every thread reading, so replaced rather than changed
+	private volatile ValueSetter[] mutators;
 	
 	public AttributesHandler(String... anAttributeNames) {
 		attributeNames = anAttributeNames;
 		mutators = new ValueSetter[anAttributeNames.length];
 	}
 	
+	/**
+	 * Builds the setters of the attributes for objects of the given type,
+	 * leaving any which can't be built to fail when they are used.
+	 */
+	void prepare(ConverterRegistry aConverters, Class<?> aContextType) {
+		if (aContextType == null)
+			return;
+		ValueSetter[] _mutators = new ValueSetter[attributeNames.length];
+		for (int i=0; i<attributeNames.length; i++) {
+			try {
+				_mutators[i] = new ValueSetter(aConverters, aContextType, attributeNames[i]);
+			} catch (RuntimeException anExc) {
+				_mutators[i] = null;
+			}
+		}
+		mutators = _mutators;
+	}
+	
 	public boolean handle(ConverterRegistry aHasConverters, Object aCtx, Attributes anAttributes) {
 		if (aCtx != null) {
 			for (int i=0; i<attributeNames.length; i++) {
@@ -25,9 +44,14 @@ public class AttributesHandler {
 	}
 	
 	private ValueSetter getValueSetter(int anIndex, ConverterRegistry aHasConverters, Class<?> aCurrentContextClass) {
-		if (mutators[anIndex] == null) {
-			mutators[anIndex] = new ValueSetter(aHasConverters, aCurrentContextClass, attributeNames[anIndex]);
+		ValueSetter[] _mutators = mutators;
+		if (_mutators[anIndex] == null) {
+			ValueSetter _vs = new ValueSetter(aHasConverters, aCurrentContextClass, attributeNames[anIndex]);
+			_mutators = _mutators.clone();
+			_mutators[anIndex] = _vs;
+			mutators = _mutators;
+			return _vs;
 		}
-		return mutators[anIndex];
+		return _mutators[anIndex];
 	}
-}
\ No newline at end of file
+}
@@ -1,49 +1,73 @@
 package com.sjl.dsl4xml.sax;
 
-import java.util.*;
-
 import com.sjl.dsl4xml.*;
+import com.sjl.dsl4xml.support.ArrayStack;
 import com.sjl.dsl4xml.support.StringConverter;
+import com.sjl.dsl4xml.support.StringPool;
 import com.sjl.dsl4xml.support.convert.*;
 
 public class Context implements ConverterRegistry {
-	private Stack<Object> ctx;
+	private ArrayStack<Object> ctx;
 	private Object result;
-	private List<TypeSafeConverter<?,?>> converters;
+	private CachingConverterRegistry converters;
+	private StringPool strings = new StringPool();
+	// the text of the current tag, kept here since tag handlers are shared between threads
+	private StringBuilder text = new StringBuilder();
 	
 	public Context(TypeSafeConverter<?,?>... aConverters) {
-		converters = new ArrayList<TypeSafeConverter<?,?>>();
-		
-		registerConverters(
-			new PrimitiveBooleanStringConverter(),
-			new PrimitiveByteStringConverter(),
-			new PrimitiveShortStringConverter(),
-			new PrimitiveIntStringConverter(),
-			new PrimitiveLongStringConverter(),
-			new PrimitiveCharStringConverter(),
-			new PrimitiveFloatStringConverter(),
-			new PrimitiveDoubleStringConverter(),
-			new BooleanStringConverter(),
-			new ByteStringConverter(),
-			new ShortStringConverter(),
-			new IntegerStringConverter(),
-			new LongStringConverter(),
-			new CharacterStringConverter(),
-			new FloatStringConverter(),
-			new DoubleStringConverter(),
-			new ClassStringConverter(),
-			new StringStringConverter()
-		);
+		converters = DefaultConverters.newXmlRegistry();
 		
 		if (aConverters != null)
-			converters.addAll(0, Arrays.asList(aConverters));
+			converters.registerConverters(aConverters);
+	}
+	
+	/**
+	 * Looks up converters in the given registry rather than one of its own, so
+	 * converters registered with this context are registered there too.
+	 */
+	public Context(CachingConverterRegistry aConverters) {
+		converters = aConverters;
+	}
+	
+	/**
+	 * Prepares this context to be used for another document.
+	 */
+	public void reset(CachingConverterRegistry aConverters) {
+		clear();
+		converters = aConverters;
+	}
+	
+	/**
+	 * Lets go of the result, and everything else built while reading.
+	 */
+	public void clear() {
+		if (ctx != null)
+			ctx.clear();
+		result = null;
+		text.setLength(0);
+		strings.reset(null);
+	}
+	
+	/**
+	 * @return the pool deduplicating the values of interned properties
+	 * within the current document
+	 */
+	public StringPool getStringPool() {
+		return strings;
+	}
+	
+	/**
+	 * @return the buffer collecting the text of the current tag
+	 */
+	public StringBuilder getText() {
+		return text;
 	}
 	
 	public void push(Object anObject) {
-		if (ctx == null) {
-			ctx = new Stack<Object>();
+		if (ctx == null)
+			ctx = new ArrayStack<Object>();
+		if (ctx.isEmpty() && (result == null))
 			result = anObject;
-		}
 		ctx.push(anObject);			
 	}
 	
@@ -60,21 +84,16 @@ public class Context implements ConverterRegistry {
 	}
 
     public <T> StringConverter<T> getConverter(Class<T> aTo) {
-        return (StringConverter<T>) getConverter(String.class, aTo);
+        return converters.getConverter(aTo);
     }
 
-	public <F,T> TypeSafeConverter<F,T> getConverter(Class<F> aFromType, Class<T> aToType) {
-		for (TypeSafeConverter<?,?> _c : converters) {
-			if ((_c.canConvertFrom(aFromType)) && (_c.canConvertTo(aToType))) {
-				return (TypeSafeConverter<F,T>) _c;
-			}
-		}
-		throw new RuntimeException("No converter registered that can convert from " + aFromType + " to " + aToType);
-	}
+    public <F,T> TypeSafeConverter<F,T> getConverter(Class<F> aFromType, Class<T> aToType) {
+        return converters.getConverter(aFromType, aToType);
+    }
 
 	@Override
 	public void registerConverters(TypeSafeConverter<?,?>... aConverters) {
 		// push any registered converters on ahead of existing converters (allows simple override)
-		converters.addAll(0, Arrays.asList(aConverters));
+		converters.registerConverters(aConverters);
 	}
 }
\ No newline at end of file
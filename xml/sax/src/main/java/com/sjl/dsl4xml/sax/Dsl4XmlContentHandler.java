@@ -4,6 +4,7 @@ import org.xml.sax.*;
 import org.xml.sax.helpers.*;
 
 import com.sjl.dsl4xml.support.*;
+import com.sjl.dsl4xml.support.convert.*;
 
 public class Dsl4XmlContentHandler<R> extends DefaultHandler {
 	
@@ -21,6 +22,44 @@ public class Dsl4XmlContentHandler<R> extends DefaultHandler {
 		handler = root;
 	}
 	
+	/**
+	 * Prepares to handle another document, reusing the context from the last
+	 * one if there was one.
+	 */
+	public void prepare(CachingConverterRegistry aConverters) {
+		prepare(aConverters, null);
+	}
+	
+	/**
+	 * As {@link #prepare(CachingConverterRegistry)}, with interned values
+	 * falling back to the given shared pool (if not null).
+	 */
+	public void prepare(CachingConverterRegistry aConverters, SharedStringPool aSharedStrings) {
+		if (context == null)
+			context = new Context(aConverters);
+		else
+			context.reset(aConverters);
+		context.getStringPool().reset(aSharedStrings);
+		handler = root;
+	}
+	
+	/**
+	 * @return the pool of the document being (or just) read, or null if none
+	 * has been prepared
+	 */
+	public StringPool getStringPool() {
+		return (context == null) ? null : context.getStringPool();
+	}
+	
+	/**
+	 * Lets go of the last document's result while waiting for the next.
+	 */
+	public void release() {
+		if (context != null)
+			context.clear();
+		handler = root;
+	}
+	
 	@SuppressWarnings("unchecked")
 	public R getResult() {
 		return (R) context.getResult();
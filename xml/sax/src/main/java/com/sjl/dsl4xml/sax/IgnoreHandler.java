@@ -3,8 +3,8 @@ package com.sjl.dsl4xml.sax;
 import org.xml.sax.*;
 
 public class IgnoreHandler<T> implements Handler<T> {
-	private Handler<T> parent;
-	private IgnoreHandler<T> child;
+	private final Handler<T> parent;
+	private volatile IgnoreHandler<T> child;
 	
 	public IgnoreHandler(Handler<T> aParent) {
 		parent = aParent;
@@ -12,10 +12,10 @@ public class IgnoreHandler<T> implements Handler<T> {
 
 	@Override
 	public Handler<?> startTag(String aQName, Attributes anAttributes, Context aCtx) {
-		if (child == null) {
-			child = new IgnoreHandler<T>(this);
-		}
-		return child;
+		IgnoreHandler<T> _child = child;
+		if (_child == null)
+			child = _child = new IgnoreHandler<T>(this);
+		return _child;
 	}
 
 	@Override
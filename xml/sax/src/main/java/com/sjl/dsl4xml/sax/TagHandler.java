@@ -7,28 +7,40 @@ import org.xml.sax.*;
 import com.sjl.dsl4xml.*;
 import com.sjl.dsl4xml.support.*;
 
+/**
+ * Reads one tag of a definition. The handlers of a definition are shared by
+ * every thread reading with it, so anything built while reading - the
+ * mutator, the setters of the text and attributes - is built by
+ * {@link #prepare} before the first read where it can be, and otherwise only
+ * published once complete.
+ */
 public class TagHandler<R> implements Handler<R> {
 	
 	private String tagName;
 	private Class<R> modelType;
+	private Instantiator<R> instantiator;
 	private Factory<R,?> factory;
 	
 	private TagHandler<?> parent;
 	private TagHandler<?>[] tags;
 	private AttributesHandler attributes;
-	private TextHandler text;
-	private IgnoreHandler<R> ignore;
-	private ContextMutator mutator;
+	private volatile TextHandler text;
+	private final IgnoreHandler<R> ignore = new IgnoreHandler<R>(this);
+	private volatile ContextMutator mutator;
+	private boolean interned;
+	private boolean lazy;
 	
 	public TagHandler(String aTagName, Class<R> aModelType) {
 		tagName = aTagName;
 		modelType = aModelType;
+		instantiator = Instantiator.of(aModelType);
 		parent = this;
 	}
 
 	public TagHandler(String aTagName, Class<R> aModelType, Factory<R,?> aFactory) {
 		tagName = aTagName;
 		modelType = aModelType;
+		instantiator = Instantiator.of(aModelType);
 		factory = aFactory;
 		parent = this;
 	}
@@ -53,10 +65,42 @@ public class TagHandler<R> implements Handler<R> {
 	}
 	
 	public TagHandler<R> withPCDataMappedTo(String aFieldName) {
-		text = new TextHandler(aFieldName);
+		text = newTextHandler(aFieldName);
 		return this;
 	}
 	
+	/**
+	 * Deduplicates this tag's text within each document, so that a String
+	 * value recurring throughout it is only held once.
+	 */
+	public TagHandler<R> interned() {
+		interned = true;
+		if (text != null)
+			text.interned();
+		return this;
+	}
+	
+	/**
+	 * Leaves this tag's text to be converted when the property is first read.
+	 * Only properties of interface-mapped types, other than Strings and
+	 * primitives, are converted lazily - the rest as usual.
+	 */
+	public TagHandler<R> lazy() {
+		lazy = true;
+		if (text != null)
+			text.lazy();
+		return this;
+	}
+	
+	private TextHandler newTextHandler(String aFieldName) {
+		TextHandler _h = new TextHandler(aFieldName);
+		if (interned)
+			_h.interned();
+		if (lazy)
+			_h.lazy();
+		return _h;
+	}
+	
 	public TagHandler<R> to(TagHandler<?>... aTags) {			
 		tags = aTags;
 		for (int i=0; i<aTags.length; i++) {
@@ -71,6 +115,37 @@ public class TagHandler<R> implements Handler<R> {
 		parent = aParent;			
 	}
 	
+	/**
+	 * Builds what this tag, and the tags nested in it, need to read documents
+	 * with the given converters, for contexts of the given type (null for the
+	 * root tag). Anything which can't be built - a property the model doesn't
+	 * have, say - is left to fail if and when a document needs it.
+	 */
+	public void prepare(ConverterRegistry aConverters, Class<?> aContextType) {
+		Class<?> _own = (modelType != null) ? instantiator.getType() : aContextType;
+		
+		if (attributes != null)
+			attributes.prepare(aConverters, _own);
+		
+		if (tags == null && text == null)
+			text = newTextHandler(tagName).implicit();
+		if (text != null)
+			text.prepare(aConverters, _own);
+		
+		if ((modelType != null) && (aContextType != null) && (factory == null)) {
+			try {
+				mutator = new ContextMutator(aContextType, modelType, tagName);
+			} catch (RuntimeException anExc) {
+				mutator = null;
+			}
+		}
+		
+		if (tags != null) {
+			for (TagHandler<?> _h : tags)
+				_h.prepare(aConverters, _own);
+		}
+	}
+	
 	public boolean handlesTag(String aName) {
 		return tagName.equals(aName);
 	}
@@ -78,7 +153,7 @@ public class TagHandler<R> implements Handler<R> {
 	public TagHandler<?> moveDown(String aQName, Attributes anAttributes, Context aCtx) {
 		try {
 			if (modelType != null) {
-				R _model = Classes.newInstance(modelType);
+				R _model = instantiator.newInstance();
 				aCtx.push(_model);
 			}
 			
@@ -94,8 +169,9 @@ public class TagHandler<R> implements Handler<R> {
 	}
 
 	public Handler<?> startTag(String aQName, Attributes anAttributes, Context aCtx) {
-		if (text != null) {
-			text.complete(aCtx);
+		TextHandler _text = text;
+		if (_text != null) {
+			_text.complete(aCtx);
 		}
 		
 		if (tags == null) {
@@ -111,8 +187,9 @@ public class TagHandler<R> implements Handler<R> {
 	}
 
 	public TagHandler<?> moveUp(String aQName, Context aCtx) {
-		if (text != null) {
-			text.complete(aCtx);
+		TextHandler _text = text;
+		if (_text != null) {
+			_text.complete(aCtx);
 		}
 		if (modelType != null) {
 			R _model = (R) aCtx.pop();
@@ -135,30 +212,27 @@ public class TagHandler<R> implements Handler<R> {
 	}
 
 	public TagHandler<R> characters(char[] aChars, int aStart, int aLength, Context aContext) {
-		if (tags == null && text == null) {
-			text = new TextHandler(tagName);
+		TextHandler _text = text;
+		if (tags == null && _text == null) {
+			text = _text = newTextHandler(tagName).implicit();
 		}
 		
-		if (text != null) {				
-			text.handle(aChars, aStart, aLength, aContext);
+		if (_text != null) {				
+			_text.handle(aChars, aStart, aLength, aContext);
 		}
 		return this;
 	}
 	
 	private Handler<R> getIgnore() {
-		if (ignore == null) {
-			ignore = new IgnoreHandler<R>(this);
-			return ignore;
-		} else {
-			return ignore;
-		}
+		return ignore;
 	}
 
     private ContextMutator getMutator(Class<?> aFor, Class<?> aWith, String aTagName) {
-        if (mutator == null) {
-            mutator = new ContextMutator(aFor, aWith, aTagName);
+        ContextMutator _m = mutator;
+        if (_m == null) {
+            mutator = _m = new ContextMutator(aFor, aWith, aTagName);
         }
-        return mutator;
+        return _m;
     }
 
 	public String toString() {
@@ -3,27 +3,80 @@ package com.sjl.dsl4xml.sax;
 import com.sjl.dsl4xml.*;
 import com.sjl.dsl4xml.support.*;
 
+/**
+ * Sets the text of a tag. Shared by every thread reading with the same
+ * reader, so the text itself is collected in each read's {@link Context}, and
+ * the setter - built by {@link #prepare} before the first read, or else on
+ * first use - is never changed once it has been published.
+ */
 public class TextHandler {
 	
-	private ValueSetter setter;
+	private volatile ValueSetter setter;
 	private String field;
-	private StringBuilder chars;
+	private boolean interned;
+	private boolean lazy;
+	private boolean implicit;
 	
 	public TextHandler(String aFieldName) {
 		field = aFieldName;
-		chars = new StringBuilder();
+	}
+	
+	/**
+	 * Deduplicates the text within each document (see {@link StringPool}).
+	 */
+	public TextHandler interned() {
+		interned = true;
+		return this;
+	}
+	
+	/**
+	 * Leaves the text to be converted when the property is first read.
+	 */
+	public TextHandler lazy() {
+		lazy = true;
+		return this;
+	}
+	
+	/**
+	 * Only sets the text of tags which have some, as for tags with no nested
+	 * tags that weren't explicitly mapped.
+	 */
+	TextHandler implicit() {
+		implicit = true;
+		return this;
+	}
+	
+	/**
+	 * Builds the setter for objects of the given type, if it can - otherwise
+	 * leaving it to be built, and fail, when there is text to set.
+	 */
+	void prepare(ConverterRegistry aConverters, Class<?> aContextType) {
+		if (aContextType == null)
+			return;
+		try {
+			setter = newSetter(aConverters, aContextType);
+		} catch (RuntimeException anExc) {
+			setter = null;
+		}
 	}
 	
 	public void handle(char[] aChars, int aStart, int aLength, Context aContext) {
-		chars.append(aChars, aStart, aLength);
+		aContext.getText().append(aChars, aStart, aLength);
 	}
 	
 	public void complete(Context aContext) {
+		StringBuilder _text = aContext.getText();
+		if (implicit && (_text.length() == 0))
+			return;
+		
 		Object _currentContext = aContext.peek();	
 		try {
-			ValueSetter _vs = getSetter(aContext, _currentContext.getClass(), field);
-			_vs.invoke(field, _currentContext, chars.toString());
-			chars.setLength(0);
+			ValueSetter _vs = getSetter(aContext, _currentContext.getClass());
+			if (interned)
+				_vs.invoke(field, _currentContext, aContext.getStringPool().intern(_text));
+			else
+				_vs.invoke(field, _currentContext, _text);
+			_text.setLength(0);
 		} catch (ParsingException anExc) {
 			throw anExc;
 		} catch (Exception anExc) {
@@ -31,10 +84,17 @@ public class TextHandler {
 		}
 	}
 	
-	private ValueSetter getSetter(Context aContext, Class<?> aClass, String aFieldName) {
-		if (setter == null) {
-			setter = new ValueSetter(aContext, aClass, aFieldName);
-		}
-		return setter;
-	}	
+	private ValueSetter getSetter(ConverterRegistry aConverters, Class<?> aClass) {
+		ValueSetter _s = setter;
+		if (_s == null)
+			setter = _s = newSetter(aConverters, aClass);
+		return _s;
+	}
+	
+	private ValueSetter newSetter(ConverterRegistry aConverters, Class<?> aClass) {
+		ValueSetter _s = new ValueSetter(aConverters, aClass, field);
+		if (lazy)
+			_s.lazy();
+		return _s;
+	}
 }
@@ -56,6 +56,18 @@ public class DynamicImplementationSAXParserTest extends DynamicImplementationTes
 		);
 	}
 	
+	@Override
+	protected AbstractLegacyDocumentReader<Profile1> newInternedProfile1Unmarshaller() {
+		return mappingOf("profile", Profile1.class).to(
+			tag("name"),
+			tag("readingList", List.class).with(
+				tag("book", Book.class).with(
+					tag("title"), tag("author").interned()
+				)
+			)
+		);
+	}
+	
 	protected LegacyDocumentReader<Person> newPersonUnmarshaller() {
 		LegacyDocumentReader<Person> _r = mappingOf("person", Person.class).to(
 			tag("name"),
@@ -68,4 +80,17 @@ public class DynamicImplementationSAXParserTest extends DynamicImplementationTes
 		return _r;
 	}
 	
+	@Override
+	protected LegacyDocumentReader<Person> newLazyPersonUnmarshaller() {
+		LegacyDocumentReader<Person> _r = mappingOf("person", Person.class).to(
+			tag("name").lazy(),
+			tag("dateOfBirth").lazy(),
+			tag("numberOfDependents").lazy()
+		);
+		
+		_r.registerConverters(new ThreadUnsafeDateStringConverter("yyyyMMdd"));
+		
+		return _r;
+	}
+	
 }
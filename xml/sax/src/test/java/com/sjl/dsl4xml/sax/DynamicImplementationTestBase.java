@@ -3,8 +3,12 @@ package com.sjl.dsl4xml.sax;
 import java.io.*;
 import java.text.*;
 import java.util.*;
+import java.util.concurrent.*;
 
+import com.sjl.dsl4xml.AbstractLegacyDocumentReader;
 import com.sjl.dsl4xml.LegacyDocumentReader;
+import com.sjl.dsl4xml.ParsingException;
+import com.sjl.dsl4xml.support.SharedStringPool;
 import org.junit.*;
 
 public abstract class DynamicImplementationTestBase {
@@ -64,6 +68,10 @@ public abstract class DynamicImplementationTestBase {
 
 	protected abstract LegacyDocumentReader<Person> newPersonUnmarshaller();
 
+	protected abstract AbstractLegacyDocumentReader<Profile1> newInternedProfile1Unmarshaller();
+
+	protected abstract LegacyDocumentReader<Person> newLazyPersonUnmarshaller();
+
 	@Test
 	public void unmarshallsRootElementToDynamicallyImplementedRootType() {
 		LegacyDocumentReader<Root> _r = newRootOnlyUnmarshaller();
@@ -157,6 +165,18 @@ public abstract class DynamicImplementationTestBase {
 		Assert.assertEquals("Somebody Else", _second.getAuthor());
 	}
 
+	@Test
+	public void readsSeveralDocumentsWithOneReader() {
+		LegacyDocumentReader<Profile2> _r = newProfile2Unmarshaller();
+		Profile2 _first = _r.read(get("profile-2.xml"), "utf-8");
+		Profile2 _second = _r.read(get("profile-2.xml"), "utf-8");
+
+		Assert.assertNotSame(_first, _second);
+		Assert.assertEquals(2, _first.size());
+		Assert.assertEquals(2, _second.size());
+		Assert.assertEquals("Steve", _second.getName());
+	}
+
 	@Test
 	public void dynamicImplementationsCanConvertTypes()
 	throws Exception {
@@ -171,6 +191,99 @@ public abstract class DynamicImplementationTestBase {
 		Assert.assertEquals(3, _person.getNumberOfDependents());
 	}
 
+	@Test
+	public void internedTagsShareRepeatedValues() {
+		AbstractLegacyDocumentReader<Profile1> _r = newInternedProfile1Unmarshaller();
+		Profile1 _profile = _r.read(get("profile-3.xml"), "utf-8");
+
+		List<Book> _books = _profile.getReadingList();
+		Assert.assertEquals(3, _books.size());
+		Assert.assertEquals("Somebody Cool", _books.get(0).getAuthor());
+		Assert.assertEquals("Somebody Else", _books.get(1).getAuthor());
+		Assert.assertSame(_books.get(0).getAuthor(), _books.get(2).getAuthor());
+		Assert.assertNotSame(_books.get(0).getTitle(), _books.get(2).getTitle());
+		Assert.assertTrue(_r.getBytesSaved() > 0);
+	}
+
+	@Test
+	public void internedTagsShareValuesBetweenDocumentsThroughSharedPool() {
+		AbstractLegacyDocumentReader<Profile1> _r = newInternedProfile1Unmarshaller();
+		_r.setSharedStringPool(new SharedStringPool(64));
+		Profile1 _first = _r.read(get("profile-3.xml"), "utf-8");
+		Profile1 _second = _r.read(get("profile-3.xml"), "utf-8");
+
+		Assert.assertNotSame(_first, _second);
+		Assert.assertSame(
+			_first.getReadingList().get(1).getAuthor(),
+			_second.getReadingList().get(1).getAuthor());
+	}
+
+	@Test
+	public void lazyTagsConvertWhenRead()
+	throws Exception {
+		LegacyDocumentReader<Person> _r = newLazyPersonUnmarshaller();
+		Person _person = _r.read(get("person-1.xml"), "utf-8");
+
+		Assert.assertEquals("joe bloggs", _person.getName());
+		Assert.assertEquals(
+			new SimpleDateFormat("yyyyMMdd").parse("19770526"),
+			_person.getDateOfBirth());
+		Assert.assertEquals(3, _person.getNumberOfDependents());
+	}
+
+	@Test
+	public void lazyTagsAreNotConvertedUnlessRead() {
+		LegacyDocumentReader<Person> _r = newLazyPersonUnmarshaller();
+		Person _person = _r.read(get("person-2.xml"), "utf-8");
+		Assert.assertEquals("joe bloggs", _person.getName());
+
+		try {
+			_person.getDateOfBirth();
+			Assert.fail("Expected the unparseable date to fail when read");
+		} catch (ParsingException anExc) {
+			// good
+		}
+	}
+
+	@Test
+	public void readsConcurrentlyWithOneReader()
+	throws Exception {
+		final LegacyDocumentReader<Profile1> _r = newProfile1Unmarshaller();
+		final String _expected = describe(newProfile1Unmarshaller().read(get("profile-1.xml"), "utf-8"));
+		final CountDownLatch _start = new CountDownLatch(1);
+		
+		// the threads start together, so that even their first reads race
+		ExecutorService _threads = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> _results = new ArrayList<Future<String>>();
+			for (int i=0; i<8; i++) {
+				_results.add(_threads.submit(new Callable<String>() {
+					public String call() throws Exception {
+						_start.await();
+						for (int j=0; j<200; j++) {
+							String _actual = describe(_r.read(get("profile-1.xml"), "utf-8"));
+							if (!_expected.equals(_actual))
+								return _actual;
+						}
+						return _expected;
+					}
+				}));
+			}
+			_start.countDown();
+			for (Future<String> _result : _results)
+				Assert.assertEquals(_expected, _result.get());
+		} finally {
+			_threads.shutdown();
+		}
+	}
+
+	private String describe(Profile1 aProfile) {
+		StringBuilder _s = new StringBuilder(aProfile.getName());
+		for (Book _b : aProfile.getReadingList())
+			_s.append("|").append(_b.getTitle()).append(",").append(_b.getAuthor());
+		return _s.toString();
+	}
+
 	protected InputStream get(String anXml) {
 		return DynamicImplementationTestBase.class.getResourceAsStream(anXml);
 	}